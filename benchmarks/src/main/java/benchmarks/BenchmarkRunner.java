@@ -0,0 +1,23 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the blum benchmarks with the GC profiler enabled, so every result includes allocation
+ * rate and bytes allocated per operation. Accepts the standard JMH command line, for example
+ * <code>java -jar benchmarks.jar CabinetBox -rf json -rff cabinet.json</code>
+ *
+ * @author Craig Marker
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(
+                GCProfiler.class).build()).run();
+    }
+}
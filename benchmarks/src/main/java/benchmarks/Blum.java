@@ -0,0 +1,250 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+/**
+ * Bridge to the blum classes for the benchmarks. blum's classes live in the unnamed package,
+ * which Java code in a named package can not import, and JMH refuses to generate harness code
+ * for benchmarks in the unnamed package. The entry points under test are therefore resolved once
+ * into <code>static final</code> <code>MethodHandle</code>s, which the JIT treats as constants and
+ * inlines, so calling through them costs the same as a direct call.
+ *
+ * @author Craig Marker
+ */
+final class Blum {
+    static final Object QUARTER = material("QUARTER");
+    static final Object HALF = material("HALF");
+    static final Object THREE_QUARTER = material("THREE_QUARTER");
+
+    static final Object DADO = jointType("DADO");
+    static final Object SINGLE_SIDE_DADO = jointType("SINGLE_SIDE_DADO");
+    static final Object BUTT = jointType("BUTT");
+
+    static final Class<?> RUNNER_CONFIGURATION = type("RunnerConfiguration");
+
+    /**
+     * <code>(Material, Material, double, double, double) -> CabinetBox</code>
+     */
+    static final MethodHandle NEW_CABINET_BOX = erase(constructor("CabinetBox",
+            MethodType.methodType(void.class, type("Material"), type("Material"), double.class,
+                    double.class, double.class)));
+
+    /**
+     * <code>(Material, Joint.JointType) -> Joint</code>
+     */
+    static final MethodHandle JOINT_CREATE = erase(
+            staticMethod("Joint", "create", type("Joint"), type("Material"),
+                    type("Joint$JointType")));
+
+    /**
+     * <code>(Joint) -> double</code>
+     */
+    static final MethodHandle JOINT_OFFSET = erase(
+            virtualMethod("Joint", "getJoinedDimensionOffset", double.class));
+
+    /**
+     * <code>(double, Joint, double, Material) -> Cut</code>
+     */
+    static final MethodHandle CUT_WITH_ONE_JOINED_DIMENSION = erase(
+            staticMethod("Cut", "withOneJoinedDimension", type("Cut"), double.class,
+                    type("Joint"), double.class, type("Material")));
+
+    /**
+     * <code>(double, Joint, double, Joint, Material) -> Cut</code>
+     */
+    static final MethodHandle CUT_WITH_TWO_JOINED_DIMENSIONS = erase(
+            staticMethod("Cut", "withTwoJoinedDimensions", type("Cut"), double.class,
+                    type("Joint"), double.class, type("Joint"), type("Material")));
+
+    /**
+     * <code>(double, double, double) -> CabinetSweep.Range</code>
+     */
+    static final MethodHandle SWEEP_RANGE = erase(
+            staticMethod("CabinetSweep$Range", "of", type("CabinetSweep$Range"), double.class,
+                    double.class, double.class));
+
+    /**
+     * <code>(double[]) -> CabinetSweep.Range</code>
+     */
+    static final MethodHandle SWEEP_VALUES = erase(
+            staticMethod("CabinetSweep$Range", "values", type("CabinetSweep$Range"),
+                    double[].class).asFixedArity());
+
+    /**
+     * <code>(Range, Range, Range, List, List) -> CabinetSweep</code>
+     */
+    static final MethodHandle SWEEP_OF = erase(
+            staticMethod("CabinetSweep", "of", type("CabinetSweep"), type("CabinetSweep$Range"),
+                    type("CabinetSweep$Range"), type("CabinetSweep$Range"), List.class,
+                    List.class));
+
+    /**
+     * <code>(CabinetSweep) -> CabinetSweep.Result</code>
+     */
+    static final MethodHandle SWEEP_RUN = erase(
+            virtualMethod("CabinetSweep", "run", type("CabinetSweep$Result")));
+
+    /**
+     * <code>() -> boolean</code>
+     */
+    static final MethodHandle SWEEP_IS_VECTORIZED = staticMethod("CabinetSweep", "isVectorized",
+            boolean.class);
+
+    private Blum() {
+    }
+
+    static Object newCabinetBox(Object sideMaterial, Object backMaterial, double width,
+            double height, double depth) {
+        try {
+            return (Object) NEW_CABINET_BOX.invokeExact(sideMaterial, backMaterial, width, height,
+                    depth);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object createJoint(Object material, Object jointType) {
+        try {
+            return (Object) JOINT_CREATE.invokeExact(material, jointType);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static double getJoinedDimensionOffset(Object joint) {
+        try {
+            return (double) JOINT_OFFSET.invokeExact(joint);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object withOneJoinedDimension(double joinedDimension, Object joint,
+            double unJoinedDimension, Object material) {
+        try {
+            return (Object) CUT_WITH_ONE_JOINED_DIMENSION.invokeExact(joinedDimension, joint,
+                    unJoinedDimension, material);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object withTwoJoinedDimensions(double firstDimension, Object firstDimensionJoint,
+            double secondDimension, Object secondDimensionJoint, Object material) {
+        try {
+            return (Object) CUT_WITH_TWO_JOINED_DIMENSIONS.invokeExact(firstDimension,
+                    firstDimensionJoint, secondDimension, secondDimensionJoint, material);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object sweepRange(double start, double end, double step) {
+        try {
+            return (Object) SWEEP_RANGE.invokeExact(start, end, step);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object sweepValues(double... values) {
+        try {
+            return (Object) SWEEP_VALUES.invokeExact((Object) values);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object newSweep(Object widths, Object heights, Object depths, List<?> sideMaterials,
+            List<?> backMaterials) {
+        try {
+            return (Object) SWEEP_OF.invokeExact(widths, heights, depths, (Object) sideMaterials,
+                    (Object) backMaterials);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object runSweep(Object sweep) {
+        try {
+            return (Object) SWEEP_RUN.invokeExact(sweep);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean isSweepVectorized() {
+        try {
+            return (boolean) SWEEP_IS_VECTORIZED.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Class<?> type(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("blum class " + name + " is not on the classpath", e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object material(String name) {
+        return Enum.valueOf((Class) type("Material"), name);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object jointType(String name) {
+        return Enum.valueOf((Class) type("Joint$JointType"), name);
+    }
+
+    private static MethodHandle constructor(String owner, MethodType type) {
+        try {
+            return MethodHandles.publicLookup().findConstructor(type(owner), type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle staticMethod(String owner, String name, Class<?> returnType,
+            Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.publicLookup().findStatic(type(owner), name,
+                    MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle virtualMethod(String owner, String name, Class<?> returnType,
+            Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.publicLookup().findVirtual(type(owner), name,
+                    MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Replaces every blum type in the handle's signature with <code>Object</code> so it can be
+     * invoked exactly from this package
+     */
+    private static MethodHandle erase(MethodHandle handle) {
+        return handle.asType(handle.type().erase());
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException(t);
+    }
+}
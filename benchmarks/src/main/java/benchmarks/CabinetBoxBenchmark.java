@@ -0,0 +1,48 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures constructing a <code>CabinetBox</code>, which validates its dimensions and derives
+ * every <code>Cut</code>, and formatting it with <code>toString</code>
+ *
+ * @author Craig Marker
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CabinetBoxBenchmark {
+    private double width = 15.75;
+    private double height = 34.5;
+    private double depth = 21.75;
+    private Object cabinetBox;
+
+    @Setup
+    public void setUp() {
+        cabinetBox = Blum.newCabinetBox(Blum.THREE_QUARTER, Blum.QUARTER, width, height, depth);
+    }
+
+    @Benchmark
+    public Object newCabinetBox() {
+        return Blum.newCabinetBox(Blum.THREE_QUARTER, Blum.QUARTER, width, height, depth);
+    }
+
+    @Benchmark
+    public String cabinetBoxToString() {
+        return cabinetBox.toString();
+    }
+}
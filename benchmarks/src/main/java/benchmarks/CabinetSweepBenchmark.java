@@ -0,0 +1,97 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures computing a size catalog with <code>CabinetSweep</code>, on the Vector API and on its
+ * scalar fallback, against constructing a <code>CabinetBox</code> per combination. Scores are
+ * cabinet configurations per second
+ *
+ * @author Craig Marker
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OperationsPerInvocation(CabinetSweepBenchmark.CONFIGURATIONS)
+@State(Scope.Thread)
+public class CabinetSweepBenchmark {
+    private static final double MIN_WIDTH = 9;
+    private static final double MAX_WIDTH = 48;
+    private static final double WIDTH_STEP = 0.125;
+    private static final double MIN_HEIGHT = 30;
+    private static final double MAX_HEIGHT = 36;
+    private static final double HEIGHT_STEP = 0.25;
+    private static final double[] DEPTHS = {12, 21.75, 24};
+
+    /**
+     * 313 widths x 25 heights x 3 depths x 2 side materials
+     */
+    static final int CONFIGURATIONS = 313 * 25 * 3 * 2;
+
+    private Object sweep;
+
+    @Setup
+    public void setUp() {
+        sweep = Blum.newSweep(Blum.sweepRange(MIN_WIDTH, MAX_WIDTH, WIDTH_STEP),
+                Blum.sweepRange(MIN_HEIGHT, MAX_HEIGHT, HEIGHT_STEP),
+                Blum.sweepValues(DEPTHS),
+                List.of(Blum.THREE_QUARTER, Blum.HALF), List.of(Blum.QUARTER));
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+    public Object sweepVector() {
+        checkKernel(true);
+        return Blum.runSweep(sweep);
+    }
+
+    @Benchmark
+    @Fork(1)
+    public Object sweepScalar() {
+        checkKernel(false);
+        return Blum.runSweep(sweep);
+    }
+
+    /**
+     * Fails the benchmark if its fork did not select the expected kernel, so that a missing or
+     * leaked <code>--add-modules</code> flag can not report one kernel's score under the other's
+     * name. The check is a constant once the JIT has inlined it
+     */
+    private static void checkKernel(boolean vectorized) {
+        if (Blum.isSweepVectorized() != vectorized) {
+            throw new IllegalStateException("Expected the " + (vectorized ? "vector" : "scalar")
+                    + " sweep kernel but received the " + (vectorized ? "scalar" : "vector")
+                    + " kernel");
+        }
+    }
+
+    @Benchmark
+    @Fork(1)
+    public void nestedCabinetBoxes(Blackhole blackhole) {
+        for (Object sideMaterial : List.of(Blum.THREE_QUARTER, Blum.HALF)) {
+            for (double depth : DEPTHS) {
+                for (double height = MIN_HEIGHT; height <= MAX_HEIGHT; height += HEIGHT_STEP) {
+                    for (double width = MIN_WIDTH; width <= MAX_WIDTH; width += WIDTH_STEP) {
+                        blackhole.consume(Blum.newCabinetBox(sideMaterial, Blum.QUARTER, width,
+                                height, depth));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the <code>Cut</code> factories that apply <code>Joint</code> offsets
+ *
+ * @author Craig Marker
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CutBenchmark {
+    private double width = 15.75;
+    private double height = 34.5;
+    private Object dado;
+    private Object singleSideDado;
+
+    @Setup
+    public void setUp() {
+        dado = Blum.createJoint(Blum.THREE_QUARTER, Blum.DADO);
+        singleSideDado = Blum.createJoint(Blum.THREE_QUARTER, Blum.SINGLE_SIDE_DADO);
+    }
+
+    @Benchmark
+    public Object withOneJoinedDimension() {
+        return Blum.withOneJoinedDimension(width, dado, height, Blum.THREE_QUARTER);
+    }
+
+    @Benchmark
+    public Object withTwoJoinedDimensions() {
+        return Blum.withTwoJoinedDimensions(width, dado, height, singleSideDado, Blum.QUARTER);
+    }
+}
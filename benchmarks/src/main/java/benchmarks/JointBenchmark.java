@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures <code>Joint.getJoinedDimensionOffset</code> and creating the <code>Joint</code> it is
+ * called on, as <code>CabinetBox</code> does for every joined panel
+ *
+ * @author Craig Marker
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JointBenchmark {
+    private Object material = Blum.HALF;
+    private Object jointType = Blum.BUTT;
+    private Object joint;
+
+    @Setup
+    public void setUp() {
+        joint = Blum.createJoint(material, jointType);
+    }
+
+    @Benchmark
+    public double getJoinedDimensionOffset() {
+        return Blum.getJoinedDimensionOffset(joint);
+    }
+
+    @Benchmark
+    public double createJointAndGetOffset() {
+        return Blum.getJoinedDimensionOffset(Blum.createJoint(material, jointType));
+    }
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures deserializing a <code>RunnerConfiguration</code> through its
+ * <code>@JsonCreator</code>, both with a reused <code>ObjectReader</code> and with a fresh
+ * <code>ObjectMapper</code>, which includes the annotation introspection paid on cold start
+ *
+ * @author Craig Marker
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RunnerConfigurationBenchmark {
+    private static final String RUNNER = "{\"sku\": \"7694570M\", \"max_load\": 170, " +
+            "\"min_drawer_side_thickness\": 0.5, \"max_drawer_side_thickness\": 0.625, " +
+            "\"drawer_length\": 18, \"min_cabinet_depth\": 18.8125, \"min_top_clearance\": " +
+            "0.28125, \"bottom_clearance\": 0.625, \"interior_offset\": 0.8125}";
+
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() {
+        reader = new ObjectMapper().readerFor(Blum.RUNNER_CONFIGURATION);
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException {
+        return reader.readValue(RUNNER);
+    }
+
+    @Benchmark
+    public Object deserializeWithNewMapper() throws IOException {
+        return new ObjectMapper().readValue(RUNNER, Blum.RUNNER_CONFIGURATION);
+    }
+}
@@ -0,0 +1,300 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An <code>AggregatedCutList</code> collapses the cuts of a job into the distinct panels to cut
+ * and how many of each, for example "cut 14 of 34.5x21.75 3/4" rather than 14 separate lines.
+ * Two cuts are the same panel when they share a <code>Material</code> and their
+ * <code>Cut.Dimensions</code> are equal, regardless of measurement order.
+ * <p>
+ * Counts are kept in an open-addressing hash table over primitive arrays keyed on the
+ * normalized (smaller, larger) fixed-point {@link Measurement} units and material ordinal, so
+ * adding a cut does not allocate. An <code>AggregatedCutList</code> is not thread safe.
+ *
+ * @author Craig Marker
+ */
+public class AggregatedCutList {
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final Material[] MATERIALS = Material.values();
+
+    private long[] smaller;
+    private long[] larger;
+    private byte[] material;
+    /**
+     * The number of cuts of each panel. A quantity of zero marks an empty slot
+     */
+    private int[] quantity;
+    private int size;
+    private long totalQuantity;
+
+    /**
+     * Creates an empty <code>AggregatedCutList</code>
+     */
+    public AggregatedCutList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty <code>AggregatedCutList</code> sized for <code>expectedPanels</code>
+     * distinct panels
+     *
+     * @param expectedPanels the number of distinct panels expected
+     */
+    public AggregatedCutList(int expectedPanels) {
+        int capacity = Integer.highestOneBit(Math.max(expectedPanels, 4) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Collapses every cut in <code>cuts</code>
+     *
+     * @param cuts the cuts of a job
+     * @return an <code>AggregatedCutList</code> of <code>cuts</code>
+     */
+    public static AggregatedCutList of(Collection<Cut> cuts) {
+        AggregatedCutList aggregated = new AggregatedCutList();
+        for (Cut cut : cuts) {
+            aggregated.add(cut);
+        }
+        return aggregated;
+    }
+
+    /**
+     * Collapses every cut in <code>cutList</code>
+     *
+     * @param cutList the cuts of a job
+     * @return an <code>AggregatedCutList</code> of <code>cutList</code>
+     */
+    public static AggregatedCutList of(CutList cutList) {
+        AggregatedCutList aggregated = new AggregatedCutList();
+        aggregated.addAll(cutList);
+        return aggregated;
+    }
+
+    private void allocate(int capacity) {
+        smaller = new long[capacity];
+        larger = new long[capacity];
+        material = new byte[capacity];
+        quantity = new int[capacity];
+    }
+
+    /**
+     * Adds a single cut
+     *
+     * @param cut the <code>Cut</code> to count
+     */
+    public void add(Cut cut) {
+        addUnits(cut.getDimensions().getFirstUnits(), cut.getDimensions().getSecondUnits(),
+                cut.getMaterial(), 1);
+    }
+
+    /**
+     * Adds <code>count</code> cuts of the same panel
+     *
+     * @param firstDimension  The first dimension measurement
+     * @param secondDimension The second dimension measurement
+     * @param material        The material of the panel
+     * @param count           The number of panels to add
+     */
+    public void add(double firstDimension, double secondDimension, Material material,
+            int count) {
+        addUnits(Measurement.toUnits(firstDimension), Measurement.toUnits(secondDimension),
+                material, count);
+    }
+
+    private void addUnits(long firstUnits, long secondUnits, Material material, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException(
+                    "Expected AggregatedCutList count greater than 0 but received " + count);
+        }
+
+        long smallerUnits = Math.min(firstUnits, secondUnits);
+        long largerUnits = Math.max(firstUnits, secondUnits);
+        byte ordinal = (byte) material.ordinal();
+
+        int slot = find(smallerUnits, largerUnits, ordinal);
+        if (quantity[slot] == 0) {
+            smaller[slot] = smallerUnits;
+            larger[slot] = largerUnits;
+            this.material[slot] = ordinal;
+            size++;
+        }
+        quantity[slot] += count;
+        totalQuantity += count;
+
+        if (size * 2 > quantity.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * Adds every panel needed to build <code>cabinetBox</code>: two sides, the bottom, the back,
+     * and the runner
+     *
+     * @param cabinetBox the <code>CabinetBox</code> whose cuts are counted
+     */
+    public void addAll(CabinetBox cabinetBox) {
+        addUnits(cabinetBox.getSide().getDimensions().getFirstUnits(),
+                cabinetBox.getSide().getDimensions().getSecondUnits(),
+                cabinetBox.getSide().getMaterial(), 2);
+        add(cabinetBox.getBottom());
+        add(cabinetBox.getBack());
+        add(cabinetBox.getRunner());
+    }
+
+    /**
+     * Adds every cut in <code>cutList</code>
+     *
+     * @param cutList the cuts to count
+     */
+    public void addAll(CutList cutList) {
+        for (int i = 0; i < cutList.size(); i++) {
+            addUnits(cutList.getFirstUnits(i), cutList.getSecondUnits(i), cutList.getMaterial(i),
+                    1);
+        }
+    }
+
+    /**
+     * @param firstDimension  The first dimension measurement
+     * @param secondDimension The second dimension measurement
+     * @param material        The material of the panel
+     * @return the number of cuts of the panel, or 0 if it has not been added
+     */
+    public int getQuantity(double firstDimension, double secondDimension, Material material) {
+        return getQuantityUnits(Measurement.toUnits(firstDimension),
+                Measurement.toUnits(secondDimension), material);
+    }
+
+    /**
+     * @param cut the panel to look up
+     * @return the number of cuts equal to <code>cut</code>, or 0 if it has not been added
+     */
+    public int getQuantity(Cut cut) {
+        return getQuantityUnits(cut.getDimensions().getFirstUnits(),
+                cut.getDimensions().getSecondUnits(), cut.getMaterial());
+    }
+
+    private int getQuantityUnits(long firstUnits, long secondUnits, Material material) {
+        return quantity[find(Math.min(firstUnits, secondUnits), Math.max(firstUnits, secondUnits),
+                (byte) material.ordinal())];
+    }
+
+    /**
+     * @return the number of distinct panels
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of cuts added, counting every repeat of a panel
+     */
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    /**
+     * Lists each distinct panel with its quantity, grouped by material and largest panel first
+     *
+     * @return the distinct panels of this list
+     */
+    public List<Entry> getEntries() {
+        List<Entry> entries = new ArrayList<>(size);
+        for (int slot = 0; slot < quantity.length; slot++) {
+            if (quantity[slot] != 0) {
+                entries.add(new Entry(
+                        Cut.ofUnits(larger[slot], smaller[slot], MATERIALS[material[slot]]),
+                        quantity[slot]));
+            }
+        }
+        entries.sort(Comparator.comparing((Entry e) -> e.getCut().getMaterial()).thenComparing(
+                (Entry e) -> e.getCut().getDimensions().getFirstUnits(),
+                Comparator.reverseOrder()).thenComparing(
+                (Entry e) -> e.getCut().getDimensions().getSecondUnits(),
+                Comparator.reverseOrder()));
+        return entries;
+    }
+
+    /**
+     * Finds the slot holding the key, or the empty slot where it belongs
+     */
+    private int find(long smallerUnits, long largerUnits, byte ordinal) {
+        int mask = quantity.length - 1;
+        int slot = hash(smallerUnits, largerUnits, ordinal) & mask;
+        while (quantity[slot] != 0 && (smaller[slot] != smallerUnits || larger[slot] != largerUnits || material[slot] != ordinal)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long smallerUnits, long largerUnits, byte ordinal) {
+        long h = smallerUnits * 0x9E3779B97F4A7C15L + largerUnits;
+        h = (h ^ (h >>> 32)) * 0xC2B2AE3D27D4EB4FL + ordinal;
+        return (int) (h ^ (h >>> 29));
+    }
+
+    private void rehash() {
+        long[] oldSmaller = smaller;
+        long[] oldLarger = larger;
+        byte[] oldMaterial = material;
+        int[] oldQuantity = quantity;
+        allocate(oldQuantity.length * 2);
+
+        for (int i = 0; i < oldQuantity.length; i++) {
+            if (oldQuantity[i] != 0) {
+                int slot = find(oldSmaller[i], oldLarger[i], oldMaterial[i]);
+                smaller[slot] = oldSmaller[i];
+                larger[slot] = oldLarger[i];
+                material[slot] = oldMaterial[i];
+                quantity[slot] = oldQuantity[i];
+            }
+        }
+    }
+
+    /**
+     * Removes every panel while keeping the allocated capacity
+     */
+    public void clear() {
+        Arrays.fill(quantity, 0);
+        size = 0;
+        totalQuantity = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("AggregatedCutList{");
+        for (Entry entry : getEntries()) {
+            builder.append('\n').append(entry);
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * A distinct panel and the number of times it must be cut
+     */
+    public static class Entry {
+        private final Cut cut;
+        private final int quantity;
+
+        private Entry(Cut cut, int quantity) {
+            this.cut = cut;
+            this.quantity = quantity;
+        }
+
+        public Cut getCut() {
+            return cut;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        @Override
+        public String toString() {
+            return quantity + " x " + cut;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Class for constructing many cabinets from an order file without user interaction. Each
+ * non-blank line of the input is one cabinet, either comma separated
+ * (<code>width,height,depth[,sideMaterial,backMaterial]</code>) or a JSON object
+ * (<code>{"width": 15.75, "height": 34.5, "depth": 21.75, "side_material": "THREE_QUARTER"}</code>).
+ * Lines starting with <code>#</code> and a leading <code>width,...</code> header are skipped.
+ * <p>
+ * Lines are read in chunks that are turned into <code>CabinetBox</code>es on the provided
+ * executor. Only a bounded number of chunks are in flight at once and they are written in input
+ * order, so memory stays constant regardless of input size.
+ *
+ * @author Craig Marker
+ */
+public class BatchClient {
+    /**
+     * The number of input lines handed to the executor as a single task
+     */
+    static final int DEFAULT_CHUNK_SIZE = 512;
+
+    private static final ObjectReader SPEC_READER = new ObjectMapper().readerFor(
+            CabinetSpec.class);
+
+    private final ListeningExecutorService executorService;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+
+    /**
+     * @param executorService The executor used to construct and format cabinets
+     * @param parallelism     The number of threads backing the <code>executorService</code>.
+     *                        Twice this many chunks are kept in flight so that workers are not
+     *                        starved while the oldest chunk is being written
+     */
+    public BatchClient(ListeningExecutorService executorService, int parallelism) {
+        this(executorService, parallelism, DEFAULT_CHUNK_SIZE);
+    }
+
+    BatchClient(ListeningExecutorService executorService, int parallelism, int chunkSize) {
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException(
+                    "BatchClient parallelism and chunk size must be positive");
+        }
+
+        this.executorService = executorService;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = parallelism * 2;
+    }
+
+    /**
+     * Reads every cabinet from <code>input</code> and writes each resulting
+     * <code>CabinetBox</code> to <code>output</code> in input order. Lines that can not be
+     * parsed or describe an invalid cabinet are reported to <code>errors</code> with their line
+     * number and do not stop the batch
+     *
+     * @param input  the order lines to read
+     * @param output where the cut lists for each cabinet are written
+     * @param errors where rejected lines are reported
+     * @return the number of cabinets accepted and rejected
+     * @throws IOException if reading or writing fails
+     */
+    public Summary run(BufferedReader input, Writer output, Writer errors) throws IOException {
+        Deque<ListenableFuture<ChunkResult>> inFlight = new ArrayDeque<>(maxChunksInFlight);
+        Summary summary = new Summary();
+
+        long lineNumber = 0;
+        long chunkStartLine = 1;
+        List<String> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = input.readLine()) != null) {
+            lineNumber++;
+            chunk.add(line);
+            if (chunk.size() == chunkSize) {
+                if (inFlight.size() == maxChunksInFlight) {
+                    write(inFlight.removeFirst(), output, errors, summary);
+                }
+                inFlight.addLast(submit(chunk, chunkStartLine));
+                chunk = new ArrayList<>(chunkSize);
+                chunkStartLine = lineNumber + 1;
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            inFlight.addLast(submit(chunk, chunkStartLine));
+        }
+        while (!inFlight.isEmpty()) {
+            write(inFlight.removeFirst(), output, errors, summary);
+        }
+
+        output.flush();
+        errors.flush();
+        return summary;
+    }
+
+    private ListenableFuture<ChunkResult> submit(List<String> lines, long firstLineNumber) {
+        return executorService.submit(() -> process(lines, firstLineNumber));
+    }
+
+    private static void write(ListenableFuture<ChunkResult> future, Writer output, Writer errors,
+            Summary summary) throws IOException {
+        write(Futures.getUnchecked(future), output, errors, summary);
+    }
+
+    /**
+     * Appends a chunk to the batch output and counts it in <code>summary</code>
+     */
+    static void write(ChunkResult result, Writer output, Writer errors, Summary summary)
+            throws IOException {
+        output.append(result.output);
+        errors.append(result.errors);
+        summary.accepted += result.accepted;
+        summary.rejected += result.rejected;
+    }
+
+    /**
+     * Builds the cabinet of every line of a chunk
+     *
+     * @param lines           the lines of the chunk
+     * @param firstLineNumber the line number of the first line in the whole input
+     * @return the formatted cabinets and rejected lines
+     */
+    static ChunkResult process(List<String> lines, long firstLineNumber) {
+        ChunkResult result = new ChunkResult();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            long lineNumber = firstLineNumber + i;
+            if (isSkipped(line, lineNumber)) {
+                continue;
+            }
+
+            try {
+                CabinetSpec spec = parse(line);
+                int violations = CabinetValidator.check(spec.getSideMaterial(),
+                        spec.getBackMaterial(), spec.getWidth(), spec.getHeight(),
+                        spec.getDepth());
+                if (violations != 0) {
+                    reject(result, lineNumber, CabinetValidator.getMessage(violations,
+                            spec.getSideMaterial(), spec.getBackMaterial(), spec.getWidth(),
+                            spec.getHeight(), spec.getDepth()));
+                    continue;
+                }
+                result.output.append(spec.toCabinetBox()).append('\n');
+                result.accepted++;
+            } catch (IllegalArgumentException | JsonProcessingException e) {
+                reject(result, lineNumber, e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    private static void reject(ChunkResult result, long lineNumber, String message) {
+        result.errors.append("line ").append(lineNumber).append(": ").append(message).append(
+                '\n');
+        result.rejected++;
+    }
+
+    static boolean isSkipped(String line, long lineNumber) {
+        return line.isEmpty() || line.charAt(0) == '#' || lineNumber == 1 && line.regionMatches(
+                true, 0, "width", 0, 5);
+    }
+
+    /**
+     * Parses a single order line as JSON when it starts with <code>{</code> and as comma
+     * separated values otherwise
+     */
+    static CabinetSpec parse(String line) throws JsonProcessingException {
+        if (line.charAt(0) == '{') {
+            return SPEC_READER.readValue(line);
+        }
+        return CabinetSpec.fromCsv(line);
+    }
+
+    /**
+     * The formatted cabinets and rejected lines of a single chunk
+     */
+    static class ChunkResult {
+        private final StringBuilder output = new StringBuilder();
+        private final StringBuilder errors = new StringBuilder();
+        private int accepted;
+        private int rejected;
+
+        ChunkResult() {
+        }
+
+        ChunkResult(CharSequence output, CharSequence errors, int accepted, int rejected) {
+            this.output.append(output);
+            this.errors.append(errors);
+            this.accepted = accepted;
+            this.rejected = rejected;
+        }
+
+        CharSequence getOutput() {
+            return output;
+        }
+
+        CharSequence getErrors() {
+            return errors;
+        }
+
+        int getAccepted() {
+            return accepted;
+        }
+
+        int getRejected() {
+            return rejected;
+        }
+    }
+
+    /**
+     * Counts of the cabinets that were accepted and rejected during a batch
+     */
+    public static class Summary {
+        private long accepted;
+        private long rejected;
+
+        Summary() {
+        }
+
+        Summary(long accepted, long rejected) {
+            this.accepted = accepted;
+            this.rejected = rejected;
+        }
+
+        public long getAccepted() {
+            return accepted;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        @Override
+        public String toString() {
+            return "Summary{" + "accepted=" + accepted + ", rejected=" + rejected + '}';
+        }
+    }
+}
@@ -0,0 +1,633 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An append-only archive of every cabinet built, for re-orders and analytics. Cabinets are
+ * stored as fixed-width records in a memory-mapped data file, along with a memory-mapped index
+ * of record ids sorted by width, so an archive of millions of cabinets costs next to nothing on
+ * the heap.
+ * <p>
+ * A {@link #query(Bounds, Bounds, Bounds) query} binary searches the index for the width range
+ * and checks the height and depth of each candidate straight from the mapped record. Matches are
+ * read through a reusable {@link Cursor}, so records that do not match are never turned into
+ * objects. Appended cabinets are found by scanning until enough of them build up to be merged
+ * into the index.
+ * <p>
+ * The data file, <code>cabinets.dat</code>, is a little-endian header followed by 48 byte
+ * records:
+ * <pre>
+ * header (128 bytes)
+ *   0  int       magic, "BLMA"
+ *   4  short     format version, 1
+ *   6  short     number of materials
+ *   8  long      number of records
+ *   16 long      measurement units per inch, see {@link Measurement#UNITS_PER_INCH}
+ *   24 long      reserved, 0
+ *   32 char[16]* material names by ordinal, US-ASCII, padded with NUL
+ * record
+ *   0  int   width in units
+ *   4  int   height in units
+ *   8  int   depth in units
+ *   12 byte  side material ordinal
+ *   13 byte  back material ordinal
+ *   14 short reserved, 0
+ *   16 int[2] side first and second dimensions in units
+ *   24 int[2] bottom first and second dimensions in units
+ *   32 int[2] back first and second dimensions in units
+ *   40 int[2] runner first and second dimensions in units
+ * </pre>
+ * The cut slots are fixed by {@link Panel}, so they do not move if the panels of
+ * <code>CabinetBox</code> or <code>DesignSession</code> are reordered.
+ * The data file grows a segment at a time and each segment is mapped separately, so the archive
+ * is not limited to the 2GB of a single mapping. The index file, <code>cabinets.idx</code>, is a
+ * record count followed by one <code>long</code> per indexed record, the width in the high 32
+ * bits and the record id in the low 32 bits; it is mapped whole, which limits an archive to about
+ * 268 million cabinets.
+ * <p>
+ * A <code>CabinetArchive</code> is not thread safe.
+ *
+ * @author Craig Marker
+ */
+public class CabinetArchive implements AutoCloseable {
+    static final String DATA_FILE = "cabinets.dat";
+    static final String INDEX_FILE = "cabinets.idx";
+    static final int MAGIC = 0x414D4C42;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 128;
+    static final int RECORD_SIZE = 48;
+    static final int INDEX_HEADER_SIZE = 8;
+
+    /**
+     * Records per mapped segment of the data file, about 48MB
+     */
+    static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;
+
+    /**
+     * Appended records are merged into the index once there are this many, or one eighth of the
+     * indexed records if that is more
+     */
+    static final int MIN_MERGE_RECORDS = 4096;
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final int MATERIAL_NAME_SIZE = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final int CUTS_OFFSET = 16;
+
+    private final Path directory;
+    private final FileChannel data;
+    private final MappedByteBuffer header;
+    private final int segmentRecords;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private MappedByteBuffer index;
+    private int indexedCount;
+    private int count;
+
+    private CabinetArchive(Path directory, FileChannel data, MappedByteBuffer header,
+            int segmentRecords) {
+        this.directory = directory;
+        this.data = data;
+        this.header = header;
+        this.segmentRecords = segmentRecords;
+    }
+
+    /**
+     * Opens the archive in <code>directory</code>, creating it if it does not exist
+     *
+     * @param directory the directory holding the archive files
+     * @return the archive
+     * @throws IOException if the archive can not be opened or was written with a different set
+     *                     of materials
+     */
+    public static CabinetArchive open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    static CabinetArchive open(Path directory, int segmentRecords) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel data = FileChannel.open(directory.resolve(DATA_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean created = data.size() == 0;
+            MappedByteBuffer header = data.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (created) {
+                writeHeader(header);
+            } else {
+                checkHeader(header, directory);
+            }
+
+            CabinetArchive archive = new CabinetArchive(directory, data, header, segmentRecords);
+            archive.count = Math.toIntExact(header.getLong(COUNT_OFFSET));
+            archive.openIndex();
+            return archive;
+        } catch (IOException | RuntimeException e) {
+            data.close();
+            throw e;
+        }
+    }
+
+    private static void writeHeader(MappedByteBuffer header) {
+        header.putInt(0, MAGIC);
+        header.putShort(4, VERSION);
+        header.putShort(6, (short) MATERIALS.length);
+        header.putLong(COUNT_OFFSET, 0);
+        header.putLong(16, Measurement.UNITS_PER_INCH);
+        for (Material material : MATERIALS) {
+            byte[] name = material.name().getBytes(StandardCharsets.US_ASCII);
+            header.put(32 + material.ordinal() * MATERIAL_NAME_SIZE, name, 0,
+                    Math.min(name.length, MATERIAL_NAME_SIZE));
+        }
+        header.force();
+    }
+
+    private static void checkHeader(MappedByteBuffer header, Path directory)
+            throws IOException {
+        if (header.getInt(0) != MAGIC || header.getShort(4) != VERSION) {
+            throw new IOException("Expected a version " + VERSION + " cabinet archive: " + directory);
+        }
+        if (header.getLong(16) != Measurement.UNITS_PER_INCH || header.getShort(
+                6) != MATERIALS.length) {
+            throw new IOException("Expected an archive of the current measurement units and materials: " + directory);
+        }
+        byte[] name = new byte[MATERIAL_NAME_SIZE];
+        for (Material material : MATERIALS) {
+            Arrays.fill(name, (byte) 0);
+            header.get(32 + material.ordinal() * MATERIAL_NAME_SIZE, name);
+            String stored = new String(name, StandardCharsets.US_ASCII).trim();
+            if (!material.name().startsWith(stored) || stored.isEmpty()) {
+                throw new IOException(
+                        "Expected material " + material.name() + " at " + material.ordinal() + " but archive has " + stored);
+            }
+        }
+    }
+
+    private void openIndex() throws IOException {
+        Path indexPath = directory.resolve(INDEX_FILE);
+        if (!Files.exists(indexPath)) {
+            writeIndex(new long[0]);
+        }
+        mapIndex(indexPath);
+        if (indexedCount > count) {
+            throw new IOException(
+                    "Expected at most " + count + " indexed records but received " + indexedCount);
+        }
+    }
+
+    private void mapIndex(Path indexPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            index.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        indexedCount = Math.toIntExact(index.getLong(0));
+    }
+
+    /**
+     * Writes a new index merging the current one with the sorted keys in <code>appended</code>,
+     * streaming from one mapping to the other so only the appended keys are held on the heap,
+     * then swaps it into place
+     */
+    private void writeIndex(long[] appended) throws IOException {
+        Path indexPath = directory.resolve(INDEX_FILE);
+        Path temporary = directory.resolve(INDEX_FILE + ".tmp");
+        int merged = indexedCount + appended.length;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    INDEX_HEADER_SIZE + (long) merged * Long.BYTES);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putLong(merged);
+            int i = 0;
+            int j = 0;
+            while (i < indexedCount || j < appended.length) {
+                if (j == appended.length || i < indexedCount && indexKey(i) <= appended[j]) {
+                    buffer.putLong(indexKey(i++));
+                } else {
+                    buffer.putLong(appended[j++]);
+                }
+            }
+            buffer.force();
+        }
+        Files.move(temporary, indexPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Appends a cabinet and its cuts
+     *
+     * @param cabinetBox the cabinet to archive
+     * @return the id of the new record
+     * @throws IOException              if the archive can not be written
+     * @throws IllegalArgumentException if a measurement does not fit in a record, in which case
+     *                                  nothing is written
+     */
+    public int append(CabinetBox cabinetBox) throws IOException {
+        int width = toRecordUnits(cabinetBox.getWidthUnits());
+        int height = toRecordUnits(cabinetBox.getHeightUnits());
+        int depth = toRecordUnits(cabinetBox.getDepthUnits());
+        Cut.Dimensions side = cabinetBox.getSide().getDimensions();
+        Cut.Dimensions bottom = cabinetBox.getBottom().getDimensions();
+        Cut.Dimensions back = cabinetBox.getBack().getDimensions();
+        Cut.Dimensions runner = cabinetBox.getRunner().getDimensions();
+        int sideFirst = toRecordUnits(side.getFirstUnits());
+        int sideSecond = toRecordUnits(side.getSecondUnits());
+        int bottomFirst = toRecordUnits(bottom.getFirstUnits());
+        int bottomSecond = toRecordUnits(bottom.getSecondUnits());
+        int backFirst = toRecordUnits(back.getFirstUnits());
+        int backSecond = toRecordUnits(back.getSecondUnits());
+        int runnerFirst = toRecordUnits(runner.getFirstUnits());
+        int runnerSecond = toRecordUnits(runner.getSecondUnits());
+
+        int id = count;
+        MappedByteBuffer segment = segment(id, true);
+        int offset = offsetInSegment(id);
+        segment.putInt(offset, width);
+        segment.putInt(offset + 4, height);
+        segment.putInt(offset + 8, depth);
+        segment.put(offset + 12, (byte) cabinetBox.getSide().getMaterial().ordinal());
+        segment.put(offset + 13, (byte) cabinetBox.getBack().getMaterial().ordinal());
+        putCut(segment, offset, Panel.SIDE, sideFirst, sideSecond);
+        putCut(segment, offset, Panel.BOTTOM, bottomFirst, bottomSecond);
+        putCut(segment, offset, Panel.BACK, backFirst, backSecond);
+        putCut(segment, offset, Panel.RUNNER, runnerFirst, runnerSecond);
+
+        count++;
+        header.putLong(COUNT_OFFSET, count);
+        if (count - indexedCount >= Math.max(MIN_MERGE_RECORDS, indexedCount / 8)) {
+            mergeIndex();
+        }
+        return id;
+    }
+
+    private static void putCut(MappedByteBuffer segment, int offset, Panel panel, int first,
+            int second) {
+        segment.putInt(offset + panel.offset, first);
+        segment.putInt(offset + panel.offset + 4, second);
+    }
+
+    private static int toRecordUnits(long units) throws IllegalArgumentException {
+        if (units < Integer.MIN_VALUE || units > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Expected a measurement of at most " + Measurement.toInches(Integer.MAX_VALUE) + " inches but received " + Measurement.toInches(units));
+        }
+        return (int) units;
+    }
+
+    /**
+     * Merges every appended record into the index. This happens automatically as records are
+     * appended; call it before a burst of queries to avoid scanning recent appends
+     *
+     * @throws IOException if the index can not be written
+     */
+    public void mergeIndex() throws IOException {
+        if (indexedCount == count) {
+            return;
+        }
+
+        long[] appended = new long[count - indexedCount];
+        for (int id = indexedCount; id < count; id++) {
+            appended[id - indexedCount] = key(widthUnits(id), id);
+        }
+        Arrays.sort(appended);
+        writeIndex(appended);
+        mapIndex(directory.resolve(INDEX_FILE));
+    }
+
+    private static long key(int widthUnits, int id) {
+        return (long) widthUnits << 32 | (id & 0xFFFFFFFFL);
+    }
+
+    private long indexKey(int position) {
+        return index.getLong(INDEX_HEADER_SIZE + position * Long.BYTES);
+    }
+
+    /**
+     * @return the number of cabinets in the archive
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the number of cabinets found through the index rather than by scanning
+     */
+    int getIndexedCount() {
+        return indexedCount;
+    }
+
+    /**
+     * Positions a new cursor on a single record
+     *
+     * @param id the id returned when the record was appended
+     * @return a <code>Cursor</code> on the record
+     * @throws IndexOutOfBoundsException if there is no record with the id
+     */
+    public Cursor get(int id) {
+        if (id < 0 || id >= count) {
+            throw new IndexOutOfBoundsException(
+                    "Expected record id less than " + count + " but received " + id);
+        }
+        Cursor cursor = new Cursor(new int[]{id});
+        cursor.next();
+        return cursor;
+    }
+
+    /**
+     * Finds every cabinet whose dimensions are within the given bounds
+     *
+     * @param width  the widths to match
+     * @param height the heights to match
+     * @param depth  the depths to match
+     * @return a <code>Cursor</code> positioned before the first match, in order of width and
+     * then record id for indexed records, followed by recent appends in record id order
+     */
+    public Cursor query(Bounds width, Bounds height, Bounds depth) {
+        int[] matches = new int[16];
+        int found = 0;
+
+        int position = lowerBound(key((int) Math.min(Math.max(width.min, 0), Integer.MAX_VALUE), 0));
+        for (; position < indexedCount; position++) {
+            long key = indexKey(position);
+            if (key >> 32 > width.max) {
+                break;
+            }
+            int id = (int) key;
+            if (height.contains(heightUnits(id)) && depth.contains(depthUnits(id))) {
+                matches = grow(matches, found);
+                matches[found++] = id;
+            }
+        }
+        for (int id = indexedCount; id < count; id++) {
+            if (width.contains(widthUnits(id)) && height.contains(
+                    heightUnits(id)) && depth.contains(depthUnits(id))) {
+                matches = grow(matches, found);
+                matches[found++] = id;
+            }
+        }
+        return new Cursor(Arrays.copyOf(matches, found));
+    }
+
+    private static int[] grow(int[] matches, int found) {
+        return found < matches.length ? matches : Arrays.copyOf(matches, matches.length * 2);
+    }
+
+    /**
+     * @return the first index position whose key is at least <code>key</code>
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = indexedCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (indexKey(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int widthUnits(int id) {
+        return segment(id).getInt(offsetInSegment(id));
+    }
+
+    private int heightUnits(int id) {
+        return segment(id).getInt(offsetInSegment(id) + 4);
+    }
+
+    private int depthUnits(int id) {
+        return segment(id).getInt(offsetInSegment(id) + 8);
+    }
+
+    private MappedByteBuffer segment(int id) {
+        try {
+            return segment(id, false);
+        } catch (IOException e) {
+            throw new IllegalStateException("Archive segment for record " + id + " is not mapped", e);
+        }
+    }
+
+    /**
+     * Finds the mapped segment holding record <code>id</code>, mapping it, and growing the data
+     * file to hold it when <code>create</code> is set
+     */
+    private MappedByteBuffer segment(int id, boolean create) throws IOException {
+        int number = id / segmentRecords;
+        while (segments.size() <= number) {
+            long segmentSize = (long) segmentRecords * RECORD_SIZE;
+            long start = HEADER_SIZE + segments.size() * segmentSize;
+            if (!create && data.size() < start + segmentSize) {
+                throw new IOException("Expected data file of at least " + (start + segmentSize) + " bytes");
+            }
+            MappedByteBuffer segment = data.map(FileChannel.MapMode.READ_WRITE, start,
+                    segmentSize);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+            segments.add(segment);
+        }
+        return segments.get(number);
+    }
+
+    private int offsetInSegment(int id) {
+        return id % segmentRecords * RECORD_SIZE;
+    }
+
+    /**
+     * Writes every mapped page to disk
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        segments.clear();
+        data.close();
+    }
+
+    @Override
+    public String toString() {
+        return "CabinetArchive{" + "directory=" + directory + ", size=" + count + ", indexed=" + indexedCount + '}';
+    }
+
+    /**
+     * An inclusive range of measurements to match
+     */
+    public static class Bounds {
+        private static final Bounds ANY = new Bounds(Long.MIN_VALUE, Long.MAX_VALUE);
+
+        private final long min;
+        private final long max;
+
+        private Bounds(long min, long max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * @param min the smallest measurement to match
+         * @param max the largest measurement to match
+         * @return <code>Bounds</code> matching <code>min</code> through <code>max</code>
+         * @throws IllegalArgumentException if <code>max</code> is less than <code>min</code>
+         */
+        public static Bounds between(double min, double max) throws IllegalArgumentException {
+            if (!(max >= min)) {
+                throw new IllegalArgumentException(
+                        "Expected max of at least " + min + " but received " + max);
+            }
+            return new Bounds(Measurement.toUnits(min), Measurement.toUnits(max));
+        }
+
+        /**
+         * @param measurement the only measurement to match
+         * @return <code>Bounds</code> matching <code>measurement</code>
+         */
+        public static Bounds exactly(double measurement) {
+            long units = Measurement.toUnits(measurement);
+            return new Bounds(units, units);
+        }
+
+        /**
+         * @return <code>Bounds</code> matching every measurement
+         */
+        public static Bounds any() {
+            return ANY;
+        }
+
+        private boolean contains(long units) {
+            return units >= min && units <= max;
+        }
+
+        @Override
+        public String toString() {
+            return "Bounds{" + Measurement.toInches(min) + " to " + Measurement.toInches(max) + '}';
+        }
+    }
+
+    /**
+     * A flyweight view over the records matched by a query. Move it with {@link #next()} and
+     * read the fields of the current record straight from the mapped data file
+     */
+    public class Cursor {
+        private final int[] ids;
+        private int position = -1;
+        private MappedByteBuffer segment;
+        private int offset;
+
+        private Cursor(int[] ids) {
+            this.ids = ids;
+        }
+
+        /**
+         * Advances to the next match
+         *
+         * @return false if there are no more matches
+         */
+        public boolean next() {
+            if (position + 1 >= ids.length) {
+                return false;
+            }
+            position++;
+            segment = segment(ids[position]);
+            offset = offsetInSegment(ids[position]);
+            return true;
+        }
+
+        /**
+         * @return the number of matches
+         */
+        public int size() {
+            return ids.length;
+        }
+
+        public int getId() {
+            return ids[position];
+        }
+
+        public double getWidth() {
+            return Measurement.toInches(segment.getInt(offset));
+        }
+
+        public double getHeight() {
+            return Measurement.toInches(segment.getInt(offset + 4));
+        }
+
+        public double getDepth() {
+            return Measurement.toInches(segment.getInt(offset + 8));
+        }
+
+        public Material getSideMaterial() {
+            return MATERIALS[segment.get(offset + 12)];
+        }
+
+        public Material getBackMaterial() {
+            return MATERIALS[segment.get(offset + 13)];
+        }
+
+        /**
+         * Materializes one of the archived cuts of the current record
+         *
+         * @param panel the panel to read
+         * @return the archived <code>Cut</code> for <code>panel</code>
+         */
+        public Cut getCut(Panel panel) {
+            int cutOffset = offset + panel.offset;
+            Material material = panel == Panel.BACK ? getBackMaterial() : getSideMaterial();
+            return Cut.ofUnits(segment.getInt(cutOffset), segment.getInt(cutOffset + 4),
+                    material);
+        }
+
+        /**
+         * Rebuilds the <code>CabinetBox</code> of the current record
+         *
+         * @return a <code>CabinetBox</code> with the archived dimensions and materials
+         */
+        public CabinetBox toCabinetBox() {
+            return new CabinetBox(getSideMaterial(), getBackMaterial(), getWidth(), getHeight(),
+                    getDepth());
+        }
+
+        @Override
+        public String toString() {
+            return "Cursor{" + "matches=" + ids.length + ", position=" + position + '}';
+        }
+    }
+
+    /**
+     * The cuts stored in each record, and the offset of each within the record. The offsets are
+     * part of the file format and must never change
+     */
+    public enum Panel {
+        SIDE(CUTS_OFFSET),
+        BOTTOM(CUTS_OFFSET + 8),
+        BACK(CUTS_OFFSET + 16),
+        RUNNER(CUTS_OFFSET + 24);
+
+        private final int offset;
+
+        Panel(int offset) {
+            this.offset = offset;
+        }
+
+        /**
+         * @return the offset of this panel's first and second dimensions within a record
+         */
+        int getOffset() {
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * A <code>CabinetBox</code> the container for a storage system with three-dimensional
+ * measurements: width, height, and depth. The cabinet box construction cuts are generated from the
+ * provided dimensions. The cabinet box construction follows Bent's Woodworking's method.
+ * Notably, a <code>CabinetBox</code> does not include any drawers, shelves, or internal storage
+ * mechanisms common to cabinets. These mechanisms are added separately.
+ * <p>
+ * Dimensions are converted to fixed-point {@link Measurement} units once, on construction, and
+ * validation and every cut are computed from the units.
+ *
+ * @author Craig Marker
+ * @see
+ * <a href="https://www.youtube.com/watch?v=KmM6DOy0aMc&ab_channel=Bent%27sWoodworking%26Mor">Bent's Woodworking cabinet construction guide</a>
+ */
+public class CabinetBox {
+    private static final long RUNNER_HEIGHT_UNITS = Measurement.toUnits(3);
+
+    private final long widthUnits;
+    private final long heightUnits;
+    private final long depthUnits;
+
+    /**
+     * The side panel that makes up the left and the right of a cabinet when looking at the front.
+     * CabinetBox construction will require two sides of equal size
+     */
+    private final Cut side;
+
+    /**
+     * The back panel of the cabinet
+     */
+    private final Cut back;
+    /**
+     * The bottom panel of the cabinet
+     */
+    private final Cut bottom;
+    /**
+     * The runner <code>Cut<code> used to strengthen the construction of a cabinet
+     */
+    private final Cut runner;
+
+    /**
+     * Constructs a <code>CabinetBox</code> and the required cuts to build that cabinet box in
+     * the real world
+     *
+     * @param sideMaterial The <code>Material</code> that will be used to create the cabinet
+     *                     sides <i>and</i> runners
+     * @param backMaterial The <code>Material</code> that will be used to create the cabinet back
+     * @param width        The width of the cabinet, measured when looking at the cabinet front
+     *                     from the outside of the left side to the outside of the right side
+     * @param height       The height of the cabinet, measured when looking at the cabinet front
+     *                     from the outside of the bottom to the outside of the top
+     * @param depth        The depth of the cabinet, measured when looking at the <i>side</i> of
+     *                     the cabinet from the outside of the back of the cabinet to the outside
+     *                     of the front of the cabinet
+     * @throws IllegalArgumentException if a dimension is not finite or the cabinet can not be
+     *                                  built with the materials
+     */
+    public CabinetBox(Material sideMaterial, Material backMaterial, double width, double height,
+            double depth) throws IllegalArgumentException {
+        long startNanos = Metrics.startNanos();
+        long startBytes = Metrics.allocatedBytes();
+        try {
+            this.widthUnits = Measurement.toUnits(width);
+            this.heightUnits = Measurement.toUnits(height);
+            this.depthUnits = Measurement.toUnits(depth);
+            validateUnits(sideMaterial, backMaterial, widthUnits, heightUnits, depthUnits);
+        } catch (IllegalArgumentException e) {
+            Metrics.CABINET_BOX_VALIDATION_FAILURES.increment();
+            throw e;
+        }
+
+        this.side = side(sideMaterial, heightUnits, depthUnits);
+        this.bottom = bottom(sideMaterial, widthUnits, depthUnits);
+        this.back = back(sideMaterial, backMaterial, widthUnits, heightUnits);
+        this.runner = runner(sideMaterial, widthUnits);
+
+        Metrics.CABINET_BOXES.increment();
+        Metrics.CABINET_BOX_ALLOCATED_BYTES.add(Metrics.allocatedBytes() - startBytes);
+        Metrics.CABINET_BOX_CONSTRUCTION.record(startNanos);
+    }
+
+    /**
+     * Checks dimensions in units, reporting the first broken rule the way
+     * <code>CabinetValidator</code> formats it, so that everything that builds cabinets from
+     * units rejects exactly what the constructor rejects
+     *
+     * @throws IllegalArgumentException if the cabinet can not be built with the materials
+     */
+    static void validateUnits(Material sideMaterial, Material backMaterial, long widthUnits,
+            long heightUnits, long depthUnits) throws IllegalArgumentException {
+        int violations = CabinetValidator.checkUnits(sideMaterial, backMaterial, widthUnits,
+                heightUnits, depthUnits);
+        if (violations != 0) {
+            throw new IllegalArgumentException(
+                    CabinetValidator.getMessage(violations, sideMaterial, backMaterial,
+                            Measurement.toInches(widthUnits), Measurement.toInches(heightUnits),
+                            Measurement.toInches(depthUnits)));
+        }
+    }
+
+    /**
+     * The side panel depends only on the height, depth, and side material
+     */
+    static Cut side(Material sideMaterial, long heightUnits, long depthUnits) {
+        return Cut.ofUnits(heightUnits, depthUnits, sideMaterial);
+    }
+
+    /**
+     * The bottom panel depends only on the width, depth, and side material
+     */
+    static Cut bottom(Material sideMaterial, long widthUnits, long depthUnits) {
+        return Cut.ofUnits(widthUnits - Joint.create(sideMaterial, Joint.JointType.DADO)
+                .getJoinedDimensionOffsetUnits(), depthUnits, sideMaterial);
+    }
+
+    /**
+     * The back panel depends only on the width, height, and both materials
+     */
+    static Cut back(Material sideMaterial, Material backMaterial, long widthUnits,
+            long heightUnits) {
+        return Cut.ofUnits(widthUnits - Joint.create(sideMaterial, Joint.JointType.DADO)
+                        .getJoinedDimensionOffsetUnits(),
+                heightUnits - Joint.create(sideMaterial, Joint.JointType.SINGLE_SIDE_DADO)
+                        .getJoinedDimensionOffsetUnits(), backMaterial);
+    }
+
+    /**
+     * The runner depends only on the width and side material
+     */
+    static Cut runner(Material sideMaterial, long widthUnits) {
+        return Cut.ofUnits(widthUnits - Joint.create(sideMaterial, Joint.JointType.BUTT)
+                .getJoinedDimensionOffsetUnits(), RUNNER_HEIGHT_UNITS, sideMaterial);
+    }
+
+    public double getWidth() {
+        return Measurement.toInches(widthUnits);
+    }
+
+    public double getHeight() {
+        return Measurement.toInches(heightUnits);
+    }
+
+    public double getDepth() {
+        return Measurement.toInches(depthUnits);
+    }
+
+    /**
+     * @return the width in {@link Measurement} units
+     */
+    public long getWidthUnits() {
+        return widthUnits;
+    }
+
+    /**
+     * @return the height in {@link Measurement} units
+     */
+    public long getHeightUnits() {
+        return heightUnits;
+    }
+
+    /**
+     * @return the depth in {@link Measurement} units
+     */
+    public long getDepthUnits() {
+        return depthUnits;
+    }
+
+    public Cut getSide() {
+        return side;
+    }
+
+    public Cut getBack() {
+        return back;
+    }
+
+    public Cut getBottom() {
+        return bottom;
+    }
+
+    public Cut getRunner() {
+        return runner;
+    }
+
+    @Override
+    public String toString() {
+        long startNanos = Metrics.startNanos();
+        String formatted = String.format(
+                "CabinetBox{dimensions=%sx%sx%s WxHxD\nside=%s\nbottom=%s\nback=%s\nrunner=%s}",
+                getWidth(), getHeight(), getDepth(), this.side, this.bottom, this.back,
+                this.runner);
+        Metrics.OUTPUT_FORMATTING.record(startNanos);
+        return formatted;
+    }
+}
@@ -0,0 +1,113 @@
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Creates <code>CabinetBox</code>es, reusing the result for dimensions and materials that have
+ * been requested recently. Standard cabinet sizes come up over and over in the configurator, and
+ * since a <code>CabinetBox</code> and its <code>Cut</code>s are immutable, one instance can be
+ * shared by every caller and thread that asks for the same cabinet.
+ * <p>
+ * The cache holds at most <code>maximumSize</code> cabinets and evicts the least recently used
+ * first. Invalid dimensions are never cached; they throw on every request just like the
+ * <code>CabinetBox</code> constructor.
+ *
+ * @author Craig Marker
+ */
+public class CabinetBoxFactory {
+    /**
+     * The number of cabinets kept by {@link #create()}
+     */
+    static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private final LoadingCache<CabinetSpec, CabinetBox> cache;
+
+    private CabinetBoxFactory(long maximumSize) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build(
+                CacheLoader.from(CabinetSpec::toCabinetBox));
+    }
+
+    /**
+     * Creates a <code>CabinetBoxFactory</code> that keeps the
+     * {@link #DEFAULT_MAXIMUM_SIZE} most recently used cabinets
+     *
+     * @return a <code>CabinetBoxFactory</code>
+     */
+    public static CabinetBoxFactory create() {
+        return create(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a <code>CabinetBoxFactory</code>
+     *
+     * @param maximumSize the most cabinets to keep at once
+     * @return a <code>CabinetBoxFactory</code>
+     */
+    public static CabinetBoxFactory create(long maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException(
+                    "Expected CabinetBoxFactory maximum size of at least 0 but received " + maximumSize);
+        }
+        return new CabinetBoxFactory(maximumSize);
+    }
+
+    /**
+     * Gets the <code>CabinetBox</code> for the given materials and dimensions, constructing it
+     * only if it is not already cached
+     *
+     * @param sideMaterial The <code>Material</code> for the cabinet sides and runners
+     * @param backMaterial The <code>Material</code> for the cabinet back
+     * @param width        The outer width of the cabinet
+     * @param height       The outer height of the cabinet
+     * @param depth        The outer depth of the cabinet
+     * @return a <code>CabinetBox</code> equivalent to
+     * <code>new CabinetBox(sideMaterial, backMaterial, width, height, depth)</code>
+     * @throws IllegalArgumentException if the dimensions are not valid for the materials
+     */
+    public CabinetBox get(Material sideMaterial, Material backMaterial, double width,
+            double height, double depth) throws IllegalArgumentException {
+        return get(CabinetSpec.of(sideMaterial, backMaterial, width, height, depth));
+    }
+
+    /**
+     * Gets the <code>CabinetBox</code> for <code>spec</code>, constructing it only if it is not
+     * already cached
+     *
+     * @param spec the materials and dimensions of the cabinet
+     * @return a <code>CabinetBox</code> equivalent to <code>spec.toCabinetBox()</code>
+     * @throws IllegalArgumentException if the dimensions are not valid for the materials
+     */
+    public CabinetBox get(CabinetSpec spec) throws IllegalArgumentException {
+        try {
+            return cache.getUnchecked(spec);
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return hit, miss, and eviction counts since this factory was created
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * @return the approximate number of cabinets currently cached
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Discards every cached cabinet
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
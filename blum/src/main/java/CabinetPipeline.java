@@ -0,0 +1,321 @@
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Function;
+
+/**
+ * Processes an order file as a chain of {@link Flow} stages: the caller's thread reads and
+ * publishes order lines, one stage builds and validates a <code>CabinetBox</code> per line, one
+ * adds its cuts to an {@link AggregatedCutList}, and the last writes it out in the same format as
+ * {@link BatchClient}.
+ * <p>
+ * Each stage publishes through a {@link SubmissionPublisher} with a bounded buffer and requests
+ * one item at a time from the stage before it. When a stage falls behind, the buffer in front of
+ * it fills, the stage before it blocks publishing and stops requesting, and so on back to the
+ * reader, so a slow writer throttles reading instead of letting cabinets pile up on the heap.
+ * Stages run concurrently with each other and items stay in input order.
+ *
+ * @author Craig Marker
+ */
+public class CabinetPipeline {
+    /**
+     * The number of stages run on the executor, each of which may block while publishing
+     */
+    static final int STAGES = 3;
+
+    /**
+     * The number of items buffered in front of each stage
+     */
+    static final int DEFAULT_BUFFER_SIZE = Flow.defaultBufferSize();
+
+    private final ListeningExecutorService executorService;
+    private final int bufferSize;
+
+    private CabinetPipeline(ListeningExecutorService executorService, int bufferSize) {
+        this.executorService = executorService;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Creates a <code>CabinetPipeline</code>
+     *
+     * @param executorService the executor the stages run on
+     * @param threads         the number of threads backing the <code>executorService</code>.
+     *                        A stage blocks its thread while the stage after it is full, so there
+     *                        must be at least one thread per stage, {@link #STAGES}
+     * @return a <code>CabinetPipeline</code>
+     * @throws IllegalArgumentException if there are fewer threads than stages
+     */
+    public static CabinetPipeline create(ListeningExecutorService executorService, int threads)
+            throws IllegalArgumentException {
+        return create(executorService, threads, DEFAULT_BUFFER_SIZE);
+    }
+
+    static CabinetPipeline create(ListeningExecutorService executorService, int threads,
+            int bufferSize) throws IllegalArgumentException {
+        if (threads < STAGES) {
+            throw new IllegalArgumentException(
+                    "Expected at least " + STAGES + " executor threads, one per stage, but received " + threads);
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException(
+                    "Expected a positive buffer size but received " + bufferSize);
+        }
+        return new CabinetPipeline(executorService, bufferSize);
+    }
+
+    /**
+     * Reads every cabinet from <code>input</code> and writes each resulting
+     * <code>CabinetBox</code> to <code>output</code> in input order. Lines that can not be
+     * parsed or describe an invalid cabinet are reported to <code>errors</code> with their line
+     * number and do not stop the pipeline
+     *
+     * @param input  the order lines to read
+     * @param output where the cut lists for each cabinet are written
+     * @param errors where rejected lines are reported
+     * @return the number of cabinets accepted and rejected and the combined cuts of every
+     * accepted cabinet
+     * @throws IOException if reading or writing fails
+     */
+    public Result run(BufferedReader input, Writer output, Writer errors) throws IOException {
+        AggregatedCutList cutList = new AggregatedCutList();
+        SettableFuture<BatchClient.Summary> done = SettableFuture.create();
+
+        Stage<Order, Outcome> build = new Stage<>(executorService, bufferSize,
+                CabinetPipeline::build);
+        Stage<Outcome, Outcome> aggregate = new Stage<>(executorService, bufferSize, outcome -> {
+            if (outcome.cabinetBox != null) {
+                cutList.addAll(outcome.cabinetBox);
+            }
+            return outcome;
+        });
+        build.subscribe(aggregate);
+        aggregate.subscribe(new Exporter(output, errors, done));
+
+        SubmissionPublisher<Order> source = new SubmissionPublisher<>(executorService,
+                bufferSize);
+        source.subscribe(build);
+        try {
+            long lineNumber = 0;
+            String line;
+            while (!done.isDone() && (line = input.readLine()) != null) {
+                source.submit(new Order(++lineNumber, line));
+            }
+            source.close();
+        } catch (IOException | RuntimeException e) {
+            source.closeExceptionally(e);
+            throw e;
+        }
+
+        try {
+            return new Result(done.get(), cutList);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for the pipeline to finish");
+        } catch (ExecutionException e) {
+            Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Builds the cabinet of a single order line
+     *
+     * @return the cabinet or the reason it was rejected, or null for a blank line, comment, or
+     * header
+     */
+    private static Outcome build(Order order) {
+        String line = order.line.trim();
+        if (BatchClient.isSkipped(line, order.lineNumber)) {
+            return null;
+        }
+
+        try {
+            CabinetSpec spec = BatchClient.parse(line);
+            int violations = CabinetValidator.check(spec.getSideMaterial(),
+                    spec.getBackMaterial(), spec.getWidth(), spec.getHeight(), spec.getDepth());
+            if (violations != 0) {
+                return new Outcome(order.lineNumber, null, CabinetValidator.getMessage(violations,
+                        spec.getSideMaterial(), spec.getBackMaterial(), spec.getWidth(),
+                        spec.getHeight(), spec.getDepth()));
+            }
+            return new Outcome(order.lineNumber, spec.toCabinetBox(), null);
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return new Outcome(order.lineNumber, null, e.getMessage());
+        }
+    }
+
+    /**
+     * A line of the order file
+     */
+    private static class Order {
+        private final long lineNumber;
+        private final String line;
+
+        private Order(long lineNumber, String line) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+    }
+
+    /**
+     * The cabinet built from an order line, or the reason it was rejected
+     */
+    private static class Outcome {
+        private final long lineNumber;
+        private final CabinetBox cabinetBox;
+        private final String error;
+
+        private Outcome(long lineNumber, CabinetBox cabinetBox, String error) {
+            this.lineNumber = lineNumber;
+            this.cabinetBox = cabinetBox;
+            this.error = error;
+        }
+    }
+
+    /**
+     * A stage applying <code>function</code> to each item and publishing the result, or nothing
+     * when it returns null. The next item is requested only once the result has been accepted
+     * into the buffer of the following stage
+     */
+    private static class Stage<T, R> extends SubmissionPublisher<R> implements Flow.Processor<T, R> {
+        private final Function<? super T, ? extends R> function;
+        private Flow.Subscription subscription;
+
+        private Stage(Executor executor, int bufferSize, Function<? super T, ? extends R> function) {
+            super(executor, bufferSize);
+            this.function = function;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(T item) {
+            try {
+                R result = function.apply(item);
+                if (result != null) {
+                    submit(result);
+                }
+            } catch (RuntimeException e) {
+                subscription.cancel();
+                closeExceptionally(e);
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            closeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            close();
+        }
+    }
+
+    /**
+     * The last stage, writing each cabinet or rejection and completing <code>done</code> once the
+     * input is exhausted
+     */
+    private static class Exporter implements Flow.Subscriber<Outcome> {
+        private final Writer output;
+        private final Writer errors;
+        private final SettableFuture<BatchClient.Summary> done;
+        private Flow.Subscription subscription;
+        private long accepted;
+        private long rejected;
+
+        private Exporter(Writer output, Writer errors, SettableFuture<BatchClient.Summary> done) {
+            this.output = output;
+            this.errors = errors;
+            this.done = done;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(Outcome outcome) {
+            try {
+                if (outcome.cabinetBox != null) {
+                    output.append(outcome.cabinetBox.toString()).append('\n');
+                    accepted++;
+                } else {
+                    errors.append("line ").append(Long.toString(outcome.lineNumber)).append(": ")
+                            .append(outcome.error).append('\n');
+                    rejected++;
+                }
+            } catch (IOException e) {
+                subscription.cancel();
+                done.setException(e);
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.setException(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                output.flush();
+                errors.flush();
+                done.set(new BatchClient.Summary(accepted, rejected));
+            } catch (IOException e) {
+                done.setException(e);
+            }
+        }
+    }
+
+    /**
+     * The outcome of a pipeline run
+     */
+    public static class Result {
+        private final BatchClient.Summary summary;
+        private final AggregatedCutList cutList;
+
+        private Result(BatchClient.Summary summary, AggregatedCutList cutList) {
+            this.summary = summary;
+            this.cutList = cutList;
+        }
+
+        public BatchClient.Summary getSummary() {
+            return summary;
+        }
+
+        /**
+         * @return the cuts of every accepted cabinet, collapsed into distinct panels
+         */
+        public AggregatedCutList getCutList() {
+            return cutList;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{summary=" + summary + ", panels=" + cutList.getTotalQuantity() + '}';
+        }
+    }
+}
@@ -0,0 +1,392 @@
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A declarative description of how a style of cabinet is constructed: which panels it is made
+ * of and how each panel's two dimensions are derived from the cabinet's width, height, and
+ * depth. A panel dimension is either a constant or a cabinet dimension less the offset of the
+ * <code>Joint</code> joining it to the side or back material. For example, a
+ * <code>CabinetBox</code> bottom is <code>width - DADO(side)</code> by <code>depth</code>.
+ * <p>
+ * Recipes can be built in code or loaded from YAML/JSON, so new cabinet styles do not need new
+ * classes:
+ * <pre>
+ * name: standard
+ * panels:
+ *   - {name: bottom, material: SIDE,
+ *      first: {dimension: WIDTH, joint: DADO, joined_to: SIDE},
+ *      second: {dimension: DEPTH}}
+ *   - {name: runner, material: SIDE,
+ *      first: {dimension: WIDTH, joint: BUTT, joined_to: SIDE},
+ *      second: {constant: 3}}
+ * </pre>
+ * A recipe is {@link #compile(Material, Material) compiled} once per pair of materials into a
+ * {@link Compiled} recipe whose joint offsets are already resolved, and which evaluates any
+ * cabinet into a primitive buffer without allocating.
+ *
+ * @author Craig Marker
+ */
+public class CabinetRecipe {
+    /**
+     * The construction <code>CabinetBox</code> follows: two uncut sides, a bottom dadoed into
+     * the sides, a back dadoed into the sides and single-side dadoed into the bottom, and a 3"
+     * runner butted between the sides
+     */
+    public static final CabinetRecipe STANDARD = new CabinetRecipe("standard", List.of(
+            new Panel("side", Role.SIDE, 2, Expression.of(Dimension.HEIGHT),
+                    Expression.of(Dimension.DEPTH)),
+            new Panel("bottom", Role.SIDE, 1,
+                    Expression.joined(Dimension.WIDTH, Joint.JointType.DADO, Role.SIDE),
+                    Expression.of(Dimension.DEPTH)),
+            new Panel("back", Role.BACK, 1,
+                    Expression.joined(Dimension.WIDTH, Joint.JointType.DADO, Role.SIDE),
+                    Expression.joined(Dimension.HEIGHT, Joint.JointType.SINGLE_SIDE_DADO,
+                            Role.SIDE)),
+            new Panel("runner", Role.SIDE, 1,
+                    Expression.joined(Dimension.WIDTH, Joint.JointType.BUTT, Role.SIDE),
+                    Expression.constant(3))));
+
+    private final String name;
+    private final List<Panel> panels;
+
+    /**
+     * @param name   A human readable name for the cabinet style
+     * @param panels The panels that make up the cabinet, in the order they are evaluated
+     */
+    @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+    public CabinetRecipe(@JsonProperty(value = "name", required = true) String name,
+            @JsonProperty(value = "panels", required = true) List<Panel> panels) {
+        if (panels == null || panels.isEmpty()) {
+            throw new IllegalArgumentException("Expected CabinetRecipe to have at least 1 panel");
+        }
+
+        this.name = name;
+        this.panels = Collections.unmodifiableList(new ArrayList<>(panels));
+    }
+
+    /**
+     * Reads a recipe
+     *
+     * @param input   the recipe document
+     * @param factory the <code>JsonFactory</code> for the document format, for example a
+     *                <code>YAMLFactory</code>
+     * @return the <code>CabinetRecipe</code> in <code>input</code>
+     * @throws IOException if the document can not be read or is not a recipe
+     */
+    public static CabinetRecipe load(InputStream input, JsonFactory factory) throws IOException {
+        return new ObjectMapper(factory).readValue(input, CabinetRecipe.class);
+    }
+
+    /**
+     * Resolves every joint offset for a pair of materials
+     *
+     * @param sideMaterial The <code>Material</code> for panels and joints with the
+     *                     {@link Role#SIDE} role
+     * @param backMaterial The <code>Material</code> for panels and joints with the
+     *                     {@link Role#BACK} role
+     * @return a <code>Compiled</code> recipe for the materials
+     */
+    public Compiled compile(Material sideMaterial, Material backMaterial) {
+        return new Compiled(this, sideMaterial, backMaterial);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Panel> getPanels() {
+        return panels;
+    }
+
+    @Override
+    public String toString() {
+        return "CabinetRecipe{" + "name='" + name + '\'' + ", panels=" + panels + '}';
+    }
+
+    /**
+     * The cabinet dimensions a panel dimension can be derived from
+     */
+    public enum Dimension {
+        WIDTH, HEIGHT, DEPTH
+    }
+
+    /**
+     * The materials a recipe refers to. The actual <code>Material</code> for each role is chosen
+     * when the recipe is compiled
+     */
+    public enum Role {
+        SIDE, BACK
+    }
+
+    /**
+     * A single panel of a cabinet
+     */
+    public static class Panel {
+        private final String name;
+        private final Role material;
+        private final int quantity;
+        private final Expression first;
+        private final Expression second;
+
+        /**
+         * @param name     The name of the panel, for example "bottom"
+         * @param material The role of the material the panel is cut from
+         * @param quantity The number of these panels in a cabinet. Defaults to 1
+         * @param first    The expression for the first dimension of the panel
+         * @param second   The expression for the second dimension of the panel
+         */
+        @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+        public Panel(@JsonProperty(value = "name", required = true) String name,
+                @JsonProperty(value = "material", required = true) Role material,
+                @JsonProperty("quantity") Integer quantity,
+                @JsonProperty(value = "first", required = true) Expression first,
+                @JsonProperty(value = "second", required = true) Expression second) {
+            if (quantity != null && quantity < 1) {
+                throw new IllegalArgumentException(
+                        "Expected Panel quantity greater than 0 but received " + quantity);
+            }
+
+            this.name = name;
+            this.material = material;
+            this.quantity = quantity == null ? 1 : quantity;
+            this.first = first;
+            this.second = second;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Role getMaterial() {
+            return material;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public Expression getFirst() {
+            return first;
+        }
+
+        public Expression getSecond() {
+            return second;
+        }
+
+        @Override
+        public String toString() {
+            return "Panel{" + "name='" + name + '\'' + ", material=" + material + ", quantity=" + quantity + ", first=" + first + ", second=" + second + '}';
+        }
+    }
+
+    /**
+     * A panel dimension: either a constant, or a cabinet dimension less an optional joint
+     * offset
+     */
+    public static class Expression {
+        private final Dimension dimension;
+        private final double constant;
+        private final Joint.JointType joint;
+        private final Role joinedTo;
+
+        /**
+         * @param dimension The cabinet dimension the expression is derived from, or
+         *                  <code>null</code> for a constant
+         * @param constant  The constant measurement when <code>dimension</code> is
+         *                  <code>null</code>
+         * @param joint     The joint removed from the dimension, if any
+         * @param joinedTo  The role of the material the joint is made into. Required when
+         *                  <code>joint</code> is set
+         */
+        @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+        private Expression(@JsonProperty("dimension") Dimension dimension,
+                @JsonProperty("constant") Double constant,
+                @JsonProperty("joint") Joint.JointType joint,
+                @JsonProperty("joined_to") Role joinedTo) {
+            if ((dimension == null) == (constant == null)) {
+                throw new IllegalArgumentException(
+                        "Expected Expression to have exactly one of a dimension or a constant");
+            }
+            if ((joint == null) != (joinedTo == null) || constant != null && joint != null) {
+                throw new IllegalArgumentException(
+                        "Expected Expression joint and joined_to together on a dimension");
+            }
+
+            this.dimension = dimension;
+            this.constant = constant == null ? 0 : constant;
+            this.joint = joint;
+            this.joinedTo = joinedTo;
+        }
+
+        /**
+         * @param dimension the cabinet dimension
+         * @return an expression equal to <code>dimension</code>
+         */
+        public static Expression of(Dimension dimension) {
+            return new Expression(dimension, null, null, null);
+        }
+
+        /**
+         * @param dimension the cabinet dimension
+         * @param joint     the joint removed from <code>dimension</code>
+         * @param joinedTo  the role of the material the joint is made into
+         * @return an expression equal to <code>dimension</code> less the joint offset
+         */
+        public static Expression joined(Dimension dimension, Joint.JointType joint,
+                Role joinedTo) {
+            return new Expression(dimension, null, joint, joinedTo);
+        }
+
+        /**
+         * @param constant the measurement in inches
+         * @return an expression that is always <code>constant</code>
+         */
+        public static Expression constant(double constant) {
+            return new Expression(null, constant, null, null);
+        }
+
+        @Override
+        public String toString() {
+            if (dimension == null) {
+                return String.valueOf(constant);
+            }
+            return joint == null ? dimension.name() : dimension + " - " + joint + "(" + joinedTo + ")";
+        }
+    }
+
+    /**
+     * A recipe with every joint offset resolved for one pair of materials and flattened into
+     * primitive arrays. Evaluating it is a single pass over those arrays with no allocation, so a
+     * <code>Compiled</code> recipe can be shared between threads and reused for any number of
+     * cabinets.
+     */
+    public static class Compiled {
+        private static final byte CONSTANT = -1;
+
+        private final CabinetRecipe recipe;
+        private final Material[] materials;
+        /**
+         * For each of the two dimensions of each panel, the ordinal of the cabinet
+         * <code>Dimension</code> it is derived from, or {@link #CONSTANT}
+         */
+        private final byte[] source;
+        /**
+         * For each of the two dimensions of each panel, the constant measurement or the joint
+         * offset to subtract, in {@link Measurement} units
+         */
+        private final long[] operand;
+
+        private Compiled(CabinetRecipe recipe, Material sideMaterial, Material backMaterial) {
+            this.recipe = recipe;
+            int panelCount = recipe.panels.size();
+            this.materials = new Material[panelCount];
+            this.source = new byte[panelCount * 2];
+            this.operand = new long[panelCount * 2];
+
+            for (int p = 0; p < panelCount; p++) {
+                Panel panel = recipe.panels.get(p);
+                materials[p] = panel.material == Role.SIDE ? sideMaterial : backMaterial;
+                compile(p * 2, panel.first, sideMaterial, backMaterial);
+                compile(p * 2 + 1, panel.second, sideMaterial, backMaterial);
+            }
+        }
+
+        private void compile(int i, Expression expression, Material sideMaterial,
+                Material backMaterial) {
+            if (expression.dimension == null) {
+                source[i] = CONSTANT;
+                operand[i] = Measurement.toUnits(expression.constant);
+            } else {
+                source[i] = (byte) expression.dimension.ordinal();
+                operand[i] = expression.joint == null ? 0 : Joint.create(
+                        expression.joinedTo == Role.SIDE ? sideMaterial : backMaterial,
+                        expression.joint).getJoinedDimensionOffsetUnits();
+            }
+        }
+
+        /**
+         * Computes every panel dimension for a cabinet. Panel <code>p</code>'s first and second
+         * dimensions are written to <code>out[offset + 2p]</code> and
+         * <code>out[offset + 2p + 1]</code>
+         *
+         * @param widthUnits  the cabinet width in {@link Measurement} units
+         * @param heightUnits the cabinet height in {@link Measurement} units
+         * @param depthUnits  the cabinet depth in {@link Measurement} units
+         * @param out         the buffer to write panel dimensions to, in units
+         * @param offset      the index in <code>out</code> of the first panel's first dimension
+         * @return true if every panel dimension is positive
+         */
+        public boolean evaluate(long widthUnits, long heightUnits, long depthUnits, long[] out,
+                int offset) {
+            boolean positive = true;
+            for (int i = 0; i < source.length; i++) {
+                long value;
+                switch (source[i]) {
+                    case 0:
+                        value = widthUnits - operand[i];
+                        break;
+                    case 1:
+                        value = heightUnits - operand[i];
+                        break;
+                    case 2:
+                        value = depthUnits - operand[i];
+                        break;
+                    default:
+                        value = operand[i];
+                }
+                out[offset + i] = value;
+                positive &= value > 0;
+            }
+            return positive;
+        }
+
+        /**
+         * @return the number of <code>long</code>s {@link #evaluate} writes per cabinet
+         */
+        public int getStride() {
+            return source.length;
+        }
+
+        public int getPanelCount() {
+            return materials.length;
+        }
+
+        public String getPanelName(int panel) {
+            return recipe.panels.get(panel).name;
+        }
+
+        public int getQuantity(int panel) {
+            return recipe.panels.get(panel).quantity;
+        }
+
+        public Material getMaterial(int panel) {
+            return materials[panel];
+        }
+
+        /**
+         * Materializes the <code>Cut</code> for one panel from a buffer filled by
+         * {@link #evaluate}
+         *
+         * @param out    the buffer passed to <code>evaluate</code>
+         * @param offset the offset passed to <code>evaluate</code>
+         * @param panel  the panel to materialize
+         * @return the <code>Cut</code> for <code>panel</code>
+         */
+        public Cut toCut(long[] out, int offset, int panel) {
+            return Cut.ofUnits(out[offset + panel * 2], out[offset + panel * 2 + 1],
+                    materials[panel]);
+        }
+
+        public CabinetRecipe getRecipe() {
+            return recipe;
+        }
+    }
+}
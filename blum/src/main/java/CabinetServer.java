@@ -0,0 +1,233 @@
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * An HTTP service for constructing cabinets, built on the JDK's HTTP server. Every exchange is
+ * handled on its own virtual thread, so thousands of concurrent configurator sessions do not
+ * need a platform thread each.
+ * <ul>
+ * <li><code>POST /cabinets</code> accepts a cabinet, or a list of cabinets, in the same JSON form
+ * as batch mode (for example <code>{"width": 15.75, "height": 34.5, "depth": 21.75}</code>) and
+ * responds with the cuts for each cabinet</li>
+ * <li><code>GET /stats</code> responds with request count and latency percentiles for
+ * <code>/cabinets</code> in milliseconds</li>
+ * <li><code>GET /metrics</code> responds with every {@link Metrics} value in the Prometheus text
+ * format</li>
+ * </ul>
+ * Cabinets are created through a shared {@link CabinetBoxFactory}, so repeated requests for
+ * standard sizes reuse the same <code>CabinetBox</code>.
+ *
+ * @author Craig Marker
+ */
+public class CabinetServer {
+    static final String CABINETS_PATH = "/cabinets";
+    static final String STATS_PATH = "/stats";
+    static final String METRICS_PATH = "/metrics";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader SPEC_READER = MAPPER.readerFor(CabinetSpec.class);
+    private static final JsonFactory JSON_FACTORY = MAPPER.getFactory();
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final HttpServer server;
+    private final ExecutorService executorService;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final CabinetBoxFactory cabinetBoxFactory = CabinetBoxFactory.create();
+
+    private CabinetServer(HttpServer server, ExecutorService executorService) {
+        this.server = server;
+        this.executorService = executorService;
+        server.setExecutor(executorService);
+        server.createContext(CABINETS_PATH, this::handleCabinets);
+        server.createContext(STATS_PATH, this::handleStats);
+        server.createContext(METRICS_PATH, CabinetServer::handleMetrics);
+    }
+
+    /**
+     * Creates a <code>CabinetServer</code> that will listen on <code>address</code> once
+     * started
+     *
+     * @param address the address to listen on. Port 0 picks any free port
+     * @return a <code>CabinetServer</code>
+     * @throws IOException if the address can not be bound
+     */
+    public static CabinetServer create(InetSocketAddress address) throws IOException {
+        return new CabinetServer(HttpServer.create(address, 0),
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits up to <code>delaySeconds</code> for in-flight exchanges to
+     * finish, then releases the server's threads
+     *
+     * @param delaySeconds the longest time to wait for in-flight exchanges
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executorService.close();
+    }
+
+    /**
+     * @return the port the server is bound to
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return the latency of every <code>/cabinets</code> exchange, in nanoseconds
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    private void handleCabinets(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendError(exchange, HttpURLConnection.HTTP_BAD_METHOD,
+                        "Expected POST but received " + exchange.getRequestMethod());
+                return;
+            }
+
+            List<CabinetBox> cabinetBoxes = new ArrayList<>();
+            boolean isList;
+            try (InputStream body = exchange.getRequestBody();
+                 JsonParser parser = JSON_FACTORY.createParser(body)) {
+                isList = parser.nextToken() == JsonToken.START_ARRAY;
+                if (isList) {
+                    parser.nextToken();
+                }
+                while (parser.currentToken() == JsonToken.START_OBJECT && (isList
+                        || cabinetBoxes.isEmpty())) {
+                    CabinetSpec spec = SPEC_READER.readValue(parser);
+                    cabinetBoxes.add(cabinetBoxFactory.get(spec));
+                    parser.nextToken();
+                }
+                boolean closed = parser.currentToken() == JsonToken.END_ARRAY;
+                if (cabinetBoxes.isEmpty() || isList != closed) {
+                    throw new IllegalArgumentException(
+                            "Expected a cabinet object or a list of cabinet objects");
+                }
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                sendError(exchange, HttpURLConnection.HTTP_BAD_REQUEST, e.getMessage());
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+            try (OutputStream responseBody = exchange.getResponseBody();
+                 JsonGenerator generator = JSON_FACTORY.createGenerator(responseBody)) {
+                long formatStart = Metrics.startNanos();
+                if (isList) {
+                    generator.writeStartArray();
+                }
+                for (CabinetBox cabinetBox : cabinetBoxes) {
+                    writeCabinetBox(generator, cabinetBox);
+                }
+                if (isList) {
+                    generator.writeEndArray();
+                }
+                Metrics.OUTPUT_FORMATTING.record(formatStart);
+            }
+        } finally {
+            latency.record(System.nanoTime() - start);
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+            try (OutputStream responseBody = exchange.getResponseBody();
+                 JsonGenerator generator = JSON_FACTORY.createGenerator(responseBody)) {
+                generator.writeStartObject();
+                generator.writeNumberField("count", latency.getCount());
+                generator.writeNumberField("mean_ms", latency.getMean() / NANOS_PER_MILLI);
+                writePercentile(generator, "p50_ms", 50);
+                writePercentile(generator, "p90_ms", 90);
+                writePercentile(generator, "p99_ms", 99);
+                writePercentile(generator, "p999_ms", 99.9);
+                generator.writeNumberField("max_ms", latency.getMax() / NANOS_PER_MILLI);
+                generator.writeNumberField("cache_hit_rate",
+                        cabinetBoxFactory.getStats().hitRate());
+                generator.writeEndObject();
+            }
+        }
+    }
+
+    private static void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+            try (Writer responseBody = new OutputStreamWriter(exchange.getResponseBody(),
+                    StandardCharsets.UTF_8)) {
+                Metrics.writePrometheus(responseBody);
+            }
+        }
+    }
+
+    private void writePercentile(JsonGenerator generator, String name, double percentile)
+            throws IOException {
+        generator.writeNumberField(name,
+                latency.getValueAtPercentile(percentile) / NANOS_PER_MILLI);
+    }
+
+    private static void writeCabinetBox(JsonGenerator generator, CabinetBox cabinetBox)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("width", cabinetBox.getWidth());
+        generator.writeNumberField("height", cabinetBox.getHeight());
+        generator.writeNumberField("depth", cabinetBox.getDepth());
+        writeCut(generator, "side", cabinetBox.getSide());
+        writeCut(generator, "bottom", cabinetBox.getBottom());
+        writeCut(generator, "back", cabinetBox.getBack());
+        writeCut(generator, "runner", cabinetBox.getRunner());
+        generator.writeEndObject();
+    }
+
+    private static void writeCut(JsonGenerator generator, String name, Cut cut)
+            throws IOException {
+        generator.writeObjectFieldStart(name);
+        generator.writeNumberField("first", cut.getDimensions().getFirst());
+        generator.writeNumberField("second", cut.getDimensions().getSecond());
+        generator.writeStringField("material", cut.getMaterial().name());
+        generator.writeEndObject();
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, 0);
+        try (OutputStream responseBody = exchange.getResponseBody();
+             JsonGenerator generator = JSON_FACTORY.createGenerator(responseBody)) {
+            generator.writeStartObject();
+            generator.writeStringField("error", message);
+            generator.writeEndObject();
+        }
+    }
+}
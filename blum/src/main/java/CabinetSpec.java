@@ -0,0 +1,141 @@
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * The inputs needed to construct a {@link CabinetBox}: the outer width, height, and depth along
+ * with the side and back <code>Material</code>. A <code>CabinetSpec</code> is a lightweight
+ * record of an order line that has not been validated yet, so that order files can be read
+ * quickly and turned into <code>CabinetBox</code>es wherever the work is done.
+ *
+ * @author Craig Marker
+ */
+public class CabinetSpec {
+    /**
+     * The side material used when an order line does not specify one
+     */
+    static final Material DEFAULT_SIDE_MATERIAL = Material.THREE_QUARTER;
+
+    /**
+     * The back material used when an order line does not specify one
+     */
+    static final Material DEFAULT_BACK_MATERIAL = Material.QUARTER;
+
+    private final Material sideMaterial;
+    private final Material backMaterial;
+    private final double width;
+    private final double height;
+    private final double depth;
+
+    /**
+     * @param sideMaterial The <code>Material</code> for the cabinet sides and runners. Defaults
+     *                     to {@link #DEFAULT_SIDE_MATERIAL} when <code>null</code>
+     * @param backMaterial The <code>Material</code> for the cabinet back. Defaults to
+     *                     {@link #DEFAULT_BACK_MATERIAL} when <code>null</code>
+     * @param width        The outer width of the cabinet
+     * @param height       The outer height of the cabinet
+     * @param depth        The outer depth of the cabinet
+     */
+    @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+    private CabinetSpec(@JsonProperty("side_material") Material sideMaterial,
+            @JsonProperty("back_material") Material backMaterial,
+            @JsonProperty(value = "width", required = true) double width,
+            @JsonProperty(value = "height", required = true) double height,
+            @JsonProperty(value = "depth", required = true) double depth) {
+        this.sideMaterial = sideMaterial == null ? DEFAULT_SIDE_MATERIAL : sideMaterial;
+        this.backMaterial = backMaterial == null ? DEFAULT_BACK_MATERIAL : backMaterial;
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+    }
+
+    /**
+     * Creates a <code>CabinetSpec</code>
+     *
+     * @param sideMaterial The <code>Material</code> for the cabinet sides and runners
+     * @param backMaterial The <code>Material</code> for the cabinet back
+     * @param width        The outer width of the cabinet
+     * @param height       The outer height of the cabinet
+     * @param depth        The outer depth of the cabinet
+     * @return a <code>CabinetSpec</code>
+     */
+    public static CabinetSpec of(Material sideMaterial, Material backMaterial, double width,
+            double height, double depth) {
+        return new CabinetSpec(sideMaterial, backMaterial, width, height, depth);
+    }
+
+    /**
+     * Parses a comma separated order line of the form <code>width,height,depth</code> or
+     * <code>width,height,depth,sideMaterial,backMaterial</code>, where the materials are
+     * {@link Material} names such as <code>THREE_QUARTER</code>
+     *
+     * @param line the comma separated order line
+     * @return a <code>CabinetSpec</code> for the order line
+     * @throws IllegalArgumentException if the line does not have 3 or 5 fields, a dimension is
+     *                                  not a number, or a material is unknown
+     */
+    public static CabinetSpec fromCsv(String line) throws IllegalArgumentException {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 3 && fields.length != 5) {
+            throw new IllegalArgumentException(
+                    "Expected 3 or 5 comma separated fields but received " + fields.length);
+        }
+
+        Material sideMaterial = fields.length == 5 ? Material.valueOf(fields[3].trim()) : null;
+        Material backMaterial = fields.length == 5 ? Material.valueOf(fields[4].trim()) : null;
+        return new CabinetSpec(sideMaterial, backMaterial, Double.parseDouble(fields[0].trim()),
+                Double.parseDouble(fields[1].trim()), Double.parseDouble(fields[2].trim()));
+    }
+
+    /**
+     * Constructs the <code>CabinetBox</code> described by this spec
+     *
+     * @return the <code>CabinetBox</code> for this spec
+     * @throws IllegalArgumentException if the dimensions are not valid for the materials
+     */
+    public CabinetBox toCabinetBox() throws IllegalArgumentException {
+        return new CabinetBox(sideMaterial, backMaterial, width, height, depth);
+    }
+
+    public Material getSideMaterial() {
+        return sideMaterial;
+    }
+
+    public Material getBackMaterial() {
+        return backMaterial;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    public double getDepth() {
+        return depth;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CabinetSpec)) return false;
+
+        CabinetSpec that = (CabinetSpec) o;
+        return sideMaterial == that.sideMaterial && backMaterial == that.backMaterial && Double
+                .compare(width, that.width) == 0 && Double.compare(height,
+                that.height) == 0 && Double.compare(depth, that.depth) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sideMaterial, backMaterial, width, height, depth);
+    }
+
+    @Override
+    public String toString() {
+        return "CabinetSpec{" + "sideMaterial=" + sideMaterial + ", backMaterial=" + backMaterial + ", width=" + width + ", height=" + height + ", depth=" + depth + '}';
+    }
+}
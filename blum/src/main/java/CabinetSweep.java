@@ -0,0 +1,388 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A <code>CabinetSweep</code> computes the cuts of every combination of a set of widths, heights,
+ * depths, side materials, and back materials, for example to publish a catalog of standard sizes.
+ * Rather than constructing a <code>CabinetBox</code> per combination, the panel formulas are
+ * applied in bulk to fixed-point {@link Measurement} units held in primitive arrays, and the
+ * results are written to a columnar {@link Result}.
+ * <p>
+ * The innermost loop runs over the widths. When the JVM is started with
+ * <code>--add-modules jdk.incubator.vector</code> that loop uses the JDK Vector API; otherwise a
+ * scalar loop computing the same values is used.
+ *
+ * @author Craig Marker
+ */
+public class CabinetSweep {
+    private static final long RUNNER_HEIGHT_UNITS = Measurement.toUnits(3);
+
+    private static final Kernel DEFAULT_KERNEL = loadKernel();
+
+    private final long[] widths;
+    private final long[] heights;
+    private final long[] depths;
+    private final Material[] sideMaterials;
+    private final Material[] backMaterials;
+
+    private CabinetSweep(long[] widths, long[] heights, long[] depths,
+            Material[] sideMaterials, Material[] backMaterials) {
+        this.widths = widths;
+        this.heights = heights;
+        this.depths = depths;
+        this.sideMaterials = sideMaterials;
+        this.backMaterials = backMaterials;
+    }
+
+    /**
+     * Creates a <code>CabinetSweep</code> over every combination of the arguments
+     *
+     * @param widths        the cabinet widths
+     * @param heights       the cabinet heights
+     * @param depths        the cabinet depths
+     * @param sideMaterials the side materials
+     * @param backMaterials the back materials
+     * @return a <code>CabinetSweep</code>
+     * @throws IllegalArgumentException if an argument is empty or there are more than
+     *                                  <code>Integer.MAX_VALUE</code> combinations
+     */
+    public static CabinetSweep of(Range widths, Range heights, Range depths,
+            List<Material> sideMaterials, List<Material> backMaterials)
+            throws IllegalArgumentException {
+        if (sideMaterials.isEmpty() || backMaterials.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Expected at least one side and back material but received " + sideMaterials + " and " + backMaterials);
+        }
+
+        long size = (long) widths.size() * heights.size() * depths.size() * sideMaterials.size() * backMaterials.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Expected at most " + Integer.MAX_VALUE + " combinations but received " + size);
+        }
+        return new CabinetSweep(widths.units, heights.units, depths.units,
+                sideMaterials.toArray(new Material[0]), backMaterials.toArray(new Material[0]));
+    }
+
+    /**
+     * Loads {@link VectorSweepKernel} by name, so that it is never linked, and the missing
+     * <code>jdk.incubator.vector</code> classes it refers to are never needed, unless the module
+     * is present
+     */
+    private static Kernel loadKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (Kernel) Class.forName("VectorSweepKernel").getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return new ScalarKernel();
+            }
+        }
+        return new ScalarKernel();
+    }
+
+    /**
+     * @return true if sweeps run on the JDK Vector API rather than the scalar fallback
+     */
+    public static boolean isVectorized() {
+        return !(DEFAULT_KERNEL instanceof ScalarKernel);
+    }
+
+    /**
+     * @return the number of combinations in this sweep
+     */
+    public int size() {
+        return widths.length * heights.length * depths.length * sideMaterials.length * backMaterials.length;
+    }
+
+    /**
+     * Computes the cuts of every combination. Rows are ordered by side material, then back
+     * material, depth, height, and width, with width varying fastest
+     *
+     * @return the columnar cuts of every combination
+     */
+    public Result run() {
+        return run(DEFAULT_KERNEL);
+    }
+
+    /**
+     * Computes the cuts of every combination without the Vector API
+     *
+     * @return the columnar cuts of every combination
+     */
+    Result runScalar() {
+        return run(new ScalarKernel());
+    }
+
+    private Result run(Kernel kernel) {
+        Result result = new Result(size());
+        int row = 0;
+        for (Material sideMaterial : sideMaterials) {
+            long sideThickness = sideMaterial.getThicknessUnits();
+            long dado = Joint.create(sideMaterial, Joint.JointType.DADO)
+                    .getJoinedDimensionOffsetUnits();
+            long singleSideDado = Joint.create(sideMaterial, Joint.JointType.SINGLE_SIDE_DADO)
+                    .getJoinedDimensionOffsetUnits();
+            long butt = Joint.create(sideMaterial, Joint.JointType.BUTT)
+                    .getJoinedDimensionOffsetUnits();
+
+            for (Material backMaterial : backMaterials) {
+                long minimumDepth = sideThickness + backMaterial.getThicknessUnits();
+                for (long depth : depths) {
+                    for (long height : heights) {
+                        Arrays.fill(result.sideMaterial, row, row + widths.length,
+                                (byte) sideMaterial.ordinal());
+                        Arrays.fill(result.backMaterial, row, row + widths.length,
+                                (byte) backMaterial.ordinal());
+                        fill(result, Column.HEIGHT, row, height);
+                        fill(result, Column.DEPTH, row, depth);
+                        fill(result, Column.SIDE_FIRST, row, height);
+                        fill(result, Column.SIDE_SECOND, row, depth);
+                        fill(result, Column.BOTTOM_SECOND, row, depth);
+                        fill(result, Column.BACK_SECOND, row, height - singleSideDado);
+                        fill(result, Column.RUNNER_SECOND, row, RUNNER_HEIGHT_UNITS);
+
+                        boolean heightAndDepthValid = height > 2 * sideThickness && depth > minimumDepth;
+                        kernel.widths(widths, result, row, dado, butt,
+                                heightAndDepthValid ? 2 * sideThickness : Long.MAX_VALUE);
+                        row += widths.length;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void fill(Result result, Column column, int row, long value) {
+        Arrays.fill(result.columns[column.ordinal()], row, row + widths.length, value);
+    }
+
+    /**
+     * Computes the columns that vary with width for one run of widths
+     */
+    interface Kernel {
+        /**
+         * @param widths       the widths in units
+         * @param result       where the columns are written
+         * @param row          the first row of the run
+         * @param dado         the <code>DADO</code> offset for the side material
+         * @param butt         the <code>BUTT</code> offset for the side material
+         * @param minimumWidth widths must be greater than this to be valid
+         */
+        void widths(long[] widths, Result result, int row, long dado, long butt,
+                long minimumWidth);
+    }
+
+    private static class ScalarKernel implements Kernel {
+        @Override
+        public void widths(long[] widths, Result result, int row, long dado, long butt,
+                long minimumWidth) {
+            long[] width = result.columns[Column.WIDTH.ordinal()];
+            long[] bottomFirst = result.columns[Column.BOTTOM_FIRST.ordinal()];
+            long[] backFirst = result.columns[Column.BACK_FIRST.ordinal()];
+            long[] runnerFirst = result.columns[Column.RUNNER_FIRST.ordinal()];
+            for (int i = 0; i < widths.length; i++) {
+                long w = widths[i];
+                width[row + i] = w;
+                bottomFirst[row + i] = w - dado;
+                backFirst[row + i] = w - dado;
+                runnerFirst[row + i] = w - butt;
+                result.valid[row + i] = w > minimumWidth;
+            }
+        }
+    }
+
+    /**
+     * The measurement columns of a {@link Result}, in fixed-point {@link Measurement} units
+     */
+    public enum Column {
+        WIDTH,
+        HEIGHT,
+        DEPTH,
+        SIDE_FIRST,
+        SIDE_SECOND,
+        BOTTOM_FIRST,
+        BOTTOM_SECOND,
+        BACK_FIRST,
+        BACK_SECOND,
+        RUNNER_FIRST,
+        RUNNER_SECOND
+    }
+
+    /**
+     * The panels of a combination, each read from its first and second {@link Column}
+     */
+    public enum Panel {
+        SIDE(Column.SIDE_FIRST, Column.SIDE_SECOND),
+        BOTTOM(Column.BOTTOM_FIRST, Column.BOTTOM_SECOND),
+        BACK(Column.BACK_FIRST, Column.BACK_SECOND),
+        RUNNER(Column.RUNNER_FIRST, Column.RUNNER_SECOND);
+
+        private final Column first;
+        private final Column second;
+
+        Panel(Column first, Column second) {
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    /**
+     * The cuts of every combination in a sweep, stored as one primitive array per
+     * {@link Column} plus the materials and whether the combination is a valid cabinet.
+     * Combinations that <code>CabinetBox</code> would reject are kept, marked invalid, so that
+     * row numbers follow the sweep order
+     */
+    public static class Result {
+        private static final Material[] MATERIALS = Material.values();
+
+        private final int size;
+        private final long[][] columns;
+        private final byte[] sideMaterial;
+        private final byte[] backMaterial;
+        private final boolean[] valid;
+
+        Result(int size) {
+            this.size = size;
+            this.columns = new long[Column.values().length][size];
+            this.sideMaterial = new byte[size];
+            this.backMaterial = new byte[size];
+            this.valid = new boolean[size];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param column the measurement to read
+         * @return the backing array of <code>column</code>, indexed by row. It must not be
+         * modified
+         */
+        public long[] getColumn(Column column) {
+            return columns[column.ordinal()];
+        }
+
+        long[][] getColumns() {
+            return columns;
+        }
+
+        boolean[] getValid() {
+            return valid;
+        }
+
+        public Material getSideMaterial(int row) {
+            return MATERIALS[sideMaterial[row]];
+        }
+
+        public Material getBackMaterial(int row) {
+            return MATERIALS[backMaterial[row]];
+        }
+
+        /**
+         * @param row the combination to check
+         * @return true if <code>CabinetBox</code> accepts the dimensions of <code>row</code>
+         */
+        public boolean isValid(int row) {
+            return valid[row];
+        }
+
+        /**
+         * @return the number of valid combinations
+         */
+        public int getValidCount() {
+            int count = 0;
+            for (boolean v : valid) {
+                if (v) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Materializes a single panel of a combination
+         *
+         * @param row   the combination
+         * @param panel the panel to materialize
+         * @return the <code>Cut</code> for <code>panel</code>
+         */
+        public Cut getCut(int row, Panel panel) {
+            Material material = panel == Panel.BACK ? getBackMaterial(row) : getSideMaterial(row);
+            return Cut.ofUnits(columns[panel.first.ordinal()][row],
+                    columns[panel.second.ordinal()][row], material);
+        }
+
+        @Override
+        public String toString() {
+            return "Result{size=" + size + ", valid=" + getValidCount() + '}';
+        }
+    }
+
+    /**
+     * An ordered set of measurements, in inches
+     */
+    public static class Range {
+        private final long[] units;
+
+        private Range(long[] units) {
+            this.units = units;
+        }
+
+        /**
+         * Creates a <code>Range</code> from <code>start</code> to <code>end</code>, inclusive, in
+         * steps of <code>step</code>, for example every width from 9" to 48" in 3" steps
+         *
+         * @param start the first measurement
+         * @param end   the last measurement
+         * @param step  the distance between measurements
+         * @return a <code>Range</code>
+         * @throws IllegalArgumentException if <code>step</code> is not positive or
+         *                                  <code>end</code> is before <code>start</code>
+         */
+        public static Range of(double start, double end, double step)
+                throws IllegalArgumentException {
+            long startUnits = Measurement.toUnits(start);
+            long endUnits = Measurement.toUnits(end);
+            long stepUnits = Measurement.toUnits(step);
+            if (stepUnits <= 0 || endUnits < startUnits) {
+                throw new IllegalArgumentException(
+                        "Expected a positive step from start to end but received " + start + " to " + end + " by " + step);
+            }
+
+            long[] units = new long[Math.toIntExact((endUnits - startUnits) / stepUnits + 1)];
+            for (int i = 0; i < units.length; i++) {
+                units[i] = startUnits + i * stepUnits;
+            }
+            return new Range(units);
+        }
+
+        /**
+         * Creates a <code>Range</code> of exactly the given measurements
+         *
+         * @param values the measurements
+         * @return a <code>Range</code>
+         * @throws IllegalArgumentException if no measurements are given
+         */
+        public static Range values(double... values) throws IllegalArgumentException {
+            if (values.length == 0) {
+                throw new IllegalArgumentException(
+                        "Expected at least one measurement but received none");
+            }
+
+            long[] units = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+                units[i] = Measurement.toUnits(values[i]);
+            }
+            return new Range(units);
+        }
+
+        public int size() {
+            return units.length;
+        }
+
+        @Override
+        public String toString() {
+            return "Range{size=" + units.length + '}';
+        }
+    }
+}
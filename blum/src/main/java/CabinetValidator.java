@@ -0,0 +1,323 @@
+import java.util.List;
+
+/**
+ * Checks cabinet dimensions against the material thickness rules of <code>CabinetBox</code>
+ * without throwing. Constructing a <code>CabinetBox</code> with bad dimensions costs an
+ * exception, its stack trace, and a formatted message; when ingesting order files full of
+ * rejects, {@link #validate(Material[], Material[], double[], double[], double[])} instead checks
+ * a whole column of inputs into a bitmap of valid rows and a byte of {@link Rule} violations per
+ * row, and formats a message only when one is asked for.
+ * <p>
+ * Dimensions are converted to {@link Measurement} units and compared in units, exactly as
+ * <code>CabinetBox</code> does, so a row is valid if and only if <code>CabinetBox</code> accepts
+ * it. A dimension that is not finite or too large to convert breaks that dimension's rule.
+ *
+ * @author Craig Marker
+ */
+public final class CabinetValidator {
+    private CabinetValidator() {
+    }
+
+    /**
+     * Checks a single cabinet, converting each dimension to units as <code>CabinetBox</code> does
+     *
+     * @param sideMaterial The <code>Material</code> for the cabinet sides and runners
+     * @param backMaterial The <code>Material</code> for the cabinet back
+     * @param width        The outer width of the cabinet
+     * @param height       The outer height of the cabinet
+     * @param depth        The outer depth of the cabinet
+     * @return the {@link Rule#getBit() bits} of every rule the cabinet breaks, or 0 if it is
+     * valid
+     */
+    public static int check(Material sideMaterial, Material backMaterial, double width,
+            double height, double depth) {
+        return checkUnits(sideMaterial, backMaterial, toCheckedUnits(width),
+                toCheckedUnits(height), toCheckedUnits(depth));
+    }
+
+    /**
+     * Converts a dimension to units without throwing. <code>Long.MIN_VALUE</code> stands in for
+     * a dimension that can not be converted, since it breaks every rule
+     */
+    private static long toCheckedUnits(double inches) {
+        return Measurement.isConvertible(inches) ? Measurement.toUnits(inches) : Long.MIN_VALUE;
+    }
+
+    /**
+     * Checks a single cabinet whose dimensions are already in fixed-point units, comparing them
+     * exactly against the material thicknesses in units
+     *
+     * @param sideMaterial The <code>Material</code> for the cabinet sides and runners
+     * @param backMaterial The <code>Material</code> for the cabinet back
+     * @param widthUnits   The outer width of the cabinet in {@link Measurement} units
+     * @param heightUnits  The outer height of the cabinet in {@link Measurement} units
+     * @param depthUnits   The outer depth of the cabinet in {@link Measurement} units
+     * @return the {@link Rule#getBit() bits} of every rule the cabinet breaks, or 0 if it is
+     * valid
+     */
+    public static int checkUnits(Material sideMaterial, Material backMaterial, long widthUnits,
+            long heightUnits, long depthUnits) {
+        long sideThickness = sideMaterial.getThicknessUnits();
+        int violations = 0;
+        if (widthUnits <= sideThickness * 2) {
+            violations |= Rule.WIDTH.bit;
+        }
+        if (heightUnits <= sideThickness * 2) {
+            violations |= Rule.HEIGHT.bit;
+        }
+        if (depthUnits <= sideThickness + backMaterial.getThicknessUnits()) {
+            violations |= Rule.DEPTH.bit;
+        }
+        return violations;
+    }
+
+    /**
+     * Formats the message <code>CabinetBox</code> would throw for a cabinet, which reports the
+     * first rule broken
+     *
+     * @param violations   the result of {@link #check(Material, Material, double, double, double)}
+     * @param sideMaterial The <code>Material</code> for the cabinet sides and runners
+     * @param backMaterial The <code>Material</code> for the cabinet back
+     * @param width        The outer width of the cabinet
+     * @param height       The outer height of the cabinet
+     * @param depth        The outer depth of the cabinet
+     * @return the message for the first broken rule, or <code>null</code> if
+     * <code>violations</code> is 0
+     */
+    public static String getMessage(int violations, Material sideMaterial,
+            Material backMaterial, double width, double height, double depth) {
+        for (Rule rule : Rule.values()) {
+            if ((violations & rule.bit) != 0) {
+                return rule.getMessage(sideMaterial, backMaterial, width, height, depth);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks a column of cabinets, row <code>i</code> being made of element <code>i</code> of
+     * each array. The arrays are referenced by the result to format messages and must not be
+     * modified while it is in use
+     *
+     * @param sideMaterials The <code>Material</code> for the cabinet sides and runners
+     * @param backMaterials The <code>Material</code> for the cabinet back
+     * @param widths        The outer width of each cabinet
+     * @param heights       The outer height of each cabinet
+     * @param depths        The outer depth of each cabinet
+     * @return the validity of every row
+     * @throws IllegalArgumentException if the arrays are not all the same length
+     */
+    public static Result validate(Material[] sideMaterials, Material[] backMaterials,
+            double[] widths, double[] heights, double[] depths) throws IllegalArgumentException {
+        int size = widths.length;
+        if (sideMaterials.length != size || backMaterials.length != size || heights.length != size || depths.length != size) {
+            throw new IllegalArgumentException(
+                    "Expected columns of equal length but received " + sideMaterials.length + ", " + backMaterials.length + ", " + widths.length + ", " + heights.length + ", " + depths.length);
+        }
+
+        Result result = new Result(sideMaterials, backMaterials, widths, heights, depths);
+        for (int row = 0; row < size; row++) {
+            int violations = check(sideMaterials[row], backMaterials[row], widths[row],
+                    heights[row], depths[row]);
+            if (violations == 0) {
+                result.valid[row >>> 6] |= 1L << row;
+                result.validCount++;
+            } else {
+                result.violations[row] = (byte) violations;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks every spec in <code>specs</code>
+     *
+     * @param specs the cabinets to check
+     * @return the validity of every spec, in order
+     */
+    public static Result validate(List<CabinetSpec> specs) {
+        int size = specs.size();
+        Material[] sideMaterials = new Material[size];
+        Material[] backMaterials = new Material[size];
+        double[] widths = new double[size];
+        double[] heights = new double[size];
+        double[] depths = new double[size];
+        for (int i = 0; i < size; i++) {
+            CabinetSpec spec = specs.get(i);
+            sideMaterials[i] = spec.getSideMaterial();
+            backMaterials[i] = spec.getBackMaterial();
+            widths[i] = spec.getWidth();
+            heights[i] = spec.getHeight();
+            depths[i] = spec.getDepth();
+        }
+        return validate(sideMaterials, backMaterials, widths, heights, depths);
+    }
+
+    /**
+     * The dimension rules a cabinet must satisfy
+     */
+    public enum Rule {
+        /**
+         * The width must exceed both side thicknesses
+         */
+        WIDTH(1) {
+            @Override
+            String getMessage(Material sideMaterial, Material backMaterial, double width,
+                    double height, double depth) {
+                return String.format(
+                        "Expected Cabinet width greater than 2x side material thickness, %.4f, " + "but received %.4f",
+                        sideMaterial.getThickness() * 2, width);
+            }
+        },
+        /**
+         * The height must exceed both side thicknesses
+         */
+        HEIGHT(2) {
+            @Override
+            String getMessage(Material sideMaterial, Material backMaterial, double width,
+                    double height, double depth) {
+                return String.format(
+                        "Expected Cabinet height greater than 2x side material thickness, %.4f, " + "but received %.4f",
+                        sideMaterial.getThickness() * 2, height);
+            }
+        },
+        /**
+         * The depth must exceed the side and back thicknesses
+         */
+        DEPTH(4) {
+            @Override
+            String getMessage(Material sideMaterial, Material backMaterial, double width,
+                    double height, double depth) {
+                return String.format(
+                        "Expected Cabinet depth greater than side material thickness plus back " + "material thickness, %.4f, but received %.4f",
+                        sideMaterial.getThickness() + backMaterial.getThickness(), depth);
+            }
+        };
+
+        private final int bit;
+
+        Rule(int bit) {
+            this.bit = bit;
+        }
+
+        /**
+         * @return the bit set in a violation code when this rule is broken
+         */
+        public int getBit() {
+            return bit;
+        }
+
+        abstract String getMessage(Material sideMaterial, Material backMaterial, double width,
+                double height, double depth);
+    }
+
+    /**
+     * The validity of a column of cabinets: one bit per row in a bitmap of valid rows, and one
+     * byte of {@link Rule} bits per row for the rules it breaks
+     */
+    public static class Result {
+        private final Material[] sideMaterials;
+        private final Material[] backMaterials;
+        private final double[] widths;
+        private final double[] heights;
+        private final double[] depths;
+        private final long[] valid;
+        private final byte[] violations;
+        private int validCount;
+
+        private Result(Material[] sideMaterials, Material[] backMaterials, double[] widths,
+                double[] heights, double[] depths) {
+            this.sideMaterials = sideMaterials;
+            this.backMaterials = backMaterials;
+            this.widths = widths;
+            this.heights = heights;
+            this.depths = depths;
+            this.valid = new long[(widths.length + 63) >>> 6];
+            this.violations = new byte[widths.length];
+        }
+
+        public int size() {
+            return violations.length;
+        }
+
+        public int getValidCount() {
+            return validCount;
+        }
+
+        public int getInvalidCount() {
+            return violations.length - validCount;
+        }
+
+        public boolean isValid(int row) {
+            return (valid[row >>> 6] & 1L << row) != 0;
+        }
+
+        /**
+         * @return a copy of the bitmap of valid rows, where bit <code>row % 64</code> of word
+         * <code>row / 64</code> is set for each valid row
+         */
+        public long[] getValidBitmap() {
+            return valid.clone();
+        }
+
+        /**
+         * @param row the row to look up
+         * @return the {@link Rule#getBit() bits} of every rule <code>row</code> breaks, or 0 if
+         * it is valid
+         */
+        public int getViolations(int row) {
+            return violations[row];
+        }
+
+        /**
+         * @param row  the row to look up
+         * @param rule the rule to check
+         * @return true if <code>row</code> breaks <code>rule</code>
+         */
+        public boolean violates(int row, Rule rule) {
+            return (violations[row] & rule.bit) != 0;
+        }
+
+        /**
+         * Finds the next invalid row, for walking only the rejects of a large column
+         *
+         * @param fromRow the row to start searching from, inclusive
+         * @return the first invalid row at or after <code>fromRow</code>, or -1 if there is none
+         */
+        public int nextInvalid(int fromRow) {
+            int size = violations.length;
+            if (fromRow >= size) {
+                return -1;
+            }
+            int word = fromRow >>> 6;
+            long invalid = ~valid[word] & -1L << fromRow;
+            while (true) {
+                if (invalid != 0) {
+                    int row = word * 64 + Long.numberOfTrailingZeros(invalid);
+                    return row < size ? row : -1;
+                }
+                if (++word == valid.length) {
+                    return -1;
+                }
+                invalid = ~valid[word];
+            }
+        }
+
+        /**
+         * Formats the message <code>CabinetBox</code> would throw for <code>row</code>
+         *
+         * @param row the row to describe
+         * @return the message for the first rule <code>row</code> breaks, or <code>null</code>
+         * if it is valid
+         */
+        public String getMessage(int row) {
+            return CabinetValidator.getMessage(violations[row], sideMaterials[row],
+                    backMaterials[row], widths[row], heights[row], depths[row]);
+        }
+
+        @Override
+        public String toString() {
+            return "Result{" + "size=" + size() + ", valid=" + validCount + '}';
+        }
+    }
+}
@@ -1,5 +1,3 @@
-import java.util.Objects;
-
 /**
  * A <code>Cut</code> is a representation of work done in woodworking to make a material piece
  * smaller. For example, cutting down a sheet of plywood into panels that can be joined together
@@ -14,16 +12,28 @@ public class Cut {
     /**
      * Creates a basic <code>Cut</code>
      *
-     * @param firstDimension  The first dimension measurement
-     * @param secondDimension The second dimension measurement
-     * @param material        The material to be used in the <code>Cut</code>
+     * @param firstDimensionUnits  The first dimension measurement in {@link Measurement} units
+     * @param secondDimensionUnits The second dimension measurement in {@link Measurement} units
+     * @param material             The material to be used in the <code>Cut</code>
      * @return a <code>Cut</code>
      */
-    private Cut(double firstDimension, double secondDimension, Material material) {
-        this.dimensions = Dimensions.valueOf(firstDimension, secondDimension);
+    private Cut(long firstDimensionUnits, long secondDimensionUnits, Material material) {
+        this.dimensions = Dimensions.ofUnits(firstDimensionUnits, secondDimensionUnits);
         this.material = material;
     }
 
+    /**
+     * Creates a <code>Cut</code> from measurements already in fixed-point units
+     *
+     * @param firstDimensionUnits  The first dimension measurement in {@link Measurement} units
+     * @param secondDimensionUnits The second dimension measurement in {@link Measurement} units
+     * @param material             The material to be used in the <code>Cut</code>
+     * @return a <code>Cut</code>
+     */
+    static Cut ofUnits(long firstDimensionUnits, long secondDimensionUnits, Material material) {
+        return new Cut(firstDimensionUnits, secondDimensionUnits, material);
+    }
+
     /**
      * Creates a <code>Cut</code> whose dimensions are not joined with another piece of wood
      *
@@ -34,7 +44,8 @@ public class Cut {
      */
     public static Cut withNoJoinedDimensions(double firstDimension, double secondDimension,
             Material material) {
-        return new Cut(firstDimension, secondDimension, material);
+        return new Cut(Measurement.toUnits(firstDimension), Measurement.toUnits(secondDimension),
+                material);
     }
 
     /**
@@ -56,8 +67,8 @@ public class Cut {
      */
     public static Cut withOneJoinedDimension(double joinedDimension, Joint joint,
             double unJoinedDimension, Material material) {
-        return new Cut(joinedDimension - joint.getJoinedDimensionOffset(), unJoinedDimension,
-                material);
+        return new Cut(Measurement.toUnits(joinedDimension) - joint.getJoinedDimensionOffsetUnits(),
+                Measurement.toUnits(unJoinedDimension), material);
     }
 
     /**
@@ -87,8 +98,11 @@ public class Cut {
     public static Cut withTwoJoinedDimensions(double firstDimension, Joint firstDimensionJoint,
             double secondDimension, Joint secondDimensionJoint, Material material) {
 
-        return new Cut(firstDimension - firstDimensionJoint.getJoinedDimensionOffset(),
-                secondDimension - secondDimensionJoint.getJoinedDimensionOffset(), material);
+        return new Cut(Measurement.toUnits(
+                firstDimension) - firstDimensionJoint.getJoinedDimensionOffsetUnits(),
+                Measurement.toUnits(
+                        secondDimension) - secondDimensionJoint.getJoinedDimensionOffsetUnits(),
+                material);
     }
 
     public Material getMaterial() {
@@ -105,20 +119,21 @@ public class Cut {
     }
 
     /**
-     * Object representation of two dimensions, for example width x height
+     * Object representation of two dimensions, for example width x height. Measurements are held
+     * in fixed-point {@link Measurement} units so that equality is exact
      */
     static class Dimensions {
-        private final double first;
-        private final double second;
+        private final long first;
+        private final long second;
 
         /**
          * Creates a Dimensions object. The measurements are interchangeable. For instance,
          * first=4.0 and second=3.0 is the same as first=3.0 and second=4.0
          *
-         * @param first  the first measurement
-         * @param second the second measurement
+         * @param first  the first measurement in units
+         * @param second the second measurement in units
          */
-        private Dimensions(double first, double second) {
+        private Dimensions(long first, long second) {
             this.first = first;
             this.second = second;
         }
@@ -133,8 +148,36 @@ public class Cut {
          * <code>second</code> as its measurements
          */
         public static Dimensions valueOf(double first, double second) {
+            return new Dimensions(Measurement.toUnits(first), Measurement.toUnits(second));
+
+        }
+
+        /**
+         * Creates a Dimensions object from measurements in fixed-point units
+         *
+         * @param first  the first measurement in {@link Measurement} units
+         * @param second the second measurement in {@link Measurement} units
+         * @return A <code>Dimensions</code> object with <code>first</code> and
+         * <code>second</code> as its measurements
+         */
+        public static Dimensions ofUnits(long first, long second) {
             return new Dimensions(first, second);
+        }
 
+        public double getFirst() {
+            return Measurement.toInches(first);
+        }
+
+        public double getSecond() {
+            return Measurement.toInches(second);
+        }
+
+        public long getFirstUnits() {
+            return first;
+        }
+
+        public long getSecondUnits() {
+            return second;
         }
 
         /**
@@ -150,19 +193,26 @@ public class Cut {
             if (!(o instanceof Dimensions)) return false;
 
             Dimensions that = (Dimensions) o;
-            return Double.compare(first, that.first) == 0 && Double.compare(second,
-                    that.second) == 0 || Double.compare(first, that.second) == 0 && Double.compare(
-                    second, that.first) == 0;
+            return first == that.first && second == that.second
+                    || first == that.second && second == that.first;
         }
 
+        /**
+         * Hashes the measurements in a consistent order so that, in agreement with
+         * {@link #equals(Object)}, <code>Dimensions(4.0, 3.0)</code> and
+         * <code>Dimensions(3.0, 4.0)</code> have the same hash code
+         *
+         * @return a hash code that does not depend on measurement order
+         */
         @Override
         public int hashCode() {
-            return Objects.hash(first, second);
+            return 31 * Long.hashCode(Math.min(first, second)) + Long.hashCode(
+                    Math.max(first, second));
         }
 
         @Override
         public String toString() {
-            return "Dimensions{" + first + "x" + second + '}';
+            return "Dimensions{" + getFirst() + "x" + getSecond() + '}';
         }
     }
 }
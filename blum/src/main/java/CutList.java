@@ -0,0 +1,261 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compact list of <code>Cut</code>s for large jobs. Rather than holding a <code>Cut</code>,
+ * <code>Cut.Dimensions</code> and <code>Material</code> reference per panel, measurements are
+ * stored column-wise in parallel arrays of fixed-point {@link Measurement} units and materials
+ * by ordinal, so a job of hundreds
+ * of thousands of panels is a handful of arrays instead of hundreds of thousands of objects.
+ * <code>Cut</code>s are only created when asked for with {@link #getCut(int)}.
+ * <p>
+ * A <code>CutList</code> is not thread safe.
+ *
+ * @author Craig Marker
+ */
+public class CutList {
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final Material[] MATERIALS = Material.values();
+
+    private long[] first;
+    private long[] second;
+    private byte[] material;
+    private int size;
+
+    /**
+     * Creates an empty <code>CutList</code>
+     */
+    public CutList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty <code>CutList</code> with room for <code>capacity</code> cuts before it
+     * has to grow
+     *
+     * @param capacity the initial number of cuts the list can hold
+     */
+    public CutList(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(
+                    "CutList capacity must not be negative but received " + capacity);
+        }
+
+        this.first = new long[capacity];
+        this.second = new long[capacity];
+        this.material = new byte[capacity];
+    }
+
+    /**
+     * Appends a single cut
+     *
+     * @param firstDimension  The first dimension measurement
+     * @param secondDimension The second dimension measurement
+     * @param material        The material of the cut
+     * @throws IllegalArgumentException if a measurement is not finite
+     */
+    public void add(double firstDimension, double secondDimension, Material material)
+            throws IllegalArgumentException {
+        addUnits(Measurement.toUnits(firstDimension), Measurement.toUnits(secondDimension),
+                material);
+    }
+
+    /**
+     * Appends a single cut whose measurements are already in fixed-point units
+     *
+     * @param firstUnits  The first dimension measurement in {@link Measurement} units
+     * @param secondUnits The second dimension measurement in {@link Measurement} units
+     * @param material    The material of the cut
+     */
+    void addUnits(long firstUnits, long secondUnits, Material material) {
+        ensureCapacity(size + 1);
+        append(firstUnits, secondUnits, material);
+    }
+
+    /**
+     * Appends a single cut
+     *
+     * @param cut the <code>Cut</code> to append
+     */
+    public void add(Cut cut) {
+        ensureCapacity(size + 1);
+        append(cut);
+    }
+
+    /**
+     * Appends every panel needed to build <code>cabinetBox</code>: two sides, the bottom, the
+     * back, and the runner
+     *
+     * @param cabinetBox the <code>CabinetBox</code> whose cuts are appended
+     */
+    public void addAll(CabinetBox cabinetBox) {
+        ensureCapacity(size + 5);
+        append(cabinetBox.getSide());
+        append(cabinetBox.getSide());
+        append(cabinetBox.getBottom());
+        append(cabinetBox.getBack());
+        append(cabinetBox.getRunner());
+    }
+
+    /**
+     * Appends every cut in <code>other</code>
+     *
+     * @param other the <code>CutList</code> to append
+     */
+    public void addAll(CutList other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.first, 0, first, size, other.size);
+        System.arraycopy(other.second, 0, second, size, other.size);
+        System.arraycopy(other.material, 0, material, size, other.size);
+        size += other.size;
+    }
+
+    private void append(Cut cut) {
+        append(cut.getDimensions().getFirstUnits(), cut.getDimensions().getSecondUnits(),
+                cut.getMaterial());
+    }
+
+    private void append(long firstUnits, long secondUnits, Material material) {
+        this.first[size] = firstUnits;
+        this.second[size] = secondUnits;
+        this.material[size] = (byte) material.ordinal();
+        size++;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > first.length) {
+            int capacity = Math.max(minCapacity, first.length + (first.length >> 1) + 1);
+            first = Arrays.copyOf(first, capacity);
+            second = Arrays.copyOf(second, capacity);
+            material = Arrays.copyOf(material, capacity);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index the position of the cut in this list
+     * @return the first dimension measurement of the cut
+     */
+    public double getFirst(int index) {
+        return Measurement.toInches(getFirstUnits(index));
+    }
+
+    /**
+     * @param index the position of the cut in this list
+     * @return the second dimension measurement of the cut
+     */
+    public double getSecond(int index) {
+        return Measurement.toInches(getSecondUnits(index));
+    }
+
+    /**
+     * @param index the position of the cut in this list
+     * @return the first dimension measurement of the cut in {@link Measurement} units
+     */
+    public long getFirstUnits(int index) {
+        checkIndex(index);
+        return first[index];
+    }
+
+    /**
+     * @param index the position of the cut in this list
+     * @return the second dimension measurement of the cut in {@link Measurement} units
+     */
+    public long getSecondUnits(int index) {
+        checkIndex(index);
+        return second[index];
+    }
+
+    /**
+     * @param index the position of the cut in this list
+     * @return the material of the cut
+     */
+    public Material getMaterial(int index) {
+        checkIndex(index);
+        return MATERIALS[material[index]];
+    }
+
+    /**
+     * Materializes a single <code>Cut</code>. Prefer the primitive accessors or
+     * {@link #forEach(CutConsumer)} in hot paths
+     *
+     * @param index the position of the cut in this list
+     * @return a <code>Cut</code> equivalent to the one at <code>index</code>
+     */
+    public Cut getCut(int index) {
+        checkIndex(index);
+        return Cut.ofUnits(first[index], second[index], MATERIALS[material[index]]);
+    }
+
+    /**
+     * Materializes every cut in this list
+     *
+     * @return a new list of <code>Cut</code>s in the same order as this list
+     */
+    public List<Cut> toCuts() {
+        List<Cut> cuts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cuts.add(getCut(i));
+        }
+        return cuts;
+    }
+
+    /**
+     * Visits every cut in order without allocating
+     *
+     * @param consumer receives the measurements and material of each cut
+     */
+    public void forEach(CutConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(Measurement.toInches(first[i]), Measurement.toInches(second[i]),
+                    MATERIALS[material[i]]);
+        }
+    }
+
+    /**
+     * Removes every cut while keeping the allocated capacity, so the list can be reused for the
+     * next job
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Shrinks the backing arrays to the current size
+     */
+    public void trimToSize() {
+        if (size < first.length) {
+            first = Arrays.copyOf(first, size);
+            second = Arrays.copyOf(second, size);
+            material = Arrays.copyOf(material, size);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Expected CutList index less than " + size + " but received " + index);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CutList{size=" + size + '}';
+    }
+
+    /**
+     * Receives the unpacked columns of a single cut
+     */
+    @FunctionalInterface
+    public interface CutConsumer {
+        void accept(double firstDimension, double secondDimension, Material material);
+    }
+}
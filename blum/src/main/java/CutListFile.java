@@ -0,0 +1,361 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A compact, fixed-width binary file of cuts for handing cut lists to the CNC pipeline without
+ * text parsing. Files are written and read through memory-mapped <code>FileChannel</code>s, and
+ * records are read through a reusable {@link Record} view over the mapped buffer rather than by
+ * creating a <code>Cut</code> per record.
+ * <p>
+ * All values are little-endian. The layout is:
+ * <pre>
+ * header (32 bytes)
+ *   0  int    magic, "BLMC"
+ *   4  short  format version, 1
+ *   6  short  number of material table entries
+ *   8  long   number of cut records
+ *   16 long   measurement units per inch, see {@link Measurement#UNITS_PER_INCH}
+ *   24 long   reserved, 0
+ * material table (24 bytes per entry, indexed from 0)
+ *   0  char[16] material name, US-ASCII, padded with NUL
+ *   16 long     material thickness in units
+ * cut records (12 bytes per record)
+ *   0  int    first dimension in units
+ *   4  int    second dimension in units
+ *   8  short  material table index
+ *   10 short  reserved, 0
+ * </pre>
+ * A single file holds up to about 178 million cuts, the most that fit in one mapped buffer.
+ *
+ * @author Craig Marker
+ */
+public class CutListFile {
+    static final int MAGIC = 0x434D4C42;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int MATERIAL_NAME_SIZE = 16;
+    static final int MATERIAL_ENTRY_SIZE = MATERIAL_NAME_SIZE + Long.BYTES;
+    static final int RECORD_SIZE = 12;
+
+    private static final Material[] MATERIALS = Material.values();
+
+    private final ByteBuffer buffer;
+    private final Material[] materials;
+    private final int recordCount;
+    private final int recordsStart;
+
+    private CutListFile(ByteBuffer buffer, Material[] materials, int recordCount,
+            int recordsStart) {
+        this.buffer = buffer;
+        this.materials = materials;
+        this.recordCount = recordCount;
+        this.recordsStart = recordsStart;
+    }
+
+    /**
+     * Writes <code>cutList</code> to <code>path</code>, replacing any existing file
+     *
+     * @param path    the file to write
+     * @param cutList the cuts to write
+     * @throws IOException              if the file can not be written
+     * @throws IllegalArgumentException if the list is too large for one file or a measurement
+     *                                  does not fit in a record, in which case the file is left
+     *                                  untouched
+     */
+    public static void write(Path path, CutList cutList) throws IOException {
+        int tableSize = MATERIALS.length * MATERIAL_ENTRY_SIZE;
+        long fileSize = HEADER_SIZE + tableSize + (long) cutList.size() * RECORD_SIZE;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Expected at most " + (Integer.MAX_VALUE - HEADER_SIZE - tableSize) / RECORD_SIZE + " cuts but received " + cutList.size());
+        }
+
+        // check every record before the existing file is truncated
+        for (int i = 0; i < cutList.size(); i++) {
+            toRecordUnits(cutList.getFirstUnits(i));
+            toRecordUnits(cutList.getSecondUnits(i));
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.putInt(MAGIC);
+            buffer.putShort(VERSION);
+            buffer.putShort((short) MATERIALS.length);
+            buffer.putLong(cutList.size());
+            buffer.putLong(Measurement.UNITS_PER_INCH);
+            buffer.putLong(0);
+
+            for (Material material : MATERIALS) {
+                byte[] name = material.name().getBytes(StandardCharsets.US_ASCII);
+                buffer.put(name, 0, Math.min(name.length, MATERIAL_NAME_SIZE));
+                for (int i = name.length; i < MATERIAL_NAME_SIZE; i++) {
+                    buffer.put((byte) 0);
+                }
+                buffer.putLong(material.getThicknessUnits());
+            }
+
+            for (int i = 0; i < cutList.size(); i++) {
+                buffer.putInt(toRecordUnits(cutList.getFirstUnits(i)));
+                buffer.putInt(toRecordUnits(cutList.getSecondUnits(i)));
+                buffer.putShort((short) cutList.getMaterial(i).ordinal());
+                buffer.putShort((short) 0);
+            }
+            buffer.force();
+        }
+    }
+
+    private static int toRecordUnits(long units) throws IllegalArgumentException {
+        if (units < Integer.MIN_VALUE || units > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Expected a measurement of at most " + Measurement.toInches(Integer.MAX_VALUE) + " inches but received " + Measurement.toInches(units));
+        }
+        return (int) units;
+    }
+
+    /**
+     * Maps a cut list file for reading. The mapping stays valid after this method returns and is
+     * released once the returned <code>CutListFile</code> is no longer referenced
+     *
+     * @param path the file to read
+     * @return a <code>CutListFile</code> over the mapped file
+     * @throws IOException if the file can not be read, is not a cut list file, or has a record
+     *                     whose material is missing from its table or unknown to this version
+     */
+    public static CutListFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Expected a cut list file but " + path + " has size " + fileSize);
+            }
+
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize).order(
+                    ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+                throw new IOException("Expected a version " + VERSION + " cut list file: " + path);
+            }
+            if (buffer.getLong(16) != Measurement.UNITS_PER_INCH) {
+                throw new IOException(
+                        "Expected " + Measurement.UNITS_PER_INCH + " units per inch but " + path + " uses " + buffer.getLong(16));
+            }
+
+            int materialCount = Short.toUnsignedInt(buffer.getShort(6));
+            long recordCount = buffer.getLong(8);
+            int recordsStart = HEADER_SIZE + materialCount * MATERIAL_ENTRY_SIZE;
+            if (recordsStart > fileSize || recordCount != (fileSize - recordsStart) / RECORD_SIZE || (fileSize - recordsStart) % RECORD_SIZE != 0) {
+                throw new IOException(
+                        "Expected " + materialCount + " materials and " + recordCount + " cut records in " + path + " but it has size " + fileSize);
+            }
+
+            String[] names = readMaterialNames(buffer, materialCount);
+            Material[] materials = toMaterials(names);
+            for (int i = 0; i < recordCount; i++) {
+                int materialIndex = Short.toUnsignedInt(
+                        buffer.getShort(recordsStart + i * RECORD_SIZE + 8));
+                if (materialIndex >= materialCount) {
+                    throw new IOException(
+                            "Expected a material index less than " + materialCount + " but record " + i + " of " + path + " has " + materialIndex);
+                }
+                if (materials[materialIndex] == null) {
+                    throw new IOException(
+                            "Expected a known material but record " + i + " of " + path + " uses " + names[materialIndex]);
+                }
+            }
+            return new CutListFile(buffer, materials, (int) recordCount, recordsStart);
+        }
+    }
+
+    private static String[] readMaterialNames(ByteBuffer buffer, int materialCount) {
+        String[] names = new String[materialCount];
+        byte[] name = new byte[MATERIAL_NAME_SIZE];
+        for (int m = 0; m < materialCount; m++) {
+            buffer.get(HEADER_SIZE + m * MATERIAL_ENTRY_SIZE, name);
+            int length = 0;
+            while (length < MATERIAL_NAME_SIZE && name[length] != 0) {
+                length++;
+            }
+            names[m] = new String(name, 0, length, StandardCharsets.US_ASCII);
+        }
+        return names;
+    }
+
+    /**
+     * Resolves each material table entry to the <code>Material</code> of the same name, or
+     * <code>null</code> when this version of the application does not know it
+     */
+    private static Material[] toMaterials(String[] names) {
+        Material[] materials = new Material[names.length];
+        for (int m = 0; m < names.length; m++) {
+            for (Material material : MATERIALS) {
+                if (material.name().equals(names[m])) {
+                    materials[m] = material;
+                }
+            }
+        }
+        return materials;
+    }
+
+    /**
+     * @return the number of cut records in the file
+     */
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * @param index the position of the record
+     * @return the first dimension of the record in {@link Measurement} units
+     */
+    public int getFirstUnits(int index) {
+        return buffer.getInt(offsetOf(index));
+    }
+
+    /**
+     * @param index the position of the record
+     * @return the second dimension of the record in {@link Measurement} units
+     */
+    public int getSecondUnits(int index) {
+        return buffer.getInt(offsetOf(index) + 4);
+    }
+
+    /**
+     * @param index the position of the record
+     * @return the material table index of the record
+     */
+    public int getMaterialIndex(int index) {
+        return Short.toUnsignedInt(buffer.getShort(offsetOf(index) + 8));
+    }
+
+    /**
+     * @param materialIndex a material table index
+     * @return the <code>Material</code> for the entry, or <code>null</code> if it is not a known
+     * material, which no record uses
+     */
+    public Material getMaterial(int materialIndex) {
+        return materials[materialIndex];
+    }
+
+    private int offsetOf(int index) {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException(
+                    "Expected record index less than " + recordCount + " but received " + index);
+        }
+        return recordsStart + index * RECORD_SIZE;
+    }
+
+    /**
+     * Creates a reusable view over the records of this file
+     *
+     * @return a <code>Record</code> positioned before the first record
+     */
+    public Record newRecord() {
+        return new Record();
+    }
+
+    /**
+     * Copies every record into a <code>CutList</code>
+     *
+     * @return a <code>CutList</code> of the records in this file
+     */
+    public CutList toCutList() {
+        CutList cutList = new CutList(recordCount);
+        Record record = newRecord();
+        while (record.next()) {
+            cutList.addUnits(record.getFirstUnits(), record.getSecondUnits(),
+                    record.getMaterial());
+        }
+        return cutList;
+    }
+
+    @Override
+    public String toString() {
+        return "CutListFile{size=" + recordCount + '}';
+    }
+
+    /**
+     * A flyweight view of one record at a time. Move it with {@link #moveTo(int)} or
+     * {@link #next()} and read the fields of the current record straight from the mapped
+     * buffer
+     */
+    public class Record {
+        private int index = -1;
+        private int offset;
+
+        private Record() {
+        }
+
+        /**
+         * @param index the record to view
+         * @return this view
+         */
+        public Record moveTo(int index) {
+            this.offset = offsetOf(index);
+            this.index = index;
+            return this;
+        }
+
+        /**
+         * Advances to the next record
+         *
+         * @return false if there are no more records
+         */
+        public boolean next() {
+            if (index + 1 >= recordCount) {
+                return false;
+            }
+            moveTo(index + 1);
+            return true;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getFirstUnits() {
+            return buffer.getInt(offset);
+        }
+
+        public int getSecondUnits() {
+            return buffer.getInt(offset + 4);
+        }
+
+        public double getFirst() {
+            return Measurement.toInches(getFirstUnits());
+        }
+
+        public double getSecond() {
+            return Measurement.toInches(getSecondUnits());
+        }
+
+        public int getMaterialIndex() {
+            return Short.toUnsignedInt(buffer.getShort(offset + 8));
+        }
+
+        public Material getMaterial() {
+            return materials[getMaterialIndex()];
+        }
+
+        /**
+         * Materializes the current record
+         *
+         * @return a <code>Cut</code> for the current record
+         */
+        public Cut toCut() {
+            return Cut.ofUnits(getFirstUnits(), getSecondUnits(), getMaterial());
+        }
+
+        @Override
+        public String toString() {
+            return "Record{" + getFirst() + "x" + getSecond() + ", material=" + getMaterial() + '}';
+        }
+    }
+}
@@ -0,0 +1,294 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A <code>CutScheduler</code> orders the cuts of a job for a panel saw so that the fence is
+ * moved as little as possible. For each <code>Material</code> the schedule has two phases: a rip
+ * phase that cuts strips to the smaller dimension of each panel, with every rip at the same
+ * fence setting done together, then a crosscut phase that cuts the strips to the larger
+ * dimension, with every crosscut of the same length done together. Within each phase settings
+ * run from widest to narrowest, so the fence only ever moves toward the blade.
+ * <p>
+ * Scheduling is a sort of packed primitive keys, so jobs of tens of thousands of cuts are
+ * scheduled in a few milliseconds.
+ *
+ * @author Craig Marker
+ */
+public class CutScheduler {
+    private static final Material[] MATERIALS = Material.values();
+    private static final int INDEX_BITS = 24;
+    private static final int UNITS_BITS = 36;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final long UNITS_MASK = (1L << UNITS_BITS) - 1;
+
+    /**
+     * The most cuts a single job may have
+     */
+    static final int MAX_CUTS = 1 << INDEX_BITS;
+
+    private CutScheduler() {
+    }
+
+    /**
+     * Schedules every cut in <code>cuts</code>
+     *
+     * @param cuts the cuts of a job
+     * @return the cuts ordered for the saw
+     * @throws IllegalArgumentException if there are more than {@link #MAX_CUTS} cuts or a cut is
+     *                                  too large to schedule
+     */
+    public static Schedule schedule(Collection<Cut> cuts) throws IllegalArgumentException {
+        int size = checkSize(cuts.size());
+        long[] smaller = new long[size];
+        long[] larger = new long[size];
+        byte[] material = new byte[size];
+        int i = 0;
+        for (Cut cut : cuts) {
+            long first = cut.getDimensions().getFirstUnits();
+            long second = cut.getDimensions().getSecondUnits();
+            smaller[i] = Math.min(first, second);
+            larger[i] = Math.max(first, second);
+            material[i] = (byte) cut.getMaterial().ordinal();
+            i++;
+        }
+        return schedule(smaller, larger, material);
+    }
+
+    /**
+     * Schedules every cut in <code>cutList</code>
+     *
+     * @param cutList the cuts of a job
+     * @return the cuts ordered for the saw
+     * @throws IllegalArgumentException if there are more than {@link #MAX_CUTS} cuts or a cut is
+     *                                  too large to schedule
+     */
+    public static Schedule schedule(CutList cutList) throws IllegalArgumentException {
+        int size = checkSize(cutList.size());
+        long[] smaller = new long[size];
+        long[] larger = new long[size];
+        byte[] material = new byte[size];
+        for (int i = 0; i < size; i++) {
+            long first = cutList.getFirstUnits(i);
+            long second = cutList.getSecondUnits(i);
+            smaller[i] = Math.min(first, second);
+            larger[i] = Math.max(first, second);
+            material[i] = (byte) cutList.getMaterial(i).ordinal();
+        }
+        return schedule(smaller, larger, material);
+    }
+
+    private static int checkSize(int size) {
+        if (size > MAX_CUTS) {
+            throw new IllegalArgumentException(
+                    "Expected at most " + MAX_CUTS + " cuts but received " + size);
+        }
+        return size;
+    }
+
+    private static Schedule schedule(long[] smaller, long[] larger, byte[] material) {
+        long[] rips = sortKeys(smaller, material);
+        long[] crosscuts = sortKeys(larger, material);
+
+        List<Step> steps = new ArrayList<>();
+        int[] sequence = new int[crosscuts.length];
+        int r = 0;
+        int c = 0;
+        for (Material m : MATERIALS) {
+            r = addSteps(steps, rips, r, m, Phase.RIP, null);
+            c = addSteps(steps, crosscuts, c, m, Phase.CROSSCUT, sequence);
+        }
+        return new Schedule(Collections.unmodifiableList(steps), sequence, smaller, larger,
+                material);
+    }
+
+    /**
+     * Packs each cut into a key that sorts by material, then by measurement from largest to
+     * smallest, and keeps the cut's index in the low bits
+     */
+    private static long[] sortKeys(long[] units, byte[] material) {
+        long[] keys = new long[units.length];
+        for (int i = 0; i < units.length; i++) {
+            if (units[i] < 0 || units[i] > UNITS_MASK) {
+                throw new IllegalArgumentException(
+                        "Expected a cut measurement from 0 to " + Measurement.toInches(UNITS_MASK) + " but received " + Measurement.toInches(units[i]));
+            }
+            keys[i] = (long) material[i] << (UNITS_BITS + INDEX_BITS) | (UNITS_MASK - units[i]) << INDEX_BITS | i;
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    /**
+     * Appends a step for each run of equal settings of <code>material</code> starting at
+     * <code>from</code>, and records the order of the cuts in <code>sequence</code> when given
+     *
+     * @return the position after the last key of <code>material</code>
+     */
+    private static int addSteps(List<Step> steps, long[] keys, int from, Material material,
+            Phase phase, int[] sequence) {
+        int i = from;
+        while (i < keys.length && keys[i] >>> (UNITS_BITS + INDEX_BITS) == material.ordinal()) {
+            long setting = keys[i] >>> INDEX_BITS;
+            int start = i;
+            while (i < keys.length && keys[i] >>> INDEX_BITS == setting) {
+                if (sequence != null) {
+                    sequence[i] = (int) (keys[i] & INDEX_MASK);
+                }
+                i++;
+            }
+            steps.add(new Step(material, phase, UNITS_MASK - (setting & UNITS_MASK), i - start));
+        }
+        return i;
+    }
+
+    /**
+     * The two passes a panel saw makes over each material
+     */
+    public enum Phase {
+        /**
+         * Cutting sheets into strips along their length
+         */
+        RIP,
+        /**
+         * Cutting strips to length
+         */
+        CROSSCUT
+    }
+
+    /**
+     * The cuts of a job in saw order
+     */
+    public static class Schedule {
+        private final List<Step> steps;
+        private final int[] sequence;
+        private final long[] smaller;
+        private final long[] larger;
+        private final byte[] material;
+
+        private Schedule(List<Step> steps, int[] sequence, long[] smaller, long[] larger,
+                byte[] material) {
+            this.steps = steps;
+            this.sequence = sequence;
+            this.smaller = smaller;
+            this.larger = larger;
+            this.material = material;
+        }
+
+        /**
+         * @return every fence setting in the order they are made
+         */
+        public List<Step> getSteps() {
+            return steps;
+        }
+
+        /**
+         * @return the number of times the fence is set, one per step
+         */
+        public int getFenceChanges() {
+            return steps.size();
+        }
+
+        /**
+         * @param material the material to count
+         * @return the number of times the fence is set while cutting <code>material</code>
+         */
+        public int getFenceChanges(Material material) {
+            int changes = 0;
+            for (Step step : steps) {
+                if (step.getMaterial() == material) {
+                    changes++;
+                }
+            }
+            return changes;
+        }
+
+        /**
+         * Counts the fence changes of cutting each panel to completion, one after another in the
+         * order given, as a baseline for this schedule
+         *
+         * @return the number of fence changes without scheduling
+         */
+        public int getUnscheduledFenceChanges() {
+            int changes = 0;
+            long fence = -1;
+            for (int i = 0; i < smaller.length; i++) {
+                if (smaller[i] != fence) {
+                    changes++;
+                }
+                if (larger[i] != smaller[i]) {
+                    changes++;
+                }
+                fence = larger[i];
+            }
+            return changes;
+        }
+
+        /**
+         * @return the cuts in the order their final crosscuts are made
+         */
+        public List<Cut> getSequence() {
+            List<Cut> cuts = new ArrayList<>(sequence.length);
+            for (int i : sequence) {
+                cuts.add(Cut.ofUnits(larger[i], smaller[i], MATERIALS[material[i]]));
+            }
+            return cuts;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("Schedule{fenceChanges=").append(
+                    getFenceChanges());
+            for (Step step : steps) {
+                builder.append('\n').append(step);
+            }
+            return builder.append('}').toString();
+        }
+    }
+
+    /**
+     * A single fence setting and the number of cuts made at it
+     */
+    public static class Step {
+        private final Material material;
+        private final Phase phase;
+        private final long settingUnits;
+        private final int quantity;
+
+        private Step(Material material, Phase phase, long settingUnits, int quantity) {
+            this.material = material;
+            this.phase = phase;
+            this.settingUnits = settingUnits;
+            this.quantity = quantity;
+        }
+
+        public Material getMaterial() {
+            return material;
+        }
+
+        public Phase getPhase() {
+            return phase;
+        }
+
+        /**
+         * @return the distance from the fence to the blade
+         */
+        public double getSetting() {
+            return Measurement.toInches(settingUnits);
+        }
+
+        /**
+         * @return the number of panels cut at this setting
+         */
+        public int getQuantity() {
+            return quantity;
+        }
+
+        @Override
+        public String toString() {
+            return material + " " + phase + " at " + getSetting() + " x " + quantity;
+        }
+    }
+}
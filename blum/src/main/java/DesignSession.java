@@ -0,0 +1,308 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A <code>DesignSession</code> holds a cabinet while it is being edited, for example in the
+ * configurator where each keystroke nudges one dimension. Rather than building a new
+ * <code>CabinetBox</code> for every change, the session knows which {@link Input}s each
+ * {@link Panel} depends on and recomputes only the panels downstream of the input that changed.
+ * Changing the depth recomputes the side and bottom, while changing the back material
+ * recomputes only the back.
+ * <p>
+ * {@link Listener}s are told about the panels whose cuts actually changed, so a change that
+ * leaves every cut the same produces no notification. Dimensions are held in {@link Measurement}
+ * units and are converted and validated exactly as <code>CabinetBox</code> does before the
+ * session changes. A <code>DesignSession</code> is not thread safe; it is meant to be driven by a
+ * single UI thread.
+ *
+ * @author Craig Marker
+ */
+public class DesignSession {
+    private Material sideMaterial;
+    private Material backMaterial;
+    private long widthUnits;
+    private long heightUnits;
+    private long depthUnits;
+
+    private final Map<Panel, Cut> cuts = new EnumMap<>(Panel.class);
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private DesignSession(Material sideMaterial, Material backMaterial, long widthUnits,
+            long heightUnits, long depthUnits) {
+        this.sideMaterial = sideMaterial;
+        this.backMaterial = backMaterial;
+        this.widthUnits = widthUnits;
+        this.heightUnits = heightUnits;
+        this.depthUnits = depthUnits;
+        for (Panel panel : Panel.values()) {
+            cuts.put(panel, panel.compute(this));
+        }
+    }
+
+    /**
+     * Starts a session on the cabinet described by the arguments
+     *
+     * @param sideMaterial The <code>Material</code> for the cabinet sides and runners
+     * @param backMaterial The <code>Material</code> for the cabinet back
+     * @param width        The outer width of the cabinet
+     * @param height       The outer height of the cabinet
+     * @param depth        The outer depth of the cabinet
+     * @return a <code>DesignSession</code>
+     * @throws IllegalArgumentException if a dimension is not finite or the cabinet can not be
+     *                                  built with the materials
+     */
+    public static DesignSession create(Material sideMaterial, Material backMaterial,
+            double width, double height, double depth) throws IllegalArgumentException {
+        long widthUnits = Measurement.toUnits(width);
+        long heightUnits = Measurement.toUnits(height);
+        long depthUnits = Measurement.toUnits(depth);
+        CabinetBox.validateUnits(sideMaterial, backMaterial, widthUnits, heightUnits, depthUnits);
+        return new DesignSession(sideMaterial, backMaterial, widthUnits, heightUnits,
+                depthUnits);
+    }
+
+    /**
+     * Starts a session on the cabinet described by <code>spec</code>
+     *
+     * @param spec the starting cabinet
+     * @return a <code>DesignSession</code>
+     * @throws IllegalArgumentException if a dimension is not finite or the cabinet can not be
+     *                                  built with the materials
+     */
+    public static DesignSession create(CabinetSpec spec) throws IllegalArgumentException {
+        return create(spec.getSideMaterial(), spec.getBackMaterial(), spec.getWidth(),
+                spec.getHeight(), spec.getDepth());
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @param width The outer width of the cabinet
+     * @return the panels whose cuts changed
+     * @throws IllegalArgumentException if <code>width</code> is not finite or the cabinet can
+     *                                  not be built with the new width. The session is left
+     *                                  unchanged
+     */
+    public Map<Panel, Cut> setWidth(double width) throws IllegalArgumentException {
+        return update(sideMaterial, backMaterial, Measurement.toUnits(width), heightUnits,
+                depthUnits);
+    }
+
+    /**
+     * @param height The outer height of the cabinet
+     * @return the panels whose cuts changed
+     * @throws IllegalArgumentException if <code>height</code> is not finite or the cabinet can
+     *                                  not be built with the new height. The session is left
+     *                                  unchanged
+     */
+    public Map<Panel, Cut> setHeight(double height) throws IllegalArgumentException {
+        return update(sideMaterial, backMaterial, widthUnits, Measurement.toUnits(height),
+                depthUnits);
+    }
+
+    /**
+     * @param depth The outer depth of the cabinet
+     * @return the panels whose cuts changed
+     * @throws IllegalArgumentException if <code>depth</code> is not finite or the cabinet can
+     *                                  not be built with the new depth. The session is left
+     *                                  unchanged
+     */
+    public Map<Panel, Cut> setDepth(double depth) throws IllegalArgumentException {
+        return update(sideMaterial, backMaterial, widthUnits, heightUnits,
+                Measurement.toUnits(depth));
+    }
+
+    /**
+     * @param sideMaterial The <code>Material</code> for the cabinet sides and runners
+     * @return the panels whose cuts changed
+     * @throws IllegalArgumentException if the cabinet can not be built with the new material.
+     *                                  The session is left unchanged
+     */
+    public Map<Panel, Cut> setSideMaterial(Material sideMaterial)
+            throws IllegalArgumentException {
+        return update(sideMaterial, backMaterial, widthUnits, heightUnits, depthUnits);
+    }
+
+    /**
+     * @param backMaterial The <code>Material</code> for the cabinet back
+     * @return the panels whose cuts changed
+     * @throws IllegalArgumentException if the cabinet can not be built with the new material.
+     *                                  The session is left unchanged
+     */
+    public Map<Panel, Cut> setBackMaterial(Material backMaterial)
+            throws IllegalArgumentException {
+        return update(sideMaterial, backMaterial, widthUnits, heightUnits, depthUnits);
+    }
+
+    /**
+     * Changes any number of inputs at once, recomputing each affected panel a single time and
+     * notifying listeners once
+     *
+     * @param spec the new inputs
+     * @return the panels whose cuts changed
+     * @throws IllegalArgumentException if the cabinet can not be built with the new inputs. The
+     *                                  session is left unchanged
+     */
+    public Map<Panel, Cut> set(CabinetSpec spec) throws IllegalArgumentException {
+        return update(spec.getSideMaterial(), spec.getBackMaterial(),
+                Measurement.toUnits(spec.getWidth()), Measurement.toUnits(spec.getHeight()),
+                Measurement.toUnits(spec.getDepth()));
+    }
+
+    private Map<Panel, Cut> update(Material sideMaterial, Material backMaterial, long widthUnits,
+            long heightUnits, long depthUnits) throws IllegalArgumentException {
+        Set<Input> changedInputs = EnumSet.noneOf(Input.class);
+        if (sideMaterial != this.sideMaterial) changedInputs.add(Input.SIDE_MATERIAL);
+        if (backMaterial != this.backMaterial) changedInputs.add(Input.BACK_MATERIAL);
+        if (widthUnits != this.widthUnits) changedInputs.add(Input.WIDTH);
+        if (heightUnits != this.heightUnits) changedInputs.add(Input.HEIGHT);
+        if (depthUnits != this.depthUnits) changedInputs.add(Input.DEPTH);
+        if (changedInputs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        CabinetBox.validateUnits(sideMaterial, backMaterial, widthUnits, heightUnits, depthUnits);
+        this.sideMaterial = sideMaterial;
+        this.backMaterial = backMaterial;
+        this.widthUnits = widthUnits;
+        this.heightUnits = heightUnits;
+        this.depthUnits = depthUnits;
+
+        Map<Panel, Cut> changed = new EnumMap<>(Panel.class);
+        for (Panel panel : Panel.values()) {
+            if (!Collections.disjoint(panel.getInputs(), changedInputs)) {
+                Cut cut = panel.compute(this);
+                if (!isSameCut(cut, cuts.get(panel))) {
+                    cuts.put(panel, cut);
+                    changed.put(panel, cut);
+                }
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            Map<Panel, Cut> unmodifiable = Collections.unmodifiableMap(changed);
+            for (Listener listener : List.copyOf(listeners)) {
+                listener.onChange(unmodifiable);
+            }
+            return unmodifiable;
+        }
+        return Collections.emptyMap();
+    }
+
+    private static boolean isSameCut(Cut a, Cut b) {
+        return a.getMaterial() == b.getMaterial() && a.getDimensions().equals(b.getDimensions());
+    }
+
+    /**
+     * @param panel the panel to look up
+     * @return the current cut for <code>panel</code>
+     */
+    public Cut getCut(Panel panel) {
+        return cuts.get(panel);
+    }
+
+    /**
+     * @return the current inputs of the session
+     */
+    public CabinetSpec toSpec() {
+        return CabinetSpec.of(sideMaterial, backMaterial, Measurement.toInches(widthUnits),
+                Measurement.toInches(heightUnits), Measurement.toInches(depthUnits));
+    }
+
+    /**
+     * Builds the <code>CabinetBox</code> for the current inputs
+     *
+     * @return the <code>CabinetBox</code> being designed
+     */
+    public CabinetBox toCabinetBox() {
+        return new CabinetBox(sideMaterial, backMaterial, Measurement.toInches(widthUnits),
+                Measurement.toInches(heightUnits), Measurement.toInches(depthUnits));
+    }
+
+    @Override
+    public String toString() {
+        return "DesignSession{" + "spec=" + toSpec() + ", cuts=" + cuts + '}';
+    }
+
+    /**
+     * The inputs a cabinet is designed from
+     */
+    public enum Input {
+        WIDTH,
+        HEIGHT,
+        DEPTH,
+        SIDE_MATERIAL,
+        BACK_MATERIAL
+    }
+
+    /**
+     * The panels of a <code>CabinetBox</code> and the {@link Input}s each is computed from
+     */
+    public enum Panel {
+        SIDE(EnumSet.of(Input.HEIGHT, Input.DEPTH, Input.SIDE_MATERIAL)) {
+            @Override
+            Cut compute(DesignSession session) {
+                return CabinetBox.side(session.sideMaterial, session.heightUnits,
+                        session.depthUnits);
+            }
+        },
+        BOTTOM(EnumSet.of(Input.WIDTH, Input.DEPTH, Input.SIDE_MATERIAL)) {
+            @Override
+            Cut compute(DesignSession session) {
+                return CabinetBox.bottom(session.sideMaterial, session.widthUnits,
+                        session.depthUnits);
+            }
+        },
+        BACK(EnumSet.of(Input.WIDTH, Input.HEIGHT, Input.SIDE_MATERIAL, Input.BACK_MATERIAL)) {
+            @Override
+            Cut compute(DesignSession session) {
+                return CabinetBox.back(session.sideMaterial, session.backMaterial,
+                        session.widthUnits, session.heightUnits);
+            }
+        },
+        RUNNER(EnumSet.of(Input.WIDTH, Input.SIDE_MATERIAL)) {
+            @Override
+            Cut compute(DesignSession session) {
+                return CabinetBox.runner(session.sideMaterial, session.widthUnits);
+            }
+        };
+
+        private final Set<Input> inputs;
+
+        Panel(Set<Input> inputs) {
+            this.inputs = Collections.unmodifiableSet(inputs);
+        }
+
+        abstract Cut compute(DesignSession session);
+
+        /**
+         * @return the inputs this panel is computed from
+         */
+        public Set<Input> getInputs() {
+            return inputs;
+        }
+    }
+
+    /**
+     * Receives the panels whose cuts changed after each edit
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param changed the new cut of every panel that changed. Panels that did not change are
+         *                absent
+         */
+        void onChange(Map<Panel, Cut> changed);
+    }
+}
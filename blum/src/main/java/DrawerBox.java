@@ -0,0 +1,377 @@
+/**
+ * A <code>DrawerBox</code> is a drawer built to hang on a particular
+ * {@link RunnerConfiguration} inside a cabinet opening. The runner sets the length of the drawer
+ * and how far the inside of the drawer sits from each side of the opening; the drawer sides
+ * must be a thickness the runner accepts. The front and back sit between the sides, and the
+ * bottom is captured in a dado in all four.
+ * <p>
+ * Drawers outnumber cabinets several times over in a job, so
+ * {@link #createAll(RunnerConfiguration, Material, Material, double[], double[], double[])}
+ * computes the cuts of many drawers into primitive columns, without constructing a
+ * <code>DrawerBox</code> or <code>Cut</code> per drawer.
+ *
+ * @author Craig Marker
+ * @see
+ * <a href="https://www.blum.com/us/en/products/runnersystems/">Blum runner systems</a>
+ */
+public class DrawerBox {
+    private static final Material[] MATERIALS = Material.values();
+
+    private final RunnerConfiguration runner;
+    private final double width;
+    private final double height;
+
+    /**
+     * The left and right of the drawer, running the full length of the runner. A drawer
+     * requires two sides of equal size
+     */
+    private final Cut side;
+    /**
+     * The front and back of the drawer, which sit between the sides. A drawer requires one of
+     * each, of equal size
+     */
+    private final Cut front;
+    /**
+     * The bottom of the drawer, captured in a dado in the sides, front, and back
+     */
+    private final Cut bottom;
+
+    private DrawerBox(RunnerConfiguration runner, Material sideMaterial, Material bottomMaterial,
+            long openingWidthUnits, long heightUnits) {
+        Offsets offsets = new Offsets(runner, sideMaterial);
+        long insideWidth = openingWidthUnits - offsets.interior;
+        long outsideWidth = insideWidth + offsets.sides;
+
+        this.runner = runner;
+        this.width = Measurement.toInches(outsideWidth);
+        this.height = Measurement.toInches(heightUnits);
+        this.side = Cut.ofUnits(offsets.length, heightUnits, sideMaterial);
+        this.front = Cut.ofUnits(outsideWidth - offsets.butt, heightUnits, sideMaterial);
+        this.bottom = Cut.ofUnits(outsideWidth - offsets.dado, offsets.length - offsets.dado,
+                bottomMaterial);
+    }
+
+    /**
+     * Creates the <code>DrawerBox</code> for the opening of <code>cabinetBox</code>: its width
+     * less both sides and its depth less the back
+     *
+     * @param cabinetBox     the cabinet the drawer hangs in
+     * @param runner         the runner the drawer hangs on
+     * @param sideMaterial   the <code>Material</code> for the drawer sides, front, and back
+     * @param bottomMaterial the <code>Material</code> for the drawer bottom
+     * @param height         the height of the drawer sides, for example from a
+     *                       {@link DrawerLayoutSolver.Layout}
+     * @return a <code>DrawerBox</code>
+     * @throws IllegalArgumentException if the runner does not accept the side material or does
+     *                                  not fit the opening, or the height does not leave room
+     *                                  for the bottom
+     */
+    public static DrawerBox create(CabinetBox cabinetBox, RunnerConfiguration runner,
+            Material sideMaterial, Material bottomMaterial, double height)
+            throws IllegalArgumentException {
+        long cabinetSide = cabinetBox.getSide().getMaterial().getThicknessUnits();
+        return create(runner, sideMaterial, bottomMaterial,
+                Measurement.toInches(cabinetBox.getWidthUnits() - 2 * cabinetSide),
+                getOpeningDepth(cabinetBox), height);
+    }
+
+    /**
+     * @param cabinetBox a cabinet
+     * @return the depth of the opening of <code>cabinetBox</code>, its depth less the back
+     */
+    static double getOpeningDepth(CabinetBox cabinetBox) {
+        long cabinetBack = cabinetBox.getBack().getMaterial().getThicknessUnits();
+        return Measurement.toInches(cabinetBox.getDepthUnits() - cabinetBack);
+    }
+
+    /**
+     * @param runner       the runner the drawer hangs on
+     * @param openingDepth the depth from the cabinet back to the front
+     * @throws IllegalArgumentException if the opening is too shallow for the runner
+     */
+    static void checkOpeningDepth(RunnerConfiguration runner, double openingDepth)
+            throws IllegalArgumentException {
+        if (Measurement.toUnits(openingDepth) < Measurement.toUnits(runner.getMinCabinetDepth())) {
+            throw new IllegalArgumentException(
+                    "Expected an opening at least " + runner.getMinCabinetDepth() + " deep for runner " + runner.getSku() + " but received " + openingDepth);
+        }
+    }
+
+    /**
+     * Creates a <code>DrawerBox</code> for an opening
+     *
+     * @param runner         the runner the drawer hangs on
+     * @param sideMaterial   the <code>Material</code> for the drawer sides, front, and back
+     * @param bottomMaterial the <code>Material</code> for the drawer bottom
+     * @param openingWidth   the width between the cabinet sides
+     * @param openingDepth   the depth from the cabinet back to the front
+     * @param height         the height of the drawer sides
+     * @return a <code>DrawerBox</code>
+     * @throws IllegalArgumentException if the runner does not accept the side material or does
+     *                                  not fit the opening, or the height does not leave room
+     *                                  for the bottom
+     */
+    public static DrawerBox create(RunnerConfiguration runner, Material sideMaterial,
+            Material bottomMaterial, double openingWidth, double openingDepth, double height)
+            throws IllegalArgumentException {
+        checkSideMaterial(runner, sideMaterial);
+        long openingWidthUnits = Measurement.toUnits(openingWidth);
+        long heightUnits = Measurement.toUnits(height);
+        Offsets offsets = new Offsets(runner, sideMaterial);
+        checkOpeningDepth(runner, openingDepth);
+        if (openingWidthUnits <= offsets.interior) {
+            throw new IllegalArgumentException(
+                    "Expected an opening wider than 2x runner interior offset, " + 2 * runner.getInteriorOffset() + ", but received " + openingWidth);
+        }
+        if (heightUnits <= bottomMaterial.getThicknessUnits()) {
+            throw new IllegalArgumentException(
+                    "Expected drawer height greater than bottom material thickness, " + bottomMaterial.getThickness() + ", but received " + height);
+        }
+        return new DrawerBox(runner, sideMaterial, bottomMaterial, openingWidthUnits,
+                heightUnits);
+    }
+
+    /**
+     * Computes the cuts of a drawer for each opening, row <code>i</code> being made of element
+     * <code>i</code> of each array. Rows that would be rejected by
+     * {@link #create(RunnerConfiguration, Material, Material, double, double, double)} are
+     * marked invalid rather than thrown, including rows with a measurement that is not finite
+     *
+     * @param runner         the runner every drawer hangs on
+     * @param sideMaterial   the <code>Material</code> for the drawer sides, front, and back
+     * @param bottomMaterial the <code>Material</code> for the drawer bottoms
+     * @param openingWidths  the width between the cabinet sides of each opening
+     * @param openingDepths  the depth from the cabinet back to the front of each opening
+     * @param heights        the height of the sides of each drawer
+     * @return the columnar cuts of every drawer
+     * @throws IllegalArgumentException if the runner does not accept the side material or the
+     *                                  arrays are not all the same length
+     */
+    public static Batch createAll(RunnerConfiguration runner, Material sideMaterial,
+            Material bottomMaterial, double[] openingWidths, double[] openingDepths,
+            double[] heights) throws IllegalArgumentException {
+        int size = openingWidths.length;
+        if (openingDepths.length != size || heights.length != size) {
+            throw new IllegalArgumentException(
+                    "Expected columns of equal length but received " + openingWidths.length + ", " + openingDepths.length + ", " + heights.length);
+        }
+        checkSideMaterial(runner, sideMaterial);
+
+        Offsets offsets = new Offsets(runner, sideMaterial);
+        long minHeight = bottomMaterial.getThicknessUnits();
+        Batch batch = new Batch(size, sideMaterial, bottomMaterial);
+        long[] frontFirst = batch.columns[Column.FRONT_FIRST.ordinal()];
+        long[] bottomFirst = batch.columns[Column.BOTTOM_FIRST.ordinal()];
+        long[] drawerHeight = batch.columns[Column.HEIGHT.ordinal()];
+        for (int i = 0; i < size; i++) {
+            if (!Measurement.isConvertible(openingWidths[i]) || !Measurement.isConvertible(
+                    openingDepths[i]) || !Measurement.isConvertible(heights[i])) {
+                // create rejects what can not be converted to units; the row's columns stay 0
+                batch.valid[i] = false;
+                continue;
+            }
+            long openingWidth = Measurement.toUnits(openingWidths[i]);
+            long height = Measurement.toUnits(heights[i]);
+            long outsideWidth = openingWidth - offsets.interior + offsets.sides;
+            frontFirst[i] = outsideWidth - offsets.butt;
+            bottomFirst[i] = outsideWidth - offsets.dado;
+            drawerHeight[i] = height;
+            batch.valid[i] = openingWidth > offsets.interior && height > minHeight && Measurement.toUnits(
+                    openingDepths[i]) >= offsets.minDepth;
+        }
+        batch.length = offsets.length;
+        batch.bottomSecond = offsets.length - offsets.dado;
+        return batch;
+    }
+
+    private static void checkSideMaterial(RunnerConfiguration runner, Material sideMaterial)
+            throws IllegalArgumentException {
+        double thickness = sideMaterial.getThickness();
+        if (thickness < runner.getMinDrawerSideThickness() || thickness > runner.getMaxDrawerSideThickness()) {
+            throw new IllegalArgumentException(
+                    "Expected drawer side thickness from " + runner.getMinDrawerSideThickness() + " to " + runner.getMaxDrawerSideThickness() + " for runner " + runner.getSku() + " but received " + thickness);
+        }
+    }
+
+    public RunnerConfiguration getRunner() {
+        return runner;
+    }
+
+    /**
+     * @return the outside width of the drawer, from the outside of one side to the other
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the length of the drawer, which is the length of the runner
+     */
+    public double getLength() {
+        return runner.getDrawerLength();
+    }
+
+    public Cut getSide() {
+        return side;
+    }
+
+    public Cut getFront() {
+        return front;
+    }
+
+    public Cut getBack() {
+        return front;
+    }
+
+    public Cut getBottom() {
+        return bottom;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "DrawerBox{dimensions=%sx%sx%s WxHxL\nside=%s\nfront=%s\nback=%s\nbottom=%s}",
+                this.width, this.height, (double) runner.getDrawerLength(), this.side, this.front,
+                this.front, this.bottom);
+    }
+
+    /**
+     * The panels of a drawer
+     */
+    public enum Panel {
+        SIDE, FRONT, BACK, BOTTOM
+    }
+
+    /**
+     * The measurements of a <code>Batch</code> stored per drawer
+     */
+    public enum Column {
+        /**
+         * The height of the sides, front, and back
+         */
+        HEIGHT,
+        /**
+         * The width of the front and back
+         */
+        FRONT_FIRST,
+        /**
+         * The width of the bottom
+         */
+        BOTTOM_FIRST
+    }
+
+    /**
+     * The fixed-point offsets of a runner and side material
+     */
+    private static class Offsets {
+        private final long length;
+        private final long minDepth;
+        private final long interior;
+        private final long sides;
+        private final long butt;
+        private final long dado;
+
+        private Offsets(RunnerConfiguration runner, Material sideMaterial) {
+            this.length = Measurement.toUnits(runner.getDrawerLength());
+            this.minDepth = Measurement.toUnits(runner.getMinCabinetDepth());
+            this.interior = 2 * Measurement.toUnits(runner.getInteriorOffset());
+            this.sides = 2 * sideMaterial.getThicknessUnits();
+            this.butt = Joint.create(sideMaterial, Joint.JointType.BUTT)
+                    .getJoinedDimensionOffsetUnits();
+            this.dado = Joint.create(sideMaterial, Joint.JointType.DADO)
+                    .getJoinedDimensionOffsetUnits();
+        }
+    }
+
+    /**
+     * The cuts of many drawers as primitive columns. Measurements that are the same for every
+     * drawer on one runner, the side length and bottom depth, are stored once
+     */
+    public static class Batch {
+        private final int size;
+        private final long[][] columns;
+        private final boolean[] valid;
+        private final byte sideMaterial;
+        private final byte bottomMaterial;
+        private long length;
+        private long bottomSecond;
+
+        private Batch(int size, Material sideMaterial, Material bottomMaterial) {
+            this.size = size;
+            this.columns = new long[Column.values().length][size];
+            this.valid = new boolean[size];
+            this.sideMaterial = (byte) sideMaterial.ordinal();
+            this.bottomMaterial = (byte) bottomMaterial.ordinal();
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param column the measurement to read
+         * @return the backing array of <code>column</code>, in units, indexed by row. It must not
+         * be modified
+         */
+        public long[] getColumn(Column column) {
+            return columns[column.ordinal()];
+        }
+
+        /**
+         * @return the length of every drawer side, and the depth of every bottom before the
+         * dado, in units
+         */
+        public long getLengthUnits() {
+            return length;
+        }
+
+        /**
+         * @param row the drawer to check
+         * @return true if <code>DrawerBox</code> accepts the opening of <code>row</code>
+         */
+        public boolean isValid(int row) {
+            return valid[row];
+        }
+
+        /**
+         * @return the number of valid drawers
+         */
+        public int getValidCount() {
+            int count = 0;
+            for (boolean v : valid) {
+                if (v) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Materializes a single panel of a drawer
+         *
+         * @param row   the drawer
+         * @param panel the panel to materialize
+         * @return the <code>Cut</code> for <code>panel</code>
+         */
+        public Cut getCut(int row, Panel panel) {
+            long height = columns[Column.HEIGHT.ordinal()][row];
+            Material side = MATERIALS[sideMaterial];
+            return switch (panel) {
+                case SIDE -> Cut.ofUnits(length, height, side);
+                case FRONT, BACK -> Cut.ofUnits(columns[Column.FRONT_FIRST.ordinal()][row], height,
+                        side);
+                case BOTTOM -> Cut.ofUnits(columns[Column.BOTTOM_FIRST.ordinal()][row],
+                        bottomSecond, MATERIALS[bottomMaterial]);
+            };
+        }
+
+        @Override
+        public String toString() {
+            return "Batch{size=" + size + ", valid=" + getValidCount() + '}';
+        }
+    }
+}
@@ -0,0 +1,604 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Lays out a stack of drawers inside a cabinet for a particular {@link RunnerConfiguration}.
+ * Every drawer occupies its box height plus the runner's bottom clearance below it and minimum
+ * top clearance above it, and drawer box heights are multiples of {@link #STEP} that never get
+ * smaller from the top of the stack to the bottom. A layout is valid when its drawers fill the
+ * interior height to within one step.
+ * <p>
+ * The number of layouts of <code>k</code> drawers filling <code>n</code> steps is memoized in a
+ * table shared by every solve, so a {@link Solution} knows how many layouts there are without listing them, and can produce the
+ * layout at any position in order directly from the counts. Ranking visits every layout, split
+ * across a <code>ForkJoinPool</code> by the height of the top drawer once there are more than
+ * {@link #PARALLEL_THRESHOLD} of them.
+ * <p>
+ * A <code>DrawerLayoutSolver</code> is safe to use from multiple threads.
+ *
+ * @author Craig Marker
+ */
+public class DrawerLayoutSolver {
+    /**
+     * The increment, in inches, between drawer box heights
+     */
+    public static final double STEP = 0.125;
+
+    /**
+     * The shortest drawer box, in inches, used by {@link #create(RunnerConfiguration)}
+     */
+    static final double DEFAULT_MIN_DRAWER_HEIGHT = 3;
+    static final int DEFAULT_MIN_DRAWERS = 3;
+    static final int DEFAULT_MAX_DRAWERS = 5;
+    static final int MAX_DRAWERS = 10;
+
+    /**
+     * The tallest opening, in inches, that can be solved. Every count of layouts up to
+     * {@value #MAX_DRAWERS} drawers this tall fits in a <code>long</code>
+     */
+    public static final double MAX_INTERIOR_HEIGHT = 240;
+
+    /**
+     * Drawer counts with at least this many layouts are ranked in parallel
+     */
+    static final long PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * The rule of thumb, in inches, for how much taller each drawer is than the one above it
+     */
+    static final double PREFERRED_INCREMENT = 1;
+
+    private static final long STEP_UNITS = Measurement.toUnits(STEP);
+    private static final long PREFERRED_INCREMENT_STEPS = Measurement.toUnits(
+            PREFERRED_INCREMENT) / STEP_UNITS;
+    private static final long MAX_INTERIOR_UNITS = Measurement.toUnits(MAX_INTERIOR_HEIGHT);
+
+    /**
+     * <code>counts[k][n]</code> is the number of non-decreasing sequences of <code>k</code>
+     * heights of at least one step that sum to exactly <code>n</code> steps, the partitions of
+     * <code>n</code> into <code>k</code> parts. It does not depend on the runner or the cabinet,
+     * so one table, grown as taller cabinets are solved, serves every solver
+     */
+    private static volatile long[][] counts = new long[0][];
+
+    private final RunnerConfiguration runner;
+    private final int minDrawerSteps;
+    private final int minDrawers;
+    private final int maxDrawers;
+    private final ForkJoinPool pool;
+    private final long clearanceUnits;
+
+    private DrawerLayoutSolver(RunnerConfiguration runner, int minDrawerSteps, int minDrawers,
+            int maxDrawers, ForkJoinPool pool) {
+        this.runner = runner;
+        this.minDrawerSteps = minDrawerSteps;
+        this.minDrawers = minDrawers;
+        this.maxDrawers = maxDrawers;
+        this.pool = pool;
+        this.clearanceUnits = Measurement.toUnits(
+                runner.getBottomClearance()) + Measurement.toUnits(runner.getMinTopClearance());
+    }
+
+    /**
+     * Creates a <code>DrawerLayoutSolver</code> for stacks of {@value #DEFAULT_MIN_DRAWERS} to
+     * {@value #DEFAULT_MAX_DRAWERS} drawers at least {@value #DEFAULT_MIN_DRAWER_HEIGHT}" tall,
+     * ranking on the common <code>ForkJoinPool</code>
+     *
+     * @param runner the runner every drawer is hung on
+     * @return a <code>DrawerLayoutSolver</code>
+     */
+    public static DrawerLayoutSolver create(RunnerConfiguration runner) {
+        return create(runner, DEFAULT_MIN_DRAWER_HEIGHT, DEFAULT_MIN_DRAWERS, DEFAULT_MAX_DRAWERS,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a <code>DrawerLayoutSolver</code>
+     *
+     * @param runner          the runner every drawer is hung on
+     * @param minDrawerHeight the shortest drawer box allowed, rounded up to a whole step
+     * @param minDrawers      the fewest drawers in a stack
+     * @param maxDrawers      the most drawers in a stack
+     * @param pool            the pool ranking runs on
+     * @return a <code>DrawerLayoutSolver</code>
+     * @throws IllegalArgumentException if the drawer height is not positive or the drawer counts
+     *                                  are not between 1 and {@value #MAX_DRAWERS}
+     */
+    public static DrawerLayoutSolver create(RunnerConfiguration runner, double minDrawerHeight,
+            int minDrawers, int maxDrawers, ForkJoinPool pool) throws IllegalArgumentException {
+        if (!(minDrawerHeight > 0)) {
+            throw new IllegalArgumentException(
+                    "Expected a positive minimum drawer height but received " + minDrawerHeight);
+        }
+        if (minDrawers < 1 || maxDrawers < minDrawers || maxDrawers > MAX_DRAWERS) {
+            throw new IllegalArgumentException(
+                    "Expected drawer counts from 1 to " + MAX_DRAWERS + " but received " + minDrawers + " to " + maxDrawers);
+        }
+        long minDrawerUnits = Measurement.toUnits(minDrawerHeight);
+        int minDrawerSteps = Math.toIntExact((minDrawerUnits + STEP_UNITS - 1) / STEP_UNITS);
+        return new DrawerLayoutSolver(runner, minDrawerSteps, minDrawers, maxDrawers, pool);
+    }
+
+    /**
+     * Finds every drawer stack that fits the opening of <code>cabinetBox</code>: its height less
+     * the bottom panel and the top runner, which are both side material
+     *
+     * @param cabinetBox the cabinet to fill with drawers
+     * @return every valid layout
+     * @throws IllegalArgumentException if the opening, the cabinet depth less the back, is too
+     *                                  shallow for the runner, or the cabinet is taller than
+     *                                  {@link #MAX_INTERIOR_HEIGHT}
+     */
+    public Solution solve(CabinetBox cabinetBox) throws IllegalArgumentException {
+        DrawerBox.checkOpeningDepth(runner, DrawerBox.getOpeningDepth(cabinetBox));
+        long thickness = cabinetBox.getSide().getMaterial().getThicknessUnits();
+        return solve(cabinetBox.getHeightUnits() - 2 * thickness);
+    }
+
+    /**
+     * Finds every drawer stack that fits an opening
+     *
+     * @param interiorHeight the height of the opening from the top of the cabinet bottom to the
+     *                       underside of the top runner
+     * @return every valid layout
+     * @throws IllegalArgumentException if <code>interiorHeight</code> is taller than
+     *                                  {@link #MAX_INTERIOR_HEIGHT}
+     */
+    public Solution solve(double interiorHeight) throws IllegalArgumentException {
+        return solve(Measurement.toUnits(interiorHeight));
+    }
+
+    private Solution solve(long interiorUnits) {
+        if (interiorUnits > MAX_INTERIOR_UNITS) {
+            throw new IllegalArgumentException(
+                    "Expected an interior height of at most " + MAX_INTERIOR_HEIGHT + " but received " + Measurement.toInches(interiorUnits));
+        }
+        int[] steps = new int[maxDrawers + 1];
+        long[] offsets = new long[maxDrawers + 2];
+        int maxSteps = 0;
+        for (int drawers = minDrawers; drawers <= maxDrawers; drawers++) {
+            long available = interiorUnits - drawers * clearanceUnits;
+            steps[drawers] = available < 0 ? -1 : Math.toIntExact(available / STEP_UNITS);
+            maxSteps = Math.max(maxSteps, steps[drawers]);
+        }
+
+        long[][] table = counts(maxDrawers, maxSteps);
+        for (int drawers = minDrawers; drawers <= maxDrawers; drawers++) {
+            offsets[drawers + 1] = offsets[drawers] + count(table, drawers, steps[drawers],
+                    minDrawerSteps);
+        }
+        return new Solution(interiorUnits, steps, offsets, table);
+    }
+
+    /**
+     * Counts the sequences of <code>drawers</code> heights of at least <code>minSteps</code>
+     * (at least 1) summing to <code>steps</code>. Taking <code>minSteps - 1</code> off every
+     * height leaves a sequence of heights of at least one step
+     */
+    private static long count(long[][] table, int drawers, int steps, int minSteps) {
+        long shifted = steps - (long) drawers * (minSteps - 1);
+        return shifted < 0 ? 0 : table[drawers][(int) shifted];
+    }
+
+    /**
+     * Returns a count table covering <code>maxDrawers</code> drawers of <code>maxSteps</code>,
+     * extending the shared table when it is too small
+     */
+    private static long[][] counts(int maxDrawers, int maxSteps) {
+        long[][] table = counts;
+        if (table.length > maxDrawers && table[0].length > maxSteps) {
+            return table;
+        }
+        synchronized (DrawerLayoutSolver.class) {
+            table = counts;
+            if (table.length > maxDrawers && table[0].length > maxSteps) {
+                return table;
+            }
+            int drawers = Math.max(maxDrawers + 1, table.length);
+            int steps = Math.max(maxSteps + 1, table.length == 0 ? 0 : table[0].length);
+            counts = table = buildCounts(drawers, steps);
+            return table;
+        }
+    }
+
+    /**
+     * Fills <code>counts[k][n]</code> from the recurrence: a sequence either has a first height
+     * of exactly one step, leaving <code>k - 1</code> heights to sum to <code>n - 1</code>, or
+     * has every height at least two steps, and taking one step off each leaves <code>k</code>
+     * heights summing to <code>n - k</code>
+     */
+    private static long[][] buildCounts(int drawers, int steps) {
+        long[][] table = new long[drawers][steps];
+        table[0][0] = 1;
+        for (int k = 1; k < drawers; k++) {
+            for (int n = k; n < steps; n++) {
+                table[k][n] = table[k - 1][n - 1] + table[k][n - k];
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Scores a layout for ranking, lower being better: how far its increments from one drawer
+     * to the next are from a constant increment, then how far that increment is, on average,
+     * from {@link #PREFERRED_INCREMENT}
+     */
+    static long score(int[] heights, int drawers) {
+        long sum = 0;
+        long sumOfSquares = 0;
+        for (int i = 1; i < drawers; i++) {
+            long increment = heights[i] - heights[i - 1];
+            sum += increment;
+            sumOfSquares += increment * increment;
+        }
+        long unevenness = (drawers - 1) * sumOfSquares - sum * sum;
+        long offPreferred = Math.abs(sum - (drawers - 1) * PREFERRED_INCREMENT_STEPS);
+        return unevenness << 24 | offPreferred;
+    }
+
+    @Override
+    public String toString() {
+        return "DrawerLayoutSolver{" + "runner=" + runner.getSku() + ", drawers=" + minDrawers + "-" + maxDrawers + ", minDrawerHeight=" + Measurement.toInches(
+                minDrawerSteps * STEP_UNITS) + '}';
+    }
+
+    /**
+     * Every layout of one opening, ordered by drawer count and then by drawer heights from the
+     * top of the stack down
+     */
+    public class Solution {
+        private final long interiorUnits;
+        private final int[] steps;
+        private final long[] offsets;
+        private final long[][] table;
+
+        private Solution(long interiorUnits, int[] steps, long[] offsets, long[][] table) {
+            this.interiorUnits = interiorUnits;
+            this.steps = steps;
+            this.offsets = offsets;
+            this.table = table;
+        }
+
+        /**
+         * @return the number of valid layouts
+         */
+        public long getCount() {
+            return offsets[maxDrawers + 1];
+        }
+
+        /**
+         * @param drawers the number of drawers in the stack
+         * @return the number of valid layouts of <code>drawers</code> drawers
+         */
+        public long getCount(int drawers) {
+            if (drawers < minDrawers || drawers > maxDrawers) {
+                return 0;
+            }
+            return offsets[drawers + 1] - offsets[drawers];
+        }
+
+        /**
+         * Builds the layout at <code>index</code> from the memoized counts without listing the
+         * layouts before it
+         *
+         * @param index the position of the layout, from 0 to {@link #getCount()}
+         * @return the layout at <code>index</code>
+         * @throws IndexOutOfBoundsException if there is no layout at <code>index</code>
+         */
+        public Layout get(long index) {
+            if (index < 0 || index >= getCount()) {
+                throw new IndexOutOfBoundsException(
+                        "Expected layout index less than " + getCount() + " but received " + index);
+            }
+            int drawers = minDrawers;
+            while (index >= offsets[drawers + 1]) {
+                drawers++;
+            }
+
+            long remainingIndex = index - offsets[drawers];
+            int[] heights = new int[drawers];
+            int remaining = steps[drawers];
+            int minSteps = minDrawerSteps;
+            for (int i = 0; i < drawers; i++) {
+                int rest = drawers - i - 1;
+                for (int height = minSteps; ; height++) {
+                    long below = count(table, rest, remaining - height, height);
+                    if (remainingIndex < below) {
+                        heights[i] = height;
+                        remaining -= height;
+                        minSteps = height;
+                        break;
+                    }
+                    remainingIndex -= below;
+                }
+            }
+            return new Layout(index, heights);
+        }
+
+        /**
+         * Ranks every layout and returns the best. A layout ranks higher the closer its drawers
+         * are to growing by a constant increment from top to bottom, then the closer that
+         * increment is to {@link #PREFERRED_INCREMENT}, then the earlier it comes in order
+         *
+         * @param limit the most layouts to return
+         * @return the best layouts, best first
+         */
+        public List<Layout> getRanked(int limit) {
+            Ranking ranking = new Ranking(limit);
+            for (int drawers = minDrawers; drawers <= maxDrawers && limit > 0; drawers++) {
+                if (getCount(drawers) >= PARALLEL_THRESHOLD) {
+                    ranking.merge(pool.invoke(
+                            new RankTask(this, drawers, limit, minDrawerSteps,
+                                    maxTopSteps(drawers))));
+                } else if (getCount(drawers) > 0) {
+                    rank(drawers, minDrawerSteps, maxTopSteps(drawers), ranking);
+                }
+            }
+
+            List<Layout> ranked = new ArrayList<>(ranking.size);
+            for (long index : ranking.sortedIndices()) {
+                ranked.add(get(index));
+            }
+            return ranked;
+        }
+
+        /**
+         * @return the tallest top drawer of a stack of <code>drawers</code>, when every drawer
+         * is the same height
+         */
+        private int maxTopSteps(int drawers) {
+            return steps[drawers] / drawers;
+        }
+
+        /**
+         * Scores every layout of <code>drawers</code> whose top drawer is from
+         * <code>fromTop</code> to <code>toTop</code> steps tall
+         */
+        private void rank(int drawers, int fromTop, int toTop, Ranking ranking) {
+            int[] heights = new int[drawers];
+            long index = offsets[drawers];
+            for (int top = minDrawerSteps; top < fromTop; top++) {
+                index += count(table, drawers - 1, steps[drawers] - top, top);
+            }
+            for (int top = fromTop; top <= toTop; top++) {
+                heights[0] = top;
+                index = visit(heights, 1, steps[drawers] - top, top, drawers, index, ranking);
+            }
+        }
+
+        /**
+         * Visits every completion of <code>heights[0, depth)</code> in order
+         *
+         * @return the index after the last layout visited
+         */
+        private long visit(int[] heights, int depth, int remaining, int minSteps, int drawers,
+                long index, Ranking ranking) {
+            if (depth == drawers) {
+                // a single drawer, whose height rank already chose, is a layout only if it fills
+                // the opening
+                if (remaining == 0) {
+                    ranking.offer(score(heights, drawers), index);
+                    return index + 1;
+                }
+                return index;
+            }
+            if (depth == drawers - 1) {
+                if (remaining >= minSteps) {
+                    heights[depth] = remaining;
+                    ranking.offer(score(heights, drawers), index);
+                    return index + 1;
+                }
+                return index;
+            }
+            int rest = drawers - depth;
+            for (int height = minSteps; height * rest <= remaining; height++) {
+                heights[depth] = height;
+                index = visit(heights, depth + 1, remaining - height, height, drawers, index,
+                        ranking);
+            }
+            return index;
+        }
+
+        /**
+         * @return the unused height above the tallest stack of <code>drawers</code>, less than
+         * one step
+         */
+        public double getGap(int drawers) {
+            return Measurement.toInches(
+                    interiorUnits - drawers * clearanceUnits - steps[drawers] * STEP_UNITS);
+        }
+
+        @Override
+        public String toString() {
+            return "Solution{" + "interiorHeight=" + Measurement.toInches(
+                    interiorUnits) + ", layouts=" + getCount() + '}';
+        }
+    }
+
+    /**
+     * Ranks the layouts of one drawer count in parallel, one task per top drawer height
+     */
+    @SuppressWarnings("serial")
+    private static class RankTask extends RecursiveTask<Ranking> {
+        private final Solution solution;
+        private final int drawers;
+        private final int limit;
+        private final int fromTop;
+        private final int toTop;
+
+        private RankTask(Solution solution, int drawers, int limit, int fromTop, int toTop) {
+            this.solution = solution;
+            this.drawers = drawers;
+            this.limit = limit;
+            this.fromTop = fromTop;
+            this.toTop = toTop;
+        }
+
+        @Override
+        protected Ranking compute() {
+            if (fromTop == toTop) {
+                Ranking ranking = new Ranking(limit);
+                solution.rank(drawers, fromTop, toTop, ranking);
+                return ranking;
+            }
+            int middle = (fromTop + toTop) >>> 1;
+            RankTask top = new RankTask(solution, drawers, limit, fromTop, middle);
+            top.fork();
+            Ranking bottom = new RankTask(solution, drawers, limit, middle + 1, toTop).compute();
+            return top.join().merge(bottom);
+        }
+    }
+
+    /**
+     * The best scoring layouts seen so far, kept as a bounded max-heap of scores and layout
+     * indices with the worst at the root
+     */
+    private static class Ranking {
+        private final long[] scores;
+        private final long[] indices;
+        private int size;
+
+        private Ranking(int limit) {
+            this.scores = new long[limit];
+            this.indices = new long[limit];
+        }
+
+        private void offer(long score, long index) {
+            if (size < scores.length) {
+                scores[size] = score;
+                indices[size] = index;
+                siftUp(size++);
+            } else if (size > 0 && isWorse(0, score, index)) {
+                scores[0] = score;
+                indices[0] = index;
+                siftDown(0);
+            }
+        }
+
+        private Ranking merge(Ranking other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.scores[i], other.indices[i]);
+            }
+            return this;
+        }
+
+        /**
+         * @return true if the entry at <code>i</code> ranks below <code>score</code> and
+         * <code>index</code>
+         */
+        private boolean isWorse(int i, long score, long index) {
+            return scores[i] > score || scores[i] == score && indices[i] > index;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!isWorse(i, scores[parent], indices[parent])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int worst = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                    if (isWorse(child, scores[worst], indices[worst])) {
+                        worst = child;
+                    }
+                }
+                if (worst == i) {
+                    return;
+                }
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+            long index = indices[i];
+            indices[i] = indices[j];
+            indices[j] = index;
+        }
+
+        /**
+         * @return the layout indices, best first
+         */
+        private long[] sortedIndices() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> scores[a] != scores[b] ? Long.compare(scores[a],
+                    scores[b]) : Long.compare(indices[a], indices[b]));
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = indices[order[i]];
+            }
+            return sorted;
+        }
+    }
+
+    /**
+     * One stack of drawers
+     */
+    public static class Layout {
+        private final long index;
+        private final int[] heights;
+
+        private Layout(long index, int[] heights) {
+            this.index = index;
+            this.heights = heights;
+        }
+
+        /**
+         * @return the position of this layout in its <code>Solution</code>
+         */
+        public long getIndex() {
+            return index;
+        }
+
+        public int getDrawerCount() {
+            return heights.length;
+        }
+
+        /**
+         * @param drawer the drawer, counting from 0 at the top of the stack
+         * @return the height of the drawer box
+         */
+        public double getDrawerHeight(int drawer) {
+            return Measurement.toInches(heights[drawer] * STEP_UNITS);
+        }
+
+        /**
+         * @return the height of every drawer box, top of the stack first
+         */
+        public double[] getDrawerHeights() {
+            double[] drawerHeights = new double[heights.length];
+            for (int i = 0; i < heights.length; i++) {
+                drawerHeights[i] = getDrawerHeight(i);
+            }
+            return drawerHeights;
+        }
+
+        /**
+         * @return the ranking score of this layout, lower being better
+         */
+        long getScore() {
+            return score(heights, heights.length);
+        }
+
+        @Override
+        public String toString() {
+            return "Layout{" + "drawerHeights=" + Arrays.toString(getDrawerHeights()) + '}';
+        }
+    }
+}
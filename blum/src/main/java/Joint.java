@@ -50,9 +50,22 @@ public class Joint {
      * thickness during construction
      */
     public double getJoinedDimensionOffset() {
+        Metrics.JOINT_OFFSETS.increment();
         return this.materialJoinedTo.getThickness() * this.type.getOuterMaterialMultiplier();
     }
 
+    /**
+     * The same offset as {@link #getJoinedDimensionOffset()} in fixed-point
+     * {@link Measurement} units
+     *
+     * @return the offset to apply to the final, jointed measurement in units
+     */
+    public long getJoinedDimensionOffsetUnits() {
+        Metrics.JOINT_OFFSETS.increment();
+        return Measurement.multiply(this.materialJoinedTo.getThicknessUnits(),
+                this.type.outerMaterialHalves, 2);
+    }
+
     /**
      * The supported joinery methods for cabinet construction
      *
@@ -65,41 +78,41 @@ public class Joint {
          * the two pieces are secured with mechanical fasteners. This is common in construction
          * framing.
          */
-        BUTT(2),
+        BUTT(4),
 
         /**
          * a Dado joint is square-grooved slot on one board where another board fits
          */
-        DADO(1),
+        DADO(2),
 
         /**
          * a single-sided Dado is the same joinery method as {@link #DADO} where only one side of
          * the wood is joined via a Dado. The other side has not joint
          */
-        SINGLE_SIDE_DADO(0.5);
+        SINGLE_SIDE_DADO(1);
 
 
-        private final double outerMaterialMultiplier;
+        private final int outerMaterialHalves;
 
         /**
-         * @param outerMaterialMultiplier the factor to multiply the outer material by to
-         *                                determine how much to remove from the <i>inner</i>
-         *                                material measurement. For example, if the inner
-         *                                material overlaps one half of the outer material, the
-         *                                multiplier would be 0.5. If this same overlap applies
-         *                                to both sides of the joint, the multiplier would be 1.
+         * @param outerMaterialHalves the number of halves of the outer material to remove from
+         *                            the <i>inner</i> material measurement. For example, if the
+         *                            inner material overlaps one half of the outer material,
+         *                            this would be 1. If this same overlap applies to both
+         *                            sides of the joint, it would be 2. Counting halves keeps
+         *                            the offset in exact integer units
          */
-        JointType(double outerMaterialMultiplier) throws IllegalArgumentException {
-            if (outerMaterialMultiplier < 0.0) {
+        JointType(int outerMaterialHalves) throws IllegalArgumentException {
+            if (outerMaterialHalves < 0) {
                 throw new IllegalArgumentException(
                         "JointType material multipliers must be positive");
             }
 
-            this.outerMaterialMultiplier = outerMaterialMultiplier;
+            this.outerMaterialHalves = outerMaterialHalves;
         }
 
         public double getOuterMaterialMultiplier() {
-            return this.outerMaterialMultiplier;
+            return this.outerMaterialHalves / 2.0;
         }
     }
 }
@@ -0,0 +1,212 @@
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class MainClass {
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+    private static final int DEFAULT_PORT = 8080;
+
+    public static void main(String[] args) throws ExecutionException, InterruptedException,
+            IOException {
+        if (args.length > 0 && "--batch".equals(args[0])) {
+            runBatch(args.length > 1 ? args[1] : "-");
+            return;
+        }
+        if (args.length > 0 && "--pipe".equals(args[0])) {
+            runPipe(args.length > 1 ? args[1] : "-");
+            return;
+        }
+        if (args.length > 0 && "--flow".equals(args[0])) {
+            runFlow(args.length > 1 ? args[1] : "-");
+            return;
+        }
+        if (args.length > 0 && "--worker".equals(args[0])) {
+            runWorker(args.length > 1 ? Integer.parseInt(args[1]) : 0);
+            return;
+        }
+        if (args.length > 0 && "--shard".equals(args[0])) {
+            if (args.length < 2 || args[1].isBlank()) {
+                throw new IllegalArgumentException(
+                        "Expected --shard <workers> [file], where <workers> is a number of local workers or a comma separated list of host:port addresses, but received no workers");
+            }
+            runSharded(args[1].strip(), args.length > 2 ? args[2] : "-");
+            return;
+        }
+        if (args.length > 0 && "--compile-runners".equals(args[0])) {
+            RunnerCatalogSnapshot.compile(
+                    Path.of(args.length > 1 ? args[1]
+                            : "blum/src/main/resources/blum_runners.yaml"),
+                    Path.of(args.length > 2 ? args[2]
+                            : "blum/src/main/resources/blum_runners.bin"));
+            return;
+        }
+        if (args.length > 0 && "--serve".equals(args[0])) {
+            serve(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT);
+            return;
+        }
+
+        CLIClient cliClient = new CLIClient();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        ListeningExecutorService listeningExecutorService = MoreExecutors.listeningDecorator(
+                executorService);
+
+        ListenableFuture<CabinetBox> cabinetBoxFuture = listeningExecutorService.submit(
+                cliClient::promptScaffoldCabinet);
+        CabinetBox cabinetBox = cabinetBoxFuture.get();
+        System.out.println("You created a cabinet box " + cabinetBox);
+    }
+
+    /**
+     * Constructs every cabinet in <code>inputPath</code>, or standard input when the path is
+     * <code>-</code>, using all available processors
+     */
+    private static void runBatch(String inputPath) throws IOException {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        ListeningExecutorService listeningExecutorService = MoreExecutors.listeningDecorator(
+                Executors.newFixedThreadPool(parallelism));
+
+        try (BufferedReader input = "-".equals(inputPath) ? new BufferedReader(
+                new InputStreamReader(System.in, StandardCharsets.UTF_8),
+                IO_BUFFER_SIZE) : Files.newBufferedReader(Path.of(inputPath));
+             Writer output = new BufferedWriter(
+                     new OutputStreamWriter(System.out, StandardCharsets.UTF_8), IO_BUFFER_SIZE);
+             Writer errors = new BufferedWriter(
+                     new OutputStreamWriter(System.err, StandardCharsets.UTF_8))) {
+            BatchClient.Summary summary = new BatchClient(listeningExecutorService,
+                    parallelism).run(input, output, errors);
+            errors.write("Batch complete: " + summary + "\n");
+            if (Metrics.isEnabled()) {
+                Metrics.writePrometheus(errors);
+            }
+        } finally {
+            listeningExecutorService.shutdown();
+        }
+    }
+
+    /**
+     * Streams every cabinet in <code>inputPath</code>, or standard input when the path is
+     * <code>-</code>, through a <code>CabinetPipeline</code> with one thread per stage, then
+     * reports the combined cuts
+     */
+    private static void runFlow(String inputPath) throws IOException {
+        int threads = Math.max(Runtime.getRuntime().availableProcessors(),
+                CabinetPipeline.STAGES);
+        ListeningExecutorService listeningExecutorService = MoreExecutors.listeningDecorator(
+                Executors.newFixedThreadPool(threads));
+
+        try (BufferedReader input = "-".equals(inputPath) ? new BufferedReader(
+                new InputStreamReader(System.in, StandardCharsets.UTF_8),
+                IO_BUFFER_SIZE) : Files.newBufferedReader(Path.of(inputPath));
+             Writer output = new BufferedWriter(
+                     new OutputStreamWriter(System.out, StandardCharsets.UTF_8), IO_BUFFER_SIZE);
+             Writer errors = new BufferedWriter(
+                     new OutputStreamWriter(System.err, StandardCharsets.UTF_8))) {
+            CabinetPipeline.Result result = CabinetPipeline.create(listeningExecutorService,
+                    threads).run(input, output, errors);
+            errors.write("Flow complete: " + result.getSummary() + ", " + result.getCutList()
+                    .getTotalQuantity() + " panels in " + result.getCutList().size() + " sizes\n");
+        } finally {
+            listeningExecutorService.shutdown();
+        }
+    }
+
+    /**
+     * Streams every cabinet in <code>inputPath</code>, or standard input when the path is
+     * <code>-</code>, through a single <code>PipeClient</code>
+     */
+    private static void runPipe(String inputPath) throws IOException {
+        try (FileChannel input = "-".equals(inputPath) ? new FileInputStream(
+                FileDescriptor.in).getChannel() : FileChannel.open(Path.of(inputPath));
+             FileChannel output = new FileOutputStream(FileDescriptor.out).getChannel();
+             Writer errors = new BufferedWriter(
+                     new OutputStreamWriter(System.err, StandardCharsets.UTF_8))) {
+            BatchClient.Summary summary = PipeClient.create().run(input, output, errors);
+            errors.write("Pipe complete: " + summary + "\n");
+        }
+    }
+
+    /**
+     * Serves shards to coordinators on the loopback <code>port</code>, or any free port when it is
+     * 0, until the process is stopped. The port is reported on standard output
+     */
+    private static void runWorker(int port) throws IOException {
+        ShardWorker worker = ShardWorker.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                new OutputStreamWriter(System.err, StandardCharsets.UTF_8));
+        Runtime.getRuntime().addShutdownHook(new Thread(worker::stop));
+        worker.start();
+        System.out.println(ShardWorker.READY + worker.getPort());
+        System.out.flush();
+    }
+
+    /**
+     * Constructs every cabinet in <code>inputPath</code>, or standard input when the path is
+     * <code>-</code>, across worker JVMs. <code>workers</code> is either a number of local worker
+     * processes to start or a comma separated list of <code>host:port</code> worker addresses
+     */
+    private static void runSharded(String workers, String inputPath) throws IOException {
+        ShardCoordinator.LocalWorkers localWorkers = null;
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        if (workers.chars().allMatch(Character::isDigit)) {
+            localWorkers = ShardCoordinator.startLocalWorkers(Integer.parseInt(workers));
+            addresses.addAll(localWorkers.getAddresses());
+        } else {
+            for (String worker : workers.split(",", -1)) {
+                int colon = worker.lastIndexOf(':');
+                if (colon < 1) {
+                    throw new IllegalArgumentException(
+                            "Expected a worker address of the form host:port but received \"" + worker + "\"");
+                }
+                addresses.add(new InetSocketAddress(worker.substring(0, colon),
+                        Integer.parseInt(worker.substring(colon + 1))));
+            }
+        }
+
+        try (BufferedReader input = "-".equals(inputPath) ? new BufferedReader(
+                new InputStreamReader(System.in, StandardCharsets.UTF_8),
+                IO_BUFFER_SIZE) : Files.newBufferedReader(Path.of(inputPath));
+             Writer output = new BufferedWriter(
+                     new OutputStreamWriter(System.out, StandardCharsets.UTF_8), IO_BUFFER_SIZE);
+             Writer errors = new BufferedWriter(
+                     new OutputStreamWriter(System.err, StandardCharsets.UTF_8))) {
+            BatchClient.Summary summary = ShardCoordinator.create(addresses).run(input, output,
+                    errors);
+            errors.write("Sharded batch complete: " + summary + "\n");
+        } finally {
+            if (localWorkers != null) {
+                localWorkers.close();
+            }
+        }
+    }
+
+    /**
+     * Serves cabinet requests on <code>port</code> until the process is stopped
+     */
+    private static void serve(int port) throws IOException {
+        CabinetServer server = CabinetServer.create(new InetSocketAddress(port));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+        server.start();
+        System.out.println("Serving cabinets on port " + server.getPort());
+    }
+}
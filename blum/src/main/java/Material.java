@@ -21,6 +21,7 @@ public enum Material {
     THREE_QUARTER(0.75);
 
     private final double thickness;
+    private final long thicknessUnits;
 
     /**
      * Constructs a new <code>Material</code> type
@@ -31,12 +32,20 @@ public enum Material {
      */
     Material(double thickness) {
         this.thickness = thickness;
+        this.thicknessUnits = Measurement.toUnits(thickness);
     }
 
     public double getThickness() {
         return this.thickness;
     }
 
+    /**
+     * @return the actual thickness of the material in fixed-point {@link Measurement} units
+     */
+    public long getThicknessUnits() {
+        return this.thicknessUnits;
+    }
+
     @Override
     public String toString() {
         return "Material{" + this.name() + '}';
@@ -0,0 +1,179 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-point measurements. Lengths are carried as a <code>long</code> count of
+ * {@link #UNITS_PER_INCH} units per inch so that arithmetic on them is exact and equality and
+ * hashing are plain integer comparisons.
+ * <p>
+ * A unit is 1/256,000 of an inch. That is fine enough that every binary fraction a tape measure
+ * shows, down to 1/2048", and every decimal inch measurement with up to three decimal places is
+ * a whole number of units, so converting such a <code>double</code> to units and back returns the
+ * same <code>double</code>.
+ *
+ * @author Craig Marker
+ */
+public final class Measurement {
+    /**
+     * The number of fixed-point units in one inch
+     */
+    public static final long UNITS_PER_INCH = 256_000;
+
+    /**
+     * The most bytes {@link #putInches(ByteBuffer, long)} writes
+     */
+    static final int MAX_FORMATTED_LENGTH = 24;
+
+    private static final double MAX_INCHES = (double) Long.MAX_VALUE / UNITS_PER_INCH;
+    private static final long DECIMAL_PLACES = 10_000;
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(
+            () -> new byte[MAX_FORMATTED_LENGTH]);
+
+    private Measurement() {
+    }
+
+    /**
+     * Converts inches to fixed-point units, rounding to the nearest unit
+     *
+     * @param inches the measurement in inches
+     * @return the measurement in units
+     * @throws IllegalArgumentException if <code>inches</code> is not a finite number that fits
+     *                                  in a <code>long</code> count of units
+     */
+    public static long toUnits(double inches) throws IllegalArgumentException {
+        if (!isConvertible(inches)) {
+            throw new IllegalArgumentException(
+                    "Expected a finite measurement but received " + inches);
+        }
+        return Math.round(inches * UNITS_PER_INCH);
+    }
+
+    /**
+     * @param inches the measurement in inches
+     * @return true if {@link #toUnits(double)} accepts <code>inches</code>, for callers that
+     * must reject a measurement without catching an exception
+     */
+    public static boolean isConvertible(double inches) {
+        return Math.abs(inches) < MAX_INCHES;
+    }
+
+    /**
+     * Converts fixed-point units to inches
+     *
+     * @param units the measurement in units
+     * @return the measurement in inches
+     */
+    public static double toInches(long units) {
+        return units / (double) UNITS_PER_INCH;
+    }
+
+    /**
+     * Scales a measurement by a ratio of integers, rounding halves up to the next unit, so that
+     * scaling stays in exact integer arithmetic
+     *
+     * @param units       the measurement in units
+     * @param numerator   the numerator of the factor to scale by
+     * @param denominator the positive denominator of the factor, for example 2 with a numerator
+     *                    of 1 for half the measurement
+     * @return <code>units * numerator / denominator</code> in units
+     * @throws ArithmeticException if the product does not fit in a <code>long</code>
+     */
+    public static long multiply(long units, long numerator, long denominator)
+            throws ArithmeticException {
+        long doubled = Math.multiplyExact(Math.multiplyExact(units, numerator), 2);
+        return Math.floorDiv(doubled + denominator, 2 * denominator);
+    }
+
+    /**
+     * Writes <code>units</code> as ASCII decimal inches rounded to four places, without trailing
+     * zeros and without allocating
+     *
+     * @param buffer the buffer to write to, with at least {@link #MAX_FORMATTED_LENGTH} bytes
+     *               remaining
+     * @param units  the measurement in units
+     */
+    static void putInches(ByteBuffer buffer, long units) {
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset();
+            buffer.position(putInches(buffer.array(), offset + buffer.position(), units) - offset);
+        } else {
+            byte[] scratch = SCRATCH.get();
+            buffer.put(scratch, 0, putInches(scratch, 0, units));
+        }
+    }
+
+    /**
+     * Writes <code>units</code> as ASCII decimal inches rounded to four places, without trailing
+     * zeros and without allocating
+     *
+     * @param bytes  the array to write to, with at least {@link #MAX_FORMATTED_LENGTH} bytes
+     *               after <code>offset</code>
+     * @param offset the index of the first byte to write
+     * @param units  the measurement in units
+     * @return the index after the last byte written
+     */
+    static int putInches(byte[] bytes, int offset, long units) {
+        // split off the whole inches first so that scaling the remainder can not overflow, and
+        // negate the parts rather than units so that Long.MIN_VALUE formats too
+        long whole = units / UNITS_PER_INCH;
+        long remainder = units % UNITS_PER_INCH;
+        if (units < 0) {
+            bytes[offset++] = '-';
+            whole = -whole;
+            remainder = -remainder;
+        }
+
+        int fraction = (int) ((remainder * DECIMAL_PLACES + UNITS_PER_INCH / 2) / UNITS_PER_INCH);
+        if (fraction == DECIMAL_PLACES) {
+            whole++;
+            fraction = 0;
+        }
+        offset = whole <= Integer.MAX_VALUE ? putDigits(bytes, offset, (int) whole,
+                1) : putDigits(bytes, offset, whole);
+
+        if (fraction != 0) {
+            int places = 4;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                places--;
+            }
+            bytes[offset++] = '.';
+            offset = putDigits(bytes, offset, fraction, places);
+        }
+        return offset;
+    }
+
+    /**
+     * Writes the digits of <code>value</code> right to left, padded with leading zeros to
+     * <code>minLength</code>. Dividing an <code>int</code> by the constant 10 lets the JIT replace
+     * each division with a multiplication
+     */
+    private static int putDigits(byte[] bytes, int offset, int value, int minLength) {
+        int length = 1;
+        for (int remaining = value / 10; remaining != 0; remaining /= 10) {
+            length++;
+        }
+        length = Math.max(length, minLength);
+
+        for (int i = offset + length - 1; i >= offset; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + length;
+    }
+
+    /**
+     * Writes the digits of a positive <code>value</code> too large for an <code>int</code>
+     */
+    private static int putDigits(byte[] bytes, int offset, long value) {
+        int length = 1;
+        for (long remaining = value / 10; remaining != 0; remaining /= 10) {
+            length++;
+        }
+
+        for (int i = offset + length - 1; i >= offset; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + length;
+    }
+}
@@ -0,0 +1,240 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for the cabinet generation hot paths: <code>CabinetBox</code>
+ * construction and validation, <code>Joint</code> offset computation, and output formatting.
+ * Metrics are exported in the Prometheus text format by {@link #writePrometheus(Appendable)},
+ * served by <code>CabinetServer</code> on <code>/metrics</code>, and can be dumped periodically
+ * with {@link #scheduleDump(ScheduledExecutorService, Duration, Writer)}.
+ * <p>
+ * Metrics are off unless the JVM is started with <code>-Dblum.metrics=true</code>. The switch is
+ * read once into a <code>static final</code> field, so when metrics are off every recording
+ * call is a constant false branch the JIT removes.
+ *
+ * @author Craig Marker
+ * @see <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">Prometheus
+ * exposition formats</a>
+ */
+public final class Metrics {
+    /**
+     * The system property that turns metrics on
+     */
+    static final String ENABLED_PROPERTY = "blum.metrics";
+
+    static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private static final String PREFIX = "blum_";
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    public static final Counter CABINET_BOXES = new Counter("cabinet_boxes_total",
+            "CabinetBoxes constructed");
+    public static final Counter CABINET_BOX_VALIDATION_FAILURES = new Counter(
+            "cabinet_box_validation_failures_total",
+            "CabinetBox constructions rejected by validation");
+    public static final Counter CABINET_BOX_ALLOCATED_BYTES = new Counter(
+            "cabinet_box_allocated_bytes_total", "Bytes allocated constructing CabinetBoxes");
+    public static final Timer CABINET_BOX_CONSTRUCTION = new Timer(
+            "cabinet_box_construction_seconds", "Time to validate and construct a CabinetBox");
+    public static final Counter JOINT_OFFSETS = new Counter("joint_offsets_total",
+            "Joint offset computations");
+    public static final Timer OUTPUT_FORMATTING = new Timer("output_formatting_seconds",
+            "Time to format cabinets and panels for output");
+
+    private static final List<Counter> COUNTERS = List.of(CABINET_BOXES,
+            CABINET_BOX_VALIDATION_FAILURES, CABINET_BOX_ALLOCATED_BYTES, JOINT_OFFSETS);
+    private static final List<Timer> TIMERS = List.of(CABINET_BOX_CONSTRUCTION,
+            OUTPUT_FORMATTING);
+
+    private Metrics() {
+    }
+
+    /**
+     * @return true if metrics are being recorded
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * @return the current time to later pass to {@link Timer#record(long)}, or 0 when metrics
+     * are off
+     */
+    public static long startNanos() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * @return the bytes allocated so far by the current thread, or 0 when metrics are off or the
+     * JVM does not track allocation
+     */
+    public static long allocatedBytes() {
+        return ENABLED && Allocation.THREADS != null ?
+                Allocation.THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /**
+     * Writes every metric in the Prometheus text exposition format. Timers are written as
+     * summaries in seconds
+     *
+     * @param out where the metrics are written
+     * @throws IOException if <code>out</code> can not be written
+     */
+    public static void writePrometheus(Appendable out) throws IOException {
+        for (Counter counter : COUNTERS) {
+            header(out, counter.name, counter.help, "counter");
+            out.append(PREFIX).append(counter.name).append(' ').append(
+                    Long.toString(counter.get())).append('\n');
+        }
+        for (Timer timer : TIMERS) {
+            LatencyHistogram histogram = timer.histogram;
+            header(out, timer.name, timer.help, "summary");
+            for (double quantile : QUANTILES) {
+                out.append(PREFIX).append(timer.name).append("{quantile=\"").append(
+                        Double.toString(quantile)).append("\"} ").append(
+                        seconds(histogram.getValueAtPercentile(quantile * 100))).append('\n');
+            }
+            long count = histogram.getCount();
+            out.append(PREFIX).append(timer.name).append("_sum ").append(
+                    seconds(histogram.getMean() * count)).append('\n');
+            out.append(PREFIX).append(timer.name).append("_count ").append(
+                    Long.toString(count)).append('\n');
+        }
+    }
+
+    private static void header(Appendable out, String name, String help, String type)
+            throws IOException {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String seconds(double nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / NANOS_PER_SECOND);
+    }
+
+    /**
+     * Writes every metric to <code>out</code> every <code>period</code>, for batch jobs and
+     * other processes that are not scraped
+     *
+     * @param executor the executor the dumps run on
+     * @param period   the time between dumps
+     * @param out      where the metrics are written. It is flushed after every dump
+     * @return the scheduled dump, to cancel when the process is done
+     */
+    public static ScheduledFuture<?> scheduleDump(ScheduledExecutorService executor,
+            Duration period, Writer out) {
+        return executor.scheduleAtFixedRate(() -> {
+            try {
+                synchronized (out) {
+                    writePrometheus(out);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, period.toNanos(), period.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Clears every metric
+     */
+    static void reset() {
+        COUNTERS.forEach(counter -> counter.count.reset());
+        TIMERS.forEach(timer -> timer.histogram.reset());
+    }
+
+    /**
+     * A monotonically increasing count
+     */
+    public static class Counter {
+        private final String name;
+        private final String help;
+        private final LongAdder count = new LongAdder();
+
+        private Counter(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+
+        public void increment() {
+            if (ENABLED) {
+                count.increment();
+            }
+        }
+
+        public void add(long amount) {
+            if (ENABLED) {
+                count.add(amount);
+            }
+        }
+
+        public long get() {
+            return count.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "Counter{" + name + '=' + get() + '}';
+        }
+    }
+
+    /**
+     * A histogram of elapsed times in nanoseconds
+     */
+    public static class Timer {
+        private final String name;
+        private final String help;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private Timer(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+
+        /**
+         * Records the time elapsed since <code>startNanos</code>
+         *
+         * @param startNanos the value of {@link Metrics#startNanos()} when the timed work began
+         */
+        public void record(long startNanos) {
+            if (ENABLED) {
+                histogram.record(Math.max(System.nanoTime() - startNanos, 0));
+            }
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+
+        @Override
+        public String toString() {
+            return "Timer{" + name + '=' + histogram + '}';
+        }
+    }
+
+    /**
+     * Holds the thread MXBean, so that <code>ManagementFactory</code> is only loaded and
+     * allocation tracking only switched on the first time an enabled metric asks for it
+     */
+    private static final class Allocation {
+        static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+
+        private static com.sun.management.ThreadMXBean threadMXBean() {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A <code>PanelExporter</code> renders panel outlines, and the dado grooves cut into them, as
+ * vector drawings for router software. Panels are laid out left to right with
+ * {@link #PANEL_SPACING} inches between them, the first dimension of each <code>Cut</code> along
+ * the x axis and the second along the y axis, with all measurements in inches.
+ * <p>
+ * Output is streamed to a <code>WritableByteChannel</code> through a single reusable buffer, and
+ * numbers are written straight from fixed-point {@link Measurement} units, so exporting a large
+ * job does not build the document in memory. A <code>PanelExporter</code> is not thread safe;
+ * use one per thread.
+ * <p>
+ * Grooves follow the joints <code>CabinetBox</code> uses. Each side has a groove the thickness
+ * of the bottom along its bottom edge and a groove the thickness of the back along its rear
+ * edge, each half the side thickness deep for the <code>DADO</code> joints on both sides of the
+ * bottom and back. The bottom has a groove the thickness of the back along its rear edge, half
+ * the side thickness deep for the <code>SINGLE_SIDE_DADO</code> joint of the back. Grooves are
+ * drawn on a separate layer, or SVG class, named for their depth so the router can be set up per
+ * depth, with an underscore for the decimal point, so a 0.375" deep groove is on
+ * <code>DADO_0_375</code>.
+ *
+ * @author Craig Marker
+ */
+public class PanelExporter {
+    /**
+     * The gap, in inches, between panels in an exported drawing
+     */
+    static final double PANEL_SPACING = 1;
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final long SPACING_UNITS = Measurement.toUnits(PANEL_SPACING);
+
+    private final Format format;
+    private final ByteBuffer buffer;
+    private WritableByteChannel channel;
+    private long x;
+    private long startNanos;
+
+    /**
+     * @param format     The drawing format to write
+     * @param bufferSize The size of the reusable output buffer in bytes
+     */
+    private PanelExporter(Format format, int bufferSize) {
+        this.format = format;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Creates a <code>PanelExporter</code>
+     *
+     * @param format The drawing format to write
+     * @return a <code>PanelExporter</code>
+     */
+    public static PanelExporter create(Format format) {
+        return new PanelExporter(format, BUFFER_SIZE);
+    }
+
+    /**
+     * Writes a drawing of the panels of <code>cabinetBox</code>: both sides, the bottom, the
+     * back, and the runner
+     *
+     * @param cabinetBox the <code>CabinetBox</code> to draw
+     * @param channel    the channel the drawing is written to. It is not closed
+     * @throws IOException if the drawing can not be written
+     */
+    public void export(CabinetBox cabinetBox, WritableByteChannel channel) throws IOException {
+        export(List.of(cabinetBox), channel);
+    }
+
+    /**
+     * Writes a single drawing of the panels of every cabinet in <code>cabinetBoxes</code>
+     *
+     * @param cabinetBoxes the cabinets to draw
+     * @param channel      the channel the drawing is written to. It is not closed
+     * @throws IOException if the drawing can not be written
+     */
+    public void export(Collection<CabinetBox> cabinetBoxes, WritableByteChannel channel)
+            throws IOException {
+        long length = 0;
+        long width = 0;
+        for (CabinetBox cabinetBox : cabinetBoxes) {
+            length += 2 * panelLength(cabinetBox.getSide()) + panelLength(
+                    cabinetBox.getBottom()) + panelLength(cabinetBox.getBack()) + panelLength(
+                    cabinetBox.getRunner());
+            width = Math.max(width, Math.max(panelWidth(cabinetBox.getSide()),
+                    Math.max(panelWidth(cabinetBox.getBottom()),
+                            Math.max(panelWidth(cabinetBox.getBack()),
+                                    panelWidth(cabinetBox.getRunner())))));
+        }
+
+        begin(channel, length, width);
+        for (CabinetBox cabinetBox : cabinetBoxes) {
+            Cut side = cabinetBox.getSide();
+            Cut bottom = cabinetBox.getBottom();
+            Cut back = cabinetBox.getBack();
+            long sideThickness = side.getMaterial().getThicknessUnits();
+            long backThickness = back.getMaterial().getThicknessUnits();
+            long dadoDepth = grooveDepth(side.getMaterial(), Joint.JointType.DADO);
+            long singleSideDadoDepth = grooveDepth(side.getMaterial(),
+                    Joint.JointType.SINGLE_SIDE_DADO);
+
+            for (int i = 0; i < 2; i++) {
+                long sideLength = side.getDimensions().getFirstUnits();
+                long sideWidth = side.getDimensions().getSecondUnits();
+                outline(sideLength, sideWidth);
+                groove(0, 0, sideThickness, sideWidth, dadoDepth);
+                groove(0, sideWidth - backThickness, sideLength, backThickness, dadoDepth);
+                next(sideLength);
+            }
+
+            long bottomLength = bottom.getDimensions().getFirstUnits();
+            long bottomWidth = bottom.getDimensions().getSecondUnits();
+            outline(bottomLength, bottomWidth);
+            groove(0, bottomWidth - backThickness, bottomLength, backThickness,
+                    singleSideDadoDepth);
+            next(bottomLength);
+
+            outline(back);
+            outline(cabinetBox.getRunner());
+        }
+        end();
+    }
+
+    /**
+     * Writes a drawing of the outline of every cut in <code>cutList</code>. A
+     * <code>CutList</code> does not record joints, so no grooves are drawn
+     *
+     * @param cutList the cuts to draw
+     * @param channel the channel the drawing is written to. It is not closed
+     * @throws IOException if the drawing can not be written
+     */
+    public void export(CutList cutList, WritableByteChannel channel) throws IOException {
+        long length = 0;
+        long width = 0;
+        for (int i = 0; i < cutList.size(); i++) {
+            length += cutList.getFirstUnits(i) + SPACING_UNITS;
+            width = Math.max(width, cutList.getSecondUnits(i));
+        }
+
+        begin(channel, length, width);
+        for (int i = 0; i < cutList.size(); i++) {
+            long panelLength = cutList.getFirstUnits(i);
+            outline(panelLength, cutList.getSecondUnits(i));
+            next(panelLength);
+        }
+        end();
+    }
+
+    private static long panelLength(Cut cut) {
+        return cut.getDimensions().getFirstUnits() + SPACING_UNITS;
+    }
+
+    private static long panelWidth(Cut cut) {
+        return cut.getDimensions().getSecondUnits();
+    }
+
+    /**
+     * The depth of the groove cut into the piece a panel is joined to. A <code>DADO</code> joint
+     * splits its offset between grooves on both ends of the panel, a
+     * <code>SINGLE_SIDE_DADO</code> puts the whole offset in one groove
+     */
+    private static long grooveDepth(Material materialJoinedTo, Joint.JointType type) {
+        long offset = Joint.create(materialJoinedTo, type).getJoinedDimensionOffsetUnits();
+        return type == Joint.JointType.DADO ? offset / 2 : offset;
+    }
+
+    private void begin(WritableByteChannel channel, long length, long width) throws IOException {
+        this.channel = channel;
+        this.x = 0;
+        this.startNanos = Metrics.startNanos();
+        buffer.clear();
+        switch (format) {
+            case DXF -> put("0\nSECTION\n2\nHEADER\n9\n$ACADVER\n1\nAC1009\n" +
+                    "0\nENDSEC\n0\nSECTION\n2\nENTITIES\n");
+            case SVG -> {
+                put("<?xml version=\"1.0\" encoding=\"US-ASCII\"?>\n" +
+                        "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"");
+                putInches(length);
+                put("in\" height=\"");
+                putInches(width);
+                put("in\" viewBox=\"0 0 ");
+                putInches(length);
+                put(" ");
+                putInches(width);
+                put("\">\n");
+            }
+        }
+    }
+
+    private void end() throws IOException {
+        switch (format) {
+            case DXF -> put("0\nENDSEC\n0\nEOF\n");
+            case SVG -> put("</svg>\n");
+        }
+        flush();
+        channel = null;
+        Metrics.OUTPUT_FORMATTING.record(startNanos);
+    }
+
+    private void outline(Cut cut) throws IOException {
+        long length = cut.getDimensions().getFirstUnits();
+        outline(length, cut.getDimensions().getSecondUnits());
+        next(length);
+    }
+
+    private void outline(long length, long width) throws IOException {
+        rectangle(0, 0, length, width, -1);
+    }
+
+    private void groove(long left, long top, long length, long width, long depth)
+            throws IOException {
+        rectangle(left, top, length, width, depth);
+    }
+
+    private void next(long length) {
+        x += length + SPACING_UNITS;
+    }
+
+    /**
+     * Writes a rectangle relative to the current panel, on the outline layer when
+     * <code>depth</code> is negative and on the groove layer for <code>depth</code> otherwise
+     */
+    private void rectangle(long left, long top, long length, long width, long depth)
+            throws IOException {
+        switch (format) {
+            case DXF -> {
+                put("0\nPOLYLINE\n8\n");
+                layer(depth);
+                put("\n66\n1\n70\n1\n10\n0\n20\n0\n30\n0\n");
+                vertex(x + left, top, depth);
+                vertex(x + left + length, top, depth);
+                vertex(x + left + length, top + width, depth);
+                vertex(x + left, top + width, depth);
+                put("0\nSEQEND\n8\n");
+                layer(depth);
+                put("\n");
+            }
+            case SVG -> {
+                put("<rect class=\"");
+                layer(depth);
+                put("\" x=\"");
+                putInches(x + left);
+                put("\" y=\"");
+                putInches(top);
+                put("\" width=\"");
+                putInches(length);
+                put("\" height=\"");
+                putInches(width);
+                put("\" fill=\"none\" stroke=\"");
+                put(depth < 0 ? "black" : "red");
+                put("\" stroke-width=\"0.01\"/>\n");
+            }
+        }
+    }
+
+    /**
+     * Writes the layer name for <code>depth</code>, such as <code>DADO_0_375</code>. The decimal
+     * point is written as an underscore, since R12 layer names and SVG class selectors only
+     * allow letters, digits, <code>$</code>, <code>-</code> and <code>_</code>
+     */
+    private void layer(long depth) throws IOException {
+        if (depth < 0) {
+            put("OUTLINE");
+        } else {
+            put("DADO_");
+            putInches(depth);
+            int start = buffer.position();
+            while (start > 0 && buffer.get(start - 1) != '_') {
+                start--;
+            }
+            for (int i = start; i < buffer.position(); i++) {
+                if (buffer.get(i) == '.') {
+                    buffer.put(i, (byte) '_');
+                }
+            }
+        }
+    }
+
+    private void vertex(long vertexX, long vertexY, long depth) throws IOException {
+        put("0\nVERTEX\n8\n");
+        layer(depth);
+        put("\n10\n");
+        putInches(vertexX);
+        put("\n20\n");
+        putInches(vertexY);
+        put("\n30\n0\n");
+    }
+
+    private void put(String ascii) throws IOException {
+        for (int i = 0; i < ascii.length(); i++) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put((byte) ascii.charAt(i));
+        }
+    }
+
+    private void putInches(long units) throws IOException {
+        if (buffer.remaining() < Measurement.MAX_FORMATTED_LENGTH) {
+            flush();
+        }
+        Measurement.putInches(buffer, units);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * The supported drawing formats
+     */
+    public enum Format {
+        /**
+         * AutoCAD Drawing Exchange Format, release 12 (<code>AC1009</code>), with panels as
+         * closed <code>POLYLINE</code>s of four <code>VERTEX</code> entities. R12 entities need
+         * no handles or subclass markers, and R12 has no units header variable, so coordinates
+         * are unitless numbers of inches
+         */
+        DXF,
+        /**
+         * Scalable Vector Graphics, with panels as <code>rect</code> elements
+         */
+        SVG
+    }
+}
@@ -0,0 +1,390 @@
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class for piping large order files through the tool on a single thread. It accepts the same
+ * lines as {@link BatchClient}, but reads them straight from a byte channel into a large direct
+ * buffer, parses comma separated lines in place with an allocation-free decimal parser, and
+ * computes the cuts of each cabinet in fixed-point units without constructing a
+ * <code>CabinetBox</code>. Results are written as comma separated lines, one per accepted cabinet,
+ * to a direct output buffer that is only flushed when full:
+ * <pre>
+ * width,height,depth,side_material,back_material,side_first,side_second,bottom_first,...
+ * </pre>
+ * with the cut dimensions in the order side, bottom, back, runner, rounded to four decimal places.
+ * JSON lines are still accepted but are parsed by <code>BatchClient</code>.
+ *
+ * @author Craig Marker
+ */
+public class PipeClient {
+    static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The header line written before any results
+     */
+    static final String HEADER = "width,height,depth,side_material,back_material,side_first," + "side_second,bottom_first,bottom_second,back_first,back_second,runner_first,runner_second\n";
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final byte[][] MATERIAL_NAMES = new byte[MATERIALS.length][];
+    private static final long[] DADO = new long[MATERIALS.length];
+    private static final long[] SINGLE_SIDE_DADO = new long[MATERIALS.length];
+    private static final long[] BUTT = new long[MATERIALS.length];
+    private static final long RUNNER_UNITS = Measurement.toUnits(3);
+    private static final int MAX_OUTPUT_LINE = 13 * Measurement.MAX_FORMATTED_LENGTH + 2 * 16 + 16;
+
+    /**
+     * Significant digits that fit a <code>double</code> exactly, so dividing by a power of ten
+     * rounds the same as <code>Double.parseDouble</code>
+     */
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        for (Material material : MATERIALS) {
+            int m = material.ordinal();
+            MATERIAL_NAMES[m] = material.name().getBytes(StandardCharsets.US_ASCII);
+            DADO[m] = Joint.create(material, Joint.JointType.DADO).getJoinedDimensionOffsetUnits();
+            SINGLE_SIDE_DADO[m] = Joint.create(material, Joint.JointType.SINGLE_SIDE_DADO)
+                    .getJoinedDimensionOffsetUnits();
+            BUTT[m] = Joint.create(material, Joint.JointType.BUTT).getJoinedDimensionOffsetUnits();
+        }
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final ByteBuffer input;
+    private final ByteBuffer output;
+    private WritableByteChannel channel;
+    private Writer errors;
+    private long accepted;
+    private long rejected;
+    private long lineNumber;
+    private boolean skippingLongLine;
+
+    private final double[] dimensions = new double[3];
+    private Material sideMaterial;
+    private Material backMaterial;
+
+    /**
+     * @param bufferSize the size of the input and output buffers in bytes, which is also the
+     *                   longest line accepted
+     */
+    private PipeClient(int bufferSize) {
+        this.input = ByteBuffer.allocateDirect(bufferSize);
+        this.output = ByteBuffer.allocateDirect(Math.max(bufferSize, MAX_OUTPUT_LINE));
+    }
+
+    /**
+     * Creates a <code>PipeClient</code> with {@link #BUFFER_SIZE} byte buffers
+     *
+     * @return a <code>PipeClient</code>
+     */
+    public static PipeClient create() {
+        return new PipeClient(BUFFER_SIZE);
+    }
+
+    static PipeClient create(int bufferSize) {
+        return new PipeClient(bufferSize);
+    }
+
+    /**
+     * Reads every cabinet from <code>in</code> and writes the cuts of each to <code>out</code>
+     * in input order. Lines that can not be parsed or describe an invalid cabinet are reported
+     * to <code>errors</code> with their line number and do not stop the run. Neither channel is
+     * closed
+     *
+     * @param in     the order lines to read
+     * @param out    where the cuts of each cabinet are written
+     * @param errors where rejected lines are reported
+     * @return the number of cabinets accepted and rejected
+     * @throws IOException if reading or writing fails
+     */
+    public BatchClient.Summary run(ReadableByteChannel in, WritableByteChannel out,
+            Writer errors) throws IOException {
+        this.channel = out;
+        this.errors = errors;
+        accepted = 0;
+        rejected = 0;
+        lineNumber = 0;
+        skippingLongLine = false;
+        input.clear();
+        output.clear();
+        put(HEADER);
+
+        boolean endOfInput = false;
+        while (!endOfInput) {
+            endOfInput = in.read(input) < 0;
+            input.flip();
+
+            int start = 0;
+            int limit = input.limit();
+            for (int i = 0; i < limit; i++) {
+                if (input.get(i) == '\n') {
+                    line(start, i);
+                    start = i + 1;
+                }
+            }
+            if (endOfInput && start < limit) {
+                line(start, limit);
+                start = limit;
+            } else if (start == 0 && limit == input.capacity()) {
+                if (!skippingLongLine) {
+                    reject(lineNumber + 1,
+                            "Expected a line of at most " + input.capacity() + " bytes");
+                    skippingLongLine = true;
+                }
+                start = limit;
+            }
+            input.position(start);
+            input.compact();
+        }
+
+        flush();
+        errors.flush();
+        return new BatchClient.Summary(accepted, rejected);
+    }
+
+    /**
+     * Parses the line in <code>[from, to)</code> of the input buffer and writes its cuts,
+     * unless it is blank, a comment, a header, or the end of a line too long to buffer
+     */
+    private void line(int from, int to) throws IOException {
+        lineNumber++;
+        if (skippingLongLine) {
+            skippingLongLine = false;
+            return;
+        }
+        from = skipSpaces(input, from, to);
+        to = trimSpaces(input, from, to);
+        if (from == to || input.get(from) == '#' || lineNumber == 1 && startsWithWidth(from, to)) {
+            return;
+        }
+
+        try {
+            if (input.get(from) == '{') {
+                CabinetSpec spec = BatchClient.parse(ascii(input, from, to));
+                dimensions[0] = spec.getWidth();
+                dimensions[1] = spec.getHeight();
+                dimensions[2] = spec.getDepth();
+                sideMaterial = spec.getSideMaterial();
+                backMaterial = spec.getBackMaterial();
+            } else {
+                parseCsv(from, to);
+            }
+
+            long widthUnits = Measurement.toUnits(dimensions[0]);
+            long heightUnits = Measurement.toUnits(dimensions[1]);
+            long depthUnits = Measurement.toUnits(dimensions[2]);
+            int violations = CabinetValidator.checkUnits(sideMaterial, backMaterial, widthUnits,
+                    heightUnits, depthUnits);
+            if (violations != 0) {
+                reject(lineNumber, CabinetValidator.getMessage(violations, sideMaterial,
+                        backMaterial, Measurement.toInches(widthUnits),
+                        Measurement.toInches(heightUnits), Measurement.toInches(depthUnits)));
+                return;
+            }
+            write(widthUnits, heightUnits, depthUnits);
+            accepted++;
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            reject(lineNumber, e.getMessage());
+        }
+    }
+
+    private void reject(long lineNumber, String message) throws IOException {
+        errors.append("line ").append(Long.toString(lineNumber)).append(": ").append(message)
+                .append('\n');
+        rejected++;
+    }
+
+    /**
+     * Parses <code>width,height,depth[,sideMaterial,backMaterial]</code> in place
+     */
+    private void parseCsv(int from, int to) throws IllegalArgumentException {
+        int fields = 0;
+        int fieldStart = from;
+        for (int i = from; i <= to; i++) {
+            if (i < to && input.get(i) != ',') {
+                continue;
+            }
+            if (fields < 3) {
+                dimensions[fields] = parseDecimal(input, fieldStart, i);
+            } else if (fields < 5) {
+                Material material = parseMaterial(fieldStart, i);
+                if (fields == 3) {
+                    sideMaterial = material;
+                } else {
+                    backMaterial = material;
+                }
+            }
+            fields++;
+            fieldStart = i + 1;
+        }
+
+        if (fields != 3 && fields != 5) {
+            throw new IllegalArgumentException(
+                    "Expected 3 or 5 comma separated fields but received " + fields);
+        }
+        if (fields == 3) {
+            sideMaterial = CabinetSpec.DEFAULT_SIDE_MATERIAL;
+            backMaterial = CabinetSpec.DEFAULT_BACK_MATERIAL;
+        }
+    }
+
+    /**
+     * Parses a plain decimal number such as <code>34.5</code> without allocating. Numbers with an
+     * exponent or too many digits to convert exactly fall back to
+     * <code>Double.parseDouble</code>, so every number is parsed to the same value
+     */
+    static double parseDecimal(ByteBuffer input, int from, int to) throws NumberFormatException {
+        from = skipSpaces(input, from, to);
+        to = trimSpaces(input, from, to);
+
+        int i = from;
+        boolean negative = false;
+        if (i < to && (input.get(i) == '-' || input.get(i) == '+')) {
+            negative = input.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int significantDigits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        for (; i < to; i++) {
+            byte b = input.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (mantissa != 0) {
+                    significantDigits++;
+                }
+                if (fraction) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+
+        if (i != to || digits == 0 || significantDigits > MAX_EXACT_DIGITS || fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(ascii(input, from, to));
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private Material parseMaterial(int from, int to) throws IllegalArgumentException {
+        from = skipSpaces(input, from, to);
+        to = trimSpaces(input, from, to);
+        for (int m = 0; m < MATERIALS.length; m++) {
+            byte[] name = MATERIAL_NAMES[m];
+            if (name.length == to - from && matches(from, name)) {
+                return MATERIALS[m];
+            }
+        }
+        throw new IllegalArgumentException(
+                "Expected a Material name but received " + ascii(input, from, to));
+    }
+
+    private boolean matches(int from, byte[] ascii) {
+        for (int i = 0; i < ascii.length; i++) {
+            if (input.get(from + i) != ascii[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean startsWithWidth(int from, int to) {
+        if (to - from < 5) {
+            return false;
+        }
+        for (int i = 0; i < 5; i++) {
+            if ((input.get(from + i) | 0x20) != "width".charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipSpaces(ByteBuffer input, int from, int to) {
+        while (from < to && isSpace(input.get(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimSpaces(ByteBuffer input, int from, int to) {
+        while (to > from && isSpace(input.get(to - 1))) {
+            to--;
+        }
+        return to;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static String ascii(ByteBuffer input, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        input.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a result line, computing the cuts the same way <code>CabinetBox</code> does
+     */
+    private void write(long width, long height, long depth) throws IOException {
+        if (output.remaining() < MAX_OUTPUT_LINE) {
+            flush();
+        }
+        int side = sideMaterial.ordinal();
+        putInches(width);
+        putInches(height);
+        putInches(depth);
+        output.put(MATERIAL_NAMES[side]).put((byte) ',');
+        output.put(MATERIAL_NAMES[backMaterial.ordinal()]).put((byte) ',');
+        putInches(height);
+        putInches(depth);
+        putInches(width - DADO[side]);
+        putInches(depth);
+        putInches(width - DADO[side]);
+        putInches(height - SINGLE_SIDE_DADO[side]);
+        putInches(width - BUTT[side]);
+        Measurement.putInches(output, RUNNER_UNITS);
+        output.put((byte) '\n');
+    }
+
+    private void putInches(long units) {
+        Measurement.putInches(output, units);
+        output.put((byte) ',');
+    }
+
+    private void put(String ascii) throws IOException {
+        for (int i = 0; i < ascii.length(); i++) {
+            if (!output.hasRemaining()) {
+                flush();
+            }
+            output.put((byte) ascii.charAt(i));
+        }
+    }
+
+    private void flush() throws IOException {
+        output.flip();
+        while (output.hasRemaining()) {
+            channel.write(output);
+        }
+        output.clear();
+    }
+}
@@ -0,0 +1,336 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A <code>Project</code> is every <code>CabinetBox</code> in a job, for example a kitchen or a
+ * whole building, along with the material bill purchasing needs: for each <code>Material</code>
+ * the square footage of panels, the number of sheets, the number of panels, and the linear feet
+ * of dado grooves.
+ * <p>
+ * Adding or removing a single cabinet updates the totals in constant time: cabinets are kept in
+ * an identity-keyed count of how many times each was added, so removing one is a hash lookup
+ * rather than a search through every cabinet in the job. Adding many cabinets
+ * at once, or {@link #recompute() recomputing} from scratch, splits the cabinets across a
+ * <code>ForkJoinPool</code> where each task sums its share into its own accumulator and the
+ * accumulators are merged as the tasks join. Totals are kept in integer units, so adding and
+ * removing the same cabinet always returns the totals to exactly where they were.
+ * <p>
+ * A <code>Project</code> is safe to use from multiple threads.
+ *
+ * @author Craig Marker
+ */
+public class Project {
+    /**
+     * Batches of at most this many cabinets are totalled without splitting further
+     */
+    static final int SPLIT_THRESHOLD = 1024;
+
+    private static final int MATERIAL_COUNT = Material.values().length;
+    private static final double SQUARE_INCHES_PER_SQUARE_FOOT = 144;
+    private static final double INCHES_PER_FOOT = 12;
+
+    private final ForkJoinPool pool;
+    private final double sheetSquareFeet;
+    private final Map<CabinetBox, Integer> cabinetBoxes = new IdentityHashMap<>();
+    private final Accumulator totals = new Accumulator();
+    private int size;
+
+    private Project(ForkJoinPool pool, double sheetLength, double sheetWidth) {
+        this.pool = pool;
+        this.sheetSquareFeet = sheetLength * sheetWidth / SQUARE_INCHES_PER_SQUARE_FOOT;
+    }
+
+    /**
+     * Creates an empty <code>Project</code> that counts standard 4x8 sheets and aggregates on the
+     * common <code>ForkJoinPool</code>
+     *
+     * @return an empty <code>Project</code>
+     */
+    public static Project create() {
+        return create(ForkJoinPool.commonPool(), SheetNester.STANDARD_SHEET_LENGTH,
+                SheetNester.STANDARD_SHEET_WIDTH);
+    }
+
+    /**
+     * Creates an empty <code>Project</code>
+     *
+     * @param pool        the pool bulk aggregation runs on
+     * @param sheetLength the long dimension of the sheets material is bought in
+     * @param sheetWidth  the short dimension of the sheets material is bought in
+     * @return an empty <code>Project</code>
+     * @throws IllegalArgumentException if a sheet dimension is not positive
+     */
+    public static Project create(ForkJoinPool pool, double sheetLength, double sheetWidth)
+            throws IllegalArgumentException {
+        if (!(sheetLength > 0) || !(sheetWidth > 0)) {
+            throw new IllegalArgumentException(
+                    "Expected positive sheet dimensions but received " + sheetLength + "x" + sheetWidth);
+        }
+        return new Project(pool, sheetLength, sheetWidth);
+    }
+
+    /**
+     * Adds a single cabinet
+     *
+     * @param cabinetBox the cabinet to add
+     */
+    public synchronized void add(CabinetBox cabinetBox) {
+        count(cabinetBox);
+        totals.add(cabinetBox, 1);
+    }
+
+    private void count(CabinetBox cabinetBox) {
+        Integer count = cabinetBoxes.get(cabinetBox);
+        cabinetBoxes.put(cabinetBox, count == null ? 1 : count + 1);
+        size++;
+    }
+
+    /**
+     * Adds every cabinet in <code>cabinetBoxes</code>, totalling them in parallel
+     *
+     * @param cabinetBoxes the cabinets to add
+     */
+    public void addAll(Collection<CabinetBox> cabinetBoxes) {
+        CabinetBox[] added = cabinetBoxes.toArray(new CabinetBox[0]);
+        Accumulator addedTotals = pool.invoke(new TotalTask(added, 0, added.length));
+        synchronized (this) {
+            for (CabinetBox cabinetBox : added) {
+                count(cabinetBox);
+            }
+            totals.merge(addedTotals);
+        }
+    }
+
+    /**
+     * Removes a cabinet previously added
+     *
+     * @param cabinetBox the cabinet to remove, compared by identity. A cabinet added more than
+     *                   once is removed once
+     * @return true if the cabinet was in the project
+     */
+    public synchronized boolean remove(CabinetBox cabinetBox) {
+        Integer count = cabinetBoxes.get(cabinetBox);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            cabinetBoxes.remove(cabinetBox);
+        } else {
+            cabinetBoxes.put(cabinetBox, count - 1);
+        }
+        size--;
+        totals.add(cabinetBox, -1);
+        return true;
+    }
+
+    /**
+     * Recomputes the totals of every cabinet from scratch in parallel. The incrementally
+     * maintained totals are always exact, so this is only needed to check them
+     *
+     * @return the recomputed totals
+     */
+    public Totals recompute() {
+        CabinetBox[] all;
+        synchronized (this) {
+            all = new CabinetBox[size];
+            int i = 0;
+            for (Map.Entry<CabinetBox, Integer> entry : cabinetBoxes.entrySet()) {
+                for (int copies = entry.getValue(); copies > 0; copies--) {
+                    all[i++] = entry.getKey();
+                }
+            }
+        }
+        return new Totals(pool.invoke(new TotalTask(all, 0, all.length)), sheetSquareFeet);
+    }
+
+    /**
+     * @return a snapshot of the material bill
+     */
+    public synchronized Totals getTotals() {
+        return new Totals(totals.copy(), sheetSquareFeet);
+    }
+
+    /**
+     * @return the number of cabinets in the project
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "Project{" + "cabinets=" + size() + ", totals=" + getTotals() + '}';
+    }
+
+    /**
+     * Sums the cabinets in <code>[from, to)</code>, splitting in half until a batch is small
+     * enough to total directly
+     */
+    @SuppressWarnings("serial")
+    private static class TotalTask extends RecursiveTask<Accumulator> {
+        private final CabinetBox[] cabinetBoxes;
+        private final int from;
+        private final int to;
+
+        private TotalTask(CabinetBox[] cabinetBoxes, int from, int to) {
+            this.cabinetBoxes = cabinetBoxes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                Accumulator accumulator = new Accumulator();
+                for (int i = from; i < to; i++) {
+                    accumulator.add(cabinetBoxes[i], 1);
+                }
+                return accumulator;
+            }
+
+            int middle = (from + to) >>> 1;
+            TotalTask left = new TotalTask(cabinetBoxes, from, middle);
+            left.fork();
+            Accumulator right = new TotalTask(cabinetBoxes, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Running totals per material ordinal. Area is kept in inch-units, the product of a
+     * measurement in inches and one in {@link Measurement} units, rounded per panel; dado length
+     * is kept in units
+     */
+    private static class Accumulator {
+        private final long[] area = new long[MATERIAL_COUNT];
+        private final long[] panels = new long[MATERIAL_COUNT];
+        private final long[] dado = new long[MATERIAL_COUNT];
+
+        /**
+         * Adds <code>sign</code> times the panels and grooves of <code>cabinetBox</code>. The
+         * grooves match those <code>PanelExporter</code> draws: on each side, one across the
+         * bottom and one up the back, and on the bottom, one for the back
+         */
+        private void add(CabinetBox cabinetBox, int sign) {
+            Cut side = cabinetBox.getSide();
+            Cut bottom = cabinetBox.getBottom();
+            addPanel(side, 2 * sign);
+            addPanel(bottom, sign);
+            addPanel(cabinetBox.getBack(), sign);
+            addPanel(cabinetBox.getRunner(), sign);
+
+            int sideMaterial = side.getMaterial().ordinal();
+            long sideGrooves = side.getDimensions().getSecondUnits() + side.getDimensions()
+                    .getFirstUnits();
+            dado[sideMaterial] += sign * (2 * sideGrooves + bottom.getDimensions()
+                    .getFirstUnits());
+        }
+
+        private void addPanel(Cut cut, int count) {
+            int material = cut.getMaterial().ordinal();
+            long first = cut.getDimensions().getFirstUnits();
+            long second = cut.getDimensions().getSecondUnits();
+            area[material] += count * ((first * second + Measurement.UNITS_PER_INCH / 2) / Measurement.UNITS_PER_INCH);
+            panels[material] += count;
+        }
+
+        private Accumulator merge(Accumulator other) {
+            for (int m = 0; m < MATERIAL_COUNT; m++) {
+                area[m] += other.area[m];
+                panels[m] += other.panels[m];
+                dado[m] += other.dado[m];
+            }
+            return this;
+        }
+
+        private Accumulator copy() {
+            return new Accumulator().merge(this);
+        }
+    }
+
+    /**
+     * The material bill of a project at one point in time
+     */
+    public static class Totals {
+        private final Accumulator accumulator;
+        private final double sheetSquareFeet;
+
+        private Totals(Accumulator accumulator, double sheetSquareFeet) {
+            this.accumulator = accumulator;
+            this.sheetSquareFeet = sheetSquareFeet;
+        }
+
+        /**
+         * @param material the material to total
+         * @return the combined area of every panel of <code>material</code> in square feet
+         */
+        public double getSquareFeet(Material material) {
+            return Measurement.toInches(
+                    accumulator.area[material.ordinal()]) / SQUARE_INCHES_PER_SQUARE_FOOT;
+        }
+
+        /**
+         * The number of sheets whose area covers every panel of <code>material</code>. This is
+         * a lower bound: use <code>SheetNester</code> for a cutting layout that accounts for
+         * kerf and offcuts
+         *
+         * @param material the material to total
+         * @return the number of sheets of <code>material</code> to buy
+         */
+        public long getSheets(Material material) {
+            long area = accumulator.area[material.ordinal()];
+            return area == 0 ? 0 : (long) Math.ceil(getSquareFeet(material) / sheetSquareFeet);
+        }
+
+        /**
+         * @param material the material to total
+         * @return the number of panels cut from <code>material</code>
+         */
+        public long getPanels(Material material) {
+            return accumulator.panels[material.ordinal()];
+        }
+
+        /**
+         * @param material the material to total
+         * @return the combined length of dado grooves cut into <code>material</code> in feet
+         */
+        public double getDadoFeet(Material material) {
+            return Measurement.toInches(accumulator.dado[material.ordinal()]) / INCHES_PER_FOOT;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Totals)) return false;
+
+            Totals that = (Totals) o;
+            return Arrays.equals(accumulator.area, that.accumulator.area) && Arrays.equals(
+                    accumulator.panels, that.accumulator.panels) && Arrays.equals(accumulator.dado,
+                    that.accumulator.dado) && Double.compare(sheetSquareFeet,
+                    that.sheetSquareFeet) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(accumulator.area) * 31 + Arrays.hashCode(accumulator.panels);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("Totals{");
+            for (Material material : Material.values()) {
+                if (getPanels(material) != 0) {
+                    builder.append('\n').append(material).append(": ").append(
+                            String.format("%.2f sq ft, %d sheets, %d panels, %.2f ft dado",
+                                    getSquareFeet(material), getSheets(material),
+                                    getPanels(material), getDadoFeet(material)));
+                }
+            }
+            return builder.append('}').toString();
+        }
+    }
+}
@@ -0,0 +1,305 @@
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A catalog of every {@link RunnerConfiguration} available.
+ * <p>
+ * Runners are kept sorted by minimum cabinet depth with their side thickness limits and max load
+ * unpacked into parallel primitive arrays. A fit query binary searches the depths, the only
+ * indexed condition, and then checks the side thickness and load of every runner short enough
+ * for the opening in a linear scan of those arrays. Lookups by drawer length and by max load
+ * each binary search their own sorted copy of the catalog. A <code>RunnerCatalog</code> is
+ * immutable and thread safe.
+ *
+ * @author Craig Marker
+ */
+public class RunnerCatalog {
+    /**
+     * The classpath resource holding the Blum runner catalog
+     */
+    static final String DEFAULT_RESOURCE = "/blum_runners.yaml";
+
+    private final RunnerConfiguration[] byDepth;
+    private final double[] minCabinetDepth;
+    private final double[] minDrawerSideThickness;
+    private final double[] maxDrawerSideThickness;
+    private final int[] maxLoadByDepth;
+
+    private final RunnerConfiguration[] byDrawerLength;
+    private final int[] drawerLength;
+
+    private final RunnerConfiguration[] byMaxLoad;
+    private final int[] maxLoad;
+
+    private RunnerCatalog(Collection<RunnerConfiguration> runners) {
+        this.byDepth = runners.toArray(new RunnerConfiguration[0]);
+        Arrays.sort(byDepth, Order.DEPTH);
+        this.minCabinetDepth = new double[byDepth.length];
+        this.minDrawerSideThickness = new double[byDepth.length];
+        this.maxDrawerSideThickness = new double[byDepth.length];
+        this.maxLoadByDepth = new int[byDepth.length];
+        for (int i = 0; i < byDepth.length; i++) {
+            minCabinetDepth[i] = byDepth[i].getMinCabinetDepth();
+            minDrawerSideThickness[i] = byDepth[i].getMinDrawerSideThickness();
+            maxDrawerSideThickness[i] = byDepth[i].getMaxDrawerSideThickness();
+            maxLoadByDepth[i] = byDepth[i].getMaxLoad();
+        }
+
+        this.byDrawerLength = byDepth.clone();
+        Arrays.sort(byDrawerLength, Order.DRAWER_LENGTH);
+        this.drawerLength = new int[byDrawerLength.length];
+        for (int i = 0; i < byDrawerLength.length; i++) {
+            drawerLength[i] = byDrawerLength[i].getDrawerLength();
+        }
+
+        this.byMaxLoad = byDepth.clone();
+        Arrays.sort(byMaxLoad, Order.MAX_LOAD);
+        this.maxLoad = new int[byMaxLoad.length];
+        for (int i = 0; i < byMaxLoad.length; i++) {
+            maxLoad[i] = byMaxLoad[i].getMaxLoad();
+        }
+    }
+
+    /**
+     * Creates a <code>RunnerCatalog</code> from runners that are already loaded
+     *
+     * @param runners every runner in the catalog
+     * @return a <code>RunnerCatalog</code>
+     */
+    public static RunnerCatalog of(Collection<RunnerConfiguration> runners) {
+        return new RunnerCatalog(runners);
+    }
+
+    /**
+     * Loads the Blum runner catalog bundled with this application, from its bundled
+     * {@link RunnerCatalogSnapshot} unless the catalog has changed since the snapshot was
+     * compiled
+     *
+     * @return a <code>RunnerCatalog</code> of every bundled runner
+     * @throws UncheckedIOException if the bundled catalog can not be read
+     */
+    public static RunnerCatalog load() {
+        try {
+            return RunnerCatalogSnapshot.loadResource(RunnerCatalogSnapshot.DEFAULT_RESOURCE,
+                    DEFAULT_RESOURCE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Streams a list of runners from <code>input</code>, deserializing one runner at a time
+     * rather than building a tree of the whole document
+     *
+     * @param input   the catalog document, a list of runner objects
+     * @param factory the <code>JsonFactory</code> for the document format, for example a
+     *                <code>YAMLFactory</code>
+     * @return a <code>RunnerCatalog</code> of every runner in <code>input</code>
+     * @throws IOException if the document can not be read or is not a list of runners
+     */
+    public static RunnerCatalog load(InputStream input, JsonFactory factory) throws IOException {
+        return new RunnerCatalog(Documents.read(input, factory));
+    }
+
+    /**
+     * Parses a catalog document already read into memory
+     *
+     * @param document the catalog document, a list of runner objects
+     * @param json     true if <code>document</code> is JSON rather than YAML
+     * @return a <code>RunnerCatalog</code> of every runner in <code>document</code>
+     * @throws IOException if the document is not a list of runners
+     */
+    static RunnerCatalog parse(byte[] document, boolean json) throws IOException {
+        return new RunnerCatalog(Documents.read(document, json));
+    }
+
+    /**
+     * Finds every runner that fits an opening of <code>cabinetDepth</code>, accepts drawer sides
+     * of <code>drawerSideThickness</code>, and supports at least <code>load</code> pounds
+     *
+     * @param cabinetDepth        the depth of the cabinet opening, the cabinet depth less the
+     *                            back, compared against each runner's minimum cabinet depth
+     * @param drawerSideThickness the thickness of the drawer side material
+     * @param load                the static load, in pounds, the drawer must support
+     * @return the matching runners, longest minimum cabinet depth first so that the first
+     * runner makes the most use of the cabinet
+     */
+    public List<RunnerConfiguration> find(double cabinetDepth, double drawerSideThickness,
+            int load) {
+        List<RunnerConfiguration> matches = new ArrayList<>();
+        for (int i = upperBound(minCabinetDepth, cabinetDepth) - 1; i >= 0; i--) {
+            if (fits(i, drawerSideThickness, load)) {
+                matches.add(byDepth[i]);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the runner making the most use of a cabinet's depth without building the full list
+     * of matches
+     *
+     * @param cabinetDepth        the depth of the cabinet opening, the cabinet depth less the
+     *                            back, compared against each runner's minimum cabinet depth
+     * @param drawerSideThickness the thickness of the drawer side material
+     * @param load                the static load, in pounds, the drawer must support
+     * @return the matching runner with the longest minimum cabinet depth, if any
+     */
+    public Optional<RunnerConfiguration> findBest(double cabinetDepth,
+            double drawerSideThickness, int load) {
+        for (int i = upperBound(minCabinetDepth, cabinetDepth) - 1; i >= 0; i--) {
+            if (fits(i, drawerSideThickness, load)) {
+                return Optional.of(byDepth[i]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean fits(int i, double drawerSideThickness, int load) {
+        return maxLoadByDepth[i] >= load && minDrawerSideThickness[i] <= drawerSideThickness && drawerSideThickness <= maxDrawerSideThickness[i];
+    }
+
+    /**
+     * @param length the drawer length in inches
+     * @return every runner supporting a drawer of exactly <code>length</code>
+     */
+    public List<RunnerConfiguration> getByDrawerLength(int length) {
+        int from = lowerBound(drawerLength, length);
+        int to = lowerBound(drawerLength, length + 1);
+        return Collections.unmodifiableList(Arrays.asList(byDrawerLength).subList(from, to));
+    }
+
+    /**
+     * @param load the static load, in pounds, the drawer must support
+     * @return every runner supporting at least <code>load</code>, lowest max load first
+     */
+    public List<RunnerConfiguration> getByMinLoad(int load) {
+        return Collections.unmodifiableList(
+                Arrays.asList(byMaxLoad).subList(lowerBound(maxLoad, load), byMaxLoad.length));
+    }
+
+    /**
+     * @return every runner in the catalog, sorted by minimum cabinet depth
+     */
+    public List<RunnerConfiguration> getRunners() {
+        return Collections.unmodifiableList(Arrays.asList(byDepth));
+    }
+
+    public int size() {
+        return byDepth.length;
+    }
+
+    /**
+     * @return the number of leading elements of <code>sorted</code> that are less than or equal
+     * to <code>key</code>
+     */
+    private static int upperBound(double[] sorted, double key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the number of leading elements of <code>sorted</code> that are less than
+     * <code>key</code>
+     */
+    private static int lowerBound(int[] sorted, int key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The orders the catalog is indexed in. These are spelled out rather than composed from
+     * <code>Comparator</code> lambdas, which cost tens of milliseconds to bootstrap on a cold JVM
+     */
+    private enum Order implements Comparator<RunnerConfiguration> {
+        DEPTH {
+            @Override
+            public int compare(RunnerConfiguration first, RunnerConfiguration second) {
+                int depth = Double.compare(first.getMinCabinetDepth(),
+                        second.getMinCabinetDepth());
+                return depth != 0 ? depth : DRAWER_LENGTH.compare(first, second);
+            }
+        }, DRAWER_LENGTH {
+            @Override
+            public int compare(RunnerConfiguration first, RunnerConfiguration second) {
+                return Integer.compare(first.getDrawerLength(), second.getDrawerLength());
+            }
+        }, MAX_LOAD {
+            @Override
+            public int compare(RunnerConfiguration first, RunnerConfiguration second) {
+                return Integer.compare(first.getMaxLoad(), second.getMaxLoad());
+            }
+        }
+    }
+
+    /**
+     * Reads catalog documents through Jackson. Kept in its own class so that loading a catalog
+     * from a {@link RunnerCatalogSnapshot} never loads or verifies any Jackson classes
+     */
+    private static class Documents {
+        private static List<RunnerConfiguration> read(byte[] document, boolean json)
+                throws IOException {
+            return read(new ByteArrayInputStream(document), json ? new JsonFactory() :
+                    new YAMLFactory());
+        }
+
+        private static List<RunnerConfiguration> read(InputStream input, JsonFactory factory)
+                throws IOException {
+            ObjectMapper mapper = new ObjectMapper(factory);
+            List<RunnerConfiguration> runners = new ArrayList<>();
+            try (JsonParser parser = factory.createParser(input)) {
+                parser.setCodec(mapper);
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IOException("Expected runner catalog to be a list of runners");
+                }
+                parser.nextToken();
+                try (MappingIterator<RunnerConfiguration> iterator = mapper.readValues(parser,
+                        RunnerConfiguration.class)) {
+                    while (iterator.hasNextValue()) {
+                        runners.add(iterator.nextValue());
+                    }
+                }
+            }
+            return runners;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RunnerCatalog{runners=" + Arrays.toString(byDepth) + '}';
+    }
+}
@@ -0,0 +1,261 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * A compact binary copy of a runner catalog document, so that loading the catalog at startup is a
+ * single read and a loop over primitives instead of a YAML parse and Jackson's reflective
+ * <code>@JsonCreator</code> binding. For a CLI started once per order that is the difference
+ * between a few milliseconds and a few hundred before the first cut list.
+ * <p>
+ * A snapshot records a CRC-32C fingerprint of the document it was compiled from. It is only used
+ * when that fingerprint matches the document, so a catalog edited without recompiling its
+ * snapshot is still loaded correctly, through Jackson. The snapshot is a little-endian header
+ * followed by one variable width record per runner:
+ * <pre>
+ * header (24 bytes)
+ *   0  int       magic, "BLMR"
+ *   4  short     format version, 1
+ *   6  short     reserved, 0
+ *   8  long      CRC-32C of the source document
+ *   16 int       number of runners
+ *   20 int       reserved, 0
+ * record
+ *   0  int       max load
+ *   4  int       drawer length
+ *   8  double[6] min and max drawer side thickness, min cabinet depth, min top clearance,
+ *                bottom clearance, interior offset
+ *   56 short     length of the sku
+ *   58 byte[]    sku, UTF-8
+ * </pre>
+ *
+ * @author Craig Marker
+ */
+public final class RunnerCatalogSnapshot {
+    /**
+     * The classpath resource holding the snapshot of {@link RunnerCatalog#DEFAULT_RESOURCE}
+     */
+    static final String DEFAULT_RESOURCE = "/blum_runners.bin";
+    static final int MAGIC = 0x524D4C42;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 24;
+
+    private static final int RECORD_FIXED_SIZE = 58;
+
+    private RunnerCatalogSnapshot() {
+    }
+
+    /**
+     * Compiles a catalog document into a snapshot, the build step behind
+     * <code>MainClass --compile-runners</code>
+     *
+     * @param args the catalog document and the snapshot path to write
+     * @throws IOException if the document can not be read or the snapshot can not be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException(
+                    "Expected a catalog path and a snapshot path but received " + args.length + " arguments");
+        }
+        compile(Path.of(args[0]), Path.of(args[1]));
+    }
+
+    /**
+     * Compiles the catalog document at <code>source</code> into a snapshot at
+     * <code>snapshot</code>, replacing it atomically
+     *
+     * @param source   the catalog document, YAML or, with a <code>.json</code> name, JSON
+     * @param snapshot the snapshot to write
+     * @throws IOException if the document can not be read or the snapshot can not be written
+     */
+    public static void compile(Path source, Path snapshot) throws IOException {
+        byte[] document = Files.readAllBytes(source);
+        List<RunnerConfiguration> runners = RunnerCatalog.parse(document, isJson(source))
+                .getRunners();
+        ByteBuffer buffer = encode(runners, fingerprint(document));
+
+        Path parent = snapshot.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, snapshot.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary,
+                    StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Loads the catalog document at <code>source</code>, from the snapshot at
+     * <code>snapshot</code> when it was compiled from the document as it is now. The snapshot is
+     * mapped rather than read onto the heap
+     *
+     * @param snapshot the snapshot, which need not exist
+     * @param source   the catalog document, YAML or, with a <code>.json</code> name, JSON
+     * @return a <code>RunnerCatalog</code> of every runner in <code>source</code>
+     * @throws IOException if the document can not be read
+     */
+    public static RunnerCatalog load(Path snapshot, Path source) throws IOException {
+        byte[] document = Files.readAllBytes(source);
+        if (Files.isRegularFile(snapshot)) {
+            try (FileChannel channel = FileChannel.open(snapshot)) {
+                Optional<RunnerCatalog> catalog = decode(
+                        channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+                        fingerprint(document));
+                if (catalog.isPresent()) {
+                    return catalog.get();
+                }
+            }
+        }
+        return RunnerCatalog.parse(document, isJson(source));
+    }
+
+    /**
+     * Loads a catalog document bundled on the classpath, from its bundled snapshot when there is
+     * one compiled from the document as it is now
+     *
+     * @param snapshotResource the snapshot resource, which need not exist
+     * @param sourceResource   the catalog document resource, YAML
+     * @return a <code>RunnerCatalog</code> of every runner in the document
+     * @throws IOException if the document can not be read
+     */
+    static RunnerCatalog loadResource(String snapshotResource, String sourceResource)
+            throws IOException {
+        byte[] document = readResource(sourceResource);
+        if (document == null) {
+            throw new IOException("Runner catalog resource " + sourceResource + " not found");
+        }
+        byte[] snapshot = readResource(snapshotResource);
+        if (snapshot != null) {
+            Optional<RunnerCatalog> catalog = decode(ByteBuffer.wrap(snapshot),
+                    fingerprint(document));
+            if (catalog.isPresent()) {
+                return catalog.get();
+            }
+        }
+        return RunnerCatalog.parse(document, false);
+    }
+
+    private static byte[] readResource(String resource) throws IOException {
+        try (InputStream input = RunnerCatalogSnapshot.class.getResourceAsStream(resource)) {
+            return input == null ? null : input.readAllBytes();
+        }
+    }
+
+    private static boolean isJson(Path source) {
+        return source.getFileName().toString().endsWith(".json");
+    }
+
+    /**
+     * @param document the catalog document
+     * @return the fingerprint a snapshot of <code>document</code> records
+     */
+    static long fingerprint(byte[] document) {
+        CRC32C crc = new CRC32C();
+        crc.update(document);
+        return crc.getValue();
+    }
+
+    /**
+     * Encodes <code>runners</code> into a snapshot
+     *
+     * @param runners     every runner in the catalog
+     * @param fingerprint the fingerprint of the document the runners were loaded from
+     * @return the snapshot, flipped for reading
+     */
+    static ByteBuffer encode(Collection<RunnerConfiguration> runners, long fingerprint) {
+        List<byte[]> skus = new ArrayList<>(runners.size());
+        int size = HEADER_SIZE;
+        for (RunnerConfiguration runner : runners) {
+            byte[] sku = runner.getSku().getBytes(StandardCharsets.UTF_8);
+            if (sku.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException(
+                        "Expected a sku of at most " + Short.MAX_VALUE + " bytes but received " + sku.length);
+            }
+            skus.add(sku);
+            size += RECORD_FIXED_SIZE + sku.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(fingerprint)
+                .putInt(runners.size()).putInt(0);
+        int i = 0;
+        for (RunnerConfiguration runner : runners) {
+            byte[] sku = skus.get(i++);
+            buffer.putInt(runner.getMaxLoad()).putInt(runner.getDrawerLength())
+                    .putDouble(runner.getMinDrawerSideThickness())
+                    .putDouble(runner.getMaxDrawerSideThickness())
+                    .putDouble(runner.getMinCabinetDepth())
+                    .putDouble(runner.getMinTopClearance())
+                    .putDouble(runner.getBottomClearance())
+                    .putDouble(runner.getInteriorOffset()).putShort((short) sku.length).put(sku);
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Decodes a snapshot
+     *
+     * @param snapshot    the snapshot, from its position to its limit
+     * @param fingerprint the fingerprint of the catalog document as it is now
+     * @return the catalog, or empty if <code>snapshot</code> is not a snapshot of this version
+     * compiled from the document with <code>fingerprint</code>
+     */
+    static Optional<RunnerCatalog> decode(ByteBuffer snapshot, long fingerprint) {
+        ByteBuffer buffer = snapshot.slice().order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                return Optional.empty();
+            }
+            buffer.getShort();
+            if (buffer.getLong() != fingerprint) {
+                return Optional.empty();
+            }
+            int count = buffer.getInt();
+            buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / RECORD_FIXED_SIZE) {
+                return Optional.empty();
+            }
+
+            List<RunnerConfiguration> runners = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int maxLoad = buffer.getInt();
+                int drawerLength = buffer.getInt();
+                double minDrawerSideThickness = buffer.getDouble();
+                double maxDrawerSideThickness = buffer.getDouble();
+                double minCabinetDepth = buffer.getDouble();
+                double minTopClearance = buffer.getDouble();
+                double bottomClearance = buffer.getDouble();
+                double interiorOffset = buffer.getDouble();
+                byte[] sku = new byte[buffer.getShort()];
+                buffer.get(sku);
+                runners.add(RunnerConfiguration.of(new String(sku, StandardCharsets.UTF_8),
+                        maxLoad, minDrawerSideThickness, maxDrawerSideThickness, drawerLength,
+                        minCabinetDepth, minTopClearance, bottomClearance, interiorOffset));
+            }
+            return buffer.hasRemaining() ? Optional.empty() : Optional.of(
+                    RunnerCatalog.of(runners));
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            return Optional.empty();
+        }
+    }
+}
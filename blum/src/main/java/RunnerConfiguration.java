@@ -58,6 +58,21 @@ public class RunnerConfiguration {
         this.interiorOffset = interiorOffset;
     }
 
+    /**
+     * Creates a <code>RunnerConfiguration</code> without going through Jackson, for catalogs
+     * decoded from a {@link RunnerCatalogSnapshot}
+     *
+     * @return a <code>RunnerConfiguration</code>
+     * @see #RunnerConfiguration(String, int, double, double, int, double, double, double, double)
+     */
+    static RunnerConfiguration of(String sku, int maxLoad, double minDrawerSideThickness,
+            double maxDrawerSideThickness, int drawerLength, double minCabinetDepth,
+            double minTopClearance, double bottomClearance, double interiorOffset) {
+        return new RunnerConfiguration(sku, maxLoad, minDrawerSideThickness,
+                maxDrawerSideThickness, drawerLength, minCabinetDepth, minTopClearance,
+                bottomClearance, interiorOffset);
+    }
+
     public String getSku() {
         return sku;
     }
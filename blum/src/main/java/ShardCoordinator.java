@@ -0,0 +1,497 @@
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs a batch across {@link ShardWorker}s in other JVMs, so a batch is not limited to the heap
+ * and cores of one process. The order file is cut into shards of consecutive lines that are
+ * queued for one dispatcher thread per worker, each of which sends a shard over its connection
+ * and waits for the result. Results are written in input order, in the same format as
+ * {@link BatchClient}, and only a bounded number of shards are read ahead of the oldest
+ * unwritten one.
+ * <p>
+ * A shard whose worker fails or times out is put back at the front of the queue for any worker
+ * to pick up, up to {@link #DEFAULT_MAX_ATTEMPTS} attempts. A worker that can not be reconnected
+ * to is dropped, and the batch fails once every worker has been dropped.
+ *
+ * @author Craig Marker
+ */
+public class ShardCoordinator {
+    /**
+     * The number of input lines sent to a worker as a single shard
+     */
+    static final int DEFAULT_SHARD_SIZE = 4096;
+
+    /**
+     * The number of times a shard is sent before the batch fails
+     */
+    static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /**
+     * The longest a worker may take to answer a shard before it is treated as failed
+     */
+    static final int DEFAULT_TIMEOUT_MILLIS = 60_000;
+
+    private static final long WORKER_START_TIMEOUT_SECONDS = 30;
+
+    private final List<InetSocketAddress> workers;
+    private final int shardSize;
+    private final int maxAttempts;
+    private final int timeoutMillis;
+
+    private ShardCoordinator(List<InetSocketAddress> workers, int shardSize, int maxAttempts,
+            int timeoutMillis) {
+        this.workers = List.copyOf(workers);
+        this.shardSize = shardSize;
+        this.maxAttempts = maxAttempts;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Creates a <code>ShardCoordinator</code>
+     *
+     * @param workers the address of every worker
+     * @return a <code>ShardCoordinator</code>
+     * @throws IllegalArgumentException if there are no workers
+     */
+    public static ShardCoordinator create(List<InetSocketAddress> workers)
+            throws IllegalArgumentException {
+        return create(workers, DEFAULT_SHARD_SIZE, DEFAULT_MAX_ATTEMPTS, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    static ShardCoordinator create(List<InetSocketAddress> workers, int shardSize,
+            int maxAttempts, int timeoutMillis) throws IllegalArgumentException {
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("Expected at least one worker but received none");
+        }
+        if (shardSize < 1 || shardSize > ShardWorker.MAX_SHARD_LINES || maxAttempts < 1 || timeoutMillis < 0) {
+            throw new IllegalArgumentException(
+                    "Expected a shard size from 1 to " + ShardWorker.MAX_SHARD_LINES + ", positive attempts and a non-negative timeout but received " + shardSize + ", " + maxAttempts + ", " + timeoutMillis);
+        }
+        return new ShardCoordinator(workers, shardSize, maxAttempts, timeoutMillis);
+    }
+
+    /**
+     * Starts <code>count</code> worker JVMs on this machine, each running
+     * <code>MainClass --worker</code> on a free loopback port with this JVM's class path
+     *
+     * @param count the number of worker processes
+     * @return the running workers, which are destroyed when closed
+     * @throws IOException if a worker can not be started or does not report its port
+     */
+    public static LocalWorkers startLocalWorkers(int count) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processes = new ArrayList<>(count);
+        LocalWorkers localWorkers = new LocalWorkers(processes);
+        try {
+            for (int i = 0; i < count; i++) {
+                processes.add(new ProcessBuilder(java, "-cp",
+                        System.getProperty("java.class.path"), "MainClass", "--worker", "0")
+                        .redirectError(ProcessBuilder.Redirect.INHERIT).start());
+            }
+            for (Process process : processes) {
+                localWorkers.addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                        readPort(process)));
+            }
+            return localWorkers;
+        } catch (IOException | RuntimeException e) {
+            localWorkers.close();
+            throw e;
+        }
+    }
+
+    private static int readPort(Process process) throws IOException {
+        SettableFuture<String> ready = SettableFuture.create();
+        Thread.ofVirtual().start(() -> {
+            try {
+                BufferedReader output = new BufferedReader(
+                        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+                ready.set(output.readLine());
+            } catch (IOException e) {
+                ready.setException(e);
+            }
+        });
+
+        String line;
+        try {
+            line = ready.get(WORKER_START_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a worker to start");
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IOException("Expected a worker to start but it did not report a port", e);
+        }
+        if (line == null || !line.startsWith(ShardWorker.READY)) {
+            throw new IOException(
+                    "Expected a worker to report \"" + ShardWorker.READY + "\" but received " + line);
+        }
+        return Integer.parseInt(line.substring(ShardWorker.READY.length()).trim());
+    }
+
+    /**
+     * Reads every cabinet from <code>input</code> and writes each resulting
+     * <code>CabinetBox</code> to <code>output</code> in input order. Lines that can not be
+     * parsed or describe an invalid cabinet are reported to <code>errors</code> with their line
+     * number and do not stop the batch. Workers dropped along the way are reported to
+     * <code>errors</code> after the last rejected line, and to the exception when the batch
+     * fails
+     *
+     * @param input  the order lines to read
+     * @param output where the cut lists for each cabinet are written
+     * @param errors where rejected lines and dropped workers are reported
+     * @return the number of cabinets accepted and rejected
+     * @throws IOException if reading or writing fails, a shard fails on every attempt or is
+     *                     still running long after its attempts should have timed out, or every
+     *                     worker is dropped
+     */
+    public BatchClient.Summary run(BufferedReader input, Writer output, Writer errors)
+            throws IOException {
+        Dispatch dispatch = new Dispatch(workers.size());
+        ListeningExecutorService executorService = MoreExecutors.listeningDecorator(
+                Executors.newFixedThreadPool(workers.size()));
+        try {
+            for (InetSocketAddress worker : workers) {
+                executorService.execute(() -> dispatch.serve(worker));
+            }
+
+            int maxShardsInFlight = workers.size() * 2;
+            Deque<Shard> inFlight = new ArrayDeque<>(maxShardsInFlight);
+            BatchClient.Summary summary = new BatchClient.Summary();
+            long lineNumber = 0;
+            List<String> lines = new ArrayList<>(shardSize);
+            String line;
+            while ((line = input.readLine()) != null) {
+                lineNumber++;
+                lines.add(line);
+                if (lines.size() == shardSize) {
+                    if (inFlight.size() == maxShardsInFlight) {
+                        write(inFlight.removeFirst(), output, errors, summary);
+                    }
+                    inFlight.addLast(dispatch.submit(lines, lineNumber - lines.size() + 1));
+                    lines = new ArrayList<>(shardSize);
+                }
+            }
+
+            if (!lines.isEmpty()) {
+                inFlight.addLast(dispatch.submit(lines, lineNumber - lines.size() + 1));
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.removeFirst(), output, errors, summary);
+            }
+            for (String drop : dispatch.getDrops()) {
+                errors.write(drop);
+            }
+
+            output.flush();
+            errors.flush();
+            return summary;
+        } finally {
+            dispatch.close();
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes the result of <code>shard</code> once it completes. Each attempt at a shard may take
+     * a timeout to connect and another to answer, and the shard may first wait a timeout for a
+     * worker to finish its previous shard, so a shard still running after that long is stuck on
+     * a worker that answers too slowly to time out
+     */
+    private void write(Shard shard, Writer output, Writer errors, BatchClient.Summary summary)
+            throws IOException {
+        try {
+            BatchClient.ChunkResult result;
+            if (timeoutMillis == 0) {
+                result = shard.result.get();
+            } else {
+                result = shard.result.get((2L * maxAttempts + 1) * timeoutMillis,
+                        TimeUnit.MILLISECONDS);
+            }
+            BatchClient.write(result, output, errors, summary);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a shard");
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException(
+                    "Expected shard starting at line " + shard.firstLineNumber + " to complete within " + maxAttempts + " attempts of " + timeoutMillis + " ms but it is still running");
+        }
+    }
+
+    /**
+     * Consecutive lines of the order file and their eventual result
+     */
+    private static class Shard {
+        private final int id;
+        private final List<String> lines;
+        private final long firstLineNumber;
+        private final SettableFuture<BatchClient.ChunkResult> result = SettableFuture.create();
+        private int attempts;
+
+        private Shard(int id, List<String> lines, long firstLineNumber) {
+            this.id = id;
+            this.lines = lines;
+            this.firstLineNumber = firstLineNumber;
+        }
+    }
+
+    /**
+     * The queue of shards waiting for a worker and the workers still serving it. A shard is
+     * only queued while a worker remains, so no shard is left waiting forever
+     */
+    private class Dispatch {
+        private final LinkedBlockingDeque<Shard> queue = new LinkedBlockingDeque<>();
+        private final List<Connection> connections = new ArrayList<>();
+        private final List<String> drops = new ArrayList<>();
+        private final List<IOException> dropFailures = new ArrayList<>();
+        private boolean closed;
+        private int liveWorkers;
+        private int nextId;
+        private IOException lastFailure;
+
+        private Dispatch(int workers) {
+            this.liveWorkers = workers;
+        }
+
+        private synchronized Shard submit(List<String> lines, long firstLineNumber) {
+            Shard shard = new Shard(nextId++, lines, firstLineNumber);
+            if (liveWorkers == 0) {
+                shard.result.setException(noWorkers());
+            } else {
+                queue.addLast(shard);
+            }
+            return shard;
+        }
+
+        private synchronized void retry(Shard shard, IOException failure) {
+            lastFailure = failure;
+            if (++shard.attempts >= maxAttempts) {
+                shard.result.setException(new IOException(
+                        "Expected shard starting at line " + shard.firstLineNumber + " to complete within " + maxAttempts + " attempts but received " + failure,
+                        failure));
+            } else if (liveWorkers == 0) {
+                shard.result.setException(noWorkers());
+            } else {
+                queue.addFirst(shard);
+            }
+        }
+
+        private synchronized void drop(InetSocketAddress worker, IOException failure) {
+            drops.add("Dropping worker " + worker + ": " + failure.getMessage() + "\n");
+            dropFailures.add(failure);
+            lastFailure = failure;
+            if (--liveWorkers == 0) {
+                for (Shard shard; (shard = queue.pollFirst()) != null; ) {
+                    shard.result.setException(noWorkers());
+                }
+            }
+        }
+
+        /**
+         * Opens a connection that is closed with the dispatch, so that no dispatcher is left
+         * waiting on a worker once the batch is over
+         */
+        private Connection connect(InetSocketAddress worker) throws IOException {
+            Connection connection = new Connection(worker);
+            synchronized (this) {
+                if (closed) {
+                    connection.close();
+                    throw new IOException("Expected an open dispatch but the batch is over");
+                }
+                connections.add(connection);
+            }
+            return connection;
+        }
+
+        private synchronized void close() {
+            closed = true;
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+
+        /**
+         * @return a line for each worker dropped so far
+         */
+        private synchronized List<String> getDrops() {
+            return new ArrayList<>(drops);
+        }
+
+        private IOException noWorkers() {
+            IOException noWorkers = new IOException(
+                    "Expected a live worker but every worker failed", lastFailure);
+            for (IOException failure : dropFailures) {
+                if (failure != lastFailure) {
+                    noWorkers.addSuppressed(failure);
+                }
+            }
+            return noWorkers;
+        }
+
+        /**
+         * Sends queued shards to <code>worker</code> until the batch is over or the worker can
+         * no longer be reached
+         */
+        private void serve(InetSocketAddress worker) {
+            Connection connection;
+            try {
+                connection = connect(worker);
+            } catch (IOException e) {
+                drop(worker, e);
+                return;
+            }
+
+            try {
+                while (true) {
+                    Shard shard = queue.takeFirst();
+                    try {
+                        shard.result.set(connection.process(shard));
+                    } catch (IOException e) {
+                        connection.close();
+                        retry(shard, e);
+                        try {
+                            connection = connect(worker);
+                        } catch (IOException reconnect) {
+                            drop(worker, reconnect);
+                            return;
+                        }
+                    } catch (Throwable t) {
+                        // anything else, such as running out of heap, leaves the connection in an
+                        // unknown state, so the shard goes to another worker and this one stops
+                        IOException failure = new IOException(
+                                "Expected a result from worker " + worker + " but received " + t, t);
+                        connection.close();
+                        retry(shard, failure);
+                        drop(worker, failure);
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // the batch is over
+            } finally {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * A connection to one worker
+     */
+    private class Connection {
+        private final Socket socket;
+        private final DataInputStream input;
+        private final DataOutputStream output;
+
+        private Connection(InetSocketAddress worker) throws IOException {
+            this.socket = new Socket();
+            try {
+                socket.connect(worker, timeoutMillis);
+                socket.setSoTimeout(timeoutMillis);
+                socket.setTcpNoDelay(true);
+                this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                this.output = new DataOutputStream(
+                        new BufferedOutputStream(socket.getOutputStream()));
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        private BatchClient.ChunkResult process(Shard shard) throws IOException {
+            output.writeInt(shard.id);
+            output.writeLong(shard.firstLineNumber);
+            output.writeInt(shard.lines.size());
+            for (String line : shard.lines) {
+                ShardWorker.writeString(output, line);
+            }
+            output.flush();
+
+            int id = input.readInt();
+            if (id != shard.id) {
+                throw new IOException("Expected result of shard " + shard.id + " but received " + id);
+            }
+            int accepted = input.readInt();
+            int rejected = input.readInt();
+            String formatted = ShardWorker.readString(input);
+            String rejections = ShardWorker.readString(input);
+            return new BatchClient.ChunkResult(formatted, rejections, accepted, rejected);
+        }
+
+        private void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // nothing more can be done with a socket that fails to close
+            }
+        }
+    }
+
+    /**
+     * Worker processes started by {@link #startLocalWorkers(int)}
+     */
+    public static class LocalWorkers implements AutoCloseable {
+        private final List<Process> processes;
+        private final List<InetSocketAddress> addresses = new ArrayList<>();
+
+        private LocalWorkers(List<Process> processes) {
+            this.processes = processes;
+        }
+
+        /**
+         * @return the address of every worker, in the order they were started
+         */
+        public List<InetSocketAddress> getAddresses() {
+            return List.copyOf(addresses);
+        }
+
+        /**
+         * @return the worker processes, in the order they were started
+         */
+        public List<Process> getProcesses() {
+            return List.copyOf(processes);
+        }
+
+        /**
+         * Destroys every worker process and waits for them to exit
+         */
+        @Override
+        public void close() {
+            for (Process process : processes) {
+                process.destroy();
+            }
+            for (Process process : processes) {
+                try {
+                    process.waitFor(WORKER_START_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
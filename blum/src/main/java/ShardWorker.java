@@ -0,0 +1,213 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A worker for a {@link ShardCoordinator}, normally one per JVM. The coordinator connects over a
+ * socket and sends shards of order lines one at a time; the worker builds the cabinets of each
+ * shard exactly as {@link BatchClient} would and replies with the formatted cabinets and rejected
+ * lines. Each connection is handled on its own virtual thread, and a connection dropped because
+ * the coordinator broke the protocol is reported to the worker's errors <code>Writer</code>.
+ * <p>
+ * Both directions are framed with <code>DataOutputStream</code>:
+ * <pre>
+ * shard
+ *   int    shard id
+ *   long   line number of the first line
+ *   int    number of lines
+ *   string[] lines
+ * result
+ *   int    shard id
+ *   int    cabinets accepted
+ *   int    lines rejected
+ *   string formatted cabinets
+ *   string rejected lines
+ * </pre>
+ * where a string is an <code>int</code> byte length followed by UTF-8 bytes.
+ *
+ * @author Craig Marker
+ */
+public class ShardWorker {
+    /**
+     * The line a worker process writes to standard output once it is listening, followed by its
+     * port
+     */
+    static final String READY = "Worker listening on port ";
+
+    /**
+     * The most lines a shard may hold. Shards are normally
+     * {@value ShardCoordinator#DEFAULT_SHARD_SIZE} lines
+     */
+    static final int MAX_SHARD_LINES = 16_384;
+
+    /**
+     * The longest string either side accepts, so that a corrupt length costs at most this much
+     * heap. A formatted cabinet is under 1 KiB, so the results of the largest shard fit with
+     * room to spare
+     */
+    static final int MAX_STRING_BYTES = 1 << 24;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executorService;
+    private final Writer errors;
+
+    private ShardWorker(ServerSocket serverSocket, ExecutorService executorService,
+            Writer errors) {
+        this.serverSocket = serverSocket;
+        this.executorService = executorService;
+        this.errors = errors;
+    }
+
+    /**
+     * Creates a <code>ShardWorker</code> that will accept coordinators on <code>address</code>
+     * once started
+     *
+     * @param address the address to listen on. Port 0 picks any free port
+     * @return a <code>ShardWorker</code> that does not report dropped connections
+     * @throws IOException if the address can not be bound
+     */
+    public static ShardWorker create(InetSocketAddress address) throws IOException {
+        return create(address, Writer.nullWriter());
+    }
+
+    /**
+     * Creates a <code>ShardWorker</code> that will accept coordinators on <code>address</code>
+     * once started
+     *
+     * @param address the address to listen on. Port 0 picks any free port
+     * @param errors  where dropped coordinator connections are reported, one line each
+     * @return a <code>ShardWorker</code>
+     * @throws IOException if the address can not be bound
+     */
+    public static ShardWorker create(InetSocketAddress address, Writer errors)
+            throws IOException {
+        ServerSocket serverSocket = new ServerSocket();
+        try {
+            serverSocket.bind(address);
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+        return new ShardWorker(serverSocket, Executors.newVirtualThreadPerTaskExecutor(), errors);
+    }
+
+    /**
+     * Starts accepting coordinators on a platform thread, which keeps the JVM running until the
+     * worker is stopped
+     */
+    public void start() {
+        Thread.ofPlatform().name("shard-worker-" + getPort()).start(this::accept);
+    }
+
+    /**
+     * Stops accepting coordinators and closes every open connection
+     */
+    public void stop() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // closing a listening socket does not fail in a way worth reporting
+        }
+        executorService.shutdownNow();
+    }
+
+    /**
+     * @return the port the worker is bound to
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executorService.execute(() -> serve(socket));
+            } catch (IOException | RejectedExecutionException e) {
+                // the worker was stopped
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            DataInputStream input = new DataInputStream(
+                    new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream()));
+            while (true) {
+                int shardId;
+                try {
+                    shardId = input.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                long firstLineNumber = input.readLong();
+                int lineCount = input.readInt();
+                if (lineCount < 0 || lineCount > MAX_SHARD_LINES) {
+                    throw new IOException(
+                            "Expected at most " + MAX_SHARD_LINES + " lines but received " + lineCount);
+                }
+                List<String> lines = new ArrayList<>(lineCount);
+                for (int i = 0; i < lineCount; i++) {
+                    lines.add(readString(input));
+                }
+
+                BatchClient.ChunkResult result = BatchClient.process(lines, firstLineNumber);
+                output.writeInt(shardId);
+                output.writeInt(result.getAccepted());
+                output.writeInt(result.getRejected());
+                writeString(output, result.getOutput());
+                writeString(output, result.getErrors());
+                output.flush();
+            }
+        } catch (SocketException e) {
+            // the coordinator went away or the worker was stopped
+        } catch (IOException e) {
+            report("Dropping coordinator connection: " + e.getMessage() + "\n");
+        }
+    }
+
+    private void report(String message) {
+        synchronized (errors) {
+            try {
+                errors.write(message);
+                errors.flush();
+            } catch (IOException e) {
+                // there is nowhere left to report to
+            }
+        }
+    }
+
+    static void writeString(DataOutputStream output, CharSequence value) throws IOException {
+        byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0 || length > MAX_STRING_BYTES) {
+            throw new IOException(
+                    "Expected a string of at most " + MAX_STRING_BYTES + " bytes but received a length of " + length);
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,484 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A <code>SheetNester</code> lays out the panels of a job onto sheet goods, for example 4x8
+ * sheets of plywood, so they can be cut on a panel saw. Every layout obeys guillotine
+ * constraints: each cut runs all the way across the piece being cut, and each cut removes
+ * <code>kerf</code> worth of material.
+ * <p>
+ * Panels are grouped by <code>Material</code> and packed with several candidate heuristics (panel
+ * ordering, free-space selection, and split direction). The candidates are evaluated in parallel
+ * on a <code>ForkJoinPool</code> and the layout using the fewest sheets is kept.
+ *
+ * @author Craig Marker
+ * @see
+ * <a href="https://github.com/juj/RectangleBinPack/blob/master/RectangleBinPack.pdf">A Thousand Ways to Pack the Bin</a>
+ */
+public class SheetNester {
+    /**
+     * The long dimension of a standard 4x8 sheet
+     */
+    static final double STANDARD_SHEET_LENGTH = 96;
+
+    /**
+     * The short dimension of a standard 4x8 sheet
+     */
+    static final double STANDARD_SHEET_WIDTH = 48;
+
+    /**
+     * The width of material removed by a typical 1/8" panel saw blade
+     */
+    static final double STANDARD_KERF = 0.125;
+
+    private static final double EPSILON = 1e-9;
+
+    private final double sheetLength;
+    private final double sheetWidth;
+    private final double kerf;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param sheetLength The long dimension of each sheet
+     * @param sheetWidth  The short dimension of each sheet
+     * @param kerf        The material removed by each cut
+     * @param pool        The pool used to evaluate candidate layouts
+     */
+    private SheetNester(double sheetLength, double sheetWidth, double kerf, ForkJoinPool pool) {
+        if (sheetLength <= 0 || sheetWidth <= 0 || kerf < 0) {
+            throw new IllegalArgumentException(
+                    "SheetNester sheet dimensions must be positive and kerf must not be " +
+                            "negative");
+        }
+
+        this.sheetLength = sheetLength;
+        this.sheetWidth = sheetWidth;
+        this.kerf = kerf;
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a <code>SheetNester</code> for standard 4x8 sheets cut with a 1/8" kerf that
+     * evaluates candidates on the common pool
+     *
+     * @return a <code>SheetNester</code>
+     */
+    public static SheetNester standard() {
+        return create(STANDARD_SHEET_LENGTH, STANDARD_SHEET_WIDTH, STANDARD_KERF,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a <code>SheetNester</code>
+     *
+     * @param sheetLength The long dimension of each sheet
+     * @param sheetWidth  The short dimension of each sheet
+     * @param kerf        The material removed by each cut
+     * @param pool        The pool used to evaluate candidate layouts
+     * @return a <code>SheetNester</code>
+     */
+    public static SheetNester create(double sheetLength, double sheetWidth, double kerf,
+            ForkJoinPool pool) {
+        return new SheetNester(sheetLength, sheetWidth, kerf, pool);
+    }
+
+    /**
+     * Lays out every <code>Cut</code> onto sheets of its <code>Material</code>. Each element of
+     * <code>cuts</code> is a single panel, so a <code>Cut</code> needed twice must be provided
+     * twice
+     *
+     * @param cuts the panels of the job
+     * @return the sheets used for every material, each with the panels placed on it
+     * @throws IllegalArgumentException if a panel does not fit on a sheet in either orientation
+     */
+    public Result nest(Collection<Cut> cuts) throws IllegalArgumentException {
+        Map<Material, List<Cut>> cutsByMaterial = new EnumMap<>(Material.class);
+        for (Cut cut : cuts) {
+            checkFits(cut);
+            cutsByMaterial.computeIfAbsent(cut.getMaterial(), m -> new ArrayList<>()).add(cut);
+        }
+
+        List<Callable<List<Sheet>>> candidates = new ArrayList<>();
+        for (Map.Entry<Material, List<Cut>> entry : cutsByMaterial.entrySet()) {
+            for (PanelOrder order : PanelOrder.values()) {
+                Cut[] ordered = entry.getValue().toArray(new Cut[0]);
+                for (FitRule fitRule : FitRule.values()) {
+                    for (SplitRule splitRule : SplitRule.values()) {
+                        candidates.add(() -> pack(entry.getKey(), order.sort(ordered), fitRule,
+                                splitRule));
+                    }
+                }
+            }
+        }
+
+        Map<Material, List<Sheet>> best = new EnumMap<>(Material.class);
+        for (Future<List<Sheet>> candidate : pool.invokeAll(candidates)) {
+            List<Sheet> sheets = candidate.resultNow();
+            best.merge(sheets.get(0).getMaterial(), sheets, SheetNester::better);
+        }
+
+        List<Sheet> sheets = new ArrayList<>();
+        best.values().forEach(sheets::addAll);
+        return new Result(sheets);
+    }
+
+    private void checkFits(Cut cut) {
+        double first = cut.getDimensions().getFirst();
+        double second = cut.getDimensions().getSecond();
+        if (!(first <= sheetLength && second <= sheetWidth || second <= sheetLength && first <= sheetWidth)) {
+            throw new IllegalArgumentException(
+                    String.format("Expected Cut to fit on a %sx%s sheet but received %s",
+                            sheetLength, sheetWidth, cut.getDimensions()));
+        }
+    }
+
+    /**
+     * Prefers the layout with fewer sheets and then the layout whose last sheet is emptiest,
+     * leaving the largest usable offcut
+     */
+    private static List<Sheet> better(List<Sheet> a, List<Sheet> b) {
+        if (a.size() != b.size()) {
+            return a.size() < b.size() ? a : b;
+        }
+        return a.get(a.size() - 1).getUsedArea() <= b.get(b.size() - 1).getUsedArea() ? a : b;
+    }
+
+    /**
+     * Packs panels, in order, onto as many sheets as needed using a single heuristic
+     */
+    private List<Sheet> pack(Material material, Cut[] panels, FitRule fitRule,
+            SplitRule splitRule) {
+        List<FreeSpace> bins = new ArrayList<>();
+        for (Cut panel : panels) {
+            double first = panel.getDimensions().getFirst();
+            double second = panel.getDimensions().getSecond();
+
+            int bestBin = -1;
+            int bestRect = -1;
+            boolean bestRotated = false;
+            double bestScore = Double.MAX_VALUE;
+            for (int b = 0; b < bins.size(); b++) {
+                FreeSpace bin = bins.get(b);
+                for (int r = 0; r < bin.size; r++) {
+                    double score = bin.score(r, first, second, fitRule);
+                    if (score < bestScore) {
+                        bestScore = score;
+                        bestBin = b;
+                        bestRect = r;
+                        bestRotated = false;
+                    }
+                    score = bin.score(r, second, first, fitRule);
+                    if (score < bestScore) {
+                        bestScore = score;
+                        bestBin = b;
+                        bestRect = r;
+                        bestRotated = true;
+                    }
+                }
+            }
+
+            if (bestBin < 0) {
+                FreeSpace bin = new FreeSpace(new Sheet(material, sheetLength, sheetWidth));
+                bin.add(0, 0, sheetLength, sheetWidth);
+                bins.add(bin);
+                bestBin = bins.size() - 1;
+                bestRect = 0;
+                bestRotated = bin.score(0, first, second, fitRule) == Double.MAX_VALUE;
+            }
+
+            bins.get(bestBin).place(bestRect, panel, bestRotated ? second : first,
+                    bestRotated ? first : second, bestRotated, splitRule, kerf);
+        }
+
+        List<Sheet> sheets = new ArrayList<>(bins.size());
+        for (FreeSpace bin : bins) {
+            sheets.add(bin.sheet);
+        }
+        return sheets;
+    }
+
+    /**
+     * The order panels are offered to the packer. Large panels first generally packs best, but
+     * which notion of "large" wins depends on the job
+     */
+    private enum PanelOrder {
+        AREA(Comparator.comparingDouble(
+                c -> -c.getDimensions().getFirst() * c.getDimensions().getSecond())),
+        LONG_SIDE(Comparator.comparingDouble(c -> -Math.max(c.getDimensions().getFirst(),
+                c.getDimensions().getSecond()))),
+        SHORT_SIDE(Comparator.comparingDouble(c -> -Math.min(c.getDimensions().getFirst(),
+                c.getDimensions().getSecond()))),
+        PERIMETER(Comparator.comparingDouble(
+                c -> -c.getDimensions().getFirst() - c.getDimensions().getSecond()));
+
+        private final Comparator<Cut> comparator;
+
+        PanelOrder(Comparator<Cut> comparator) {
+            this.comparator = comparator;
+        }
+
+        private Cut[] sort(Cut[] panels) {
+            Cut[] sorted = panels.clone();
+            Arrays.sort(sorted, comparator);
+            return sorted;
+        }
+    }
+
+    /**
+     * How to choose which free rectangle a panel is placed in. Lower scores are better
+     */
+    private enum FitRule {
+        BEST_AREA_FIT, BEST_SHORT_SIDE_FIT, BEST_LONG_SIDE_FIT
+    }
+
+    /**
+     * Which way to make the guillotine cut that separates the leftover space after a panel is
+     * placed in a free rectangle
+     */
+    private enum SplitRule {
+        SHORTER_LEFTOVER_AXIS, LONGER_LEFTOVER_AXIS
+    }
+
+    /**
+     * The free rectangles remaining on a single sheet, stored as packed
+     * <code>x, y, length, width</code> quadruples
+     */
+    private static class FreeSpace {
+        private final Sheet sheet;
+        private double[] rects = new double[32];
+        private int size;
+
+        private FreeSpace(Sheet sheet) {
+            this.sheet = sheet;
+        }
+
+        private void add(double x, double y, double length, double width) {
+            if (length <= EPSILON || width <= EPSILON) {
+                return;
+            }
+            if ((size + 1) * 4 > rects.length) {
+                rects = Arrays.copyOf(rects, rects.length * 2);
+            }
+            int i = size++ * 4;
+            rects[i] = x;
+            rects[i + 1] = y;
+            rects[i + 2] = length;
+            rects[i + 3] = width;
+        }
+
+        private void remove(int r) {
+            size--;
+            System.arraycopy(rects, size * 4, rects, r * 4, 4);
+        }
+
+        private double score(int r, double length, double width, FitRule fitRule) {
+            double leftoverLength = rects[r * 4 + 2] - length;
+            double leftoverWidth = rects[r * 4 + 3] - width;
+            if (leftoverLength < -EPSILON || leftoverWidth < -EPSILON) {
+                return Double.MAX_VALUE;
+            }
+
+            switch (fitRule) {
+                case BEST_SHORT_SIDE_FIT:
+                    return Math.min(leftoverLength, leftoverWidth);
+                case BEST_LONG_SIDE_FIT:
+                    return Math.max(leftoverLength, leftoverWidth);
+                default:
+                    return rects[r * 4 + 2] * rects[r * 4 + 3] - length * width;
+            }
+        }
+
+        private void place(int r, Cut panel, double length, double width, boolean rotated,
+                SplitRule splitRule, double kerf) {
+            int i = r * 4;
+            double x = rects[i];
+            double y = rects[i + 1];
+            double freeLength = rects[i + 2];
+            double freeWidth = rects[i + 3];
+            remove(r);
+
+            double leftoverLength = freeLength - length;
+            double leftoverWidth = freeWidth - width;
+            boolean cutAcrossLength = splitRule == SplitRule.SHORTER_LEFTOVER_AXIS ?
+                    leftoverLength <= leftoverWidth : leftoverLength > leftoverWidth;
+            if (cutAcrossLength) {
+                // The first cut runs the full length of the free rectangle, above the panel
+                add(x, y + width + kerf, freeLength, leftoverWidth - kerf);
+                add(x + length + kerf, y, leftoverLength - kerf, width);
+            } else {
+                // The first cut runs the full width of the free rectangle, beside the panel
+                add(x + length + kerf, y, leftoverLength - kerf, freeWidth);
+                add(x, y + width + kerf, length, leftoverWidth - kerf);
+            }
+
+            sheet.placements.add(new Placement(panel, x, y, length, width, rotated));
+        }
+    }
+
+    /**
+     * The outcome of nesting a job: every sheet used, across all materials
+     */
+    public static class Result {
+        private final List<Sheet> sheets;
+
+        private Result(List<Sheet> sheets) {
+            this.sheets = Collections.unmodifiableList(sheets);
+        }
+
+        public List<Sheet> getSheets() {
+            return sheets;
+        }
+
+        public int getSheetsUsed() {
+            return sheets.size();
+        }
+
+        /**
+         * @param material the <code>Material</code> to count sheets of
+         * @return the number of sheets of <code>material</code> used by the job
+         */
+        public int getSheetsUsed(Material material) {
+            int count = 0;
+            for (Sheet sheet : sheets) {
+                if (sheet.getMaterial() == material) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("Result{sheetsUsed=").append(
+                    sheets.size());
+            for (Sheet sheet : sheets) {
+                builder.append('\n').append(sheet);
+            }
+            return builder.append('}').toString();
+        }
+    }
+
+    /**
+     * A single sheet of material and the panels laid out on it
+     */
+    public static class Sheet {
+        private final Material material;
+        private final double length;
+        private final double width;
+        private final List<Placement> placements = new ArrayList<>();
+
+        private Sheet(Material material, double length, double width) {
+            this.material = material;
+            this.length = length;
+            this.width = width;
+        }
+
+        public Material getMaterial() {
+            return material;
+        }
+
+        public List<Placement> getPlacements() {
+            return Collections.unmodifiableList(placements);
+        }
+
+        /**
+         * @return the area covered by panels on this sheet, not including kerf
+         */
+        public double getUsedArea() {
+            double area = 0;
+            for (Placement placement : placements) {
+                area += placement.getLength() * placement.getWidth();
+            }
+            return area;
+        }
+
+        /**
+         * @return the fraction of this sheet covered by panels
+         */
+        public double getUtilization() {
+            return getUsedArea() / (length * width);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("Sheet{").append(material).append(' ').append(
+                    length).append('x').append(width);
+            for (Placement placement : placements) {
+                builder.append("\n  ").append(placement);
+            }
+            return builder.append('}').toString();
+        }
+    }
+
+    /**
+     * The position of a panel on a sheet. <code>x</code> is measured along the sheet length and
+     * <code>y</code> along the sheet width, both from the same corner of the sheet
+     */
+    public static class Placement {
+        private final Cut cut;
+        private final double x;
+        private final double y;
+        private final double length;
+        private final double width;
+        private final boolean rotated;
+
+        private Placement(Cut cut, double x, double y, double length, double width,
+                boolean rotated) {
+            this.cut = cut;
+            this.x = x;
+            this.y = y;
+            this.length = length;
+            this.width = width;
+            this.rotated = rotated;
+        }
+
+        public Cut getCut() {
+            return cut;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        /**
+         * @return the panel measurement laid along the sheet length
+         */
+        public double getLength() {
+            return length;
+        }
+
+        /**
+         * @return the panel measurement laid along the sheet width
+         */
+        public double getWidth() {
+            return width;
+        }
+
+        /**
+         * @return true if the second dimension of the <code>Cut</code> runs along the sheet
+         * length
+         */
+        public boolean isRotated() {
+            return rotated;
+        }
+
+        @Override
+        public String toString() {
+            return "Placement{" + length + "x" + width + " at (" + x + ", " + y + ")" + (rotated ?
+                    ", rotated" : "") + '}';
+        }
+    }
+}
@@ -0,0 +1,45 @@
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link CabinetSweep} width loop on the JDK Vector API, computing a full vector of widths
+ * per step on the widest lanes the CPU supports. Only loaded when the
+ * <code>jdk.incubator.vector</code> module is present.
+ *
+ * @author Craig Marker
+ */
+class VectorSweepKernel implements CabinetSweep.Kernel {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public void widths(long[] widths, CabinetSweep.Result result, int row, long dado, long butt,
+            long minimumWidth) {
+        long[][] columns = result.getColumns();
+        long[] width = columns[CabinetSweep.Column.WIDTH.ordinal()];
+        long[] bottomFirst = columns[CabinetSweep.Column.BOTTOM_FIRST.ordinal()];
+        long[] backFirst = columns[CabinetSweep.Column.BACK_FIRST.ordinal()];
+        long[] runnerFirst = columns[CabinetSweep.Column.RUNNER_FIRST.ordinal()];
+        boolean[] valid = result.getValid();
+
+        int i = 0;
+        int bound = SPECIES.loopBound(widths.length);
+        for (; i < bound; i += SPECIES.length()) {
+            LongVector w = LongVector.fromArray(SPECIES, widths, i);
+            w.intoArray(width, row + i);
+            LongVector withoutDado = w.sub(dado);
+            withoutDado.intoArray(bottomFirst, row + i);
+            withoutDado.intoArray(backFirst, row + i);
+            w.sub(butt).intoArray(runnerFirst, row + i);
+            w.compare(VectorOperators.GT, minimumWidth).intoArray(valid, row + i);
+        }
+        for (; i < widths.length; i++) {
+            long w = widths[i];
+            width[row + i] = w;
+            bottomFirst[row + i] = w - dado;
+            backFirst[row + i] = w - dado;
+            runnerFirst[row + i] = w - butt;
+            valid[row + i] = w > minimumWidth;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class AggregatedCutListTest implements WithAssertions {
+
+    @Test
+    void testTransposedDimensionsAreTheSamePanel() {
+        AggregatedCutList aggregated = AggregatedCutList.of(
+                List.of(Cut.withNoJoinedDimensions(4.0, 3.0, Material.HALF),
+                        Cut.withNoJoinedDimensions(3.0, 4.0, Material.HALF)));
+
+        assertThat(aggregated.size()).isEqualTo(1);
+        assertThat(aggregated.getQuantity(4.0, 3.0, Material.HALF)).isEqualTo(2);
+    }
+
+    @Test
+    void testDifferentMaterialsAreDifferentPanels() {
+        AggregatedCutList aggregated = AggregatedCutList.of(
+                List.of(Cut.withNoJoinedDimensions(4.0, 3.0, Material.HALF),
+                        Cut.withNoJoinedDimensions(4.0, 3.0, Material.QUARTER)));
+
+        assertThat(aggregated.size()).isEqualTo(2);
+        assertThat(aggregated.getQuantity(3.0, 4.0, Material.QUARTER)).isEqualTo(1);
+    }
+
+    @Test
+    void testMissingPanelHasZeroQuantity() {
+        AggregatedCutList aggregated = new AggregatedCutList();
+
+        assertThat(aggregated.getQuantity(
+                Cut.withNoJoinedDimensions(1, 1, Material.HALF))).isZero();
+    }
+
+    @Test
+    void testCabinetBoxesAreCountedAcrossRehash() {
+        AggregatedCutList aggregated = new AggregatedCutList(1);
+        for (int width = 12; width < 48; width++) {
+            for (int copy = 0; copy < 3; copy++) {
+                aggregated.addAll(new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, width,
+                        34.5, 24));
+            }
+        }
+
+        // Every width shares one side panel; each width has its own bottom, back and runner
+        assertThat(aggregated.size()).isEqualTo(1 + 36 * 3);
+        assertThat(aggregated.getQuantity(34.5, 24, Material.THREE_QUARTER)).isEqualTo(216);
+        assertThat(aggregated.getTotalQuantity()).isEqualTo(36 * 3 * 5);
+    }
+
+    @Test
+    void testCutListIsAggregated() {
+        CutList cutList = new CutList();
+        cutList.addAll(new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24, 30.5, 18));
+
+        AggregatedCutList aggregated = AggregatedCutList.of(cutList);
+
+        assertThat(aggregated.size()).isEqualTo(4);
+        assertThat(aggregated.getTotalQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    void testEntriesAreGroupedByMaterialLargestFirst() {
+        AggregatedCutList aggregated = AggregatedCutList.of(
+                List.of(Cut.withNoJoinedDimensions(2.0, 1.0, Material.HALF),
+                        Cut.withNoJoinedDimensions(5.0, 1.0, Material.QUARTER),
+                        Cut.withNoJoinedDimensions(3.0, 9.0, Material.HALF)));
+
+        assertThat(aggregated.getEntries()).extracting(
+                entry -> entry.getCut().getDimensions()).containsExactly(
+                Cut.Dimensions.valueOf(5.0, 1.0), Cut.Dimensions.valueOf(9.0, 3.0),
+                Cut.Dimensions.valueOf(2.0, 1.0));
+    }
+
+    @Test
+    void testNonPositiveCountIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> new AggregatedCutList().add(1, 1, Material.HALF, 0));
+    }
+}
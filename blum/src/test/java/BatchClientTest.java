@@ -0,0 +1,103 @@
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.Executors;
+
+class BatchClientTest implements WithAssertions {
+    private ListeningExecutorService executorService;
+    private StringWriter output;
+    private StringWriter errors;
+
+    @BeforeEach
+    void setUp() {
+        this.executorService = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(4));
+        this.output = new StringWriter();
+        this.errors = new StringWriter();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    private BatchClient.Summary run(String input, int chunkSize) throws IOException {
+        return new BatchClient(executorService, 4, chunkSize).run(
+                new BufferedReader(new StringReader(input)), output, errors);
+    }
+
+    @Test
+    void testCsvLineProducesCabinetBox() throws IOException {
+        run("15.75,34.5,21.75\n", 1);
+
+        assertThat(output.toString()).isEqualTo(
+                new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 15.75, 34.5,
+                        21.75) + "\n");
+    }
+
+    @Test
+    void testJsonLineProducesCabinetBox() throws IOException {
+        run("{\"width\": 10, \"height\": 10.5, \"depth\": 20, \"side_material\": \"HALF\", " +
+                "\"back_material\": \"HALF\"}\n", 1);
+
+        assertThat(output.toString()).isEqualTo(
+                new CabinetBox(Material.HALF, Material.HALF, 10, 10.5, 20) + "\n");
+    }
+
+    @Test
+    void testOutputPreservesInputOrderAcrossChunks() throws IOException {
+        StringBuilder input = new StringBuilder("width,height,depth\n");
+        StringBuilder expected = new StringBuilder();
+        for (int width = 6; width < 106; width++) {
+            input.append(width).append(",34.5,24\n");
+            expected.append(new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, width,
+                    34.5, 24)).append('\n');
+        }
+
+        BatchClient.Summary summary = run(input.toString(), 3);
+
+        assertThat(output.toString()).isEqualTo(expected.toString());
+        assertThat(summary.getAccepted()).isEqualTo(100);
+    }
+
+    @Test
+    void testRejectedLinesAreReportedWithLineNumber() throws IOException {
+        BatchClient.Summary summary = run("# comment\n10,10,10\n1,10,10\nnot,a,number\n\n", 2);
+
+        assertThat(summary.getAccepted()).isEqualTo(1);
+        assertThat(summary.getRejected()).isEqualTo(2);
+        assertThat(errors.toString()).contains("line 3: ").contains("line 4: ");
+    }
+
+    @Nested
+    class ParseTest {
+        @Test
+        void testCsvMaterialsAreOptional() throws IOException {
+            CabinetSpec spec = BatchClient.parse("24,30.5,18");
+
+            assertThat(spec.getSideMaterial()).isEqualTo(CabinetSpec.DEFAULT_SIDE_MATERIAL);
+            assertThat(spec.getBackMaterial()).isEqualTo(CabinetSpec.DEFAULT_BACK_MATERIAL);
+        }
+
+        @Test
+        void testCsvWithWrongFieldCountIsRejected() {
+            assertThatIllegalArgumentException().isThrownBy(
+                    () -> BatchClient.parse("24,30.5")).withMessageContaining(
+                    "Expected 3 or 5 comma separated fields");
+        }
+
+        @Test
+        void testJsonWithoutDepthIsRejected() {
+            assertThatExceptionOfType(IOException.class).isThrownBy(
+                    () -> BatchClient.parse("{\"width\": 10, \"height\": 10}"));
+        }
+    }
+}
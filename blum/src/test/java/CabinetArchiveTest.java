@@ -0,0 +1,250 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class CabinetArchiveTest implements WithAssertions {
+    @TempDir
+    Path directory;
+
+    private List<Integer> ids(CabinetArchive.Cursor cursor) {
+        List<Integer> ids = new ArrayList<>();
+        while (cursor.next()) {
+            ids.add(cursor.getId());
+        }
+        return ids;
+    }
+
+    @Nested
+    class Append {
+        @Test
+        void testRecordReadsBackCabinet() throws IOException {
+            CabinetBox cabinetBox = new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24,
+                    34.5, 23.25);
+            try (CabinetArchive archive = CabinetArchive.open(directory)) {
+                int id = archive.append(cabinetBox);
+
+                CabinetArchive.Cursor cursor = archive.get(id);
+                assertThat(cursor.getWidth()).isEqualTo(24);
+                assertThat(cursor.getHeight()).isEqualTo(34.5);
+                assertThat(cursor.getDepth()).isEqualTo(23.25);
+                assertThat(cursor.getSideMaterial()).isEqualTo(Material.THREE_QUARTER);
+                assertThat(cursor.getBackMaterial()).isEqualTo(Material.QUARTER);
+                assertThat(cursor.getCut(CabinetArchive.Panel.SIDE)).usingRecursiveComparison()
+                        .isEqualTo(cabinetBox.getSide());
+                assertThat(cursor.getCut(CabinetArchive.Panel.BOTTOM)).usingRecursiveComparison()
+                        .isEqualTo(cabinetBox.getBottom());
+                assertThat(cursor.getCut(CabinetArchive.Panel.BACK)).usingRecursiveComparison()
+                        .isEqualTo(cabinetBox.getBack());
+                assertThat(cursor.getCut(CabinetArchive.Panel.RUNNER)).usingRecursiveComparison()
+                        .isEqualTo(cabinetBox.getRunner());
+                assertThat(cursor.toCabinetBox()).usingRecursiveComparison().isEqualTo(cabinetBox);
+            }
+        }
+
+        @Test
+        void testCutSlotsMatchFileFormat() {
+            assertThat(CabinetArchive.Panel.SIDE.getOffset()).isEqualTo(16);
+            assertThat(CabinetArchive.Panel.BOTTOM.getOffset()).isEqualTo(24);
+            assertThat(CabinetArchive.Panel.BACK.getOffset()).isEqualTo(32);
+            assertThat(CabinetArchive.Panel.RUNNER.getOffset()).isEqualTo(40);
+        }
+
+        @Test
+        void testIdsAreSequential() throws IOException {
+            try (CabinetArchive archive = CabinetArchive.open(directory)) {
+                assertThat(archive.append(
+                        new CabinetBox(Material.HALF, Material.QUARTER, 12, 30, 12))).isZero();
+                assertThat(archive.append(
+                        new CabinetBox(Material.HALF, Material.QUARTER, 15, 30, 12))).isOne();
+                assertThat(archive.size()).isEqualTo(2);
+            }
+        }
+
+        @Test
+        void testOversizedCabinetIsNotWritten() throws IOException {
+            try (CabinetArchive archive = CabinetArchive.open(directory)) {
+                assertThatIllegalArgumentException().isThrownBy(() -> archive.append(
+                        new CabinetBox(Material.HALF, Material.QUARTER, 24, 30, 10_000)));
+
+                assertThat(archive.size()).isZero();
+                int id = archive.append(new CabinetBox(Material.HALF, Material.QUARTER, 24, 30, 12));
+                assertThat(id).isZero();
+                assertThat(archive.get(id).getDepth()).isEqualTo(12);
+            }
+        }
+
+        @Test
+        void testGetOutOfRange() throws IOException {
+            try (CabinetArchive archive = CabinetArchive.open(directory)) {
+                assertThatThrownBy(() -> archive.get(0)).isInstanceOf(
+                        IndexOutOfBoundsException.class);
+            }
+        }
+
+        @Test
+        void testRecordsSpanSegments() throws IOException {
+            try (CabinetArchive archive = CabinetArchive.open(directory, 4)) {
+                for (int width = 10; width < 30; width++) {
+                    archive.append(new CabinetBox(Material.HALF, Material.QUARTER, width, 30, 12));
+                }
+
+                assertThat(archive.get(17).getWidth()).isEqualTo(27);
+                assertThat(archive.query(CabinetArchive.Bounds.between(18, 21),
+                        CabinetArchive.Bounds.any(), CabinetArchive.Bounds.any()).size())
+                        .isEqualTo(4);
+            }
+        }
+    }
+
+    @Nested
+    class Query {
+        private CabinetArchive fill() throws IOException {
+            CabinetArchive archive = CabinetArchive.open(directory, 8);
+            for (double height : new double[]{30, 34.5}) {
+                for (int width = 30; width >= 12; width -= 3) {
+                    archive.append(new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, width,
+                            height, 24));
+                }
+            }
+            return archive;
+        }
+
+        @Test
+        void testWidthRangeAndExactHeight() throws IOException {
+            try (CabinetArchive archive = fill()) {
+                archive.mergeIndex();
+
+                CabinetArchive.Cursor cursor = archive.query(
+                        CabinetArchive.Bounds.between(18, 24), CabinetArchive.Bounds.exactly(34.5),
+                        CabinetArchive.Bounds.any());
+
+                List<Double> widths = new ArrayList<>();
+                while (cursor.next()) {
+                    assertThat(cursor.getHeight()).isEqualTo(34.5);
+                    widths.add(cursor.getWidth());
+                }
+                assertThat(widths).containsExactly(18.0, 21.0, 24.0);
+            }
+        }
+
+        @Test
+        void testIndexedAndAppendedRecordsAgree() throws IOException {
+            try (CabinetArchive archive = fill()) {
+                List<Integer> scanned = ids(
+                        archive.query(CabinetArchive.Bounds.between(18, 24),
+                                CabinetArchive.Bounds.any(), CabinetArchive.Bounds.any()));
+                assertThat(archive.getIndexedCount()).isZero();
+
+                archive.mergeIndex();
+                List<Integer> indexed = ids(
+                        archive.query(CabinetArchive.Bounds.between(18, 24),
+                                CabinetArchive.Bounds.any(), CabinetArchive.Bounds.any()));
+
+                assertThat(archive.getIndexedCount()).isEqualTo(archive.size());
+                assertThat(indexed).containsExactlyInAnyOrderElementsOf(scanned).hasSize(6);
+            }
+        }
+
+        @Test
+        void testIndexedResultsAreOrderedByWidth() throws IOException {
+            try (CabinetArchive archive = fill()) {
+                archive.mergeIndex();
+                archive.append(new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 13, 30, 24));
+
+                CabinetArchive.Cursor cursor = archive.query(CabinetArchive.Bounds.any(),
+                        CabinetArchive.Bounds.exactly(30), CabinetArchive.Bounds.any());
+
+                List<Double> widths = new ArrayList<>();
+                while (cursor.next()) {
+                    widths.add(cursor.getWidth());
+                }
+                assertThat(widths).containsExactly(12.0, 15.0, 18.0, 21.0, 24.0, 27.0, 30.0, 13.0);
+            }
+        }
+
+        @Test
+        void testDepthExcludesRecords() throws IOException {
+            try (CabinetArchive archive = fill()) {
+                assertThat(archive.query(CabinetArchive.Bounds.any(), CabinetArchive.Bounds.any(),
+                        CabinetArchive.Bounds.between(12, 23.5)).size()).isZero();
+            }
+        }
+
+        @Test
+        void testAppendsMergeAutomatically() throws IOException {
+            try (CabinetArchive archive = CabinetArchive.open(directory)) {
+                for (int i = 0; i < CabinetArchive.MIN_MERGE_RECORDS; i++) {
+                    archive.append(new CabinetBox(Material.HALF, Material.QUARTER, 12 + i % 24, 30,
+                            12));
+                }
+
+                assertThat(archive.getIndexedCount()).isEqualTo(CabinetArchive.MIN_MERGE_RECORDS);
+                assertThat(archive.query(CabinetArchive.Bounds.exactly(12),
+                        CabinetArchive.Bounds.any(), CabinetArchive.Bounds.any()).size())
+                        .isEqualTo(CabinetArchive.MIN_MERGE_RECORDS / 24 + 1);
+            }
+        }
+
+        @Test
+        void testBoundsRejectsInvertedRange() {
+            assertThatThrownBy(() -> CabinetArchive.Bounds.between(24, 18)).isInstanceOf(
+                    IllegalArgumentException.class).hasMessageContaining("Expected");
+        }
+    }
+
+    @Nested
+    class Reopen {
+        @Test
+        void testRecordsAndIndexSurviveReopening() throws IOException {
+            try (CabinetArchive archive = CabinetArchive.open(directory, 4)) {
+                for (int width = 12; width <= 36; width += 6) {
+                    archive.append(new CabinetBox(Material.HALF, Material.QUARTER, width, 30, 12));
+                }
+                archive.mergeIndex();
+                archive.append(new CabinetBox(Material.HALF, Material.QUARTER, 20, 30, 12));
+            }
+
+            try (CabinetArchive archive = CabinetArchive.open(directory, 4)) {
+                assertThat(archive.size()).isEqualTo(6);
+                assertThat(archive.getIndexedCount()).isEqualTo(5);
+                assertThat(ids(archive.query(CabinetArchive.Bounds.between(18, 24),
+                        CabinetArchive.Bounds.any(), CabinetArchive.Bounds.any()))).containsExactly(1,
+                        2, 5);
+
+                archive.append(new CabinetBox(Material.HALF, Material.QUARTER, 22, 30, 12));
+                assertThat(archive.get(6).getWidth()).isEqualTo(22);
+            }
+        }
+
+        @Test
+        void testOpenRejectsOtherFiles() throws IOException {
+            Files.writeString(directory.resolve(CabinetArchive.DATA_FILE), "24,30.5,18\n");
+
+            assertThatThrownBy(() -> CabinetArchive.open(directory)).isInstanceOf(
+                    IOException.class);
+        }
+
+        @Test
+        void testHeaderIsLittleEndian() throws IOException {
+            try (CabinetArchive archive = CabinetArchive.open(directory, 4)) {
+                archive.append(new CabinetBox(Material.HALF, Material.QUARTER, 12, 30, 12));
+            }
+
+            ByteBuffer header = ByteBuffer.wrap(
+                    Files.readAllBytes(directory.resolve(CabinetArchive.DATA_FILE)), 0,
+                    CabinetArchive.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            assertThat(header.getInt(0)).isEqualTo(CabinetArchive.MAGIC);
+            assertThat(header.getLong(8)).isOne();
+            assertThat(header.getLong(16)).isEqualTo(Measurement.UNITS_PER_INCH);
+        }
+    }
+}
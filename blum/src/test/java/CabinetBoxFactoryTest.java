@@ -0,0 +1,62 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+class CabinetBoxFactoryTest implements WithAssertions {
+
+    @Test
+    void testRepeatedRequestReturnsSameCabinetBox() {
+        CabinetBoxFactory factory = CabinetBoxFactory.create();
+
+        CabinetBox first = factory.get(Material.THREE_QUARTER, Material.QUARTER, 24, 34.5, 24);
+        CabinetBox second = factory.get(Material.THREE_QUARTER, Material.QUARTER, 24, 34.5, 24);
+
+        assertThat(second).isSameAs(first);
+        assertThat(factory.getStats().hitCount()).isEqualTo(1);
+        assertThat(factory.getStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testDifferentMaterialsAreDifferentCabinets() {
+        CabinetBoxFactory factory = CabinetBoxFactory.create();
+
+        CabinetBox quarterBack = factory.get(Material.THREE_QUARTER, Material.QUARTER, 24, 34.5,
+                24);
+        CabinetBox halfBack = factory.get(Material.THREE_QUARTER, Material.HALF, 24, 34.5, 24);
+
+        assertThat(halfBack).isNotSameAs(quarterBack);
+        assertThat(halfBack.getBack().getMaterial()).isEqualTo(Material.HALF);
+    }
+
+    @Test
+    void testCachedCabinetMatchesConstructedCabinet() {
+        CabinetBox cached = CabinetBoxFactory.create().get(Material.HALF, Material.HALF, 10, 10.5,
+                20);
+
+        assertThat(cached.toString()).isEqualTo(
+                new CabinetBox(Material.HALF, Material.HALF, 10, 10.5, 20).toString());
+    }
+
+    @Test
+    void testLeastRecentlyUsedCabinetIsEvicted() {
+        CabinetBoxFactory factory = CabinetBoxFactory.create(2);
+        CabinetBox fifteen = factory.get(Material.THREE_QUARTER, Material.QUARTER, 15, 34.5, 24);
+        factory.get(Material.THREE_QUARTER, Material.QUARTER, 18, 34.5, 24);
+        factory.get(Material.THREE_QUARTER, Material.QUARTER, 15, 34.5, 24);
+        factory.get(Material.THREE_QUARTER, Material.QUARTER, 24, 34.5, 24);
+
+        assertThat(factory.size()).isEqualTo(2);
+        assertThat(factory.get(Material.THREE_QUARTER, Material.QUARTER, 15, 34.5, 24)).isSameAs(
+                fifteen);
+        assertThat(factory.getStats().evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testInvalidCabinetThrowsIllegalArgumentException() {
+        CabinetBoxFactory factory = CabinetBoxFactory.create();
+
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> factory.get(Material.THREE_QUARTER, Material.QUARTER, 1, 34.5,
+                        24)).withMessageContaining("Expected Cabinet width");
+        assertThat(factory.size()).isZero();
+    }
+}
@@ -159,6 +159,25 @@ class CabinetBoxTest implements WithAssertions {
         }
     }
 
+    @Test
+    void testDimensionsAreKeptInUnits() {
+        CabinetBox cabinetBox = new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 15.7,
+                34.5, 21.75);
+
+        assertThat(cabinetBox.getWidthUnits()).isEqualTo(Measurement.toUnits(15.7));
+        assertThat(cabinetBox.getWidth()).isEqualTo(15.7);
+        assertThat(cabinetBox.getHeightUnits()).isEqualTo((long) (34.5 * Measurement.UNITS_PER_INCH));
+        assertThat(cabinetBox.getDepthUnits()).isEqualTo(
+                cabinetBox.getSide().getDimensions().getSecondUnits());
+    }
+
+    @Test
+    void testNonFiniteDimensionIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> new CabinetBox(Material.THREE_QUARTER, Material.QUARTER,
+                        Double.POSITIVE_INFINITY, 30, 12));
+    }
+
     @Nested
     class CabinetBoxValidationTest {
 
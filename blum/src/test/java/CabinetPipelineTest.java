@@ -0,0 +1,176 @@
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.Executors;
+
+class CabinetPipelineTest implements WithAssertions {
+    private static final String ORDERS = String.join("\n", "width,height,depth", "# kitchen",
+            "15.75,34.5,21.75", "{\"width\": 24, \"height\": 30, \"depth\": 12, " +
+                    "\"side_material\": \"HALF\"}", "1,30,12", "24,abc,12", "", "15.75,34.5,21.75");
+
+    private ListeningExecutorService executorService;
+    private StringWriter output;
+    private StringWriter errors;
+
+    @BeforeEach
+    void setUp() {
+        this.executorService = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(4));
+        this.output = new StringWriter();
+        this.errors = new StringWriter();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    private static String orders(int count) {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            input.append(12 + i % 30).append(".125,").append(30 + i % 7).append(",").append(
+                    12 + i % 13).append(".5\n");
+        }
+        return input.toString();
+    }
+
+    @Nested
+    class Output {
+        @Test
+        void testMatchesBatchClient() throws IOException {
+            StringWriter batchOutput = new StringWriter();
+            StringWriter batchErrors = new StringWriter();
+            BatchClient.Summary expected = new BatchClient(executorService, 4).run(
+                    new BufferedReader(new StringReader(ORDERS)), batchOutput, batchErrors);
+
+            CabinetPipeline.Result result = CabinetPipeline.create(executorService, 4).run(
+                    new BufferedReader(new StringReader(ORDERS)), output, errors);
+
+            assertThat(output.toString()).isEqualTo(batchOutput.toString());
+            assertThat(errors.toString()).isEqualTo(batchErrors.toString());
+            assertThat(result.getSummary()).usingRecursiveComparison().isEqualTo(expected);
+            assertThat(result.getSummary().getAccepted()).isEqualTo(3);
+            assertThat(result.getSummary().getRejected()).isEqualTo(2);
+        }
+
+        @Test
+        void testAggregatesAcceptedCabinets() throws IOException {
+            CabinetPipeline.Result result = CabinetPipeline.create(executorService, 4).run(
+                    new BufferedReader(new StringReader(ORDERS)), output, errors);
+
+            AggregatedCutList expected = new AggregatedCutList();
+            expected.addAll(new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 15.75, 34.5,
+                    21.75));
+            expected.addAll(new CabinetBox(Material.HALF, Material.QUARTER, 24, 30, 12));
+            expected.addAll(new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 15.75, 34.5,
+                    21.75));
+            assertThat(result.getCutList().getTotalQuantity()).isEqualTo(
+                    expected.getTotalQuantity());
+            for (AggregatedCutList.Entry entry : expected.getEntries()) {
+                assertThat(result.getCutList().getQuantity(entry.getCut())).isEqualTo(
+                        entry.getQuantity());
+            }
+        }
+
+        @Test
+        void testSmallBuffersKeepInputOrder() throws IOException {
+            String input = orders(2000);
+            StringWriter batchOutput = new StringWriter();
+            new BatchClient(executorService, 4).run(new BufferedReader(new StringReader(input)),
+                    batchOutput, new StringWriter());
+
+            CabinetPipeline.create(executorService, 4, 1).run(
+                    new BufferedReader(new StringReader(input)), output, errors);
+
+            assertThat(output.toString()).isEqualTo(batchOutput.toString());
+        }
+    }
+
+    @Nested
+    class BackPressure {
+        @Test
+        void testSlowWriterThrottlesReader() throws IOException {
+            int bufferSize = 8;
+            long[] counts = new long[3];
+            BufferedReader input = new BufferedReader(new StringReader(orders(300))) {
+                @Override
+                public String readLine() throws IOException {
+                    synchronized (counts) {
+                        counts[0]++;
+                        counts[2] = Math.max(counts[2], counts[0] - counts[1]);
+                    }
+                    return super.readLine();
+                }
+            };
+            Writer slowOutput = new StringWriter() {
+                @Override
+                public void write(int c) {
+                    super.write(c);
+                    if (c == '\n') {
+                        synchronized (counts) {
+                            counts[1]++;
+                        }
+                        try {
+                            Thread.sleep(1);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+            };
+
+            CabinetPipeline.Result result = CabinetPipeline.create(executorService, 4, bufferSize)
+                    .run(input, slowOutput, errors);
+
+            assertThat(result.getSummary().getAccepted()).isEqualTo(300);
+            // one buffer in front of each stage plus one item in the hands of each thread
+            assertThat(counts[2]).isLessThanOrEqualTo(
+                    (long) CabinetPipeline.STAGES * bufferSize + CabinetPipeline.STAGES + 2);
+        }
+
+        @Test
+        void testWriteFailureStopsReading() {
+            int[] linesRead = new int[1];
+            BufferedReader input = new BufferedReader(new StringReader(orders(100_000))) {
+                @Override
+                public String readLine() throws IOException {
+                    linesRead[0]++;
+                    return super.readLine();
+                }
+            };
+            Writer closedOutput = new Writer() {
+                @Override
+                public void write(char[] buffer, int offset, int length) throws IOException {
+                    throw new IOException("disk full");
+                }
+
+                @Override
+                public void flush() {
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+
+            assertThatThrownBy(() -> CabinetPipeline.create(executorService, 4, 8).run(input,
+                    closedOutput, errors)).isInstanceOf(IOException.class).hasMessage("disk full");
+            assertThat(linesRead[0]).isLessThan(100_000);
+        }
+    }
+
+    @Test
+    void testCreateRejectsTooFewThreads() {
+        assertThatThrownBy(() -> CabinetPipeline.create(executorService, 2)).isInstanceOf(
+                IllegalArgumentException.class).hasMessageContaining("3");
+    }
+}
@@ -0,0 +1,103 @@
+import com.fasterxml.jackson.databind.exc.ValueInstantiationException;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+class CabinetRecipeTest implements WithAssertions {
+
+    private void assertMatchesCabinetBox(CabinetRecipe recipe, Material sideMaterial,
+            Material backMaterial, double width, double height, double depth) {
+        CabinetRecipe.Compiled compiled = recipe.compile(sideMaterial, backMaterial);
+        long[] out = new long[compiled.getStride() + 3];
+        CabinetBox cabinetBox = new CabinetBox(sideMaterial, backMaterial, width, height, depth);
+
+        assertThat(compiled.evaluate(Measurement.toUnits(width), Measurement.toUnits(height),
+                Measurement.toUnits(depth), out, 3)).isTrue();
+        assertThat(compiled.toCut(out, 3, 0).getDimensions()).isEqualTo(
+                cabinetBox.getSide().getDimensions());
+        assertThat(compiled.toCut(out, 3, 1).getDimensions()).isEqualTo(
+                cabinetBox.getBottom().getDimensions());
+        assertThat(compiled.toCut(out, 3, 2).getDimensions()).isEqualTo(
+                cabinetBox.getBack().getDimensions());
+        assertThat(compiled.toCut(out, 3, 3).getDimensions()).isEqualTo(
+                cabinetBox.getRunner().getDimensions());
+        assertThat(compiled.toCut(out, 3, 2).getMaterial()).isEqualTo(backMaterial);
+    }
+
+    @Test
+    void testStandardRecipeMatchesCabinetBox() {
+        assertMatchesCabinetBox(CabinetRecipe.STANDARD, Material.THREE_QUARTER,
+                Material.QUARTER, 24, 30.5, 18);
+        assertMatchesCabinetBox(CabinetRecipe.STANDARD, Material.HALF, Material.HALF, 10, 10.5,
+                20);
+    }
+
+    @Test
+    void testBundledStandardRecipeMatchesCabinetBox() throws IOException {
+        try (InputStream input = getClass().getResourceAsStream("/standard_cabinet.yaml")) {
+            CabinetRecipe recipe = CabinetRecipe.load(input, new YAMLFactory());
+
+            assertThat(recipe.getName()).isEqualTo("standard");
+            assertThat(recipe.getPanels().get(0).getQuantity()).isEqualTo(2);
+            assertMatchesCabinetBox(recipe, Material.THREE_QUARTER, Material.QUARTER, 15.75,
+                    34.5, 21.75);
+        }
+    }
+
+    @Test
+    void testEvaluateReportsNonPositivePanels() {
+        CabinetRecipe.Compiled compiled = CabinetRecipe.STANDARD.compile(Material.THREE_QUARTER,
+                Material.QUARTER);
+        long[] out = new long[compiled.getStride()];
+
+        assertThat(compiled.evaluate(Measurement.toUnits(1.5), Measurement.toUnits(30),
+                Measurement.toUnits(24), out, 0)).isFalse();
+    }
+
+    @Test
+    void testCompiledRecipeDescribesPanels() {
+        CabinetRecipe.Compiled compiled = CabinetRecipe.STANDARD.compile(Material.THREE_QUARTER,
+                Material.QUARTER);
+
+        assertThat(compiled.getPanelCount()).isEqualTo(4);
+        assertThat(compiled.getPanelName(3)).isEqualTo("runner");
+        assertThat(compiled.getQuantity(0)).isEqualTo(2);
+        assertThat(compiled.getMaterial(2)).isEqualTo(Material.QUARTER);
+    }
+
+    @Nested
+    class ExpressionValidationTest {
+        private CabinetRecipe load(String yaml) throws IOException {
+            return CabinetRecipe.load(
+                    new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)),
+                    new YAMLFactory());
+        }
+
+        @Test
+        void testExpressionNeedsDimensionOrConstant() {
+            assertThatExceptionOfType(ValueInstantiationException.class).isThrownBy(() -> load(
+                    "{name: bad, panels: [{name: p, material: SIDE, first: {}, second: " +
+                            "{constant: 1}}]}"));
+        }
+
+        @Test
+        void testJointNeedsJoinedMaterial() {
+            assertThatExceptionOfType(ValueInstantiationException.class).isThrownBy(() -> load(
+                    "{name: bad, panels: [{name: p, material: SIDE, first: {dimension: " +
+                            "WIDTH, joint: DADO}, second: {constant: 1}}]}"));
+        }
+
+        @Test
+        void testRecipeNeedsPanels() {
+            assertThatIllegalArgumentException().isThrownBy(
+                    () -> new CabinetRecipe("empty", List.of()));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+class CabinetServerTest implements WithAssertions {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private CabinetServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = CabinetServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        this.server.start();
+        this.client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private HttpResponse<String> post(String body) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(CabinetServer.CABINETS_PATH)).POST(
+                HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    @Test
+    void testCabinetRequestRespondsWithCuts() throws IOException, InterruptedException {
+        HttpResponse<String> response = post(
+                "{\"width\": 24, \"height\": 30.5, \"depth\": 18}");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        JsonNode bottom = MAPPER.readTree(response.body()).get("bottom");
+        assertThat(bottom.get("first").asDouble()).isEqualTo(23.25);
+        assertThat(bottom.get("second").asDouble()).isEqualTo(18);
+        assertThat(bottom.get("material").asText()).isEqualTo("THREE_QUARTER");
+    }
+
+    @Test
+    void testListRequestRespondsWithList() throws IOException, InterruptedException {
+        HttpResponse<String> response = post(
+                "[{\"width\": 24, \"height\": 30.5, \"depth\": 18}, {\"width\": 10, " +
+                        "\"height\": 10.5, \"depth\": 20, \"side_material\": \"HALF\"}]");
+
+        JsonNode cabinets = MAPPER.readTree(response.body());
+        assertThat(cabinets.size()).isEqualTo(2);
+        assertThat(cabinets.get(1).get("side").get("material").asText()).isEqualTo("HALF");
+    }
+
+    @Test
+    void testInvalidCabinetIsBadRequest() throws IOException, InterruptedException {
+        HttpResponse<String> response = post("{\"width\": 1, \"height\": 30.5, \"depth\": 18}");
+
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(MAPPER.readTree(response.body()).get("error").asText()).contains(
+                "Expected Cabinet width");
+    }
+
+    @Test
+    void testMetricsAreServedAsPrometheusText() throws IOException, InterruptedException {
+        post("{\"width\": 24, \"height\": 30.5, \"depth\": 18}");
+
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(uri(CabinetServer.METRICS_PATH)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue(
+                "text/plain; version=0.0.4");
+        assertThat(response.body()).contains("# TYPE blum_cabinet_boxes_total counter").contains(
+                "blum_output_formatting_seconds_count ");
+    }
+
+    @Test
+    void testGetCabinetsIsNotAllowed() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(uri(CabinetServer.CABINETS_PATH)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(405);
+    }
+
+    @Test
+    void testStatsReportsRequestLatency() throws IOException, InterruptedException {
+        post("{\"width\": 24, \"height\": 30.5, \"depth\": 18}");
+        post("{\"width\": 24, \"height\": 30.5, \"depth\": 18}");
+        // Latency is recorded after the response is sent, so wait for the server to catch up
+        for (int i = 0; i < 100 && server.getLatency().getCount() < 2; i++) {
+            Thread.sleep(10);
+        }
+
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(uri(CabinetServer.STATS_PATH)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        JsonNode stats = MAPPER.readTree(response.body());
+        assertThat(stats.get("count").asLong()).isEqualTo(2);
+        assertThat(stats.get("p99_ms").asDouble()).isPositive();
+    }
+}
@@ -0,0 +1,139 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class CabinetSweepTest implements WithAssertions {
+    private static final CabinetSweep CATALOG = CabinetSweep.of(CabinetSweep.Range.of(9, 48, 3),
+            CabinetSweep.Range.values(30.5, 34.5), CabinetSweep.Range.values(12, 21.75, 24),
+            List.of(Material.THREE_QUARTER, Material.HALF), List.of(Material.QUARTER));
+
+    private void assertMatchesCabinetBoxes(CabinetSweep.Result result) {
+        for (int row = 0; row < result.size(); row++) {
+            CabinetBox cabinetBox = new CabinetBox(result.getSideMaterial(row),
+                    result.getBackMaterial(row),
+                    Measurement.toInches(result.getColumn(CabinetSweep.Column.WIDTH)[row]),
+                    Measurement.toInches(result.getColumn(CabinetSweep.Column.HEIGHT)[row]),
+                    Measurement.toInches(result.getColumn(CabinetSweep.Column.DEPTH)[row]));
+            assertThat(result.getCut(row, CabinetSweep.Panel.SIDE)).usingRecursiveComparison()
+                    .isEqualTo(cabinetBox.getSide());
+            assertThat(result.getCut(row, CabinetSweep.Panel.BOTTOM)).usingRecursiveComparison()
+                    .isEqualTo(cabinetBox.getBottom());
+            assertThat(result.getCut(row, CabinetSweep.Panel.BACK)).usingRecursiveComparison()
+                    .isEqualTo(cabinetBox.getBack());
+            assertThat(result.getCut(row, CabinetSweep.Panel.RUNNER)).usingRecursiveComparison()
+                    .isEqualTo(cabinetBox.getRunner());
+        }
+    }
+
+    @Test
+    void testTestsRunVectorized() {
+        assertThat(CabinetSweep.isVectorized()).isTrue();
+    }
+
+    @Test
+    void testSizeIsEveryCombination() {
+        assertThat(CATALOG.size()).isEqualTo(14 * 2 * 3 * 2);
+        assertThat(CATALOG.run().size()).isEqualTo(CATALOG.size());
+    }
+
+    @Test
+    void testVectorResultMatchesCabinetBoxes() {
+        assertMatchesCabinetBoxes(CATALOG.run());
+    }
+
+    @Test
+    void testScalarResultMatchesCabinetBoxes() {
+        assertMatchesCabinetBoxes(CATALOG.runScalar());
+    }
+
+    @Test
+    void testVectorAndScalarResultsAreEqual() {
+        CabinetSweep.Result vector = CATALOG.run();
+        CabinetSweep.Result scalar = CATALOG.runScalar();
+
+        for (CabinetSweep.Column column : CabinetSweep.Column.values()) {
+            assertThat(vector.getColumn(column)).as(column.name()).isEqualTo(
+                    scalar.getColumn(column));
+        }
+        assertThat(vector.getValid()).isEqualTo(scalar.getValid());
+    }
+
+    @Test
+    void testRowsVaryWidthFastest() {
+        CabinetSweep.Result result = CATALOG.run();
+
+        assertThat(result.getColumn(CabinetSweep.Column.WIDTH)[1]).isEqualTo(
+                Measurement.toUnits(12));
+        assertThat(result.getColumn(CabinetSweep.Column.HEIGHT)[14]).isEqualTo(
+                Measurement.toUnits(34.5));
+        assertThat(result.getSideMaterial(result.size() - 1)).isEqualTo(Material.HALF);
+    }
+
+    @Nested
+    class Validity {
+        @Test
+        void testInvalidCombinationsAreMarked() {
+            CabinetSweep.Result result = CabinetSweep.of(CabinetSweep.Range.values(1, 24),
+                    CabinetSweep.Range.values(30.5), CabinetSweep.Range.values(0.5, 18),
+                    List.of(Material.THREE_QUARTER), List.of(Material.QUARTER)).run();
+
+            assertThat(result.isValid(0)).isFalse();
+            assertThat(result.isValid(1)).isFalse();
+            assertThat(result.isValid(2)).isFalse();
+            assertThat(result.isValid(3)).isTrue();
+            assertThat(result.getValidCount()).isEqualTo(1);
+        }
+
+        @Test
+        void testValidityMatchesCabinetBox() {
+            CabinetSweep.Result result = CabinetSweep.of(CabinetSweep.Range.of(1, 2, 0.125),
+                    CabinetSweep.Range.of(1, 2, 0.25), CabinetSweep.Range.values(0.875, 1.25),
+                    List.of(Material.THREE_QUARTER, Material.HALF),
+                    List.of(Material.QUARTER, Material.HALF)).run();
+
+            for (int row = 0; row < result.size(); row++) {
+                boolean accepted;
+                try {
+                    new CabinetBox(result.getSideMaterial(row), result.getBackMaterial(row),
+                            Measurement.toInches(result.getColumn(CabinetSweep.Column.WIDTH)[row]),
+                            Measurement.toInches(result.getColumn(CabinetSweep.Column.HEIGHT)[row]),
+                            Measurement.toInches(result.getColumn(CabinetSweep.Column.DEPTH)[row]));
+                    accepted = true;
+                } catch (IllegalArgumentException e) {
+                    accepted = false;
+                }
+                assertThat(result.isValid(row)).as("row %d", row).isEqualTo(accepted);
+            }
+        }
+    }
+
+    @Nested
+    class Ranges {
+        @Test
+        void testRangeIncludesEnd() {
+            assertThat(CabinetSweep.Range.of(9, 48, 3).size()).isEqualTo(14);
+        }
+
+        @Test
+        void testRangeRejectsNonPositiveStep() {
+            assertThatIllegalArgumentException().isThrownBy(
+                    () -> CabinetSweep.Range.of(9, 48, 0));
+        }
+
+        @Test
+        void testRangeRejectsEndBeforeStart() {
+            assertThatIllegalArgumentException().isThrownBy(
+                    () -> CabinetSweep.Range.of(48, 9, 3));
+        }
+
+        @Test
+        void testSweepRejectsNoMaterials() {
+            assertThatIllegalArgumentException().isThrownBy(
+                    () -> CabinetSweep.of(CabinetSweep.Range.values(24),
+                            CabinetSweep.Range.values(30), CabinetSweep.Range.values(18),
+                            List.of(), List.of(Material.QUARTER)));
+        }
+    }
+}
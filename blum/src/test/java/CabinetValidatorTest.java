@@ -0,0 +1,163 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+class CabinetValidatorTest implements WithAssertions {
+
+    private static Material[] fill(Material material, int size) {
+        Material[] materials = new Material[size];
+        Arrays.fill(materials, material);
+        return materials;
+    }
+
+    @Nested
+    class Check {
+        @Test
+        void testValidCabinetHasNoViolations() {
+            assertThat(CabinetValidator.check(Material.THREE_QUARTER, Material.QUARTER, 24, 30.5,
+                    18)).isZero();
+        }
+
+        @Test
+        void testEveryBrokenRuleIsReported() {
+            int violations = CabinetValidator.check(Material.THREE_QUARTER, Material.QUARTER, 1,
+                    30.5, 0.5);
+
+            assertThat(violations).isEqualTo(
+                    CabinetValidator.Rule.WIDTH.getBit() | CabinetValidator.Rule.DEPTH.getBit());
+        }
+
+        @Test
+        void testNaNIsInvalid() {
+            assertThat(CabinetValidator.check(Material.HALF, Material.QUARTER, Double.NaN, 30,
+                    18)).isEqualTo(CabinetValidator.Rule.WIDTH.getBit());
+        }
+
+        @Test
+        void testCheckUnitsMatchesCheck() {
+            for (double width : new double[]{1, 1.5, 1.5 + 1.0 / 256_000, 24}) {
+                assertThat(CabinetValidator.checkUnits(Material.THREE_QUARTER, Material.QUARTER,
+                        Measurement.toUnits(width), Measurement.toUnits(30.5),
+                        Measurement.toUnits(1))).isEqualTo(CabinetValidator.check(
+                        Material.THREE_QUARTER, Material.QUARTER, width, 30.5, 1));
+            }
+        }
+
+        @Test
+        void testMessageMatchesCabinetBox() {
+            int violations = CabinetValidator.check(Material.THREE_QUARTER, Material.QUARTER, 24,
+                    1, 0.5);
+
+            assertThatIllegalArgumentException().isThrownBy(
+                    () -> new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24, 1,
+                            0.5)).withMessage(
+                    CabinetValidator.getMessage(violations, Material.THREE_QUARTER,
+                            Material.QUARTER, 24, 1, 0.5));
+        }
+    }
+
+    @Nested
+    class Validate {
+        @Test
+        void testBitmapMarksValidRows() {
+            double[] widths = new double[130];
+            double[] heights = new double[130];
+            double[] depths = new double[130];
+            Arrays.fill(widths, 24);
+            Arrays.fill(heights, 30.5);
+            Arrays.fill(depths, 18);
+            widths[3] = 1;
+            heights[64] = 1;
+            depths[129] = 0.5;
+
+            CabinetValidator.Result result = CabinetValidator.validate(
+                    fill(Material.THREE_QUARTER, 130), fill(Material.QUARTER, 130), widths,
+                    heights, depths);
+
+            assertThat(result.size()).isEqualTo(130);
+            assertThat(result.getValidCount()).isEqualTo(127);
+            assertThat(result.getInvalidCount()).isEqualTo(3);
+            assertThat(result.isValid(0)).isTrue();
+            assertThat(result.isValid(3)).isFalse();
+            assertThat(result.violates(64, CabinetValidator.Rule.HEIGHT)).isTrue();
+            assertThat(result.getViolations(129)).isEqualTo(
+                    CabinetValidator.Rule.DEPTH.getBit());
+            assertThat(result.getValidBitmap()).hasSize(3);
+            assertThat(result.getValidBitmap()[0]).isEqualTo(~(1L << 3));
+        }
+
+        @Test
+        void testNextInvalidWalksRejects() {
+            double[] widths = {24, 1, 24, 24, 1};
+            double[] heights = {30, 30, 30, 30, 30};
+            double[] depths = {18, 18, 18, 18, 18};
+
+            CabinetValidator.Result result = CabinetValidator.validate(
+                    fill(Material.HALF, 5), fill(Material.QUARTER, 5), widths, heights, depths);
+
+            assertThat(result.nextInvalid(0)).isEqualTo(1);
+            assertThat(result.nextInvalid(2)).isEqualTo(4);
+            assertThat(result.nextInvalid(5)).isEqualTo(-1);
+        }
+
+        @Test
+        void testNextInvalidIgnoresBitsPastLastRow() {
+            CabinetValidator.Result result = CabinetValidator.validate(
+                    fill(Material.HALF, 1), fill(Material.QUARTER, 1), new double[]{24},
+                    new double[]{30}, new double[]{18});
+
+            assertThat(result.nextInvalid(0)).isEqualTo(-1);
+        }
+
+        @Test
+        void testMessagesAreFormattedOnDemand() {
+            CabinetValidator.Result result = CabinetValidator.validate(
+                    List.of(CabinetSpec.of(Material.THREE_QUARTER, Material.QUARTER, 24, 30.5, 18),
+                            CabinetSpec.of(Material.THREE_QUARTER, Material.QUARTER, 1, 30.5,
+                                    18)));
+
+            assertThat(result.getMessage(0)).isNull();
+            assertThat(result.getMessage(1)).startsWith("Expected Cabinet width");
+        }
+
+        @Test
+        void testValidRowsAreExactlyThoseCabinetBoxAccepts() {
+            double[] widths = {24, Double.POSITIVE_INFINITY, 1.5000001, Double.NaN, 1e20, 1.5039};
+            int size = widths.length;
+            double[] heights = new double[size];
+            double[] depths = new double[size];
+            Arrays.fill(heights, 30);
+            Arrays.fill(depths, 24);
+
+            CabinetValidator.Result result = CabinetValidator.validate(
+                    fill(Material.THREE_QUARTER, size), fill(Material.QUARTER, size), widths,
+                    heights, depths);
+
+            for (int row = 0; row < size; row++) {
+                boolean accepted;
+                try {
+                    new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, widths[row], 30, 24);
+                    accepted = true;
+                } catch (IllegalArgumentException e) {
+                    accepted = false;
+                }
+                assertThat(result.isValid(row)).as("row %d", row).isEqualTo(accepted);
+            }
+            assertThat(result.getValidCount()).isEqualTo(2);
+            assertThat(result.nextInvalid(0)).isOne();
+            assertThat(result.getViolations(1)).isEqualTo(CabinetValidator.Rule.WIDTH.getBit());
+            assertThat(result.getMessage(4)).startsWith("Expected Cabinet width");
+        }
+
+        @Test
+        void testColumnsMustBeSameLength() {
+            assertThatIllegalArgumentException().isThrownBy(
+                    () -> CabinetValidator.validate(fill(Material.HALF, 2),
+                            fill(Material.QUARTER, 1), new double[2], new double[2],
+                            new double[2]));
+        }
+    }
+}
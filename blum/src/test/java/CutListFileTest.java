@@ -0,0 +1,195 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+class CutListFileTest implements WithAssertions {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRoundTripPreservesEveryCut() throws IOException {
+        CutList cutList = new CutList();
+        cutList.addAll(new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24, 30.5, 18));
+        cutList.add(0.125, 96, Material.HALF);
+        Path path = directory.resolve("job.cuts");
+
+        CutListFile.write(path, cutList);
+        CutListFile file = CutListFile.open(path);
+
+        assertThat(file.size()).isEqualTo(cutList.size());
+        assertThat(file.toCutList().toCuts()).usingRecursiveFieldByFieldElementComparator()
+                .isEqualTo(cutList.toCuts());
+    }
+
+    @Test
+    void testFileSizeIsHeaderTableAndRecords() throws IOException {
+        CutList cutList = new CutList();
+        cutList.add(3, 6, Material.HALF);
+        cutList.add(4, 8, Material.QUARTER);
+        Path path = directory.resolve("job.cuts");
+
+        CutListFile.write(path, cutList);
+
+        assertThat(Files.size(path)).isEqualTo(
+                CutListFile.HEADER_SIZE + Material.values().length * CutListFile.MATERIAL_ENTRY_SIZE + 2 * CutListFile.RECORD_SIZE);
+    }
+
+    @Test
+    void testRecordIsReusedAcrossRecords() throws IOException {
+        CutList cutList = new CutList();
+        cutList.add(3, 6, Material.HALF);
+        cutList.add(4.5, 8, Material.QUARTER);
+        Path path = directory.resolve("job.cuts");
+        CutListFile.write(path, cutList);
+        CutListFile file = CutListFile.open(path);
+
+        CutListFile.Record record = file.newRecord();
+        assertThat(record.next()).isTrue();
+        assertThat(record.getFirst()).isEqualTo(3);
+        assertThat(record.getMaterial()).isEqualTo(Material.HALF);
+        assertThat(record.next()).isTrue();
+        assertThat(record.getFirstUnits()).isEqualTo((int) Measurement.toUnits(4.5));
+        assertThat(record.getSecond()).isEqualTo(8);
+        assertThat(record.toCut().getDimensions()).isEqualTo(
+                Cut.Dimensions.ofUnits(Measurement.toUnits(4.5), Measurement.toUnits(8)));
+        assertThat(record.next()).isFalse();
+
+        assertThat(record.moveTo(0).getSecondUnits()).isEqualTo(file.getSecondUnits(0));
+        assertThat(file.getMaterial(file.getMaterialIndex(1))).isEqualTo(Material.QUARTER);
+    }
+
+    @Test
+    void testOpenEmptyList() throws IOException {
+        Path path = directory.resolve("empty.cuts");
+        CutListFile.write(path, new CutList());
+
+        CutListFile file = CutListFile.open(path);
+
+        assertThat(file.size()).isZero();
+        assertThat(file.newRecord().next()).isFalse();
+    }
+
+    @Test
+    void testRecordIndexOutOfRange() throws IOException {
+        Path path = directory.resolve("empty.cuts");
+        CutListFile.write(path, new CutList());
+        CutListFile file = CutListFile.open(path);
+
+        assertThatThrownBy(() -> file.getFirstUnits(0)).isInstanceOf(
+                IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void testOpenRejectsOtherFiles() throws IOException {
+        Path path = directory.resolve("job.csv");
+        Files.writeString(path, "24,30.5,18\n24,30.5,18\n24,30.5,18\n");
+
+        assertThatThrownBy(() -> CutListFile.open(path)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testOpenRejectsTruncatedFile() throws IOException {
+        CutList cutList = new CutList();
+        cutList.add(3, 6, Material.HALF);
+        Path path = directory.resolve("job.cuts");
+        CutListFile.write(path, cutList);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertThatThrownBy(() -> CutListFile.open(path)).isInstanceOf(IOException.class);
+    }
+
+    /**
+     * Writes a file of one record and rewrites it with <code>corrupt</code> applied
+     */
+    private Path writeCorrupted(Consumer<ByteBuffer> corrupt)
+            throws IOException {
+        CutList cutList = new CutList();
+        cutList.add(3, 6, Material.HALF);
+        Path path = directory.resolve("job.cuts");
+        CutListFile.write(path, cutList);
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path)).order(
+                ByteOrder.LITTLE_ENDIAN);
+        corrupt.accept(bytes);
+        Files.write(path, bytes.array());
+        return path;
+    }
+
+    private static int recordOffset() {
+        return CutListFile.HEADER_SIZE + Material.values().length * CutListFile.MATERIAL_ENTRY_SIZE;
+    }
+
+    @Test
+    void testOpenRejectsCorruptMaterialCount() throws IOException {
+        Path path = writeCorrupted(bytes -> bytes.putShort(6, (short) -1));
+
+        assertThatThrownBy(() -> CutListFile.open(path)).isInstanceOf(IOException.class)
+                .hasMessageContaining("65535 materials");
+    }
+
+    @Test
+    void testOpenRejectsMaterialIndexOutsideTable() throws IOException {
+        Path path = writeCorrupted(bytes -> bytes.putShort(recordOffset() + 8, (short) -1));
+
+        assertThatThrownBy(() -> CutListFile.open(path)).isInstanceOf(IOException.class)
+                .hasMessageContaining("record 0").hasMessageContaining("65535");
+    }
+
+    @Test
+    void testOpenRejectsUnknownMaterialInUse() throws IOException {
+        int index = Material.HALF.ordinal();
+        Path path = writeCorrupted(bytes -> bytes.put(
+                CutListFile.HEADER_SIZE + index * CutListFile.MATERIAL_ENTRY_SIZE, (byte) 'X'));
+
+        assertThatThrownBy(() -> CutListFile.open(path)).isInstanceOf(IOException.class)
+                .hasMessageContaining("XALF");
+    }
+
+    @Test
+    void testUnknownMaterialNotInUseIsNull() throws IOException {
+        int index = Material.QUARTER.ordinal();
+        Path path = writeCorrupted(bytes -> bytes.put(
+                CutListFile.HEADER_SIZE + index * CutListFile.MATERIAL_ENTRY_SIZE, (byte) 'X'));
+
+        CutListFile file = CutListFile.open(path);
+        assertThat(file.getMaterial(index)).isNull();
+        assertThat(file.toCutList().getMaterial(0)).isEqualTo(Material.HALF);
+    }
+
+    @Test
+    void testHeaderIsLittleEndian() throws IOException {
+        Path path = directory.resolve("empty.cuts");
+        CutListFile.write(path, new CutList());
+
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(path)).order(
+                ByteOrder.LITTLE_ENDIAN);
+        assertThat(header.getInt(0)).isEqualTo(CutListFile.MAGIC);
+        assertThat(new String(Files.readAllBytes(path), 0, 4)).isEqualTo("BLMC");
+        assertThat(header.getLong(16)).isEqualTo(Measurement.UNITS_PER_INCH);
+    }
+
+    @Test
+    void testOversizedCutLeavesExistingFileUntouched() throws IOException {
+        CutList cutList = new CutList();
+        cutList.add(3, 6, Material.HALF);
+        Path path = directory.resolve("job.cuts");
+        CutListFile.write(path, cutList);
+        byte[] bytes = Files.readAllBytes(path);
+
+        CutList oversized = new CutList();
+        oversized.add(24, 30, Material.HALF);
+        oversized.add(10_000, 30, Material.HALF);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> CutListFile.write(path, oversized))
+                .withMessageContaining("10000.0");
+        assertThat(Files.readAllBytes(path)).isEqualTo(bytes);
+    }
+}
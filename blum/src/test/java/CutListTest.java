@@ -0,0 +1,113 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class CutListTest implements WithAssertions {
+
+    @Test
+    void testAddStoresColumns() {
+        CutList cutList = new CutList(0);
+        cutList.add(3.0, 6.0, Material.HALF);
+
+        assertThat(cutList.size()).isEqualTo(1);
+        assertThat(cutList.getFirst(0)).isEqualTo(3.0);
+        assertThat(cutList.getSecond(0)).isEqualTo(6.0);
+        assertThat(cutList.getMaterial(0)).isEqualTo(Material.HALF);
+    }
+
+    @Test
+    void testColumnsAreExactUnits() {
+        CutList cutList = new CutList();
+        cutList.add(15.7, 1.0 / 2048, Material.HALF);
+        cutList.addAll(new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24, 30.5, 18));
+
+        assertThat(cutList.getFirstUnits(0)).isEqualTo(Measurement.toUnits(15.7));
+        assertThat(cutList.getSecondUnits(0)).isEqualTo(125);
+        assertThat(cutList.getFirstUnits(3)).isEqualTo(
+                Measurement.toUnits(24) - Material.THREE_QUARTER.getThicknessUnits());
+    }
+
+    @Test
+    void testAddAllCabinetBoxAppendsEveryPanel() {
+        CabinetBox cabinetBox = new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24,
+                30.5, 18);
+        CutList cutList = new CutList();
+        cutList.addAll(cabinetBox);
+
+        assertThat(cutList.toCuts()).extracting(Cut::getDimensions).containsExactly(
+                cabinetBox.getSide().getDimensions(), cabinetBox.getSide().getDimensions(),
+                cabinetBox.getBottom().getDimensions(), cabinetBox.getBack().getDimensions(),
+                cabinetBox.getRunner().getDimensions());
+        assertThat(cutList.getMaterial(3)).isEqualTo(Material.QUARTER);
+    }
+
+    @Test
+    void testListGrowsPastInitialCapacity() {
+        CutList cutList = new CutList(1);
+        for (int i = 0; i < 100; i++) {
+            cutList.add(i, i + 1, Material.THREE_QUARTER);
+        }
+
+        assertThat(cutList.size()).isEqualTo(100);
+        assertThat(cutList.getFirst(99)).isEqualTo(99);
+    }
+
+    @Test
+    void testGetCutConvertsBackToCut() {
+        CutList cutList = new CutList();
+        cutList.add(Cut.withNoJoinedDimensions(3.0, 6.0, Material.QUARTER));
+
+        Cut cut = cutList.getCut(0);
+
+        assertThat(cut.getDimensions()).isEqualTo(Cut.Dimensions.valueOf(3.0, 6.0));
+        assertThat(cut.getMaterial()).isEqualTo(Material.QUARTER);
+    }
+
+    @Test
+    void testForEachVisitsCutsInOrder() {
+        CutList cutList = new CutList();
+        cutList.add(1, 2, Material.QUARTER);
+        cutList.add(3, 4, Material.HALF);
+        List<String> visited = new ArrayList<>();
+
+        cutList.forEach((first, second, material) -> visited.add(
+                first + "x" + second + " " + material.name()));
+
+        assertThat(visited).containsExactly("1.0x2.0 QUARTER", "3.0x4.0 HALF");
+    }
+
+    @Test
+    void testAddAllCutListAppendsOtherList() {
+        CutList cutList = new CutList();
+        cutList.add(1, 2, Material.QUARTER);
+        CutList other = new CutList();
+        other.add(3, 4, Material.HALF);
+
+        cutList.addAll(other);
+
+        assertThat(cutList.size()).isEqualTo(2);
+        assertThat(cutList.getMaterial(1)).isEqualTo(Material.HALF);
+    }
+
+    @Test
+    void testIndexPastSizeIsRejected() {
+        CutList cutList = new CutList();
+        cutList.add(1, 2, Material.QUARTER);
+
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(
+                () -> cutList.getFirst(1));
+    }
+
+    @Test
+    void testClearKeepsListReusable() {
+        CutList cutList = new CutList();
+        cutList.add(1, 2, Material.QUARTER);
+        cutList.clear();
+        cutList.add(3, 4, Material.HALF);
+
+        assertThat(cutList.size()).isEqualTo(1);
+        assertThat(cutList.getFirst(0)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,98 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class CutSchedulerTest implements WithAssertions {
+
+    private static List<Cut> cabinets(int count) {
+        List<Cut> cuts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CabinetBox cabinetBox = new CabinetBox(Material.THREE_QUARTER, Material.QUARTER,
+                    12 + 3 * (i % 4), 30.5, i % 2 == 0 ? 24 : 12);
+            cuts.add(cabinetBox.getSide());
+            cuts.add(cabinetBox.getSide());
+            cuts.add(cabinetBox.getBottom());
+            cuts.add(cabinetBox.getBack());
+            cuts.add(cabinetBox.getRunner());
+        }
+        return cuts;
+    }
+
+    @Test
+    void testRipsThenCrosscutsPerMaterial() {
+        List<Cut> cuts = List.of(Cut.withNoJoinedDimensions(30, 18, Material.THREE_QUARTER),
+                Cut.withNoJoinedDimensions(18, 24, Material.THREE_QUARTER),
+                Cut.withNoJoinedDimensions(30, 12, Material.THREE_QUARTER),
+                Cut.withNoJoinedDimensions(20, 10, Material.QUARTER));
+
+        CutScheduler.Schedule schedule = CutScheduler.schedule(cuts);
+
+        assertThat(schedule.getSteps()).extracting(CutScheduler.Step::getMaterial,
+                CutScheduler.Step::getPhase, CutScheduler.Step::getSetting,
+                CutScheduler.Step::getQuantity).containsExactly(
+                tuple(Material.QUARTER, CutScheduler.Phase.RIP, 10.0, 1),
+                tuple(Material.QUARTER, CutScheduler.Phase.CROSSCUT, 20.0, 1),
+                tuple(Material.THREE_QUARTER, CutScheduler.Phase.RIP, 18.0, 2),
+                tuple(Material.THREE_QUARTER, CutScheduler.Phase.RIP, 12.0, 1),
+                tuple(Material.THREE_QUARTER, CutScheduler.Phase.CROSSCUT, 30.0, 2),
+                tuple(Material.THREE_QUARTER, CutScheduler.Phase.CROSSCUT, 24.0, 1));
+        assertThat(schedule.getFenceChanges()).isEqualTo(6);
+        assertThat(schedule.getFenceChanges(Material.THREE_QUARTER)).isEqualTo(4);
+    }
+
+    @Test
+    void testSequenceFollowsCrosscutOrder() {
+        List<Cut> cuts = List.of(Cut.withNoJoinedDimensions(12, 30, Material.HALF),
+                Cut.withNoJoinedDimensions(36, 18, Material.HALF),
+                Cut.withNoJoinedDimensions(30, 10, Material.HALF));
+
+        List<Cut> sequence = CutScheduler.schedule(cuts).getSequence();
+
+        assertThat(sequence).extracting(cut -> cut.getDimensions().getFirst()).containsExactly(
+                36.0, 30.0, 30.0);
+        assertThat(sequence).extracting(cut -> cut.getDimensions().getSecond()).containsExactly(
+                18.0, 12.0, 10.0);
+    }
+
+    @Test
+    void testGroupingReducesFenceChanges() {
+        CutScheduler.Schedule schedule = CutScheduler.schedule(cabinets(100));
+
+        assertThat(schedule.getSequence()).hasSize(500);
+        assertThat(schedule.getFenceChanges()).isLessThan(20);
+        assertThat(schedule.getUnscheduledFenceChanges()).isGreaterThan(
+                10 * schedule.getFenceChanges());
+    }
+
+    @Test
+    void testCutListMatchesCuts() {
+        List<Cut> cuts = cabinets(20);
+        CutList cutList = new CutList();
+        cuts.forEach(cutList::add);
+
+        assertThat(CutScheduler.schedule(cutList).getSteps()).usingRecursiveFieldByFieldElementComparator()
+                .isEqualTo(CutScheduler.schedule(cuts).getSteps());
+    }
+
+    @Test
+    void testEmptyJob() {
+        CutScheduler.Schedule schedule = CutScheduler.schedule(List.of());
+
+        assertThat(schedule.getSteps()).isEmpty();
+        assertThat(schedule.getFenceChanges()).isZero();
+    }
+
+    @Test
+    void testQuantitiesCoverEveryCut() {
+        CutScheduler.Schedule schedule = CutScheduler.schedule(cabinets(2_000));
+
+        assertThat(schedule.getSteps().stream().filter(
+                step -> step.getPhase() == CutScheduler.Phase.RIP).mapToInt(
+                CutScheduler.Step::getQuantity).sum()).isEqualTo(10_000);
+        assertThat(schedule.getSteps().stream().filter(
+                step -> step.getPhase() == CutScheduler.Phase.CROSSCUT).mapToInt(
+                CutScheduler.Step::getQuantity).sum()).isEqualTo(10_000);
+    }
+}
@@ -58,6 +58,26 @@ class CutTest implements WithAssertions {
                     Cut.Dimensions.valueOf(6.0, 3.0));
         }
 
+        @Test
+        void testHashCodeIsSymmetric() {
+            assertThat(Cut.Dimensions.valueOf(3.0, 6.0).hashCode()).isEqualTo(
+                    Cut.Dimensions.valueOf(6.0, 3.0).hashCode());
+        }
+
+        @Test
+        void testEqualsIsExactForDecimalMeasurements() {
+            assertThat(Cut.Dimensions.valueOf(0.1 + 0.2, 6.0)).isEqualTo(
+                    Cut.Dimensions.valueOf(0.3, 6.0));
+        }
+
+        @Test
+        void testUnitsMatchMeasurement() {
+            Cut.Dimensions dimensions = Cut.Dimensions.valueOf(3.0, 6.0);
+
+            assertThat(dimensions.getFirstUnits()).isEqualTo(Measurement.toUnits(3.0));
+            assertThat(dimensions.getSecondUnits()).isEqualTo(Measurement.toUnits(6.0));
+        }
+
         @Test
         void testSelfIsEqualToSelf() {
             Cut.Dimensions dimensions = Cut.Dimensions.valueOf(3.0, 6.0);
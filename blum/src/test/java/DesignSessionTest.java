@@ -0,0 +1,175 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class DesignSessionTest implements WithAssertions {
+    private DesignSession session;
+    private List<Map<DesignSession.Panel, Cut>> notifications;
+
+    @BeforeEach
+    void setUp() {
+        session = DesignSession.create(Material.THREE_QUARTER, Material.QUARTER, 24, 30.5, 18);
+        notifications = new ArrayList<>();
+        session.addListener(notifications::add);
+    }
+
+    private void assertMatchesCabinetBox() {
+        CabinetBox cabinetBox = session.toCabinetBox();
+        assertThat(session.getCut(DesignSession.Panel.SIDE)).usingRecursiveComparison().isEqualTo(
+                cabinetBox.getSide());
+        assertThat(session.getCut(DesignSession.Panel.BOTTOM)).usingRecursiveComparison()
+                .isEqualTo(cabinetBox.getBottom());
+        assertThat(session.getCut(DesignSession.Panel.BACK)).usingRecursiveComparison().isEqualTo(
+                cabinetBox.getBack());
+        assertThat(session.getCut(DesignSession.Panel.RUNNER)).usingRecursiveComparison()
+                .isEqualTo(cabinetBox.getRunner());
+    }
+
+    @Nested
+    class Dependencies {
+        @Test
+        void testDepthChangesSideAndBottom() {
+            Map<DesignSession.Panel, Cut> changed = session.setDepth(21.75);
+
+            assertThat(changed).containsOnlyKeys(DesignSession.Panel.SIDE,
+                    DesignSession.Panel.BOTTOM);
+            assertMatchesCabinetBox();
+        }
+
+        @Test
+        void testBackMaterialChangesBack() {
+            Map<DesignSession.Panel, Cut> changed = session.setBackMaterial(Material.HALF);
+
+            assertThat(changed).containsOnlyKeys(DesignSession.Panel.BACK);
+            assertThat(changed.get(DesignSession.Panel.BACK).getMaterial()).isEqualTo(
+                    Material.HALF);
+            assertMatchesCabinetBox();
+        }
+
+        @Test
+        void testWidthChangesBottomBackAndRunner() {
+            Map<DesignSession.Panel, Cut> changed = session.setWidth(30);
+
+            assertThat(changed).containsOnlyKeys(DesignSession.Panel.BOTTOM,
+                    DesignSession.Panel.BACK, DesignSession.Panel.RUNNER);
+            assertMatchesCabinetBox();
+        }
+
+        @Test
+        void testHeightChangesSideAndBack() {
+            Map<DesignSession.Panel, Cut> changed = session.setHeight(34.5);
+
+            assertThat(changed).containsOnlyKeys(DesignSession.Panel.SIDE,
+                    DesignSession.Panel.BACK);
+            assertMatchesCabinetBox();
+        }
+
+        @Test
+        void testSideMaterialChangesEveryPanel() {
+            Map<DesignSession.Panel, Cut> changed = session.setSideMaterial(Material.HALF);
+
+            assertThat(changed).containsOnlyKeys(DesignSession.Panel.values());
+            assertMatchesCabinetBox();
+        }
+    }
+
+    @Nested
+    class Listeners {
+        @Test
+        void testListenerReceivesChangedCuts() {
+            session.setDepth(21.75);
+
+            assertThat(notifications).hasSize(1);
+            assertThat(notifications.get(0)).containsOnlyKeys(DesignSession.Panel.SIDE,
+                    DesignSession.Panel.BOTTOM);
+        }
+
+        @Test
+        void testUnchangedInputDoesNotNotify() {
+            assertThat(session.setWidth(24)).isEmpty();
+
+            assertThat(notifications).isEmpty();
+        }
+
+        @Test
+        void testSetSpecNotifiesOnce() {
+            session.set(CabinetSpec.of(Material.THREE_QUARTER, Material.HALF, 24, 34.5, 18));
+
+            assertThat(notifications).hasSize(1);
+            assertThat(notifications.get(0)).containsOnlyKeys(DesignSession.Panel.SIDE,
+                    DesignSession.Panel.BACK);
+            assertMatchesCabinetBox();
+        }
+
+        @Test
+        void testRemovedListenerIsNotNotified() {
+            List<Map<DesignSession.Panel, Cut>> other = new ArrayList<>();
+            DesignSession.Listener listener = other::add;
+            session.addListener(listener);
+            session.removeListener(listener);
+
+            session.setDepth(20);
+
+            assertThat(other).isEmpty();
+        }
+    }
+
+    @Test
+    void testInvalidEditLeavesSessionUnchanged() {
+        Cut side = session.getCut(DesignSession.Panel.SIDE);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> session.setDepth(0.5))
+                .withMessageContaining("Expected Cabinet depth");
+
+        assertThat(session.getCut(DesignSession.Panel.SIDE)).isSameAs(side);
+        assertThat(session.toSpec().getDepth()).isEqualTo(18);
+        assertThat(notifications).isEmpty();
+    }
+
+    @Test
+    void testNonFiniteEditLeavesSessionUnchanged() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> session.setWidth(Double.POSITIVE_INFINITY));
+
+        assertThat(session.toSpec().getWidth()).isEqualTo(24);
+        assertThat(notifications).isEmpty();
+        assertMatchesCabinetBox();
+    }
+
+    @Test
+    void testEditRejectedByCabinetBoxIsRejected() {
+        double width = 1.5000001;
+        assertThatThrownBy(() -> new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, width,
+                30.5, 18)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> session.setWidth(width))
+                .withMessageContaining("Expected Cabinet width");
+
+        assertThat(session.toSpec().getWidth()).isEqualTo(24);
+        assertThat(notifications).isEmpty();
+        assertMatchesCabinetBox();
+    }
+
+    @Test
+    void testCreateRejectsInvalidCabinet() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> DesignSession.create(Material.THREE_QUARTER, Material.QUARTER, 1, 30.5,
+                        18));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> DesignSession.create(Material.THREE_QUARTER, Material.QUARTER, 1.5000001,
+                        30.5, 18));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> DesignSession.create(Material.THREE_QUARTER, Material.QUARTER, Double.NaN,
+                        30.5, 18));
+    }
+
+    @Test
+    void testPanelsMatchCabinetBoxInitially() {
+        assertMatchesCabinetBox();
+    }
+}
@@ -0,0 +1,147 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+class DrawerBoxTest implements WithAssertions {
+    private final RunnerConfiguration runner;
+
+    DrawerBoxTest() throws IOException {
+        this.runner = new ObjectMapper().readValue(
+                "{\"sku\": \"A21\", \"max_load\": 100, \"min_drawer_side_thickness\": 0.5, " +
+                        "\"max_drawer_side_thickness\": 0.625, \"drawer_length\": 21, " +
+                        "\"min_cabinet_depth\": 21.8125, \"min_top_clearance\": 0.28125, " +
+                        "\"bottom_clearance\": 0.625, \"interior_offset\": 0.8125}",
+                RunnerConfiguration.class);
+    }
+
+    @Nested
+    class Create {
+        @Test
+        void testCutsFromCabinetOpening() {
+            CabinetBox cabinetBox = new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24,
+                    34.5, 24);
+
+            DrawerBox drawerBox = DrawerBox.create(cabinetBox, runner, Material.HALF,
+                    Material.QUARTER, 6);
+
+            // opening 22.5, inside 20.875, outside 21.875
+            assertThat(drawerBox.getWidth()).isEqualTo(21.875);
+            assertThat(drawerBox.getHeight()).isEqualTo(6);
+            assertThat(drawerBox.getLength()).isEqualTo(21);
+            assertThat(drawerBox.getSide().getDimensions().getFirst()).isEqualTo(21);
+            assertThat(drawerBox.getSide().getDimensions().getSecond()).isEqualTo(6);
+            assertThat(drawerBox.getFront().getDimensions().getFirst()).isEqualTo(20.875);
+            assertThat(drawerBox.getFront().getDimensions().getSecond()).isEqualTo(6);
+            assertThat(drawerBox.getBack()).isSameAs(drawerBox.getFront());
+            assertThat(drawerBox.getBottom().getDimensions().getFirst()).isEqualTo(21.375);
+            assertThat(drawerBox.getBottom().getDimensions().getSecond()).isEqualTo(20.5);
+            assertThat(drawerBox.getBottom().getMaterial()).isEqualTo(Material.QUARTER);
+        }
+
+        @Test
+        void testRejectsSideMaterialOutsideRunnerLimits() {
+            assertThatThrownBy(() -> DrawerBox.create(runner, Material.THREE_QUARTER,
+                    Material.QUARTER, 22.5, 23.75, 6)).isInstanceOf(
+                    IllegalArgumentException.class).hasMessageContaining("A21");
+        }
+
+        @Test
+        void testRejectsShallowOpening() {
+            assertThatThrownBy(() -> DrawerBox.create(runner, Material.HALF, Material.QUARTER,
+                    22.5, 21.75, 6)).isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("21.8125");
+        }
+
+        @Test
+        void testRejectsNarrowOpeningAndShortDrawer() {
+            assertThatThrownBy(() -> DrawerBox.create(runner, Material.HALF, Material.QUARTER,
+                    1.625, 23.75, 6)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> DrawerBox.create(runner, Material.HALF, Material.QUARTER,
+                    22.5, 23.75, 0.25)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    class CreateAll {
+        @Test
+        void testMatchesCreate() {
+            Random random = new Random(42);
+            int size = 1000;
+            double[] widths = new double[size];
+            double[] depths = new double[size];
+            double[] heights = new double[size];
+            for (int i = 0; i < size; i++) {
+                widths[i] = random.nextInt(8, 288) / 8.0;
+                depths[i] = random.nextInt(160, 200) / 8.0;
+                heights[i] = random.nextInt(0, 96) / 8.0;
+            }
+
+            DrawerBox.Batch batch = DrawerBox.createAll(runner, Material.HALF, Material.QUARTER,
+                    widths, depths, heights);
+
+            assertThat(batch.size()).isEqualTo(size);
+            int valid = 0;
+            for (int i = 0; i < size; i++) {
+                DrawerBox drawerBox;
+                try {
+                    drawerBox = DrawerBox.create(runner, Material.HALF, Material.QUARTER, widths[i],
+                            depths[i], heights[i]);
+                } catch (IllegalArgumentException e) {
+                    assertThat(batch.isValid(i)).as("row %d", i).isFalse();
+                    continue;
+                }
+                valid++;
+                assertThat(batch.isValid(i)).as("row %d", i).isTrue();
+                assertThat(batch.getCut(i, DrawerBox.Panel.SIDE)).usingRecursiveComparison()
+                        .isEqualTo(drawerBox.getSide());
+                assertThat(batch.getCut(i, DrawerBox.Panel.FRONT)).usingRecursiveComparison()
+                        .isEqualTo(drawerBox.getFront());
+                assertThat(batch.getCut(i, DrawerBox.Panel.BACK)).usingRecursiveComparison()
+                        .isEqualTo(drawerBox.getBack());
+                assertThat(batch.getCut(i, DrawerBox.Panel.BOTTOM)).usingRecursiveComparison()
+                        .isEqualTo(drawerBox.getBottom());
+            }
+            assertThat(valid).isPositive().isLessThan(size);
+            assertThat(batch.getValidCount()).isEqualTo(valid);
+        }
+
+        @Test
+        void testColumnsAreInUnits() {
+            DrawerBox.Batch batch = DrawerBox.createAll(runner, Material.HALF, Material.QUARTER,
+                    new double[]{22.5}, new double[]{23.75}, new double[]{6});
+
+            assertThat(batch.getColumn(DrawerBox.Column.FRONT_FIRST)).containsExactly(
+                    Measurement.toUnits(20.875));
+            assertThat(batch.getColumn(DrawerBox.Column.HEIGHT)).containsExactly(
+                    Measurement.toUnits(6));
+            assertThat(batch.getLengthUnits()).isEqualTo(Measurement.toUnits(21));
+        }
+
+        @Test
+        void testNonFiniteRowsAreInvalid() {
+            double[] widths = {22.5, Double.NaN, 22.5, 22.5, 1e300};
+            double[] depths = {23.75, 23.75, Double.POSITIVE_INFINITY, 23.75, 23.75};
+            double[] heights = {6, 6, 6, Double.NEGATIVE_INFINITY, 6};
+
+            DrawerBox.Batch batch = DrawerBox.createAll(runner, Material.HALF, Material.QUARTER,
+                    widths, depths, heights);
+
+            assertThat(batch.isValid(0)).isTrue();
+            for (int i = 1; i < widths.length; i++) {
+                assertThat(batch.isValid(i)).as("row %d", i).isFalse();
+            }
+            assertThat(batch.getValidCount()).isOne();
+        }
+
+        @Test
+        void testRejectsUnevenColumns() {
+            assertThatThrownBy(() -> DrawerBox.createAll(runner, Material.HALF, Material.QUARTER,
+                    new double[2], new double[2], new double[1])).isInstanceOf(
+                    IllegalArgumentException.class);
+        }
+    }
+}
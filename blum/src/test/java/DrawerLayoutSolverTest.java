@@ -0,0 +1,258 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+class DrawerLayoutSolverTest implements WithAssertions {
+    private static final double CLEARANCE = 0.625 + 0.28125;
+
+    private final RunnerConfiguration runner;
+
+    DrawerLayoutSolverTest() throws IOException {
+        this.runner = new ObjectMapper().readValue(
+                "{\"sku\": \"A21\", \"max_load\": 100, \"min_drawer_side_thickness\": 0.5, " +
+                        "\"max_drawer_side_thickness\": 0.625, \"drawer_length\": 21, " +
+                        "\"min_cabinet_depth\": 21.8125, \"min_top_clearance\": 0.28125, " +
+                        "\"bottom_clearance\": 0.625, \"interior_offset\": 0.8125}",
+                RunnerConfiguration.class);
+    }
+
+    /**
+     * Lists every non-decreasing sequence of <code>drawers</code> heights of at least
+     * <code>min</code> steps summing to <code>steps</code>, in order
+     */
+    private static void enumerate(int[] heights, int depth, int remaining, int min,
+            List<int[]> layouts) {
+        if (depth == heights.length) {
+            if (remaining == 0) {
+                layouts.add(heights.clone());
+            }
+            return;
+        }
+        for (int height = min; height <= remaining; height++) {
+            heights[depth] = height;
+            enumerate(heights, depth + 1, remaining - height, height, layouts);
+        }
+    }
+
+    private static List<int[]> bruteForce(double interiorHeight, int minSteps, int minDrawers,
+            int maxDrawers) {
+        List<int[]> layouts = new ArrayList<>();
+        for (int drawers = minDrawers; drawers <= maxDrawers; drawers++) {
+            int steps = (int) Math.floor((interiorHeight - drawers * CLEARANCE) / 0.125 + 1e-9);
+            if (steps >= 0) {
+                enumerate(new int[drawers], 0, steps, minSteps, layouts);
+            }
+        }
+        return layouts;
+    }
+
+    private static int[] steps(DrawerLayoutSolver.Layout layout) {
+        int[] steps = new int[layout.getDrawerCount()];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = (int) Math.round(layout.getDrawerHeight(i) / 0.125);
+        }
+        return steps;
+    }
+
+    @Nested
+    class Enumeration {
+        @Test
+        void testCountMatchesBruteForce() {
+            DrawerLayoutSolver solver = DrawerLayoutSolver.create(runner, 3, 2, 5,
+                    ForkJoinPool.commonPool());
+
+            DrawerLayoutSolver.Solution solution = solver.solve(20);
+
+            assertThat(solution.getCount()).isEqualTo(bruteForce(20, 24, 2, 5).size());
+        }
+
+        @Test
+        void testGetUnranksEveryLayoutInOrder() {
+            DrawerLayoutSolver solver = DrawerLayoutSolver.create(runner, 2, 1, 4,
+                    ForkJoinPool.commonPool());
+            DrawerLayoutSolver.Solution solution = solver.solve(16.5);
+            List<int[]> expected = bruteForce(16.5, 16, 1, 4);
+
+            assertThat(solution.getCount()).isEqualTo(expected.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertThat(steps(solution.get(i))).as("layout %d", i).isEqualTo(expected.get(i));
+                assertThat(solution.get(i).getIndex()).isEqualTo(i);
+            }
+        }
+
+        @Test
+        void testDrawersFillTheOpening() {
+            DrawerLayoutSolver.Solution solution = DrawerLayoutSolver.create(runner).solve(30);
+
+            DrawerLayoutSolver.Layout layout = solution.get(solution.getCount() - 1);
+            double used = 0;
+            for (double height : layout.getDrawerHeights()) {
+                used += height + CLEARANCE;
+            }
+            assertThat(used + solution.getGap(layout.getDrawerCount())).isCloseTo(30,
+                    within(1e-9));
+            assertThat(solution.getGap(layout.getDrawerCount())).isBetween(0.0, 0.125);
+        }
+
+        @Test
+        void testCountsPerDrawerCount() {
+            DrawerLayoutSolver.Solution solution = DrawerLayoutSolver.create(runner).solve(30);
+
+            assertThat(solution.getCount(3) + solution.getCount(4) + solution.getCount(
+                    5)).isEqualTo(solution.getCount());
+            assertThat(solution.getCount(2)).isZero();
+            assertThat(solution.getCount(3)).isPositive();
+        }
+
+        @Test
+        void testOpeningTooShortHasNoLayouts() {
+            DrawerLayoutSolver.Solution solution = DrawerLayoutSolver.create(runner).solve(6);
+
+            assertThat(solution.getCount()).isZero();
+            assertThatThrownBy(() -> solution.get(0)).isInstanceOf(
+                    IndexOutOfBoundsException.class);
+            assertThat(solution.getRanked(5)).isEmpty();
+        }
+
+        @Test
+        void testSolveCabinetSubtractsBottomAndRunner() {
+            DrawerLayoutSolver solver = DrawerLayoutSolver.create(runner);
+            CabinetBox cabinetBox = new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24,
+                    34.5, 24);
+
+            assertThat(solver.solve(cabinetBox).getCount()).isEqualTo(
+                    solver.solve(33).getCount());
+        }
+
+        @Test
+        void testSolveCabinetRejectsShallowCabinet() {
+            CabinetBox cabinetBox = new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24,
+                    34.5, 18);
+
+            assertThatThrownBy(() -> DrawerLayoutSolver.create(runner).solve(cabinetBox))
+                    .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("A21");
+        }
+
+        @Test
+        void testSolveCabinetChecksOpeningDepthLikeDrawerBox() {
+            CabinetBox cabinetBox = new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24,
+                    34.5, runner.getMinCabinetDepth());
+
+            assertThatThrownBy(() -> DrawerLayoutSolver.create(runner).solve(cabinetBox))
+                    .isInstanceOf(IllegalArgumentException.class).hasMessageContaining(
+                            "opening");
+            assertThatThrownBy(() -> DrawerBox.create(cabinetBox, runner, Material.HALF,
+                    Material.QUARTER, 6)).isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("opening");
+        }
+
+        @Test
+        void testSolveTallestOpeningCountsWithoutOverflow() {
+            DrawerLayoutSolver.Solution solution = DrawerLayoutSolver.create(runner, 0.125, 1,
+                    DrawerLayoutSolver.MAX_DRAWERS, ForkJoinPool.commonPool()).solve(
+                    DrawerLayoutSolver.MAX_INTERIOR_HEIGHT);
+
+            for (int drawers = 2; drawers <= DrawerLayoutSolver.MAX_DRAWERS; drawers++) {
+                assertThat(solution.getCount(drawers)).isGreaterThan(
+                        solution.getCount(drawers - 1));
+            }
+        }
+
+        @Test
+        void testSolveRejectsTooTallOpening() {
+            assertThatIllegalArgumentException().isThrownBy(() -> DrawerLayoutSolver.create(runner)
+                    .solve(DrawerLayoutSolver.MAX_INTERIOR_HEIGHT + 1));
+        }
+
+        @Test
+        void testCreateRejectsBadDrawerCounts() {
+            assertThatThrownBy(() -> DrawerLayoutSolver.create(runner, 3, 4, 3,
+                    ForkJoinPool.commonPool())).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> DrawerLayoutSolver.create(runner, 0, 1, 3,
+                    ForkJoinPool.commonPool())).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    class Ranking {
+        @Test
+        void testRankedMatchesSortingEveryLayout() {
+            DrawerLayoutSolver.Solution solution = DrawerLayoutSolver.create(runner).solve(24);
+            List<DrawerLayoutSolver.Layout> all = new ArrayList<>();
+            for (long i = 0; i < solution.getCount(); i++) {
+                all.add(solution.get(i));
+            }
+            all.sort(Comparator.comparingLong(DrawerLayoutSolver.Layout::getScore).thenComparingLong(
+                    DrawerLayoutSolver.Layout::getIndex));
+
+            List<DrawerLayoutSolver.Layout> ranked = solution.getRanked(20);
+
+            assertThat(ranked).extracting(DrawerLayoutSolver.Layout::getIndex).containsExactlyElementsOf(
+                    all.subList(0, 20).stream().map(DrawerLayoutSolver.Layout::getIndex).toList());
+        }
+
+        @Test
+        void testParallelRankingMatchesSequential() {
+            DrawerLayoutSolver.Solution solution = DrawerLayoutSolver.create(runner, 2, 4, 6,
+                    ForkJoinPool.commonPool()).solve(36);
+            assertThat(solution.getCount(6)).isGreaterThan(DrawerLayoutSolver.PARALLEL_THRESHOLD);
+
+            List<DrawerLayoutSolver.Layout> parallel = solution.getRanked(10);
+            List<DrawerLayoutSolver.Layout> sequential;
+            ForkJoinPool pool = new ForkJoinPool(1);
+            try {
+                sequential = DrawerLayoutSolver.create(runner, 2, 4, 6, pool).solve(36)
+                        .getRanked(10);
+            } finally {
+                pool.shutdown();
+            }
+
+            assertThat(parallel).extracting(DrawerLayoutSolver.Layout::getIndex).containsExactlyElementsOf(
+                    sequential.stream().map(DrawerLayoutSolver.Layout::getIndex).toList());
+        }
+
+        @Test
+        void testSingleDrawerIsRanked() {
+            ForkJoinPool pool = new ForkJoinPool(1);
+            try {
+                DrawerLayoutSolver.Solution single = DrawerLayoutSolver.create(runner, 3, 1, 1,
+                        pool).solve(20);
+                assertThat(single.getRanked(5)).extracting(DrawerLayoutSolver.Layout::getIndex)
+                        .containsExactly(0L);
+                assertThat(single.getRanked(5).get(0).getDrawerHeights()).containsExactly(
+                        single.get(0).getDrawerHeights());
+
+                DrawerLayoutSolver.Solution solution = DrawerLayoutSolver.create(runner, 3, 1, 3,
+                        pool).solve(20);
+                List<DrawerLayoutSolver.Layout> all = new ArrayList<>();
+                for (long i = 0; i < solution.getCount(); i++) {
+                    all.add(solution.get(i));
+                }
+                all.sort(Comparator.comparingLong(DrawerLayoutSolver.Layout::getScore)
+                        .thenComparingLong(DrawerLayoutSolver.Layout::getIndex));
+
+                assertThat(solution.getRanked(all.size())).extracting(
+                        DrawerLayoutSolver.Layout::getIndex).containsExactlyElementsOf(
+                        all.stream().map(DrawerLayoutSolver.Layout::getIndex).toList());
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        @Test
+        void testBestLayoutGrowsByPreferredIncrement() {
+            DrawerLayoutSolver.Layout best = DrawerLayoutSolver.create(runner).solve(33.5)
+                    .getRanked(1).get(0);
+
+            assertThat(best.getDrawerHeights()).containsExactly(9.25, 10.25, 11.25);
+            assertThat(best.getScore()).isZero();
+        }
+    }
+}
@@ -26,4 +26,12 @@ class JointTest implements WithAssertions {
         assertThat(Joint.create(Material.QUARTER,
                 Joint.JointType.BUTT).getJoinedDimensionOffset()).isEqualTo(0.5);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testOffsetUnitsMatchOffset() {
+        Joint joint = Joint.create(Material.QUARTER, Joint.JointType.SINGLE_SIDE_DADO);
+
+        assertThat(joint.getJoinedDimensionOffsetUnits()).isEqualTo(
+                Measurement.toUnits(joint.getJoinedDimensionOffset()));
+    }
+}
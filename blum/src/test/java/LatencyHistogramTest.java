@@ -0,0 +1,68 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest implements WithAssertions {
+
+    @Test
+    void testEmptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getValueAtPercentile(99)).isZero();
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(50);
+        assertThat(histogram.getValueAtPercentile(99)).isEqualTo(99);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(100);
+        assertThat(histogram.getMean()).isEqualTo(50.5);
+    }
+
+    @Test
+    void testLargeValuesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        assertThat(histogram.getValueAtPercentile(50)).isCloseTo(5_000_000L,
+                withinPercentage(1.6));
+        assertThat(histogram.getValueAtPercentile(99.9)).isCloseTo(9_990_000L,
+                withinPercentage(1.6));
+        assertThat(histogram.getMax()).isEqualTo(10_000_000L);
+    }
+
+    @Test
+    void testEveryValueMapsIntoItsBucket() {
+        for (long value : new long[]{0, 127, 128, 129, 1_000_003, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+
+            assertThat(LatencyHistogram.highestEquivalentValue(index)).isGreaterThanOrEqualTo(
+                    value);
+            if (index > 0) {
+                assertThat(LatencyHistogram.highestEquivalentValue(index - 1)).isLessThan(value);
+            }
+        }
+    }
+
+    @Test
+    void testResetClearsValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42);
+        histogram.reset();
+
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getMax()).isZero();
+    }
+
+    @Test
+    void testNegativeValueIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new LatencyHistogram().record(-1));
+    }
+}
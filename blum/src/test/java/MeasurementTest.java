@@ -0,0 +1,89 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+class MeasurementTest implements WithAssertions {
+
+    @Test
+    void testBinaryFractionsRoundTrip() {
+        for (double inches : new double[]{0.28125, 18.8125, 34.125, 1.0 / 2048}) {
+            assertThat(Measurement.toInches(Measurement.toUnits(inches))).isEqualTo(inches);
+        }
+    }
+
+    @Test
+    void testDecimalInchesRoundTrip() {
+        for (double inches : new double[]{15.7, 0.001, 21.125, 33.333}) {
+            assertThat(Measurement.toInches(Measurement.toUnits(inches))).isEqualTo(inches);
+        }
+    }
+
+    @Test
+    void testOneInchIsUnitsPerInch() {
+        assertThat(Measurement.toUnits(1)).isEqualTo(Measurement.UNITS_PER_INCH);
+    }
+
+    @Test
+    void testMultiplyRoundsToNearestUnit() {
+        assertThat(Measurement.multiply(Measurement.toUnits(0.75), 1, 2)).isEqualTo(
+                Measurement.toUnits(0.375));
+        assertThat(Measurement.multiply(5, 1, 2)).isEqualTo(3);
+        assertThat(Measurement.multiply(-5, 1, 2)).isEqualTo(-2);
+        assertThat(Measurement.multiply(7, 2, 3)).isEqualTo(5);
+    }
+
+    @Test
+    void testNonFiniteMeasurementIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> Measurement.toUnits(Double.NaN));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> Measurement.toUnits(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void testPutInchesRoundsToFourPlaces() {
+        for (double inches : new double[]{0, 3, 34.125, 0.0625, 1.0 / 3, -15.75, 12345678}) {
+            byte[] bytes = new byte[Measurement.MAX_FORMATTED_LENGTH];
+            int end = Measurement.putInches(bytes, 0, Measurement.toUnits(inches));
+
+            assertThat(Double.parseDouble(new String(bytes, 0, end))).isCloseTo(inches,
+                    within(0.00005));
+        }
+    }
+
+    @Test
+    void testPutInchesOmitsTrailingZeros() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Measurement.MAX_FORMATTED_LENGTH * 3);
+        Measurement.putInches(buffer, Measurement.toUnits(34.5));
+        buffer.put((byte) ' ');
+        Measurement.putInches(buffer, Measurement.toUnits(0.0625));
+        buffer.put((byte) ' ');
+        Measurement.putInches(buffer, Measurement.toUnits(24));
+
+        byte[] bytes = new byte[buffer.flip().remaining()];
+        buffer.get(bytes);
+        assertThat(new String(bytes)).isEqualTo("34.5 0.0625 24");
+    }
+
+    @Test
+    void testPutInchesDoesNotOverflowLargeMeasurements() {
+        byte[] bytes = new byte[Measurement.MAX_FORMATTED_LENGTH];
+
+        int end = Measurement.putInches(bytes, 0, Measurement.toUnits(1e12));
+        assertThat(new String(bytes, 0, end)).isEqualTo("1000000000000");
+
+        end = Measurement.putInches(bytes, 0, Measurement.toUnits(-1e12 - 0.5));
+        assertThat(new String(bytes, 0, end)).isEqualTo("-1000000000000.5");
+
+        end = Measurement.putInches(bytes, 0, Long.MIN_VALUE);
+        assertThat(new String(bytes, 0, end)).isEqualTo("-36028797018963.968");
+    }
+
+    @Test
+    void testPutInchesCarriesRoundedFractionIntoWholeInches() {
+        byte[] bytes = new byte[Measurement.MAX_FORMATTED_LENGTH];
+
+        int end = Measurement.putInches(bytes, 0, Measurement.UNITS_PER_INCH * 3 - 1);
+        assertThat(new String(bytes, 0, end)).isEqualTo("3");
+    }
+}
@@ -0,0 +1,133 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+class MetricsTest implements WithAssertions {
+
+    @BeforeEach
+    void setUp() {
+        assertThat(Metrics.isEnabled()).as("tests run with -D%s=true",
+                Metrics.ENABLED_PROPERTY).isTrue();
+        Metrics.reset();
+    }
+
+    @Test
+    void testCabinetBoxConstructionIsCountedAndTimed() {
+        new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24, 30.5, 18);
+        new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 12, 30.5, 18);
+
+        assertThat(Metrics.CABINET_BOXES.get()).isEqualTo(2);
+        assertThat(Metrics.CABINET_BOX_CONSTRUCTION.getHistogram().getCount()).isEqualTo(2);
+        assertThat(Metrics.CABINET_BOX_VALIDATION_FAILURES.get()).isZero();
+    }
+
+    @Test
+    void testCabinetBoxAllocationIsCounted() {
+        new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24, 30.5, 18);
+
+        assertThat(Metrics.CABINET_BOX_ALLOCATED_BYTES.get()).isPositive();
+    }
+
+    @Test
+    void testValidationFailureIsCounted() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 1, 30.5, 18));
+
+        assertThat(Metrics.CABINET_BOX_VALIDATION_FAILURES.get()).isEqualTo(1);
+        assertThat(Metrics.CABINET_BOXES.get()).isZero();
+    }
+
+    @Test
+    void testJointOffsetsAreCounted() {
+        Joint joint = Joint.create(Material.HALF, Joint.JointType.DADO);
+        joint.getJoinedDimensionOffset();
+        joint.getJoinedDimensionOffsetUnits();
+
+        assertThat(Metrics.JOINT_OFFSETS.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testFormattingIsTimed() {
+        new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24, 30.5, 18).toString();
+
+        assertThat(Metrics.OUTPUT_FORMATTING.getHistogram().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testWritePrometheus() throws IOException {
+        new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24, 30.5, 18);
+        StringBuilder out = new StringBuilder();
+
+        Metrics.writePrometheus(out);
+
+        assertThat(out.toString()).contains("# HELP blum_cabinet_boxes_total CabinetBoxes constructed\n" +
+                "# TYPE blum_cabinet_boxes_total counter\n" + "blum_cabinet_boxes_total 1\n").contains(
+                "# TYPE blum_cabinet_box_construction_seconds summary\n").contains(
+                "blum_cabinet_box_construction_seconds{quantile=\"0.99\"} ").contains(
+                "blum_cabinet_box_construction_seconds_count 1\n");
+    }
+
+    @Test
+    void testScheduleDumpWritesPeriodically() throws InterruptedException {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        StringWriter out = new StringWriter();
+        try {
+            ScheduledFuture<?> dump = Metrics.scheduleDump(executor, Duration.ofMillis(10), out);
+            while (count(out.toString(), "# TYPE blum_joint_offsets_total") < 2) {
+                Thread.sleep(10);
+            }
+            dump.cancel(false);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(out.toString()).contains("blum_joint_offsets_total ");
+    }
+
+    @Test
+    void testDisabledMetricsDoNotTrackAllocation() throws ReflectiveOperationException,
+            IOException {
+        String enabled = System.clearProperty(Metrics.ENABLED_PROPERTY);
+        try (IsolatedClassLoader loader = new IsolatedClassLoader()) {
+            Class<?> metrics = Class.forName(Metrics.class.getName(), true, loader);
+
+            assertThat(metrics.getMethod("isEnabled").invoke(null)).isEqualTo(false);
+            assertThat(metrics.getMethod("allocatedBytes").invoke(null)).isEqualTo(0L);
+            assertThat(loader.isLoaded(Metrics.class.getName() + "$Allocation")).isFalse();
+        } finally {
+            System.setProperty(Metrics.ENABLED_PROPERTY, enabled);
+        }
+    }
+
+    /**
+     * Loads the application classes again, so that <code>Metrics</code> reads the system property
+     * afresh
+     */
+    private static class IsolatedClassLoader extends URLClassLoader {
+        IsolatedClassLoader() {
+            super(new URL[]{Metrics.class.getProtectionDomain().getCodeSource().getLocation()},
+                    ClassLoader.getPlatformClassLoader());
+        }
+
+        boolean isLoaded(String name) {
+            return findLoadedClass(name) != null;
+        }
+    }
+
+    private static int count(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
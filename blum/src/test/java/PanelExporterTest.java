@@ -0,0 +1,143 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+class PanelExporterTest implements WithAssertions {
+    private static final CabinetBox CABINET_BOX = new CabinetBox(Material.THREE_QUARTER,
+            Material.QUARTER, 24, 30.5, 18);
+
+    private static String export(PanelExporter.Format format, CabinetBox... cabinetBoxes)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PanelExporter.create(format).export(List.of(cabinetBoxes), Channels.newChannel(out));
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static int count(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    @Nested
+    class Svg {
+        @Test
+        void testDrawsEveryPanelAndGroove() throws IOException {
+            String svg = export(PanelExporter.Format.SVG, CABINET_BOX);
+
+            assertThat(svg).startsWith("<?xml").endsWith("</svg>\n");
+            assertThat(count(svg, "class=\"OUTLINE\"")).isEqualTo(5);
+            assertThat(count(svg, "class=\"DADO_0_375\"")).isEqualTo(5);
+        }
+
+        @Test
+        void testPanelsAreLaidOutLeftToRight() throws IOException {
+            String svg = export(PanelExporter.Format.SVG, CABINET_BOX);
+
+            assertThat(svg).contains(
+                    "<rect class=\"OUTLINE\" x=\"0\" y=\"0\" width=\"30.5\" height=\"18\"");
+            assertThat(svg).contains(
+                    "<rect class=\"OUTLINE\" x=\"31.5\" y=\"0\" width=\"30.5\" height=\"18\"");
+            assertThat(svg).contains(
+                    "<rect class=\"OUTLINE\" x=\"63\" y=\"0\" width=\"23.25\" height=\"18\"");
+            assertThat(svg).contains(
+                    "<rect class=\"DADO_0_375\" x=\"63\" y=\"17.75\" width=\"23.25\" height=\"0.25\"");
+        }
+
+        @Test
+        void testDocumentSizeCoversEveryPanel() throws IOException {
+            String svg = export(PanelExporter.Format.SVG, CABINET_BOX);
+
+            // 2 x 30.5 + 23.25 + 23.25 + 22.5 plus 1" after each panel
+            assertThat(svg).contains("width=\"135in\" height=\"30.125in\"");
+        }
+    }
+
+    @Nested
+    class Dxf {
+        @Test
+        void testDrawsClosedPolylines() throws IOException {
+            String dxf = export(PanelExporter.Format.DXF, CABINET_BOX);
+
+            assertThat(dxf).startsWith("0\nSECTION\n2\nHEADER\n9\n$ACADVER\n1\nAC1009\n")
+                    .endsWith("0\nENDSEC\n0\nEOF\n");
+            assertThat(count(dxf, "0\nPOLYLINE\n")).isEqualTo(10);
+            assertThat(count(dxf, "0\nVERTEX\n")).isEqualTo(40);
+            assertThat(count(dxf, "0\nSEQEND\n")).isEqualTo(10);
+            assertThat(count(dxf, "0\nPOLYLINE\n8\nOUTLINE\n")).isEqualTo(5);
+            assertThat(count(dxf, "0\nPOLYLINE\n8\nDADO_0_375\n")).isEqualTo(5);
+        }
+
+        @Test
+        void testUsesOnlyRelease12HeaderVariablesAndLayerNames() throws IOException {
+            String dxf = export(PanelExporter.Format.DXF, CABINET_BOX);
+
+            assertThat(dxf).doesNotContain("$INSUNITS");
+            String[] lines = dxf.split("\n");
+            for (int i = 0; i + 1 < lines.length; i += 2) {
+                if (lines[i].equals("8")) {
+                    assertThat(lines[i + 1]).matches("[A-Za-z0-9$_-]+");
+                }
+            }
+        }
+
+        @Test
+        void testWritesVerticesInInches() throws IOException {
+            String dxf = export(PanelExporter.Format.DXF, CABINET_BOX);
+
+            assertThat(dxf).contains("0\nPOLYLINE\n8\nOUTLINE\n66\n1\n70\n1\n10\n0\n20\n0\n30\n0\n" +
+                    "0\nVERTEX\n8\nOUTLINE\n10\n0\n20\n0\n30\n0\n" +
+                    "0\nVERTEX\n8\nOUTLINE\n10\n30.5\n20\n0\n30\n0\n" +
+                    "0\nVERTEX\n8\nOUTLINE\n10\n30.5\n20\n18\n30\n0\n" +
+                    "0\nVERTEX\n8\nOUTLINE\n10\n0\n20\n18\n30\n0\n0\nSEQEND\n8\nOUTLINE\n");
+        }
+    }
+
+    @Test
+    void testExportLargerThanBuffer() throws IOException {
+        CabinetBox[] cabinetBoxes = Collections.nCopies(1_000, CABINET_BOX).toArray(
+                new CabinetBox[0]);
+
+        String svg = export(PanelExporter.Format.SVG, cabinetBoxes);
+
+        assertThat(svg.length()).isGreaterThan(PanelExporter.BUFFER_SIZE);
+        assertThat(count(svg, "<rect ")).isEqualTo(10_000);
+        assertThat(svg).endsWith("</svg>\n");
+    }
+
+    @Test
+    void testExporterIsReusable() throws IOException {
+        PanelExporter exporter = PanelExporter.create(PanelExporter.Format.DXF);
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+
+        exporter.export(CABINET_BOX, Channels.newChannel(first));
+        exporter.export(CABINET_BOX, Channels.newChannel(second));
+
+        assertThat(second.toByteArray()).isEqualTo(first.toByteArray());
+    }
+
+    @Test
+    void testCutListExportDrawsOutlinesOnly() throws IOException {
+        CutList cutList = new CutList();
+        cutList.add(3.0625, 6, Material.HALF);
+        cutList.add(4, 8.33333, Material.HALF);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        PanelExporter.create(PanelExporter.Format.SVG).export(cutList, Channels.newChannel(out));
+
+        String svg = out.toString(StandardCharsets.US_ASCII);
+        assertThat(count(svg, "<rect ")).isEqualTo(2);
+        assertThat(svg).contains("x=\"0\" y=\"0\" width=\"3.0625\" height=\"6\"");
+        assertThat(svg).contains("x=\"4.0625\" y=\"0\" width=\"4\" height=\"8.3333\"");
+    }
+}
@@ -0,0 +1,206 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+class PipeClientTest implements WithAssertions {
+    private final StringWriter errors = new StringWriter();
+    private BatchClient.Summary lastSummary;
+
+    private String run(PipeClient client, String input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        lastSummary = client.run(
+                Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))),
+                Channels.newChannel(output), errors);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private String run(String input) throws IOException {
+        return run(PipeClient.create(), input);
+    }
+
+    @Nested
+    class Output {
+        @Test
+        void testCutsMatchCabinetBox() throws IOException {
+            String output = run("15.75,34.5,21.75\n24,30,12,HALF,QUARTER\n");
+
+            String[] lines = output.split("\n");
+            assertThat(lines[0] + "\n").isEqualTo(PipeClient.HEADER);
+            assertThat(lines).hasSize(3);
+            assertThat(lines[1]).isEqualTo(format(
+                    new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 15.75, 34.5, 21.75)));
+            assertThat(lines[2]).isEqualTo(
+                    format(new CabinetBox(Material.HALF, Material.QUARTER, 24, 30, 12)));
+            assertThat(lastSummary.getAccepted()).isEqualTo(2);
+            assertThat(lastSummary.getRejected()).isZero();
+        }
+
+        @Test
+        void testReadmeExample() throws IOException {
+            assertThat(run("15.75,34.5,21.75").split("\n")[1]).isEqualTo(
+                    "15.75,34.5,21.75,THREE_QUARTER,QUARTER,34.5,21.75,15,21.75,15,34.125,14.25,3");
+        }
+
+        @Test
+        void testJsonLinesAreAccepted() throws IOException {
+            String output = run("{\"width\": 24, \"height\": 30, \"depth\": 12, " +
+                    "\"side_material\": \"HALF\"}\n");
+
+            assertThat(output.split("\n")[1]).isEqualTo(
+                    format(new CabinetBox(Material.HALF, Material.QUARTER, 24, 30, 12)));
+        }
+
+        @Test
+        void testSkipsHeaderCommentsAndBlankLines() throws IOException {
+            String output = run("Width,Height,Depth\r\n# kitchen\r\n\r\n 24 , 30 , 12 \r\n");
+
+            assertThat(output.split("\n")).hasSize(2);
+            assertThat(lastSummary.getAccepted()).isOne();
+            assertThat(errors.toString()).isEmpty();
+        }
+
+        @Test
+        void testSmallBufferMatchesLargeBuffer() throws IOException {
+            StringBuilder input = new StringBuilder();
+            for (int i = 0; i < 200; i++) {
+                input.append(12 + i % 30).append(".125,").append(30 + i % 7).append(",")
+                        .append(12 + i % 13).append(".5\n");
+            }
+
+            assertThat(run(PipeClient.create(24), input.toString())).isEqualTo(
+                    run(input.toString()));
+        }
+
+        private String format(CabinetBox cabinetBox) {
+            ByteBuffer buffer = ByteBuffer.allocate(512);
+            Cut[] cuts = {cabinetBox.getSide(), cabinetBox.getBottom(), cabinetBox.getBack(),
+                    cabinetBox.getRunner()};
+            Measurement.putInches(buffer, Measurement.toUnits(cabinetBox.getWidth()));
+            buffer.put((byte) ',');
+            Measurement.putInches(buffer, Measurement.toUnits(cabinetBox.getHeight()));
+            buffer.put((byte) ',');
+            Measurement.putInches(buffer, Measurement.toUnits(cabinetBox.getDepth()));
+            buffer.put(("," + cabinetBox.getSide().getMaterial().name() + "," + cabinetBox
+                    .getBack().getMaterial().name()).getBytes(StandardCharsets.US_ASCII));
+            for (Cut cut : cuts) {
+                buffer.put((byte) ',');
+                Measurement.putInches(buffer, cut.getDimensions().getFirstUnits());
+                buffer.put((byte) ',');
+                Measurement.putInches(buffer, cut.getDimensions().getSecondUnits());
+            }
+            return new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII);
+        }
+    }
+
+    @Nested
+    class Rejections {
+        @Test
+        void testRejectedLinesMatchBatchMessages() throws IOException {
+            String output = run("24,30\n1,30,12\n24,30,12,WALNUT,QUARTER\n24,abc,12\n24,30,12\n");
+
+            assertThat(output.split("\n")).hasSize(2);
+            assertThat(lastSummary.getAccepted()).isOne();
+            assertThat(lastSummary.getRejected()).isEqualTo(4);
+            assertThat(errors.toString()).contains(
+                    "line 1: Expected 3 or 5 comma separated fields but received 2",
+                    "line 2: " + CabinetValidator.getMessage(CabinetValidator.Rule.WIDTH.getBit(),
+                            Material.THREE_QUARTER, Material.QUARTER, 1, 30, 12),
+                    "line 3: Expected a Material name but received WALNUT",
+                    "line 4: For input string: \"abc\"");
+        }
+
+        @Test
+        void testLineLongerThanBufferIsRejected() throws IOException {
+            String output = run(PipeClient.create(32),
+                    "24,30,12\n" + "1".repeat(100) + ",30,12\n24,30,12\n");
+
+            assertThat(output.split("\n")).hasSize(3);
+            assertThat(lastSummary.getRejected()).isOne();
+            assertThat(errors.toString()).startsWith("line 2: Expected a line of at most 32 bytes");
+        }
+
+        @Test
+        void testInfiniteMeasurementIsRejected() throws IOException {
+            run("1e400,30,12\nInfinity,30,18\n24,30,-Infinity\n");
+
+            assertThat(lastSummary.getAccepted()).isZero();
+            assertThat(lastSummary.getRejected()).isEqualTo(3);
+        }
+
+        @Test
+        void testWidthJustAboveMinimumIsRejectedLikeCabinetBox() throws IOException {
+            assertThatIllegalArgumentException().isThrownBy(
+                    () -> new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 1.5000001, 30,
+                            24));
+
+            String output = run("1.5000001,30,24\n1.5039,30,24\n");
+
+            assertThat(output.split("\n")).hasSize(2);
+            assertThat(output.split("\n")[1]).startsWith("1.5039,30,24,");
+            assertThat(lastSummary.getRejected()).isOne();
+            assertThat(errors.toString()).isEqualTo(
+                    "line 1: " + CabinetValidator.getMessage(CabinetValidator.Rule.WIDTH.getBit(),
+                            Material.THREE_QUARTER, Material.QUARTER, 1.5, 30, 24) + "\n");
+        }
+
+        @Test
+        void testHugeMeasurementIsWrittenExactlyOrRejected() throws IOException {
+            String output = run("1e12,30,18\n1e14,30,18\n");
+
+            assertThat(lastSummary.getAccepted()).isOne();
+            assertThat(lastSummary.getRejected()).isOne();
+            assertThat(output.split("\n")[1]).startsWith("1000000000000,30,18,");
+            assertThat(errors.toString()).startsWith("line 2: Expected a finite measurement");
+        }
+    }
+
+    @Nested
+    class ParseDecimal {
+        private double parse(String text) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+            buffer.put(text.getBytes(StandardCharsets.US_ASCII));
+            return PipeClient.parseDecimal(buffer, 0, text.length());
+        }
+
+        @Test
+        void testPlainDecimals() {
+            assertThat(parse("34.5")).isEqualTo(34.5);
+            assertThat(parse(" 0.125 ")).isEqualTo(0.125);
+            assertThat(parse("-12")).isEqualTo(-12);
+            assertThat(parse(".75")).isEqualTo(0.75);
+            assertThat(parse("24.")).isEqualTo(24);
+        }
+
+        @Test
+        void testMatchesParseDouble() {
+            Random random = new Random(42);
+            for (int i = 0; i < 10_000; i++) {
+                String text = Long.toString(random.nextLong(1_000_000_000_000L)) + "." + random.nextInt(
+                        1000);
+                text = text.substring(0, Math.min(text.length(), 18));
+                assertThat(parse(text)).as(text).isEqualTo(Double.parseDouble(text));
+            }
+        }
+
+        @Test
+        void testFallsBackForExponentsAndLongNumbers() {
+            assertThat(parse("2.5e1")).isEqualTo(25);
+            assertThat(parse("12345678901234567890.5")).isEqualTo(12345678901234567890.5);
+        }
+
+        @Test
+        void testRejectsNonNumbers() {
+            assertThatThrownBy(() -> parse("-")).isInstanceOf(NumberFormatException.class);
+            assertThatThrownBy(() -> parse("1.2.3")).isInstanceOf(NumberFormatException.class);
+        }
+    }
+}
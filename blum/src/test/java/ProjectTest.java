@@ -0,0 +1,150 @@
+import org.assertj.core.api.WithAssertions;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+class ProjectTest implements WithAssertions {
+    private static final Offset<Double> PRECISION = Offset.offset(1e-6);
+
+    private static CabinetBox standard() {
+        return new CabinetBox(Material.THREE_QUARTER, Material.QUARTER, 24, 30.5, 18);
+    }
+
+    private static List<CabinetBox> kitchen(int size) {
+        List<CabinetBox> cabinetBoxes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            cabinetBoxes.add(new CabinetBox(i % 3 == 0 ? Material.HALF : Material.THREE_QUARTER,
+                    Material.QUARTER, 9 + i % 40, 30.5 + i % 5, 12 + i % 13));
+        }
+        return cabinetBoxes;
+    }
+
+    @Nested
+    class SingleCabinet {
+        @Test
+        void testPanelsPerMaterial() {
+            Project project = Project.create();
+            project.add(standard());
+
+            Project.Totals totals = project.getTotals();
+            assertThat(totals.getPanels(Material.THREE_QUARTER)).isEqualTo(4);
+            assertThat(totals.getPanels(Material.QUARTER)).isEqualTo(1);
+            assertThat(totals.getPanels(Material.HALF)).isZero();
+        }
+
+        @Test
+        void testSquareFeet() {
+            Project project = Project.create();
+            project.add(standard());
+
+            // 2 sides 30.5x18, bottom 23.25x18, runner 22.5x3
+            assertThat(project.getTotals().getSquareFeet(Material.THREE_QUARTER)).isCloseTo(
+                    (2 * 30.5 * 18 + 23.25 * 18 + 22.5 * 3) / 144, PRECISION);
+            // back 23.25x30.125
+            assertThat(project.getTotals().getSquareFeet(Material.QUARTER)).isCloseTo(
+                    23.25 * 30.125 / 144, PRECISION);
+        }
+
+        @Test
+        void testDadoFeet() {
+            Project project = Project.create();
+            project.add(standard());
+
+            // each side grooved along its depth and height, the bottom along its width
+            assertThat(project.getTotals().getDadoFeet(Material.THREE_QUARTER)).isCloseTo(
+                    (2 * (18 + 30.5) + 23.25) / 12, PRECISION);
+            assertThat(project.getTotals().getDadoFeet(Material.QUARTER)).isZero();
+        }
+
+        @Test
+        void testSheets() {
+            Project project = Project.create();
+            project.add(standard());
+
+            assertThat(project.getTotals().getSheets(Material.THREE_QUARTER)).isEqualTo(1);
+            assertThat(project.getTotals().getSheets(Material.HALF)).isZero();
+        }
+    }
+
+    @Nested
+    class Incremental {
+        @Test
+        void testRemoveRestoresTotalsExactly() {
+            Project project = Project.create();
+            project.addAll(kitchen(50));
+            Project.Totals before = project.getTotals();
+            CabinetBox cabinetBox = standard();
+
+            project.add(cabinetBox);
+            assertThat(project.getTotals()).isNotEqualTo(before);
+            assertThat(project.remove(cabinetBox)).isTrue();
+
+            assertThat(project.getTotals()).isEqualTo(before);
+            assertThat(project.size()).isEqualTo(50);
+        }
+
+        @Test
+        void testRemoveUnknownCabinet() {
+            Project project = Project.create();
+            project.add(standard());
+
+            assertThat(project.remove(standard())).isFalse();
+            assertThat(project.size()).isEqualTo(1);
+        }
+
+        @Test
+        void testCabinetAddedTwiceIsRemovedOnce() {
+            Project project = Project.create();
+            CabinetBox cabinetBox = standard();
+            project.add(cabinetBox);
+            Project.Totals once = project.getTotals();
+            project.addAll(List.of(cabinetBox));
+
+            assertThat(project.remove(cabinetBox)).isTrue();
+            assertThat(project.getTotals()).isEqualTo(once).isEqualTo(project.recompute());
+            assertThat(project.size()).isOne();
+            assertThat(project.remove(cabinetBox)).isTrue();
+            assertThat(project.remove(cabinetBox)).isFalse();
+            assertThat(project.size()).isZero();
+        }
+
+        @Test
+        void testIncrementalTotalsMatchRecompute() {
+            Project project = Project.create();
+            List<CabinetBox> kitchen = kitchen(200);
+            kitchen.forEach(project::add);
+            project.remove(kitchen.get(17));
+            project.remove(kitchen.get(150));
+
+            assertThat(project.getTotals()).isEqualTo(project.recompute());
+        }
+    }
+
+    @Test
+    void testParallelTotalsMatchSequential() {
+        List<CabinetBox> cabinetBoxes = kitchen(Project.SPLIT_THRESHOLD * 10 + 7);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Project parallel = Project.create(pool, 96, 48);
+            Project sequential = Project.create(pool, 96, 48);
+
+            parallel.addAll(cabinetBoxes);
+            cabinetBoxes.forEach(sequential::add);
+
+            assertThat(parallel.getTotals()).isEqualTo(sequential.getTotals());
+            assertThat(parallel.size()).isEqualTo(cabinetBoxes.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testRejectsNonPositiveSheet() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> Project.create(ForkJoinPool.commonPool(), 0, 48));
+    }
+}
@@ -0,0 +1,134 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+class RunnerCatalogSnapshotTest implements WithAssertions {
+    private static final String CATALOG = String.join("\n",
+            "- {sku: A15, max_load: 100, min_drawer_side_thickness: 0.5, " +
+                    "max_drawer_side_thickness: 0.625, drawer_length: 15, min_cabinet_depth: " +
+                    "15.8125, min_top_clearance: 0.28125, bottom_clearance: 0.625, " +
+                    "interior_offset: 0.8125}",
+            "- {sku: Tandem-21°, max_load: 170, min_drawer_side_thickness: 0.625, " +
+                    "max_drawer_side_thickness: 0.75, drawer_length: 21, min_cabinet_depth: " +
+                    "21.8125, min_top_clearance: 0.28125, bottom_clearance: 0.625, " +
+                    "interior_offset: 0.8125}");
+
+    @TempDir
+    Path directory;
+
+    private static List<RunnerConfiguration> runners(String document) throws IOException {
+        return RunnerCatalog.parse(document.getBytes(StandardCharsets.UTF_8), false)
+                .getRunners();
+    }
+
+    private byte[] resource(String name) throws IOException {
+        try (InputStream input = RunnerCatalogSnapshotTest.class.getResourceAsStream(name)) {
+            assertThat(input).as(name).isNotNull();
+            return input.readAllBytes();
+        }
+    }
+
+    @Nested
+    class Encoding {
+        @Test
+        void testRoundTrip() throws IOException {
+            List<RunnerConfiguration> runners = runners(CATALOG);
+
+            RunnerCatalog decoded = RunnerCatalogSnapshot.decode(
+                    RunnerCatalogSnapshot.encode(runners, 42), 42).orElseThrow();
+
+            assertThat(decoded.getRunners()).usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(runners);
+        }
+
+        @Test
+        void testStaleFingerprintIsRejected() throws IOException {
+            ByteBuffer snapshot = RunnerCatalogSnapshot.encode(runners(CATALOG), 42);
+
+            assertThat(RunnerCatalogSnapshot.decode(snapshot, 43)).isEmpty();
+        }
+
+        @Test
+        void testCorruptSnapshotIsRejected() throws IOException {
+            ByteBuffer snapshot = RunnerCatalogSnapshot.encode(runners(CATALOG), 42);
+
+            assertThat(RunnerCatalogSnapshot.decode(snapshot.duplicate().limit(60), 42)).isEmpty();
+            assertThat(RunnerCatalogSnapshot.decode(ByteBuffer.wrap(new byte[64]), 42)).isEmpty();
+            ByteBuffer wrongVersion = snapshot.duplicate();
+            wrongVersion.put(4, (byte) 2);
+            assertThat(RunnerCatalogSnapshot.decode(wrongVersion, 42)).isEmpty();
+        }
+
+        @Test
+        void testBundledSnapshotIsCompiledFromBundledCatalog() throws IOException {
+            byte[] snapshot = resource(RunnerCatalogSnapshot.DEFAULT_RESOURCE);
+            byte[] document = resource(RunnerCatalog.DEFAULT_RESOURCE);
+
+            assertThat(RunnerCatalogSnapshot.decode(ByteBuffer.wrap(snapshot),
+                    RunnerCatalogSnapshot.fingerprint(document))).as(
+                    "run MainClass --compile-runners after editing %s",
+                    RunnerCatalog.DEFAULT_RESOURCE).isPresent();
+        }
+    }
+
+    @Nested
+    class Paths {
+        @Test
+        void testCompileThenLoad() throws IOException {
+            Path source = Files.writeString(directory.resolve("runners.yaml"), CATALOG);
+            Path snapshot = directory.resolve("runners.bin");
+
+            RunnerCatalogSnapshot.compile(source, snapshot);
+
+            assertThat(RunnerCatalogSnapshot.load(snapshot, source).getRunners())
+                    .usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(
+                            runners(CATALOG));
+        }
+
+        @Test
+        void testLoadUsesFreshSnapshot() throws IOException {
+            Path source = Files.writeString(directory.resolve("runners.yaml"), CATALOG);
+            Path snapshot = directory.resolve("runners.bin");
+            List<RunnerConfiguration> other = runners(CATALOG.substring(0, CATALOG.indexOf('\n')));
+            ByteBuffer encoded = RunnerCatalogSnapshot.encode(other,
+                    RunnerCatalogSnapshot.fingerprint(Files.readAllBytes(source)));
+            Files.write(snapshot, Arrays.copyOf(encoded.array(), encoded.limit()));
+
+            assertThat(RunnerCatalogSnapshot.load(snapshot, source).size()).isOne();
+        }
+
+        @Test
+        void testLoadFallsBackWhenSourceChanged() throws IOException {
+            Path source = Files.writeString(directory.resolve("runners.yaml"),
+                    CATALOG.substring(0, CATALOG.indexOf('\n')));
+            Path snapshot = directory.resolve("runners.bin");
+            RunnerCatalogSnapshot.compile(source, snapshot);
+
+            Files.writeString(source, CATALOG);
+
+            assertThat(RunnerCatalogSnapshot.load(snapshot, source).size()).isEqualTo(2);
+        }
+
+        @Test
+        void testLoadWithoutSnapshotReadsJson() throws IOException {
+            Path source = Files.writeString(directory.resolve("runners.json"),
+                    "[{\"sku\": \"A15\", \"max_load\": 100, \"min_drawer_side_thickness\": 0.5, " +
+                            "\"max_drawer_side_thickness\": 0.625, \"drawer_length\": 15, " +
+                            "\"min_cabinet_depth\": 15.8125, \"min_top_clearance\": 0.28125, " +
+                            "\"bottom_clearance\": 0.625, \"interior_offset\": 0.8125}]");
+
+            assertThat(RunnerCatalogSnapshot.load(directory.resolve("missing.bin"), source)
+                    .getRunners()).extracting(RunnerConfiguration::getSku).containsExactly("A15");
+        }
+    }
+}
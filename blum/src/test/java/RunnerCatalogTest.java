@@ -0,0 +1,111 @@
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+class RunnerCatalogTest implements WithAssertions {
+
+    private static final String CATALOG = String.join("\n",
+            "- {sku: A15, max_load: 100, min_drawer_side_thickness: 0.5, " +
+                    "max_drawer_side_thickness: 0.625, drawer_length: 15, min_cabinet_depth: " +
+                    "15.8125, min_top_clearance: 0.28125, bottom_clearance: 0.625, " +
+                    "interior_offset: 0.8125}",
+            "- {sku: A18, max_load: 100, min_drawer_side_thickness: 0.5, " +
+                    "max_drawer_side_thickness: 0.625, drawer_length: 18, min_cabinet_depth: " +
+                    "18.8125, min_top_clearance: 0.28125, bottom_clearance: 0.625, " +
+                    "interior_offset: 0.8125}",
+            "- {sku: H18, max_load: 170, min_drawer_side_thickness: 0.5, " +
+                    "max_drawer_side_thickness: 0.625, drawer_length: 18, min_cabinet_depth: " +
+                    "18.8125, min_top_clearance: 0.28125, bottom_clearance: 0.625, " +
+                    "interior_offset: 0.8125}",
+            "- {sku: T21, max_load: 100, min_drawer_side_thickness: 0.625, " +
+                    "max_drawer_side_thickness: 0.75, drawer_length: 21, min_cabinet_depth: " +
+                    "21.8125, min_top_clearance: 0.28125, bottom_clearance: 0.625, " +
+                    "interior_offset: 0.8125}");
+
+    private RunnerCatalog catalog;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.catalog = RunnerCatalog.load(
+                new ByteArrayInputStream(CATALOG.getBytes(StandardCharsets.UTF_8)),
+                new YAMLFactory());
+    }
+
+    @Test
+    void testBundledCatalogLoads() {
+        RunnerCatalog bundled = RunnerCatalog.load();
+
+        assertThat(bundled.getRunners()).extracting(RunnerConfiguration::getSku).contains(
+                "7694570M");
+    }
+
+    @Test
+    void testLoadReadsEveryRunner() {
+        assertThat(catalog.size()).isEqualTo(4);
+    }
+
+    @Test
+    void testNonListDocumentIsRejected() {
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> RunnerCatalog.load(
+                new ByteArrayInputStream("sku: A15".getBytes(StandardCharsets.UTF_8)),
+                new YAMLFactory()));
+    }
+
+    @Nested
+    class FindTest {
+        @Test
+        void testFindExcludesRunnersTooLongForCabinet() {
+            assertThat(catalog.find(18, 0.625, 75)).extracting(
+                    RunnerConfiguration::getSku).containsExactly("A15");
+        }
+
+        @Test
+        void testFindReturnsDeepestRunnerFirst() {
+            assertThat(catalog.find(24, 0.5, 0)).extracting(
+                    RunnerConfiguration::getSku).startsWith("H18").containsOnly("A15", "A18",
+                    "H18");
+        }
+
+        @Test
+        void testFindFiltersByLoad() {
+            assertThat(catalog.find(24, 0.625, 150)).extracting(
+                    RunnerConfiguration::getSku).containsExactly("H18");
+        }
+
+        @Test
+        void testFindFiltersBySideThickness() {
+            assertThat(catalog.find(24, 0.75, 0)).extracting(
+                    RunnerConfiguration::getSku).containsExactly("T21");
+        }
+
+        @Test
+        void testFindBestIsEmptyWhenNothingFits() {
+            assertThat(catalog.findBest(10, 0.625, 0)).isEmpty();
+        }
+
+        @Test
+        void testFindBestMatchesFirstFound() {
+            assertThat(catalog.findBest(20, 0.625, 75)).map(RunnerConfiguration::getSku)
+                    .contains(catalog.find(20, 0.625, 75).get(0).getSku());
+        }
+    }
+
+    @Test
+    void testGetByDrawerLength() {
+        assertThat(catalog.getByDrawerLength(18)).extracting(
+                RunnerConfiguration::getSku).containsExactlyInAnyOrder("A18", "H18");
+        assertThat(catalog.getByDrawerLength(12)).isEmpty();
+    }
+
+    @Test
+    void testGetByMinLoad() {
+        assertThat(catalog.getByMinLoad(101)).extracting(
+                RunnerConfiguration::getSku).containsExactly("H18");
+    }
+}
@@ -0,0 +1,280 @@
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+class ShardCoordinatorTest implements WithAssertions {
+    private final List<ShardWorker> workers = new ArrayList<>();
+    private final StringWriter output = new StringWriter();
+    private final StringWriter errors = new StringWriter();
+
+    @AfterEach
+    void tearDown() {
+        workers.forEach(ShardWorker::stop);
+    }
+
+    private static String orders(int count) {
+        StringBuilder input = new StringBuilder("width,height,depth\n");
+        for (int i = 0; i < count; i++) {
+            if (i % 97 == 0) {
+                input.append("1,30,12\n");
+            } else if (i % 89 == 0) {
+                input.append("{\"width\": 24, \"height\": 30, \"depth\": 12, ")
+                        .append("\"side_material\": \"HALF\"}\n");
+            } else {
+                input.append(12 + i % 30).append(".125,").append(30 + i % 7).append(",")
+                        .append(12 + i % 13).append(".5\n");
+            }
+        }
+        return input.toString();
+    }
+
+    private InetSocketAddress startWorker() throws IOException {
+        ShardWorker worker = ShardWorker.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        worker.start();
+        workers.add(worker);
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), worker.getPort());
+    }
+
+    /**
+     * Starts a worker that accepts a single connection, reads the start of the first shard, and
+     * then dies
+     */
+    private static InetSocketAddress startFailingWorker() throws IOException {
+        ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().start(() -> {
+            try (serverSocket; Socket socket = serverSocket.accept()) {
+                new DataInputStream(socket.getInputStream()).readInt();
+            } catch (IOException e) {
+                // the test is over
+            }
+        });
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                serverSocket.getLocalPort());
+    }
+
+    /**
+     * Starts a worker that accepts a single connection and answers the first shard with
+     * <code>reply</code>, given the shard id
+     */
+    private static InetSocketAddress startCorruptWorker(Reply reply) throws IOException {
+        ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().start(() -> {
+            try (serverSocket; Socket socket = serverSocket.accept()) {
+                int shardId = new DataInputStream(socket.getInputStream()).readInt();
+                reply.write(new DataOutputStream(socket.getOutputStream()), shardId);
+            } catch (IOException | InterruptedException e) {
+                // the test is over
+            }
+        });
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                serverSocket.getLocalPort());
+    }
+
+    @FunctionalInterface
+    private interface Reply {
+        void write(DataOutputStream output, int shardId) throws IOException, InterruptedException;
+    }
+
+    private static String batch(String input, StringWriter batchErrors) throws IOException {
+        StringWriter batchOutput = new StringWriter();
+        ListeningExecutorService executorService = MoreExecutors.listeningDecorator(
+                Executors.newSingleThreadExecutor());
+        try {
+            new BatchClient(executorService, 1).run(new BufferedReader(new StringReader(input)),
+                    batchOutput, batchErrors);
+        } finally {
+            executorService.shutdown();
+        }
+        return batchOutput.toString();
+    }
+
+    private BatchClient.Summary run(List<InetSocketAddress> addresses, String input,
+            int shardSize) throws IOException {
+        return ShardCoordinator.create(addresses, shardSize, ShardCoordinator.DEFAULT_MAX_ATTEMPTS,
+                10_000).run(new BufferedReader(new StringReader(input)), output, errors);
+    }
+
+    @Nested
+    class Merge {
+        @Test
+        void testMatchesBatchClient() throws IOException {
+            String input = orders(1000);
+            StringWriter batchErrors = new StringWriter();
+            String expected = batch(input, batchErrors);
+
+            BatchClient.Summary summary = run(List.of(startWorker(), startWorker(), startWorker()),
+                    input, 37);
+
+            assertThat(output.toString()).isEqualTo(expected);
+            assertThat(errors.toString()).isEqualTo(batchErrors.toString());
+            assertThat(summary.getAccepted() + summary.getRejected()).isEqualTo(1000);
+            assertThat(summary.getRejected()).isEqualTo(11);
+        }
+
+        @Test
+        void testEmptyInput() throws IOException {
+            BatchClient.Summary summary = run(List.of(startWorker()), "", 10);
+
+            assertThat(output.toString()).isEmpty();
+            assertThat(summary.getAccepted()).isZero();
+        }
+
+        @Test
+        void testCreateRejectsNoWorkers() {
+            assertThatThrownBy(() -> ShardCoordinator.create(List.of())).isInstanceOf(
+                    IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    class Failures {
+        @Test
+        void testShardOfFailedWorkerIsRetried() throws IOException {
+            String input = orders(500);
+            String expected = batch(input, new StringWriter());
+
+            run(List.of(startFailingWorker(), startWorker()), input, 20);
+
+            assertThat(output.toString()).isEqualTo(expected);
+        }
+
+        @Test
+        void testUnreachableWorkerIsDropped() throws IOException {
+            InetSocketAddress unreachable;
+            try (ServerSocket serverSocket = new ServerSocket(0, 1,
+                    InetAddress.getLoopbackAddress())) {
+                unreachable = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                        serverSocket.getLocalPort());
+            }
+            String input = orders(200);
+
+            StringWriter batchErrors = new StringWriter();
+            String expected = batch(input, batchErrors);
+
+            run(List.of(unreachable, startWorker()), input, 20);
+
+            assertThat(output.toString()).isEqualTo(expected);
+            assertThat(errors.toString()).startsWith(batchErrors.toString()).endsWith(
+                    "\n").contains("Dropping worker " + unreachable);
+        }
+
+        @Test
+        void testCorruptLengthDropsWorkerWithoutAllocating() throws IOException {
+            InetSocketAddress corrupt = startCorruptWorker((output, shardId) -> {
+                output.writeInt(shardId);
+                output.writeInt(0);
+                output.writeInt(0);
+                output.writeInt(Integer.MAX_VALUE);
+                output.flush();
+            });
+            String input = orders(200);
+            String expected = batch(input, new StringWriter());
+
+            run(List.of(corrupt, startWorker()), input, 20);
+
+            assertThat(output.toString()).isEqualTo(expected);
+            assertThat(errors.toString()).contains("Dropping worker " + corrupt);
+        }
+
+        @Test
+        void testWorkerAnsweringTooSlowlyFailsTheBatch() throws IOException {
+            InetSocketAddress slow = startCorruptWorker((output, shardId) -> {
+                output.writeInt(shardId);
+                output.writeInt(1);
+                output.writeInt(0);
+                output.writeInt(1000);
+                for (int i = 0; i < 1000; i++) {
+                    output.write('x');
+                    output.flush();
+                    Thread.sleep(50);
+                }
+            });
+
+            assertThatThrownBy(() -> ShardCoordinator.create(List.of(slow), 20, 1, 200).run(
+                    new BufferedReader(new StringReader(orders(20))), output, errors))
+                    .isInstanceOf(IOException.class).hasMessageContaining("still running");
+        }
+
+        @Test
+        void testCreateRejectsOversizedShards() {
+            assertThatIllegalArgumentException().isThrownBy(
+                    () -> ShardCoordinator.create(List.of(new InetSocketAddress(9001)),
+                            ShardWorker.MAX_SHARD_LINES + 1, 1, 0));
+        }
+
+        @Test
+        void testFailsWhenEveryWorkerFails() throws IOException {
+            List<InetSocketAddress> failing = List.of(startFailingWorker(), startFailingWorker());
+
+            assertThatThrownBy(() -> run(failing, orders(200), 20)).isInstanceOf(
+                    IOException.class);
+        }
+
+        @Test
+        void testFailureRecordsEveryDroppedWorker() throws IOException {
+            List<InetSocketAddress> unreachable = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                try (ServerSocket serverSocket = new ServerSocket(0, 1,
+                        InetAddress.getLoopbackAddress())) {
+                    unreachable.add(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                            serverSocket.getLocalPort()));
+                }
+            }
+
+            assertThatThrownBy(() -> run(unreachable, orders(200), 20)).isInstanceOf(
+                    IOException.class).hasMessageContaining("every worker failed").satisfies(
+                    e -> {
+                        assertThat(e.getCause().getCause()).isInstanceOf(IOException.class);
+                        assertThat(e.getCause().getSuppressed()).hasSize(1);
+                    });
+            assertThat(errors.toString()).isEmpty();
+        }
+    }
+
+    @Nested
+    class LocalProcesses {
+        @Test
+        void testWorkerProcessesMatchBatchClient() throws IOException {
+            String input = orders(2000);
+            try (ShardCoordinator.LocalWorkers localWorkers = ShardCoordinator.startLocalWorkers(
+                    2)) {
+                assertThat(localWorkers.getAddresses()).hasSize(2);
+
+                run(localWorkers.getAddresses(), input, 128);
+            }
+
+            assertThat(output.toString()).isEqualTo(batch(input, new StringWriter()));
+        }
+
+        @Test
+        void testKilledWorkerProcessIsDropped() throws IOException, InterruptedException {
+            String input = orders(500);
+            try (ShardCoordinator.LocalWorkers localWorkers = ShardCoordinator.startLocalWorkers(
+                    2)) {
+                localWorkers.getProcesses().get(0).destroyForcibly().waitFor();
+
+                run(localWorkers.getAddresses(), input, 50);
+            }
+
+            assertThat(output.toString()).isEqualTo(batch(input, new StringWriter()));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+class SheetNesterTest implements WithAssertions {
+
+    @Test
+    void testSinglePanelUsesOneSheet() {
+        SheetNester.Result result = SheetNester.standard().nest(
+                List.of(Cut.withNoJoinedDimensions(34.5, 21.75, Material.THREE_QUARTER)));
+
+        assertThat(result.getSheetsUsed()).isEqualTo(1);
+        assertThat(result.getSheets().get(0).getPlacements()).hasSize(1);
+    }
+
+    @Test
+    void testHalfSheetPanelsShareSheetWithoutKerf() {
+        Cut halfSheet = Cut.withNoJoinedDimensions(48, 48, Material.THREE_QUARTER);
+
+        SheetNester.Result result = SheetNester.create(96, 48, 0, ForkJoinPool.commonPool())
+                .nest(List.of(halfSheet, halfSheet));
+
+        assertThat(result.getSheetsUsed()).isEqualTo(1);
+    }
+
+    @Test
+    void testKerfIsAllowedBetweenPanels() {
+        Cut halfSheet = Cut.withNoJoinedDimensions(48, 48, Material.THREE_QUARTER);
+
+        SheetNester.Result result = SheetNester.standard().nest(List.of(halfSheet, halfSheet));
+
+        assertThat(result.getSheetsUsed()).isEqualTo(2);
+    }
+
+    @Test
+    void testPanelsAreGroupedByMaterial() {
+        SheetNester.Result result = SheetNester.standard().nest(
+                List.of(Cut.withNoJoinedDimensions(10, 10, Material.THREE_QUARTER),
+                        Cut.withNoJoinedDimensions(10, 10, Material.QUARTER)));
+
+        assertThat(result.getSheetsUsed(Material.THREE_QUARTER)).isEqualTo(1);
+        assertThat(result.getSheetsUsed(Material.QUARTER)).isEqualTo(1);
+        assertThat(result.getSheetsUsed(Material.HALF)).isZero();
+    }
+
+    @Test
+    void testPanelLargerThanSheetIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> SheetNester.standard().nest(
+                List.of(Cut.withNoJoinedDimensions(100, 10,
+                        Material.THREE_QUARTER)))).withMessageContaining(
+                "Expected Cut to fit on a 96.0x48.0 sheet");
+    }
+
+    @Test
+    void testKitchenJobPlacementsStayOnSheetAndDoNotOverlap() {
+        List<Cut> cuts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            CabinetBox cabinetBox = new CabinetBox(Material.THREE_QUARTER, Material.QUARTER,
+                    12 + i % 13 * 3, 34.5, 24);
+            cuts.add(cabinetBox.getSide());
+            cuts.add(cabinetBox.getSide());
+            cuts.add(cabinetBox.getBottom());
+            cuts.add(cabinetBox.getBack());
+            cuts.add(cabinetBox.getRunner());
+        }
+
+        SheetNester.Result result = SheetNester.standard().nest(cuts);
+
+        assertThat(result.getSheets().stream().mapToInt(
+                sheet -> sheet.getPlacements().size()).sum()).isEqualTo(cuts.size());
+        for (SheetNester.Sheet sheet : result.getSheets()) {
+            List<SheetNester.Placement> placements = sheet.getPlacements();
+            for (int i = 0; i < placements.size(); i++) {
+                SheetNester.Placement a = placements.get(i);
+                assertThat(a.getX() + a.getLength()).isLessThanOrEqualTo(96);
+                assertThat(a.getY() + a.getWidth()).isLessThanOrEqualTo(48);
+                for (int j = i + 1; j < placements.size(); j++) {
+                    SheetNester.Placement b = placements.get(j);
+                    boolean separated = a.getX() + a.getLength() <= b.getX() || b.getX() + b
+                            .getLength() <= a.getX() || a.getY() + a.getWidth() <= b.getY() || b
+                            .getY() + b.getWidth() <= a.getY();
+                    assertThat(separated).isTrue();
+                }
+            }
+        }
+    }
+}